@@ -0,0 +1,367 @@
+package paypal.payflow;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer of the Logger when SDKProperties.isLogAsync() is set.
+ * Logging threads publish messages into a bounded ring buffer without taking a
+ * lock; a single writer thread formats them in batches and appends them to the
+ * log file through a FileChannel. What happens when the buffer is full is set by
+ * SDKProperties.setLogOverflowPolicy(). The buffer is written out when the JVM
+ * shuts down.
+ * <p>
+ * Each slot carries a sequence number: a slot is free for the producer that
+ * claims position p when its sequence is p, and holds a message for the writer
+ * when its sequence is p + 1.
+ * </p>
+ */
+final class AsyncLogWriter implements Runnable {
+
+    /**
+     * Longest time the writer sleeps while the buffer is empty.
+     */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Time a blocked logging thread waits before trying the buffer again.
+     */
+    private static final long FULL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Longest time the shutdown hook waits for the buffer to be written.
+     */
+    private static final long SHUTDOWN_MILLIS = 5000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Logger mLogger;
+
+    private final int mMask;
+
+    private final AtomicLongArray mSequences;
+
+    private final String[] mMessages;
+
+    private final int[] mLevels;
+
+    private final long[] mTimes;
+
+    /**
+     * Next position claimed by a producer.
+     */
+    private final AtomicLong mTail = new AtomicLong();
+
+    /**
+     * Messages dropped by the overflow policy since the last batch.
+     */
+    private final AtomicLong mDropped = new AtomicLong();
+
+    /**
+     * Next position read by the writer.
+     */
+    private volatile long mHead;
+
+    private volatile boolean mParked;
+
+    private volatile boolean mClosed;
+
+    private final Thread mThread;
+
+    // The fields below are only used by the writer thread.
+
+    private final SimpleDateFormat mDateFormat = new SimpleDateFormat("yyyy-MM-dd H:mm:ss z");
+
+    private long mDateSecond = Long.MIN_VALUE;
+
+    private String mDate;
+
+    private final StringBuilder mBatch = new StringBuilder(BUFFER_SIZE);
+
+    private final CharsetEncoder mEncoder = Charset.defaultCharset().newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private final ByteBuffer mBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private FileChannel mChannel;
+
+    private long mLength;
+
+    private boolean mFailed;
+
+    /**
+     * @param logger   Logger
+     * @param capacity int number of messages the buffer holds, rounded up to a power of two.
+     */
+    AsyncLogWriter(Logger logger, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mLogger = logger;
+        mMask = size - 1;
+        mSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            mSequences.set(i, i);
+        }
+        mMessages = new String[size];
+        mLevels = new int[size];
+        mTimes = new long[size];
+        mThread = new Thread(this, "payflow-log-writer");
+        mThread.setDaemon(true);
+    }
+
+    /**
+     * Starts the writer thread and registers the shutdown hook that flushes the buffer.
+     */
+    void start() {
+        mThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "payflow-log-shutdown"));
+    }
+
+    /**
+     * Publishes a message. When the buffer is full the overflow policy decides
+     * whether the caller waits or the message is dropped.
+     *
+     * @param message     String
+     * @param severityLvl int
+     * @param time        long time the message was logged
+     * @return false if the writer is closed and the caller must write the message itself.
+     */
+    boolean publish(String message, int severityLvl, long time) {
+        if (mClosed) {
+            return false;
+        }
+        while (!offer(message, severityLvl, time)) {
+            if (mClosed) {
+                return false;
+            }
+            int policy = SDKProperties.getLogOverflowPolicy();
+            if (policy == PayflowConstants.LOG_OVERFLOW_DROP_ALL
+                    || (policy == PayflowConstants.LOG_OVERFLOW_DROP_DEBUG
+                    && severityLvl == PayflowConstants.SEVERITY_DEBUG)) {
+                mDropped.incrementAndGet();
+                return true;
+            }
+            LockSupport.unpark(mThread);
+            LockSupport.parkNanos(this, FULL_NANOS);
+        }
+        if (mParked) {
+            LockSupport.unpark(mThread);
+        }
+        return true;
+    }
+
+    /**
+     * Waits until the messages published before the call are written.
+     */
+    void flush() {
+        long target = mTail.get();
+        while (mHead < target && mThread.isAlive()) {
+            LockSupport.unpark(mThread);
+            LockSupport.parkNanos(this, FULL_NANOS);
+        }
+    }
+
+    /**
+     * Stops the writer after it has written the buffer. Run by the shutdown hook.
+     */
+    void close() {
+        mClosed = true;
+        LockSupport.unpark(mThread);
+        try {
+            mThread.join(SHUTDOWN_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writer thread.
+     */
+    public void run() {
+        try {
+            while (true) {
+                if (drain() == 0) {
+                    if (mClosed) {
+                        // a last pass for producers that saw the writer still open.
+                        Thread.yield();
+                        if (drain() == 0) {
+                            break;
+                        }
+                        continue;
+                    }
+                    mParked = true;
+                    if (isEmpty()) {
+                        LockSupport.parkNanos(this, IDLE_NANOS);
+                    }
+                    mParked = false;
+                }
+            }
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * @param message     String
+     * @param severityLvl int
+     * @param time        long
+     * @return false if the buffer is full.
+     */
+    private boolean offer(String message, int severityLvl, long time) {
+        long position = mTail.get();
+        while (true) {
+            int slot = (int) position & mMask;
+            long difference = mSequences.get(slot) - position;
+            if (difference == 0) {
+                if (mTail.compareAndSet(position, position + 1)) {
+                    mMessages[slot] = message;
+                    mLevels[slot] = severityLvl;
+                    mTimes[slot] = time;
+                    mSequences.set(slot, position + 1);
+                    return true;
+                }
+                position = mTail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = mTail.get();
+            }
+        }
+    }
+
+    /**
+     * @return true if the writer has nothing to read.
+     */
+    private boolean isEmpty() {
+        long head = mHead;
+        return mSequences.get((int) head & mMask) != head + 1;
+    }
+
+    /**
+     * Formats the messages in the buffer into a batch and writes it. A batch ends
+     * where the log file would grow past SDKProperties.getMaxLogFileSize(), so the
+     * file is archived between batches.
+     *
+     * @return number of messages read.
+     */
+    private int drain() {
+        int count = 0;
+        long head = mHead;
+        long maxLength = SDKProperties.getMaxLogFileSize();
+        mBatch.setLength(0);
+        long dropped = mDropped.getAndSet(0);
+        if (dropped > 0) {
+            appendLine(System.currentTimeMillis(), PayflowConstants.SEVERITY_WARN,
+                    "paypal.payflow.Logger : " + dropped + " messages dropped, the log queue was full.");
+        }
+        while (mBatch.length() < BUFFER_SIZE && (count == 0 || mLength + mBatch.length() <= maxLength)) {
+            int slot = (int) head & mMask;
+            if (mSequences.get(slot) != head + 1) {
+                break;
+            }
+            appendLine(mTimes[slot], mLevels[slot], mMessages[slot]);
+            mMessages[slot] = null;
+            mSequences.set(slot, head + mMask + 1);
+            head++;
+            count++;
+        }
+        if (mBatch.length() > 0) {
+            write();
+        }
+        mHead = head;
+        return count;
+    }
+
+    /**
+     * Formats a line as Logger.log() does.
+     *
+     * @param time        long
+     * @param severityLvl int
+     * @param message     String
+     */
+    private void appendLine(long time, int severityLvl, String message) {
+        long second = Math.floorDiv(time, 1000L);
+        if (second != mDateSecond) {
+            mDate = mDateFormat.format(new Date(time));
+            mDateSecond = second;
+        }
+        mBatch.append(mDate).append(':').append(Logger.getLevelName(severityLvl)).append(':')
+                .append(message).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Appends the batch to the log file, archiving the file once it is larger
+     * than SDKProperties.getMaxLogFileSize().
+     */
+    private void write() {
+        if (mFailed) {
+            return;
+        }
+        try {
+            if (mChannel == null) {
+                mChannel = FileChannel.open(Paths.get(SDKProperties.getLogFileName()),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                mLength = mChannel.size();
+            }
+            CharBuffer chars = CharBuffer.wrap(mBatch);
+            mEncoder.reset();
+            CoderResult result;
+            do {
+                result = mEncoder.encode(chars, mBuffer, true);
+                if (result.isOverflow()) {
+                    writeBuffer();
+                }
+            } while (result.isOverflow());
+            while (mEncoder.flush(mBuffer).isOverflow()) {
+                writeBuffer();
+            }
+            writeBuffer();
+            if (mLength > SDKProperties.getMaxLogFileSize()) {
+                closeChannel();
+                Logger.archiveLogFile(SDKProperties.getLogFileName());
+            }
+        } catch (IOException ex) {
+            mFailed = true;
+            closeChannel();
+            mLogger.disableLogging(ex);
+        }
+    }
+
+    /**
+     * @throws IOException Exception
+     */
+    private void writeBuffer() throws IOException {
+        mBuffer.flip();
+        while (mBuffer.hasRemaining()) {
+            mLength += mChannel.write(mBuffer);
+        }
+        mBuffer.clear();
+    }
+
+    private void closeChannel() {
+        if (mChannel != null) {
+            try {
+                mChannel.close();
+            } catch (IOException ex) {
+                // the log file is reopened for the next batch.
+            }
+            mChannel = null;
+        }
+    }
+}
@@ -3,19 +3,62 @@ package paypal.payflow;
 
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 
 /**
  * This class contains all error messages generated for the class containing
  * the context.This also contains the highest severity level contained by the
  * context.
+ * <p>
+ * Errors are kept in a double-ended array, as addError() puts an error in front
+ * of the others and addErrors() after them. The highest severity level is kept
+ * as errors are added, duplicates are found through a hash set, and message
+ * bodies are populated from the Logger once per error, when the errors are
+ * first read. Nothing is allocated until the first error is added.
+ * </p>
  */
 public final class Context {
 
     /**
-     * Holds the collection of error objects for the context instance.
+     * Initial capacity of the error array, a power of two.
      */
-    private ArrayList mErrorObjects = new ArrayList();
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Holds the error objects for the context instance, null until the first error.
+     */
+    private ErrorObject[] mErrorObjects;
+
+    /**
+     * Marks the error objects whose details are not populated yet.
+     */
+    private boolean[] mPending;
+
+    /**
+     * Index of the first error in mErrorObjects.
+     */
+    private int mHead;
+
+    /**
+     * Number of errors in the context.
+     */
+    private int mErrorCount;
+
+    /**
+     * Number of errors whose details are not populated yet.
+     */
+    private int mPendingCount;
+
+    /**
+     * The errors an equal error is looked up in, null until one is added.
+     */
+    private HashSet mErrorSet;
+
+    /**
+     * The errors as returned by getErrors(), null after a change.
+     */
+    private ArrayList mErrorList;
 
     /**
      * Indicates the highest severity level error in the array list.
@@ -40,17 +83,6 @@ public final class Context {
      * @return highestErrorLvl int
      */
     public int getHighestErrorLvl() {
-        int errCnt;
-        int errMaxCnt;
-        int errSeverityLevel;
-
-        errMaxCnt = mErrorObjects.size();
-        for (errCnt = 0; errCnt < errMaxCnt; errCnt++) {
-            errSeverityLevel = ((ErrorObject) mErrorObjects.get(errCnt)).getSeverityLevel();
-            if (mHighestErrorLvl < errSeverityLevel) {
-                mHighestErrorLvl = errSeverityLevel;
-            }
-        }
         return mHighestErrorLvl;
     }
 
@@ -75,20 +107,13 @@ public final class Context {
     }
 
     /**
-     * This method adds the passed error object in the array list contained by
-     * the context object
+     * This method adds the passed error object in front of the errors contained
+     * by the context object
      *
      * @param errObject ErrorObject
      */
     protected void addError(ErrorObject errObject) {
-
-        if (mErrorObjects == null) {
-            mErrorObjects = new ArrayList();
-        }
-        if (!mErrorObjects.contains(errObject)) {
-            mErrorObjects.add(0, errObject);
-        }
-
+        add(errObject, true);
     }
 
     /**
@@ -98,17 +123,9 @@ public final class Context {
      * @param errorObjects ArrayList
      */
     protected void addErrors(ArrayList errorObjects) {
-
-        if (mErrorObjects == null) {
-            mErrorObjects = new ArrayList();
-        }
         Iterator iter = errorObjects.iterator();
-        ErrorObject err;
         while (iter.hasNext()) {
-            err = (ErrorObject) iter.next();
-            if (!mErrorObjects.contains(err)) {
-                mErrorObjects.add(err);
-            }
+            add((ErrorObject) iter.next(), false);
         }
     }
 
@@ -122,15 +139,9 @@ public final class Context {
 
         boolean retVal;
         try {
-            int errCnt = 0;
-            Logger instance;
-            ArrayList populatedErr;
             if (mErrorObjects != null) {
-                instance = Logger.getInstance();
-                populatedErr = instance.populateErrorDetails(mErrorObjects);
-                mErrorObjects.clear();
-                mErrorObjects.addAll(errCnt, populatedErr);
-                instance.log(mErrorObjects);
+                populatePending();
+                Logger.getInstance().log(getErrorList());
             }
             retVal = true;
         } catch (Exception ex) {
@@ -146,14 +157,7 @@ public final class Context {
      * @return errorContained boolean
      */
     public boolean isErrorContained() {
-
-        boolean retVal = false;
-        if (mErrorObjects != null) {
-            if (mErrorObjects.size() > 0)
-                retVal = true;
-        }
-
-        return retVal;
+        return mErrorCount > 0;
     }
 
     /**
@@ -166,18 +170,15 @@ public final class Context {
     protected boolean isCommunicationErrorContained(ErrorObject error) {
 
         boolean retFlag = false;
-        if (isErrorContained()) {
-            ErrorObject err;
-
-            for (int i = 0; i <= mErrorObjects.size() - 1; i++) {
-                err = (ErrorObject) mErrorObjects.get(i);
-                if (err != null && err.getMessageCode().equals(error.getMessageCode())) {
-                    if (err.getMessageParams() != null && error.getMessageParams() != null) {
-                        if (err.getMessageParams().get(0).equals(error.getMessageParams().get(0))) {
-                            retFlag = true;
-                        }
-                    }
-                    //return false;
+        ErrorObject err;
+
+        for (int i = 0; i < mErrorCount && !retFlag; i++) {
+            err = errorAt(i);
+            if (err != null && err.getMessageCode().equals(error.getMessageCode())) {
+                // only the result codes are compared, the messages are not rendered.
+                String resultCode = err.getMessageParam(0);
+                if (resultCode != null && resultCode.equals(error.getMessageParam(0))) {
+                    retFlag = true;
                 }
             }
         }
@@ -196,8 +197,8 @@ public final class Context {
 
         ErrorObject errObject = null;
         populateErrors();
-        if (index < mErrorObjects.size()) {
-            errObject = (ErrorObject) mErrorObjects.get(index);
+        if (index >= 0 && index < mErrorCount) {
+            errObject = errorAt(index);
         }
 
         return errObject;
@@ -205,14 +206,26 @@ public final class Context {
 
     /**
      * This method returns the array list populated with all the error contained
-     * in the context
+     * in the context. Each call returns a new list: it is not changed by errors
+     * added later, and changing it does not change the context.
      *
      * @return mErrorObjects ArrayList
      */
     public ArrayList getErrors() {
 
         populateErrors();
-        return mErrorObjects;
+        return new ArrayList(getErrorList());
+    }
+
+    /**
+     * Returns the errors as getErrors() does without copying them, for SDK code
+     * that only reads the list.
+     *
+     * @return the errors in order ArrayList, shared between calls: must not be changed.
+     */
+    ArrayList getErrorsReadOnly() {
+        populateErrors();
+        return getErrorList();
     }
 
 
@@ -226,14 +239,11 @@ public final class Context {
      */
     public ArrayList getErrors(int sevLvl) {
         ArrayList highSevErrors = new ArrayList();
-        int errMaxCount;
         int errCnt;
         populateErrors();
-        errMaxCount = mErrorObjects.size();
-        for (errCnt = 0; errCnt < errMaxCount; errCnt++) {
-            if (((ErrorObject) mErrorObjects.get(errCnt)).getSeverityLevel() >=
-                    sevLvl) {
-                highSevErrors.add(mErrorObjects.get(errCnt));
+        for (errCnt = 0; errCnt < mErrorCount; errCnt++) {
+            if (errorAt(errCnt).getSeverityLevel() >= sevLvl) {
+                highSevErrors.add(errorAt(errCnt));
             }
         }
         return highSevErrors;
@@ -246,40 +256,160 @@ public final class Context {
      * @return errorCOunt int
      */
     public int getErrorCount() {
-        int errorCount = 0;
-        if (mErrorObjects != null) {
-            errorCount = mErrorObjects.size();
+        return mErrorCount;
+    }
+
+    /**
+     * Adds an error unless an equal one is contained already.
+     *
+     * @param errObject ErrorObject
+     * @param first     boolean true to put the error in front of the others.
+     */
+    private void add(ErrorObject errObject, boolean first) {
+        boolean comparable = isComparable(errObject);
+        if (comparable && mErrorSet != null && mErrorSet.contains(errObject)) {
+            return;
+        }
+        if (mErrorObjects == null) {
+            mErrorObjects = new ErrorObject[INITIAL_CAPACITY];
+            mPending = new boolean[INITIAL_CAPACITY];
+        } else if (mErrorCount == mErrorObjects.length) {
+            grow();
+        }
+        int mask = mErrorObjects.length - 1;
+        int slot;
+        if (first) {
+            mHead = (mHead - 1) & mask;
+            slot = mHead;
+        } else {
+            slot = (mHead + mErrorCount) & mask;
+        }
+        mErrorObjects[slot] = errObject;
+        mErrorCount++;
+        if (errObject != null) {
+            // errors with a message code get their details from the Logger.
+            String msgCode = errObject.getMessageCode();
+            mPending[slot] = msgCode == null || msgCode.length() != 0;
+            if (mPending[slot]) {
+                mPendingCount++;
+            }
+            if (mHighestErrorLvl < errObject.getSeverityLevel()) {
+                mHighestErrorLvl = errObject.getSeverityLevel();
+            }
+        }
+        if (comparable) {
+            if (mErrorSet == null) {
+                mErrorSet = new HashSet();
+            }
+            mErrorSet.add(errObject);
         }
-        return errorCount;
+        mErrorList = null;
     }
 
     /**
-     * This method will populate all the error objects contained in the arraylist with
+     * Doubles the error array, moving the first error to index 0.
+     */
+    private void grow() {
+        int capacity = mErrorObjects.length;
+        ErrorObject[] errorObjects = new ErrorObject[capacity * 2];
+        boolean[] pending = new boolean[capacity * 2];
+        int headLength = capacity - mHead;
+        System.arraycopy(mErrorObjects, mHead, errorObjects, 0, headLength);
+        System.arraycopy(mErrorObjects, 0, errorObjects, headLength, mHead);
+        System.arraycopy(mPending, mHead, pending, 0, headLength);
+        System.arraycopy(mPending, 0, pending, headLength, mHead);
+        mErrorObjects = errorObjects;
+        mPending = pending;
+        mHead = 0;
+    }
+
+    /**
+     * @param index int
+     * @return error at the index ErrorObject
+     */
+    private ErrorObject errorAt(int index) {
+        return mErrorObjects[(mHead + index) & (mErrorObjects.length - 1)];
+    }
+
+    /**
+     * ErrorObject.equals() is false unless the message code, body and params
+     * are set, so only such errors can be duplicates.
+     *
+     * @param errObject ErrorObject
+     * @return true if the error can equal another.
+     */
+    private static boolean isComparable(ErrorObject errObject) {
+        return errObject != null && errObject.getMessageCode() != null && errObject.getMessageBody() != null
+                && errObject.getMessageParams() != null;
+    }
+
+    /**
+     * @return the errors in order ArrayList
+     */
+    private ArrayList getErrorList() {
+        if (mErrorList == null) {
+            ArrayList errorList = new ArrayList(mErrorCount);
+            for (int i = 0; i < mErrorCount; i++) {
+                errorList.add(errorAt(i));
+            }
+            mErrorList = errorList;
+        }
+        return mErrorList;
+    }
+
+    /**
+     * This method will populate all the error objects contained in the context with
      * details such as the severity level and message body.It uses 'PopulateErrorDetails'
-     * method of the Logger class.
+     * method of the Logger class. Errors are populated once.
      */
     private void populateErrors() {
-        int errCnt = 0;
-        Logger instance;
-        ArrayList populatedErr;
-        if (mErrorObjects != null) {
-            instance = Logger.getInstance();
-            populatedErr = instance.populateErrorDetails(mErrorObjects);
-            if (getLoadLoggerErrs()) {
-                //PopulatedErr.AddRange (Instance.GetLoggerErrs);
-                //Check for duplicate Logger errors
-                ArrayList tempList = instance.getLoggerErrs();
-                if (tempList != null) {
-                    for (int i = 0; i < tempList.size(); i++) {
-                        if (!populatedErr.contains(tempList.get(i))) {
-                            populatedErr.add(tempList.get(i));
-                        }
-                    }
+        populatePending();
+        if (getLoadLoggerErrs()) {
+            //Check for duplicate Logger errors
+            ArrayList tempList = Logger.getInstance().getLoggerErrs();
+            if (tempList != null) {
+                for (int i = 0; i < tempList.size(); i++) {
+                    add((ErrorObject) tempList.get(i), false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Populates the errors added since the last call.
+     */
+    private void populatePending() {
+        if (mPendingCount == 0) {
+            return;
+        }
+        Logger instance = Logger.getInstance();
+        int mask = mErrorObjects.length - 1;
+        for (int i = 0; i < mErrorCount; i++) {
+            int slot = (mHead + i) & mask;
+            if (mPending[slot]) {
+                ErrorObject errObject = instance.populateErrorDetails(mErrorObjects[slot]);
+                mErrorObjects[slot] = errObject;
+                mPending[slot] = false;
+                if (mHighestErrorLvl < errObject.getSeverityLevel()) {
+                    mHighestErrorLvl = errObject.getSeverityLevel();
                 }
             }
-            mErrorObjects.clear();
-            mErrorObjects.addAll(errCnt, populatedErr);
         }
+        mPendingCount = 0;
+        // the populated errors are what later errors are compared with.
+        if (mErrorSet != null) {
+            mErrorSet.clear();
+        }
+        for (int i = 0; i < mErrorCount; i++) {
+            ErrorObject errObject = errorAt(i);
+            if (isComparable(errObject)) {
+                if (mErrorSet == null) {
+                    mErrorSet = new HashSet();
+                }
+                mErrorSet.add(errObject);
+            }
+        }
+        mErrorList = null;
     }
 
 
@@ -299,9 +429,9 @@ public final class Context {
         ErrorObject err;
 
         populateErrors();
-        errMaxCount = mErrorObjects.size();
+        errMaxCount = mErrorCount;
         for (errCount = 0; errCount < errMaxCount; errCount++) {
-            err = (ErrorObject) mErrorObjects.get(errCount);
+            err = errorAt(errCount);
             if (null != err) {
                 if (errMaxCount > 0) {
                     retVal.append(PayflowConstants.FORMAT_MSG_SEPERATOR);
@@ -368,9 +498,19 @@ public final class Context {
     public void clearErrors() {
 
         if (mErrorObjects != null) {
-            mErrorObjects.clear();
-            mHighestErrorLvl = 0;
+            for (int i = 0; i < mErrorObjects.length; i++) {
+                mErrorObjects[i] = null;
+                mPending[i] = false;
+            }
+        }
+        if (mErrorSet != null) {
+            mErrorSet.clear();
         }
+        mHead = 0;
+        mErrorCount = 0;
+        mPendingCount = 0;
+        mErrorList = null;
+        mHighestErrorLvl = 0;
 
     }
 
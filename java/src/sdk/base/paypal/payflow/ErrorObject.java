@@ -39,6 +39,31 @@ public final class ErrorObject {
      */
     private String mMsgBody;
 
+    /**
+     * Holds the precompiled message body, if it was populated from the Logger.
+     */
+    private MessageTemplate mTemplate;
+
+    /**
+     * Holds the formatted message once toString() has been called.
+     */
+    private String mFormattedMessage;
+
+    /**
+     * Holds the parts of a communication error message until its params are read:
+     * the result code, the message, the additional message and the exception whose
+     * stack trace is appended to the message.
+     */
+    private boolean mCommError;
+
+    private String mResultCode;
+
+    private String mMessage;
+
+    private String mAddlMessage;
+
+    private Throwable mTraceSource;
+
     /**
      * Return the message body for the error.
      *
@@ -82,9 +107,53 @@ public final class ErrorObject {
      * @return messageParams ArrayList
      */
     public ArrayList getMessageParams() {
+        if (mMsgCodeParams == null && mCommError) {
+            ArrayList msgCodeParams = new ArrayList(2);
+            msgCodeParams.add(mResultCode);
+            msgCodeParams.add(renderMessage());
+            mMsgCodeParams = msgCodeParams;
+        }
         return mMsgCodeParams;
     }
 
+    /**
+     * Return a message param without rendering the others.
+     *
+     * @param index int
+     * @return messageParam String, null if there is no such param.
+     */
+    String getMessageParam(int index) {
+        if (mMsgCodeParams == null && mCommError && index == 0) {
+            return mResultCode;
+        }
+        ArrayList msgCodeParams = getMessageParams();
+        if (msgCodeParams == null || index >= msgCodeParams.size()) {
+            return null;
+        }
+        return (String) msgCodeParams.get(index);
+    }
+
+    /**
+     * Renders the message param of a communication error.
+     *
+     * @return message String
+     */
+    private String renderMessage() {
+        StringBuilder message = new StringBuilder();
+        message.append(mMessage);
+        if (mAddlMessage != null && mAddlMessage.length() > 0) {
+            message.append(' ').append(mAddlMessage);
+        }
+        if (mTraceSource != null) {
+            message.append(' ');
+            StackTraceElement[] stackTrace = mTraceSource.getStackTrace();
+            for (int i = 0; i < stackTrace.length; i++) {
+                message.append('\n').append(stackTrace[i]);
+            }
+        }
+        return message.toString();
+    }
+
     /**
      * This function formats the error message by filling the place holders with the
      * context parameters
@@ -92,15 +161,30 @@ public final class ErrorObject {
      * @return formattedMessage String
      */
     public String toString() {
+        if (mFormattedMessage == null) {
+            mFormattedMessage = formatMessage();
+        }
+        return mFormattedMessage;
+    }
+
+    /**
+     * @return formattedMessage String
+     */
+    private String formatMessage() {
         String formattedMessage;
-        if (mMsgCodeParams != null) {
-            String[] msgParams = new String[mMsgCodeParams.size()];
-            for (int i = 0; i <= mMsgCodeParams.size() - 1; i++) {
-                msgParams[i] = (String) mMsgCodeParams.get(i);
+        ArrayList msgCodeParams = getMessageParams();
+        if (msgCodeParams != null) {
+            String[] msgParams = new String[msgCodeParams.size()];
+            for (int i = 0; i <= msgCodeParams.size() - 1; i++) {
+                msgParams[i] = (String) msgCodeParams.get(i);
             }
 
             try {
-                formattedMessage = PayflowUtility.format(mMsgBody, msgParams);
+                if (mTemplate != null) {
+                    formattedMessage = mTemplate.format(msgParams);
+                } else {
+                    formattedMessage = PayflowUtility.format(mMsgBody, msgParams);
+                }
             } catch (Exception Ex) {
                 String StackTrace = PayflowConstants.EMPTY_STRING;
                 //PayflowUtility.initStackTraceOn();
@@ -163,21 +247,55 @@ public final class ErrorObject {
         this.mStackTrace = stackTrace;
     }
 
+    /**
+     * Used for populating error message templates from the Message xml file.
+     *
+     * @param severity int
+     * @param msgCode  String
+     * @param template MessageTemplate
+     */
+    protected ErrorObject(int severity, String msgCode, MessageTemplate template) {
+        this(severity, msgCode, template.getPattern());
+        this.mTemplate = template;
+    }
+
     /**
      * Used for copying the error object in the logger class.
      *
      * @param severity      int
-     * @param msgCode       String
-     * @param msgBody       String
+     * @param message       ErrorObject message the code, body and template are copied from.
      * @param msgCodeParams String[]
      * @param stackTrace    String
      */
-    protected ErrorObject(int severity, String msgCode, String msgBody, String[] msgCodeParams, String stackTrace) {
-        this(severity, msgCode, msgCodeParams);
-        this.mMsgBody = msgBody;
+    protected ErrorObject(int severity, ErrorObject message, String[] msgCodeParams, String stackTrace) {
+        this(severity, message.mMsgCode, msgCodeParams);
+        this.mMsgBody = message.mMsgBody;
+        this.mTemplate = message.mTemplate;
         this.mStackTrace = stackTrace;
     }
 
+    /**
+     * Used for communication errors. The message param is rendered when the
+     * params are first read.
+     *
+     * @param severity    int
+     * @param msgCode     String
+     * @param resultCode  String
+     * @param message     String
+     * @param addlMessage String
+     * @param traceSource Throwable whose stack trace is appended, or null.
+     */
+    ErrorObject(int severity, String msgCode, String resultCode, String message, String addlMessage,
+                Throwable traceSource) {
+        this.mSeverity = severity;
+        this.mMsgCode = msgCode;
+        this.mCommError = true;
+        this.mResultCode = resultCode;
+        this.mMessage = message;
+        this.mAddlMessage = addlMessage;
+        this.mTraceSource = traceSource;
+    }
+
     /**
      * Used for Exception objects without any message code.
      *
@@ -219,11 +337,24 @@ public final class ErrorObject {
             err = (ErrorObject) obj;
             isEqual = (null != this.mMsgCode && this.mMsgCode.equals(err.mMsgCode))
                     && (null != this.mMsgBody && this.mMsgBody.equals(err.mMsgBody))
-                    && (null != this.mMsgCodeParams && this.mMsgCodeParams.equals(err.mMsgCodeParams))
+                    && (null != this.getMessageParams() && this.mMsgCodeParams.equals(err.getMessageParams()))
                     && this.mSeverity == err.mSeverity;
         }
         return isEqual;
     }
 
+    /**
+     * returns a hash code consistent with equals(Object).
+     *
+     * @return hashCode int
+     */
+    public int hashCode() {
+        int hash = mSeverity;
+        hash = 31 * hash + (mMsgCode == null ? 0 : mMsgCode.hashCode());
+        hash = 31 * hash + (mMsgBody == null ? 0 : mMsgBody.hashCode());
+        hash = 31 * hash + (getMessageParams() == null ? 0 : mMsgCodeParams.hashCode());
+        return hash;
+    }
+
 
 }
\ No newline at end of file
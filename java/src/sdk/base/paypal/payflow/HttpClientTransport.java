@@ -0,0 +1,247 @@
+package paypal.payflow;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Transport on java.net.http.HttpClient. The client manages its own connection
+ * pool and keep-alive and sends requests asynchronously; one client is kept per
+ * proxy configuration.
+ * <p>
+ * To use it: SDKProperties.setPaymentTransport(new HttpClientTransport());
+ * </p>
+ * <p>
+ * HttpClient does not send Basic credentials to a proxy when tunneling HTTPS unless
+ * the JVM is started with -Djdk.http.auth.tunneling.disabledSchemes="" (by default
+ * Basic is disabled). A proxy logon is refused without it.
+ * </p>
+ */
+public final class HttpClientTransport implements PaymentTransport {
+
+    /**
+     * Clients by pool key.
+     */
+    private final ConcurrentHashMap mClients = new ConcurrentHashMap();
+
+    /**
+     * Connect timeout of the clients; the timeout of each transaction is set on its request.
+     */
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(PayflowConstants.DEFAULT_TIMEOUT);
+
+    /**
+     * Opens a channel. No I/O happens until the request is sent.
+     *
+     * @param endpoint TransportEndpoint
+     * @param timeout  int
+     * @return TransportChannel
+     * @throws IOException Exception
+     */
+    public TransportChannel open(TransportEndpoint endpoint, int timeout) throws IOException {
+        if (endpoint.getProxyLogon() != null && !isBasicTunnelingEnabled()) {
+            throw new IOException("HttpClientTransport cannot authenticate to the proxy: start the JVM with"
+                    + " -Djdk.http.auth.tunneling.disabledSchemes=\"\" or use the default transport");
+        }
+        return new Channel(getClient(endpoint), endpoint);
+    }
+
+    /**
+     * @return true if HttpClient may send Basic credentials to a proxy for an HTTPS tunnel.
+     */
+    private static boolean isBasicTunnelingEnabled() {
+        String disabledSchemes = System.getProperty("jdk.http.auth.tunneling.disabledSchemes");
+        return disabledSchemes != null && disabledSchemes.toLowerCase().indexOf("basic") < 0;
+    }
+
+    /**
+     * @param endpoint TransportEndpoint
+     * @return HttpClient
+     * @throws IOException Exception
+     */
+    private HttpClient getClient(TransportEndpoint endpoint) throws IOException {
+        String key = endpoint.getPoolKey();
+        HttpClient client = (HttpClient) mClients.get(key);
+        if (client == null) {
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(CONNECT_TIMEOUT);
+            try {
+                builder.sslContext(SSLContextHolder.getContext());
+            } catch (GeneralSecurityException ex) {
+                throw new IOException(ex);
+            }
+            if (endpoint.getProxyHost() != null) {
+                builder.proxy(ProxySelector.of(new InetSocketAddress(endpoint.getProxyHost(), endpoint.getProxyPort())));
+                if (endpoint.getProxyLogon() != null) {
+                    final PasswordAuthentication credentials = new PasswordAuthentication(endpoint.getProxyLogon(),
+                            endpoint.getProxyPassword() == null ? new char[0] : endpoint.getProxyPassword().toCharArray());
+                    builder.authenticator(new Authenticator() {
+                        protected PasswordAuthentication getPasswordAuthentication() {
+                            return getRequestorType() == RequestorType.PROXY ? credentials : null;
+                        }
+                    });
+                }
+            }
+            HttpClient created = builder.build();
+            client = (HttpClient) mClients.putIfAbsent(key, created);
+            if (client == null) {
+                client = created;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Collects the response body, failing once it exceeds SDKProperties.getMaxResponseSize().
+     */
+    private static final class BoundedBody implements HttpResponse.BodySubscriber<byte[]> {
+        private final CompletableFuture<byte[]> mBody = new CompletableFuture<byte[]>();
+        private final ArrayList mBuffers = new ArrayList();
+        private final long mContentLength;
+        private long mSize;
+        private Flow.Subscription mSubscription;
+
+        BoundedBody(HttpResponse.ResponseInfo info) {
+            mContentLength = info.headers().firstValueAsLong("Content-Length").orElse(-1L);
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            mSubscription = subscription;
+            try {
+                ResponseReader.checkSize(mContentLength);
+                subscription.request(Long.MAX_VALUE);
+            } catch (IOException ex) {
+                subscription.cancel();
+                mBody.completeExceptionally(ex);
+            }
+        }
+
+        public void onNext(List<ByteBuffer> items) {
+            for (int i = 0; i < items.size(); i++) {
+                ByteBuffer item = items.get(i);
+                mSize += item.remaining();
+                mBuffers.add(item);
+            }
+            try {
+                ResponseReader.checkSize(mSize);
+            } catch (IOException ex) {
+                mSubscription.cancel();
+                mBuffers.clear();
+                mBody.completeExceptionally(ex);
+            }
+        }
+
+        public void onError(Throwable throwable) {
+            mBuffers.clear();
+            mBody.completeExceptionally(throwable);
+        }
+
+        public void onComplete() {
+            byte[] body = new byte[(int) mSize];
+            int offset = 0;
+            for (int i = 0; i < mBuffers.size(); i++) {
+                ByteBuffer item = (ByteBuffer) mBuffers.get(i);
+                int length = item.remaining();
+                item.get(body, offset, length);
+                offset += length;
+            }
+            mBuffers.clear();
+            mBody.complete(body);
+        }
+
+        public CompletionStage<byte[]> getBody() {
+            return mBody;
+        }
+    }
+
+    /**
+     * Exchange driven by HttpClient.sendAsync().
+     */
+    private static final class Channel implements TransportChannel {
+        private final HttpClient mClient;
+        private final TransportEndpoint mEndpoint;
+        private volatile CompletableFuture<HttpResponse<byte[]>> mResponseFuture;
+        private HttpResponse<byte[]> mResponse;
+
+        Channel(HttpClient client, TransportEndpoint endpoint) {
+            mClient = client;
+            mEndpoint = endpoint;
+        }
+
+        public void send(Map headers, byte[] body, int timeout) throws IOException {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(mEndpoint.toString() + mEndpoint.getPath()))
+                    .timeout(Duration.ofMillis(timeout))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+            Iterator iter = headers.entrySet().iterator();
+            while (iter.hasNext()) {
+                Map.Entry header = (Map.Entry) iter.next();
+                String name = (String) header.getKey();
+                // Connection management headers are owned by HttpClient.
+                if (!"Connection".equalsIgnoreCase(name) && !"Keep-Alive".equalsIgnoreCase(name)) {
+                    builder.header(name, (String) header.getValue());
+                }
+            }
+            mResponseFuture = mClient.sendAsync(builder.build(), info -> new BoundedBody(info));
+        }
+
+        public byte[] receive(int timeout) throws IOException {
+            try {
+                mResponse = mResponseFuture.get(timeout, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                mResponseFuture.cancel(true);
+                throw new HttpTimeoutException("Timed out waiting for response");
+            } catch (InterruptedException ex) {
+                mResponseFuture.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for response");
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause);
+            }
+            if (mResponse.statusCode() >= 400) {
+                throw new IOException("Server returned HTTP response code: " + mResponse.statusCode());
+            }
+            return mResponse.body();
+        }
+
+        public String getResponseHeader(String name) {
+            return mResponse == null ? null : mResponse.headers().firstValue(name).orElse(null);
+        }
+
+        public CompletableFuture<?> getResponseReady() {
+            return mResponseFuture;
+        }
+
+        public void close() {
+            CompletableFuture<HttpResponse<byte[]>> future = mResponseFuture;
+            if (future != null && !future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+}
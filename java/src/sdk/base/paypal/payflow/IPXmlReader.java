@@ -3,7 +3,6 @@ package paypal.payflow;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
-import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.StringReader;
 import java.util.HashMap;
 
@@ -30,11 +29,7 @@ class IPXmlReader {
 
         StringReader xmlStringReader = new StringReader(xmlString);
         InputSource xmlInputSource = new InputSource(xmlStringReader);
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        // getLocalName() returns null unless namespace-aware — PayflowUtility.getXmlAttribute()
-        // calls getLocalName() and NPEs without this, breaking XMLPay request detection.
-        factory.setNamespaceAware(true);
-        this.xmlDocumentElement = factory.newDocumentBuilder().parse(xmlInputSource);
+        this.xmlDocumentElement = XmlParserProvider.parse(xmlInputSource, true);
 
         Logger.getInstance().log("paypal.payflow.IPXmlReader.IPXmlReader(String) : Exiting", PayflowConstants.SEVERITY_DEBUG);
     }
@@ -0,0 +1,120 @@
+package paypal.payflow;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Transport that answers every request in memory, without any network I/O.
+ * Used to exercise the state machine, request building and response parsing,
+ * e.g. in load tests.
+ * <p>
+ * Usage:
+ * <pre>
+ *   SDKProperties.setPaymentTransport(new InMemoryTransport(request -&gt; "RESULT=0&amp;RESPMSG=Approved"));
+ * </pre>
+ * </p>
+ */
+public final class InMemoryTransport implements PaymentTransport {
+
+    /**
+     * Default response: an approved transaction.
+     */
+    public static final String APPROVED_RESPONSE = "RESULT=0&PNREF=VXXX00000000&RESPMSG=Approved&AUTHCODE=000000";
+
+    private final Function<String, String> mResponder;
+    private volatile long mLatency;
+    private final AtomicLong mRequestCount = new AtomicLong();
+
+    /**
+     * Constructor. Every request is approved.
+     */
+    public InMemoryTransport() {
+        this(request -> APPROVED_RESPONSE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param responder Function mapping the request string to the response string
+     */
+    public InMemoryTransport(Function<String, String> responder) {
+        mResponder = responder;
+    }
+
+    /**
+     * Sets a simulated server latency.
+     *
+     * @param latency long milliseconds to wait before each response
+     */
+    public void setLatency(long latency) {
+        mLatency = latency;
+    }
+
+    /**
+     * @return number of requests answered.
+     */
+    public long getRequestCount() {
+        return mRequestCount.get();
+    }
+
+    /**
+     * @param endpoint TransportEndpoint
+     * @param timeout  int
+     * @return TransportChannel
+     */
+    public TransportChannel open(TransportEndpoint endpoint, int timeout) {
+        return new Channel();
+    }
+
+    /**
+     * In-memory exchange.
+     */
+    private final class Channel implements TransportChannel {
+        private byte[] mRequest;
+        private Map mResponseHeaders = Collections.EMPTY_MAP;
+
+        public void send(Map headers, byte[] body, int timeout) {
+            mRequest = body;
+        }
+
+        public byte[] receive(int timeout) throws IOException {
+            long latency = mLatency;
+            if (latency > 0) {
+                if (latency > timeout) {
+                    throw new SocketTimeoutException("Read timed out");
+                }
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for response");
+                }
+            }
+            String response = mResponder.apply(new String(mRequest, StandardCharsets.UTF_8));
+            mRequestCount.incrementAndGet();
+            if (response == null) {
+                response = PayflowConstants.EMPTY_STRING;
+            }
+            HashMap headers = new HashMap();
+            headers.put("content-type", response.startsWith("<") ? PayflowConstants.XML_CONTENT_TYPE
+                    : PayflowConstants.NV_CONTENT_TYPE);
+            mResponseHeaders = headers;
+            return response.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public String getResponseHeader(String name) {
+            return (String) mResponseHeaders.get(name.toLowerCase());
+        }
+
+        public void close() {
+            mRequest = null;
+        }
+    }
+}
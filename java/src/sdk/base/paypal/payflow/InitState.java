@@ -24,6 +24,18 @@ abstract class InitState extends PaymentState {
         Logger.getInstance().log("paypal.payflow.InitState.InitState(PaymentConnection, String, Context) : Exiting", PayflowConstants.SEVERITY_DEBUG);
     }
 
+    /**
+     * @param connection           PaymentConnection
+     * @param initialParameterList String
+     * @param psmContext           Context
+     * @param xmlPayDescriptor     XmlPayRequestDescriptor
+     * @throws Exception Exception
+     */
+    InitState(PaymentConnection connection, String initialParameterList, Context psmContext,
+              XmlPayRequestDescriptor xmlPayDescriptor) throws Exception {
+        super(connection, initialParameterList, psmContext, xmlPayDescriptor);
+    }
+
     /**
      * Copy Constructor for InitState.
      *
@@ -59,7 +71,7 @@ abstract class InitState extends PaymentState {
                 isConnected = mConnection.connectToServer(getServerFile());
             } catch (Exception Ex) {
                 Logger.getInstance().log("paypal.payflow.InitState.Execute(): Following Error occurred While Initializing Connection.", PayflowConstants.SEVERITY_ERROR);
-                Logger.getInstance().log("paypal.payflow.InitState.Execute(): Exception " + Ex.toString(), PayflowConstants.SEVERITY_ERROR);
+                Logger.getInstance().log("paypal.payflow.InitState.Execute(): Exception ", Ex, PayflowConstants.SEVERITY_ERROR);
                 isConnected = false;
             } finally {
                 if (isConnected) {
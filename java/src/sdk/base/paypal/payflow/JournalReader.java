@@ -0,0 +1,197 @@
+package paypal.payflow;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Reads the records of a transaction journal (SDKProperties.setJournalDirectory())
+ * in the order they were written. The journal may be read while transactions
+ * are appended to it: a record is returned once it is complete.
+ * <p>
+ * From the command line:
+ * </p>
+ * <pre>
+ * java paypal.payflow.JournalReader &lt;directory&gt; [--request-id id] [--trx-type type]
+ *      [--result n] [--failed] [--from time] [--to time] [--full]
+ * </pre>
+ * prints the matching records, one per line, followed by their count. Times are
+ * written as yyyy-MM-dd or yyyy-MM-dd HH:mm:ss; --full also prints the masked
+ * request and the response.
+ */
+public final class JournalReader implements Closeable {
+
+    private static final String[] TIME_FORMATS = {"yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd"};
+
+    private final File[] mSegments;
+
+    private int mNextSegment;
+
+    private MappedByteBuffer mSegment;
+
+    /**
+     * @param directory String journal directory
+     * @throws IOException if the directory cannot be read.
+     */
+    public JournalReader(String directory) throws IOException {
+        File[] segments = new File(directory).listFiles((dir, name) -> TransactionJournal.getSegmentNumber(name) > 0);
+        if (segments == null) {
+            throw new IOException("Cannot read journal directory " + directory);
+        }
+        Arrays.sort(segments, Comparator.comparingLong((File file) -> TransactionJournal.getSegmentNumber(file.getName())));
+        mSegments = segments;
+    }
+
+    /**
+     * @return the next record, null once all records were read.
+     * @throws IOException if a segment cannot be read.
+     */
+    public JournalRecord next() throws IOException {
+        while (true) {
+            if (mSegment != null) {
+                JournalRecord record = JournalRecord.decode(mSegment);
+                if (record != null) {
+                    return record;
+                }
+                mSegment = null;
+            }
+            if (mNextSegment == mSegments.length) {
+                return null;
+            }
+            mSegment = open(mSegments[mNextSegment++]);
+        }
+    }
+
+    /**
+     * Releases the current segment.
+     */
+    public void close() {
+        mSegment = null;
+        mNextSegment = mSegments.length;
+    }
+
+    /**
+     * @param file File
+     * @return the segment positioned at its first record, null if the file is not a journal segment.
+     * @throws IOException if the file cannot be read.
+     */
+    private static MappedByteBuffer open(File file) throws IOException {
+        try (RandomAccessFile segmentFile = new RandomAccessFile(file, "r")) {
+            long length = segmentFile.length();
+            if (length < TransactionJournal.HEADER_SIZE || length > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer segment = segmentFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (segment.getInt() != TransactionJournal.MAGIC || segment.getInt() != TransactionJournal.VERSION) {
+                return null;
+            }
+            segment.position(TransactionJournal.HEADER_SIZE);
+            return segment;
+        }
+    }
+
+    /**
+     * Prints the records of a journal directory that match the filters.
+     *
+     * @param args String[]
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            printUsage();
+            return;
+        }
+        String requestId = null;
+        String trxType = null;
+        Integer result = null;
+        boolean failed = false;
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        boolean full = false;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                String option = args[i];
+                if ("--failed".equals(option)) {
+                    failed = true;
+                } else if ("--full".equals(option)) {
+                    full = true;
+                } else if (i + 1 == args.length) {
+                    printUsage();
+                    return;
+                } else if ("--request-id".equals(option)) {
+                    requestId = args[++i];
+                } else if ("--trx-type".equals(option)) {
+                    trxType = args[++i];
+                } else if ("--result".equals(option)) {
+                    result = Integer.valueOf(args[++i]);
+                } else if ("--from".equals(option)) {
+                    from = parseTime(args[++i]);
+                } else if ("--to".equals(option)) {
+                    to = parseTime(args[++i]);
+                } else {
+                    printUsage();
+                    return;
+                }
+            }
+        } catch (NumberFormatException | ParseException ex) {
+            System.out.println("Invalid argument: " + ex.getMessage());
+            printUsage();
+            return;
+        }
+
+        int count = 0;
+        try (JournalReader reader = new JournalReader(args[0])) {
+            JournalRecord record;
+            while ((record = reader.next()) != null) {
+                if ((requestId != null && !requestId.equals(record.getRequestId()))
+                        || (trxType != null && !trxType.equalsIgnoreCase(record.getTrxType()))
+                        || (result != null && result.intValue() != record.getResult())
+                        || (failed && record.getResult() == 0)
+                        || record.getTime() < from || record.getTime() >= to) {
+                    continue;
+                }
+                count++;
+                System.out.println(record);
+                if (full) {
+                    System.out.println("  Request = " + record.getRequest());
+                    System.out.println("  Response = " + record.getResponse());
+                }
+            }
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+            return;
+        }
+        System.out.println(count + " records");
+    }
+
+    /**
+     * @param time String
+     * @return milliseconds since the epoch.
+     * @throws ParseException if the time matches none of the formats.
+     */
+    private static long parseTime(String time) throws ParseException {
+        for (int i = 0; i < TIME_FORMATS.length; i++) {
+            SimpleDateFormat format = new SimpleDateFormat(TIME_FORMATS[i]);
+            format.setLenient(false);
+            try {
+                return format.parse(time).getTime();
+            } catch (ParseException ex) {
+                // try the next format.
+            }
+        }
+        throw new ParseException(time, 0);
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage:\n"
+                + "java paypal.payflow.JournalReader <directory> [--request-id id] [--trx-type type] [--result n]"
+                + " [--failed] [--from time] [--to time] [--full]\n"
+                + "Times are written as yyyy-MM-dd or yyyy-MM-dd HH:mm:ss.");
+    }
+}
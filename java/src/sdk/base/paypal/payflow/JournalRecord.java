@@ -0,0 +1,260 @@
+package paypal.payflow;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.zip.CRC32;
+
+/**
+ * A transaction written to the transaction journal (SDKProperties.setJournalDirectory()).
+ * <p>
+ * A record is stored as its length followed by: time, RESULT, the phase timings,
+ * request id, transaction type, masked request, response, and a CRC32 of the
+ * fields. Strings are written as their UTF-8 length (-1 for null) and bytes.
+ * </p>
+ * {@link JournalReader}
+ */
+public final class JournalRecord {
+
+    /**
+     * RESULT of a record whose response holds no RESULT.
+     */
+    public static final int NO_RESULT = Integer.MIN_VALUE;
+
+    /**
+     * Validating the request and preparing the transaction.
+     */
+    public static final int PHASE_PREPARE = 0;
+    /**
+     * Connecting to the server, reconnects included.
+     */
+    public static final int PHASE_CONNECT = 1;
+    /**
+     * Sending the request.
+     */
+    public static final int PHASE_SEND = 2;
+    /**
+     * Receiving the response.
+     */
+    public static final int PHASE_RECEIVE = 3;
+    /**
+     * Retrying the transaction.
+     */
+    public static final int PHASE_RETRY = 4;
+    /**
+     * The whole transaction, from PayflowAPI.submitTransaction() to its response.
+     */
+    public static final int PHASE_TOTAL = 5;
+
+    static final int PHASE_COUNT = 6;
+
+    private static final String[] PHASE_NAMES = {"prepare", "connect", "send", "receive", "retry", "total"};
+
+    private final long mTime;
+
+    private final String mRequestId;
+
+    private final String mTrxType;
+
+    private final String mRequest;
+
+    private final String mResponse;
+
+    private final int mResult;
+
+    private final int[] mPhaseMicros;
+
+    /**
+     * @param time        long
+     * @param requestId   String
+     * @param trxType     String
+     * @param request     String masked request
+     * @param response    String
+     * @param result      int
+     * @param phaseMicros int[] timings by phase
+     */
+    JournalRecord(long time, String requestId, String trxType, String request, String response, int result,
+                  int[] phaseMicros) {
+        mTime = time;
+        mRequestId = requestId;
+        mTrxType = trxType;
+        mRequest = request;
+        mResponse = response;
+        mResult = result;
+        mPhaseMicros = phaseMicros;
+    }
+
+    /**
+     * @return time the transaction was submitted, in milliseconds since the epoch.
+     */
+    public long getTime() {
+        return mTime;
+    }
+
+    /**
+     * @return request id String
+     */
+    public String getRequestId() {
+        return mRequestId;
+    }
+
+    /**
+     * @return TRXTYPE of a name value pair request, the transaction element of
+     * an XMLPay request, null if not found.
+     */
+    public String getTrxType() {
+        return mTrxType;
+    }
+
+    /**
+     * @return masked request String
+     */
+    public String getRequest() {
+        return mRequest;
+    }
+
+    /**
+     * @return response String
+     */
+    public String getResponse() {
+        return mResponse;
+    }
+
+    /**
+     * @return RESULT of the response, NO_RESULT if it holds none.
+     */
+    public int getResult() {
+        return mResult;
+    }
+
+    /**
+     * @param phase int one of the PHASE_ constants
+     * @return time spent in the phase, in microseconds.
+     */
+    public int getPhaseMicros(int phase) {
+        return phase < mPhaseMicros.length ? mPhaseMicros[phase] : 0;
+    }
+
+    /**
+     * @param phase int one of the PHASE_ constants
+     * @return name of the phase String
+     */
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    /**
+     * Encodes the record, length first.
+     *
+     * @return record bytes byte[]
+     */
+    byte[] encode() {
+        byte[] requestId = toBytes(mRequestId);
+        byte[] trxType = toBytes(mTrxType);
+        byte[] request = toBytes(mRequest);
+        byte[] response = toBytes(mResponse);
+        int length = 8 + 4 + 1 + 4 * mPhaseMicros.length + 16 + lengthOf(requestId) + lengthOf(trxType)
+                + lengthOf(request) + lengthOf(response) + 4;
+        ByteBuffer buffer = ByteBuffer.allocate(4 + length);
+        buffer.putInt(length);
+        buffer.putLong(mTime);
+        buffer.putInt(mResult);
+        buffer.put((byte) mPhaseMicros.length);
+        for (int i = 0; i < mPhaseMicros.length; i++) {
+            buffer.putInt(mPhaseMicros[i]);
+        }
+        putBytes(buffer, requestId);
+        putBytes(buffer, trxType);
+        putBytes(buffer, request);
+        putBytes(buffer, response);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 4, length - 4);
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the record at the position of the buffer and moves past it.
+     *
+     * @param buffer ByteBuffer
+     * @return the record, null if there is no complete record at the position.
+     */
+    static JournalRecord decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < 4) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.remaining() - 4) {
+            return null;
+        }
+        ByteBuffer fields = buffer.duplicate();
+        fields.position(start + 4).limit(start + 4 + length);
+        CRC32 crc = new CRC32();
+        ByteBuffer checked = fields.duplicate();
+        checked.limit(checked.limit() - 4);
+        crc.update(checked);
+        if ((int) crc.getValue() != fields.getInt(start + length)) {
+            return null;
+        }
+        try {
+            long time = fields.getLong();
+            int result = fields.getInt();
+            int[] phaseMicros = new int[fields.get() & 0xff];
+            for (int i = 0; i < phaseMicros.length; i++) {
+                phaseMicros[i] = fields.getInt();
+            }
+            String requestId = getString(fields);
+            String trxType = getString(fields);
+            String request = getString(fields);
+            String response = getString(fields);
+            buffer.position(start + 4 + length);
+            return new JournalRecord(time, requestId, trxType, request, response, result, phaseMicros);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the record on one line, without request and response.
+     */
+    public String toString() {
+        StringBuffer line = new StringBuffer();
+        line.append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS z").format(new Date(mTime)))
+                .append(" ").append(mRequestId)
+                .append(" ").append(mTrxType)
+                .append(" RESULT=").append(mResult == NO_RESULT ? "" : Integer.toString(mResult));
+        for (int i = 0; i < mPhaseMicros.length && i < PHASE_NAMES.length; i++) {
+            line.append(" ").append(PHASE_NAMES[i]).append("=").append(mPhaseMicros[i]).append("us");
+        }
+        return line.toString();
+    }
+
+    private static byte[] toBytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int lengthOf(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,234 @@
+package paypal.payflow;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archives the log file once it is larger than SDKProperties.getMaxLogFileSize().
+ * The closed log file is renamed to the next archive name, file_1.log, file_2.log, ...
+ * The next archive number is kept in memory: the log directory is only listed
+ * on the first rotation of a log file. Compressing archives
+ * (SDKProperties.setLogArchiveCompressed()) and deleting archives beyond
+ * SDKProperties.getLogRetentionCount() run on a background thread, so the
+ * logging thread only renames the file.
+ * {@link Logger}
+ */
+final class LogRotator {
+
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Log file the archive numbers below belong to, null before the first rotation.
+     */
+    private String mLogFileName;
+
+    /**
+     * Archive names are mPrefix + number + mSuffix.
+     */
+    private String mPrefix;
+
+    private String mSuffix;
+
+    private long mNextIndex;
+
+    /**
+     * Lowest archive number that may still exist.
+     */
+    private long mOldestIndex;
+
+    private ExecutorService mExecutor;
+
+    /**
+     * Renames a closed log file to the next archive name and schedules its
+     * compression and the removal of archives beyond the retention count.
+     *
+     * @param logFileName String
+     * @return true if the file was archived.
+     */
+    synchronized boolean rotate(String logFileName) {
+        if (!logFileName.equals(mLogFileName)) {
+            init(logFileName);
+        }
+        File archive = getArchive(mPrefix, mNextIndex, mSuffix);
+        // another process may log to the same file.
+        while (archive.exists() || getCompressed(archive).exists()) {
+            archive = getArchive(mPrefix, ++mNextIndex, mSuffix);
+        }
+        if (!new File(logFileName).renameTo(archive)) {
+            return false;
+        }
+        final File archived = archive;
+        final boolean compress = SDKProperties.isLogArchiveCompressed();
+        final String prefix = mPrefix;
+        final String suffix = mSuffix;
+        final long oldest = mOldestIndex;
+        int retention = SDKProperties.getLogRetentionCount();
+        final long keep = retention > 0 ? mNextIndex - retention + 1 : oldest;
+        mNextIndex++;
+        if (keep > oldest) {
+            mOldestIndex = keep;
+        }
+        if (compress || keep > oldest) {
+            execute(() -> {
+                if (compress) {
+                    compress(archived);
+                }
+                for (long i = oldest; i < keep; i++) {
+                    delete(getArchive(prefix, i, suffix));
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Lists the log directory for the archive numbers in use. Archives left
+     * uncompressed by an interrupted compression are compressed again.
+     *
+     * @param logFileName String
+     */
+    private void init(String logFileName) {
+        File logFile = new File(logFileName);
+        String name = logFile.getName();
+        int dot = name.indexOf('.');
+        dot = dot != -1 ? dot : name.length();
+        int position = logFileName.length() - name.length() + dot;
+        mLogFileName = logFileName;
+        mPrefix = logFileName.substring(0, position) + '_';
+        mSuffix = logFileName.substring(position);
+
+        String namePrefix = name.substring(0, dot) + '_';
+        String nameSuffix = name.substring(dot);
+        File directory = logFile.getAbsoluteFile().getParentFile();
+        String[] names = directory == null ? null : directory.list();
+        long lowest = Long.MAX_VALUE;
+        long highest = 0;
+        final ArrayList interrupted = new ArrayList();
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                String archive = names[i];
+                boolean compressed = archive.endsWith(nameSuffix + GZIP_SUFFIX);
+                int end = archive.length() - nameSuffix.length() - (compressed ? GZIP_SUFFIX.length() : 0);
+                if (!archive.startsWith(namePrefix) || end <= namePrefix.length()
+                        || !archive.startsWith(nameSuffix, end)) {
+                    continue;
+                }
+                long index = parseIndex(archive, namePrefix.length(), end);
+                if (index > 0) {
+                    lowest = Math.min(lowest, index);
+                    highest = Math.max(highest, index);
+                    if (compressed) {
+                        File uncompressed = new File(directory, archive.substring(0, archive.length() - GZIP_SUFFIX.length()));
+                        if (uncompressed.exists()) {
+                            interrupted.add(uncompressed);
+                        }
+                    }
+                }
+            }
+        }
+        mNextIndex = highest + 1;
+        mOldestIndex = lowest == Long.MAX_VALUE ? 1 : lowest;
+        if (!interrupted.isEmpty()) {
+            execute(() -> {
+                for (int i = 0; i < interrupted.size(); i++) {
+                    compress((File) interrupted.get(i));
+                }
+            });
+        }
+    }
+
+    /**
+     * @param name  String
+     * @param start int
+     * @param end   int
+     * @return archive number, -1 if the characters are not a number.
+     */
+    private static long parseIndex(String name, int start, int end) {
+        if (end - start > 18) {
+            return -1;
+        }
+        long index = 0;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    /**
+     * @param prefix String
+     * @param index  long
+     * @param suffix String
+     * @return archive file for the number.
+     */
+    private static File getArchive(String prefix, long index, String suffix) {
+        return new File(prefix + index + suffix);
+    }
+
+    /**
+     * @param archive File
+     * @return compressed file of the archive.
+     */
+    private static File getCompressed(File archive) {
+        return new File(archive.getPath() + GZIP_SUFFIX);
+    }
+
+    /**
+     * Replaces an archive by its gzip compressed copy. The archive is kept if
+     * compression fails.
+     *
+     * @param archive File
+     */
+    private static void compress(File archive) {
+        File compressed = getCompressed(archive);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = new FileInputStream(archive);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed), BUFFER_SIZE)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException ex) {
+            compressed.delete();
+            return;
+        }
+        archive.delete();
+    }
+
+    /**
+     * @param archive File
+     */
+    private static void delete(File archive) {
+        archive.delete();
+        getCompressed(archive).delete();
+    }
+
+    /**
+     * Runs a task on the rotation thread, started on first use.
+     *
+     * @param task Runnable
+     */
+    private void execute(Runnable task) {
+        if (mExecutor == null) {
+            mExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "payflow-log-rotator");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        mExecutor.execute(task);
+    }
+}
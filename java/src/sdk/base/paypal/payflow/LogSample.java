@@ -0,0 +1,128 @@
+package paypal.payflow;
+
+/**
+ * Holds the INFO and DEBUG messages of a transaction that was not sampled for
+ * full logging (SDKProperties.setLogSamplePercent()). When the transaction ends
+ * the messages are written if it failed, and replaced by a one-line summary
+ * otherwise. WARN and higher messages are always written as they are logged.
+ * {@link Logger}
+ */
+final class LogSample {
+
+    private final String mRequestId;
+
+    private final long mStartTime = System.currentTimeMillis();
+
+    private String[] mMessages = new String[32];
+
+    private int[] mLevels = new int[32];
+
+    private long[] mTimes = new long[32];
+
+    private int mCount;
+
+    /**
+     * @param requestId String
+     */
+    LogSample(String requestId) {
+        mRequestId = requestId;
+    }
+
+    /**
+     * Decides whether a transaction is logged in full, from its request id.
+     *
+     * @param requestId String
+     * @return true if the transaction is logged in full.
+     */
+    static boolean isSampled(String requestId) {
+        int interval = SDKProperties.getLogSampleInterval();
+        int percent = SDKProperties.getLogSamplePercent();
+        if (interval == 1 || (interval == 0 && percent >= 100)) {
+            return true;
+        }
+        // spread the request id hash, so ids that differ in a few characters land
+        // in different buckets.
+        int hash = requestId == null ? 0 : requestId.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        int bucket = hash & Integer.MAX_VALUE;
+        return interval > 0 ? bucket % interval == 0 : bucket % 100 < percent;
+    }
+
+    /**
+     * Checks the RESULT of a name value pair or XMLPay response.
+     *
+     * @param response String
+     * @return true if the response holds RESULT 0.
+     */
+    static boolean isResultZero(String response) {
+        String result = PayflowUtility.getResultValue(response);
+        return result != null && "0".equals(result.trim());
+    }
+
+    /**
+     * @param message     String
+     * @param severityLvl int
+     * @param time        long
+     */
+    synchronized void add(String message, int severityLvl, long time) {
+        if (mCount == mMessages.length) {
+            String[] messages = new String[mCount * 2];
+            int[] levels = new int[mCount * 2];
+            long[] times = new long[mCount * 2];
+            System.arraycopy(mMessages, 0, messages, 0, mCount);
+            System.arraycopy(mLevels, 0, levels, 0, mCount);
+            System.arraycopy(mTimes, 0, times, 0, mCount);
+            mMessages = messages;
+            mLevels = levels;
+            mTimes = times;
+        }
+        mMessages[mCount] = message;
+        mLevels[mCount] = severityLvl;
+        mTimes[mCount] = time;
+        mCount++;
+    }
+
+    /**
+     * @return number of messages held.
+     */
+    synchronized int size() {
+        return mCount;
+    }
+
+    /**
+     * @param index int
+     * @return message String
+     */
+    synchronized String getMessage(int index) {
+        return mMessages[index];
+    }
+
+    /**
+     * @param index int
+     * @return severity level int
+     */
+    synchronized int getLevel(int index) {
+        return mLevels[index];
+    }
+
+    /**
+     * @param index int
+     * @return time the message was logged, long
+     */
+    synchronized long getTime(int index) {
+        return mTimes[index];
+    }
+
+    /**
+     * @return the summary logged for a transaction that did not fail.
+     */
+    synchronized String getSummary() {
+        return "paypal.payflow.PayflowAPI.submitTransaction(String,String): request id : " + mRequestId
+                + ", RESULT = 0, " + (System.currentTimeMillis() - mStartTime) + " ms, "
+                + mCount + " messages not logged (sampled out)";
+    }
+}
@@ -9,9 +9,11 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.HashMap;
-import java.util.TimeZone;
+import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * This is a singleton class which can be used for logging of the messages.
@@ -31,9 +33,17 @@ public final class Logger {
     private HashMap mMessages;
 
     /**
-     * Holds the instance of this singleton class.
+     * Holds the instance of this singleton class, created on first use.
      */
-    private static Logger mInstance;
+    private static final class Holder {
+        private static final Logger INSTANCE = new Logger();
+    }
+
+    /**
+     * Guards the log file. A ReentrantLock rather than a monitor, so a virtual
+     * thread waiting for or writing the file does not pin its carrier thread.
+     */
+    private final ReentrantLock mWriteLock = new ReentrantLock();
 
     /**
      * Holds the errors generated by Logger class.
@@ -43,12 +53,28 @@ public final class Logger {
     /**
      * This flag indicates, if an error occurred because of the Logger class.
      */
-    private boolean errInLogger = false;
+    private volatile boolean errInLogger = false;
+
+    /**
+     * Writes the log from a background thread when SDKProperties.isLogAsync() is set,
+     * created on first use.
+     */
+    private volatile AsyncLogWriter mAsyncWriter;
+
+    /**
+     * Severity names padded to five characters, by severity level.
+     */
+    private static final String[] LEVEL_NAMES = {null, "Debug", "Info ", "Warn ", "Error", "Fatal"};
 
     /**
-     * This char is used in the rolling file functionality
+     * Messages of the transaction running on this thread that was not sampled for full logging.
      */
-    private static final char archiveFileSeparator = '_';
+    private static final ThreadLocal<LogSample> SAMPLE = new ThreadLocal<LogSample>();
+
+    /**
+     * Archives the log file, shared with the asynchronous writer.
+     */
+    private static final LogRotator ROTATOR = new LogRotator();
 
     /**
      * the sdf format is appended to messages.
@@ -142,10 +168,19 @@ public final class Logger {
      *
      * @return mInstance
      */
-    public synchronized static Logger getInstance() {
-        if (mInstance == null)
-            mInstance = new Logger();
-        return mInstance;
+    public static Logger getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Checks whether messages of a severity level are written to the log. Use it
+     * to skip building a message that would be discarded.
+     *
+     * @param severityLvl int
+     * @return true if the severity level is logged.
+     */
+    public static boolean isEnabled(int severityLvl) {
+        return severityLvl >= SDKProperties.getLoggingLevel() && !Holder.INSTANCE.errInLogger;
     }
 
     /**
@@ -165,7 +200,7 @@ public final class Logger {
      * @param message ErrorObject
      */
     protected void log(ErrorObject message) {
-        if (message != null) {
+        if (message != null && isLogged(message.getSeverityLevel())) {
             log(message.toString(), message.getSeverityLevel());
         }
     }
@@ -209,104 +244,261 @@ public final class Logger {
      * @return retVal Boolean
      */
     public boolean log(String message, int severityLvl) {
+        if (!isLogged(severityLvl)) {
+            return true;
+        }
+        return write(message, severityLvl);
+    }
+
+    /**
+     * Logs a message followed by a value. The message is only put together if
+     * the severity level is logged.
+     *
+     * @param message     String : text that precedes the value
+     * @param arg         Object : value appended to the message
+     * @param severityLvl int : Severity level of the message.
+     * @return retVal Boolean
+     */
+    public boolean log(String message, Object arg, int severityLvl) {
+        if (!isLogged(severityLvl)) {
+            return true;
+        }
+        return write(message + arg, severityLvl);
+    }
+
+    /**
+     * Logs a message built by the supplier. The supplier is only called if the
+     * severity level is logged.
+     *
+     * @param message     Supplier : builds the value that needs to be logged
+     * @param severityLvl int : Severity level of the message.
+     * @return retVal Boolean
+     */
+    public boolean log(Supplier<String> message, int severityLvl) {
+        if (!isLogged(severityLvl)) {
+            return true;
+        }
+        return write(message.get(), severityLvl);
+    }
+
+    /**
+     * @param severityLvl int
+     * @return true if the severity level is logged.
+     */
+    private boolean isLogged(int severityLvl) {
+        return severityLvl >= SDKProperties.getLoggingLevel() && !errInLogger;
+    }
+
+    /**
+     * Writes a message of a logged severity level, or holds it if the transaction
+     * on this thread is not logged in full.
+     *
+     * @param message     String
+     * @param severityLvl int
+     * @return retVal Boolean
+     */
+    private boolean write(String message, int severityLvl) {
+        if (severityLvl < PayflowConstants.SEVERITY_WARN) {
+            LogSample sample = SAMPLE.get();
+            if (sample != null) {
+                sample.add(message, severityLvl, System.currentTimeMillis());
+                return true;
+            }
+        }
+        return write(message, severityLvl, System.currentTimeMillis());
+    }
+
+    /**
+     * @param message     String
+     * @param severityLvl int
+     * @param time        long time the message was logged
+     * @return retVal Boolean
+     */
+    private boolean write(String message, int severityLvl, long time) {
         boolean retVal = true;
         String severity;
-        Calendar cal;
-
-        if (severityLvl >= SDKProperties.getLoggingLevel() && !errInLogger) {
-            switch (severityLvl) {
-                case PayflowConstants.SEVERITY_DEBUG:
-                    severity = "Debug";
-                    break;
-                case PayflowConstants.SEVERITY_INFO:
-                    severity = "Info";
-                    break;
-                case PayflowConstants.SEVERITY_WARN:
-                    severity = "Warn";
-                    break;
-                case PayflowConstants.SEVERITY_ERROR:
-                    severity = "Error";
-                    break;
-                case PayflowConstants.SEVERITY_FATAL:
-                    severity = "Fatal";
-                    break;
-                default:
-                    severity = PayflowConstants.EMPTY_STRING;
-            }
-            try {
-                if (null != severity && severity.length() != 0) {
-                    synchronized (this) {
-                        if (logFileLength > SDKProperties.getMaxLogFileSize()) {
-                            if (archiveLogFile()) {
-                                logFileLength = 0;
-                            }
-                        }
-                        if (null == os || null == out) {
-                            os = new FileOutputStream(SDKProperties.getLogFileName(), true);
-                            out = new PrintStream(os, true);
-                        }
-                        cal = Calendar.getInstance(TimeZone.getDefault());
-                        String dRequestId = "";
 
-                        // temp removal until figured out
-                        /* if (BaseTransaction.requestId != null)  {
-                          dRequestId = BaseTransaction.requestId + ":";
+        severity = getLevelName(severityLvl);
+        if (severity != null && SDKProperties.isLogAsync() && getAsyncWriter().publish(message, severityLvl, time)) {
+            return retVal;
+        }
+        try {
+            if (null != severity) {
+                mWriteLock.lock();
+                try {
+                    if (logFileLength > SDKProperties.getMaxLogFileSize()) {
+                        if (archiveLogFile()) {
+                            logFileLength = 0;
                         }
-                        */
-                        String messageToBeLogged = sdf.format(cal.getTime()) + ":" + pad(severity, 5, " ") + ":" + dRequestId + message;
+                    }
+                    if (null == os || null == out) {
+                        os = new FileOutputStream(SDKProperties.getLogFileName(), true);
+                        out = new PrintStream(os, true);
+                    }
+                        String dRequestId = "";
 
-                        out.println(messageToBeLogged);
-                        logFileLength += messageToBeLogged.length() + 1;
+                    // temp removal until figured out
+                    /* if (BaseTransaction.requestId != null)  {
+                      dRequestId = BaseTransaction.requestId + ":";
                     }
+                    */
+                    String messageToBeLogged = sdf.format(new Date(time)) + ":" + severity + ":" + dRequestId + message;
+
+                    out.println(messageToBeLogged);
+                    logFileLength += messageToBeLogged.length() + 1;
+                } finally {
+                    mWriteLock.unlock();
                 }
-            } catch (Exception e) {
-                retVal = false;
-                String respMessage = PayflowConstants.PARAM_RESULT
-                        + PayflowConstants.SEPARATOR_NVP
-                        + PayflowConstants.CommErrorCodes.get(PayflowConstants.E_INIT_ERROR)
-                        + PayflowConstants.DELIMITER_NVP
-                        + PayflowConstants.PARAM_RESPMSG
-                        + PayflowConstants.SEPARATOR_NVP
-                        + PayflowConstants.CommErrorMessages.get(PayflowConstants.E_INIT_ERROR)
-                        + e.getMessage() + " Occurred while accessing logFile : " + SDKProperties.getLogFileName() + " - Logging has been disabled.";
-                ErrorObject err =
-                        new ErrorObject(PayflowConstants.SEVERITY_WARN, PayflowConstants.EMPTY_STRING,
-                                respMessage);
-                mLoggerErrs.add(err);
-                errInLogger = true;
             }
+        } catch (Exception e) {
+            retVal = false;
+            disableLogging(e);
         }
 
         return retVal;
     }
 
+    /**
+     * Decides at the start of a transaction whether its INFO and DEBUG messages
+     * are logged in full. See SDKProperties.setLogSamplePercent().
+     *
+     * @param requestId String
+     * @return the sample holding the messages of the transaction, null if it is logged in full.
+     */
+    LogSample newSample(String requestId) {
+        if (!isLogged(PayflowConstants.SEVERITY_INFO) || LogSample.isSampled(requestId)) {
+            return null;
+        }
+        return new LogSample(requestId);
+    }
+
+    /**
+     * Ends a transaction that was not logged in full: its messages are written
+     * if it failed, a one-line summary otherwise.
+     *
+     * @param sample LogSample
+     * @param failed boolean
+     */
+    void endSample(LogSample sample, boolean failed) {
+        if (failed) {
+            int count = sample.size();
+            for (int i = 0; i < count; i++) {
+                write(sample.getMessage(i), sample.getLevel(i), sample.getTime(i));
+            }
+        } else if (isLogged(PayflowConstants.SEVERITY_INFO)) {
+            write(sample.getSummary(), PayflowConstants.SEVERITY_INFO, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Makes the messages logged by this thread go to a sample.
+     *
+     * @param sample LogSample, null to log messages as they come.
+     * @return the sample bound before, to restore when done.
+     */
+    static LogSample bindSample(LogSample sample) {
+        LogSample previous = SAMPLE.get();
+        if (sample == null) {
+            SAMPLE.remove();
+        } else {
+            SAMPLE.set(sample);
+        }
+        return previous;
+    }
+
+    /**
+     * @param sample   LogSample
+     * @param executor Executor
+     * @return an executor that runs its tasks with the sample bound, the executor itself if sample is null.
+     */
+    static Executor bindSample(final LogSample sample, final Executor executor) {
+        if (sample == null) {
+            return executor;
+        }
+        return task -> executor.execute(() -> {
+            LogSample previous = bindSample(sample);
+            try {
+                task.run();
+            } finally {
+                bindSample(previous);
+            }
+        });
+    }
+
+    /**
+     * Waits until the messages logged so far are written to the log file. Only
+     * asynchronous logging (SDKProperties.setLogAsync()) needs this; the log is
+     * also flushed when the JVM shuts down.
+     */
+    public void flush() {
+        AsyncLogWriter writer = mAsyncWriter;
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * @param severityLvl int
+     * @return severity name padded to five characters, null if the level is not a severity.
+     */
+    static String getLevelName(int severityLvl) {
+        if (severityLvl < PayflowConstants.SEVERITY_DEBUG || severityLvl > PayflowConstants.SEVERITY_FATAL) {
+            return null;
+        }
+        return LEVEL_NAMES[severityLvl];
+    }
+
+    /**
+     * @return the background writer, started on first use.
+     */
+    private AsyncLogWriter getAsyncWriter() {
+        AsyncLogWriter writer = mAsyncWriter;
+        if (writer == null) {
+            mWriteLock.lock();
+            try {
+                writer = mAsyncWriter;
+                if (writer == null) {
+                    writer = new AsyncLogWriter(this, SDKProperties.getLogQueueSize());
+                    writer.start();
+                    mAsyncWriter = writer;
+                }
+            } finally {
+                mWriteLock.unlock();
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Records an error accessing the log file and disables logging.
+     *
+     * @param e Exception
+     */
+    void disableLogging(Exception e) {
+        String respMessage = PayflowConstants.PARAM_RESULT
+                + PayflowConstants.SEPARATOR_NVP
+                + PayflowConstants.CommErrorCodes.get(PayflowConstants.E_INIT_ERROR)
+                + PayflowConstants.DELIMITER_NVP
+                + PayflowConstants.PARAM_RESPMSG
+                + PayflowConstants.SEPARATOR_NVP
+                + PayflowConstants.CommErrorMessages.get(PayflowConstants.E_INIT_ERROR)
+                + e.getMessage() + " Occurred while accessing logFile : " + SDKProperties.getLogFileName() + " - Logging has been disabled.";
+        ErrorObject err =
+                new ErrorObject(PayflowConstants.SEVERITY_WARN, PayflowConstants.EMPTY_STRING,
+                        respMessage);
+        mLoggerErrs.add(err);
+        errInLogger = true;
+    }
+
     private boolean archiveLogFile() {
         boolean archived = false;
-        File archivedLog;
-        String fileName;
-        File logFile;
         try {
             if (null != out) {
                 out.flush();
                 out.close();
             }
             if (null != os) os.close();
-            logFile = new File(SDKProperties.getLogFileName());
-            int targetPosition = SDKProperties.getLogFileName().indexOf('.');
-            targetPosition = targetPosition != -1 ? targetPosition : SDKProperties.getLogFileName().length();
-            for (int i = 1; ; i++) {
-                fileName =
-                        new StringBuffer(SDKProperties.getLogFileName())
-                                .insert(targetPosition, archiveFileSeparator)
-                                .insert(targetPosition + 1, Integer.toString(i))
-                                .toString();
-                archivedLog = new File(fileName);
-                if (!archivedLog.exists()) {
-                    if (logFile.renameTo(archivedLog))
-                        archived = true;
-                    break;
-                }
-            }
+            archived = archiveLogFile(SDKProperties.getLogFileName());
         } catch (Exception e) {
             archived = false;
         }
@@ -315,6 +507,16 @@ public final class Logger {
         return archived;
     }
 
+    /**
+     * Renames a closed log file to the next archive name: file_1.log, file_2.log, ...
+     *
+     * @param logFileName String
+     * @return true if the file was archived.
+     */
+    static boolean archiveLogFile(String logFileName) {
+        return ROTATOR.rotate(logFileName);
+    }
+
     /**
      * This method populates each ErrorObject int the arraylist passed, with the
      * details from the SortedList held by the logger class. It populates the mLoggerErrs
@@ -326,72 +528,59 @@ public final class Logger {
      * @return errorObject ArrayList
      */
     protected ArrayList populateErrorDetails(ArrayList errObj) {
-        ErrorObject errMesg;
-        ErrorObject retErrorObj;
         ArrayList retErrObjs = new ArrayList(0);
         int errCnt;
         int errMaxCnt;
-        int sevLvlAssigned;
-        String[] mesgParams;
 
         //Iterate through all the error objects in the array list
         errMaxCnt = errObj.size();
         for (errCnt = 0; errCnt < errMaxCnt; errCnt++) {
-            if (((ErrorObject) errObj.get(errCnt)).getMessageCode().length() != 0) {
-                errMesg = (ErrorObject) mMessages.get(((ErrorObject) errObj.get(errCnt)).getMessageCode());
+            retErrObjs.add(populateErrorDetails((ErrorObject) errObj.get(errCnt)));
+        }
+        return retErrObjs;
+    }
 
-                if (((ErrorObject) errObj.get(errCnt)).getSeverityLevel() != 0) {
-                    sevLvlAssigned = ((ErrorObject) errObj.get(errCnt)).getSeverityLevel();
-                } else {
-                    sevLvlAssigned = errMesg.getSeverityLevel();
-                }
-                mesgParams = new String[((ErrorObject) errObj.get(errCnt)).getMessageParams().size()];
+    /**
+     * Populates a single error object with the message body and severity level
+     * of its message code.
+     *
+     * @param errObj ErrorObject
+     * @return populated ErrorObject, errObj itself if it has no message code.
+     */
+    protected ErrorObject populateErrorDetails(ErrorObject errObj) {
+        ErrorObject errMesg;
+        int sevLvlAssigned;
+        String[] mesgParams;
 
-                ((ErrorObject) errObj.get(errCnt)).getMessageParams().toArray(mesgParams);
+        if (errObj.getMessageCode().length() == 0) {
+            return errObj;
+        }
+        errMesg = (ErrorObject) mMessages.get(errObj.getMessageCode());
 
-                retErrorObj = new ErrorObject(sevLvlAssigned,
-                        errMesg.getMessageCode(), errMesg.getMessageBody(),
-                        mesgParams,
-                        ((ErrorObject) errObj.get(errCnt)).getErrorStackTrace());
-            } else {
-                retErrorObj = (ErrorObject) errObj.get(errCnt);
-            }
-            retErrObjs.add(retErrorObj);
+        if (errObj.getSeverityLevel() != 0) {
+            sevLvlAssigned = errObj.getSeverityLevel();
+        } else {
+            sevLvlAssigned = errMesg.getSeverityLevel();
         }
-        return retErrObjs;
+        mesgParams = new String[errObj.getMessageParams().size()];
+
+        errObj.getMessageParams().toArray(mesgParams);
+
+        return new ErrorObject(sevLvlAssigned, errMesg,
+                mesgParams,
+                errObj.getErrorStackTrace());
     }
 
     private void populateMessages() {
         mMessages = new HashMap();
         ErrorObject Err;
-        Err = new ErrorObject(PayflowConstants.SEVERITY_INFO, PayflowConstants.MSG_COMMUNICATION_ERROR, "RESULT={0}&RESPMSG={1}");
+        Err = new ErrorObject(PayflowConstants.SEVERITY_INFO, PayflowConstants.MSG_COMMUNICATION_ERROR, new MessageTemplate("RESULT={0}&RESPMSG={1}"));
         mMessages.put(PayflowConstants.MSG_COMMUNICATION_ERROR, Err);
-        Err = new ErrorObject(PayflowConstants.SEVERITY_INFO, PayflowConstants.MSG_COMMUNICATION_ERROR_XMLPAY, "<XMLPayResponse xmlns='http://www.paypal.com/XMLPay'><ResponseData><TransactionResults><TransactionResult><Result>{0}</Result><Message>{1}</Message></TransactionResult></TransactionResults></ResponseData></XMLPayResponse>");
+        Err = new ErrorObject(PayflowConstants.SEVERITY_INFO, PayflowConstants.MSG_COMMUNICATION_ERROR_XMLPAY, new MessageTemplate("<XMLPayResponse xmlns='http://www.paypal.com/XMLPay'><ResponseData><TransactionResults><TransactionResult><Result>{0}</Result><Message>{1}</Message></TransactionResult></TransactionResults></ResponseData></XMLPayResponse>"));
         mMessages.put(PayflowConstants.MSG_COMMUNICATION_ERROR_XMLPAY, Err);
-        Err = new ErrorObject(PayflowConstants.SEVERITY_INFO, PayflowConstants.MSG_COMMUNICATION_ERROR_NO_RESPONSE_ID, "RESULT={0}&RESPMSG={1}&REQUEST_ID={2}");
+        Err = new ErrorObject(PayflowConstants.SEVERITY_INFO, PayflowConstants.MSG_COMMUNICATION_ERROR_NO_RESPONSE_ID, new MessageTemplate("RESULT={0}&RESPMSG={1}&REQUEST_ID={2}"));
         mMessages.put(PayflowConstants.MSG_COMMUNICATION_ERROR_NO_RESPONSE_ID, Err);
-        Err = new ErrorObject(PayflowConstants.SEVERITY_INFO, PayflowConstants.MSG_COMMUNICATION_ERROR_XMLPAY_NO_RESPONSE_ID, "<XMLPayResponse xmlns='http://www.paypal.com/XMLPay'><ResponseData><TransactionResults><TransactionResult><Result>{0}</Result><Message>{1}</Message></TransactionResult></TransactionResults></ResponseData></XMLPayResponse>");
+        Err = new ErrorObject(PayflowConstants.SEVERITY_INFO, PayflowConstants.MSG_COMMUNICATION_ERROR_XMLPAY_NO_RESPONSE_ID, new MessageTemplate("<XMLPayResponse xmlns='http://www.paypal.com/XMLPay'><ResponseData><TransactionResults><TransactionResult><Result>{0}</Result><Message>{1}</Message></TransactionResult></TransactionResults></ResponseData></XMLPayResponse>"));
         mMessages.put(PayflowConstants.MSG_COMMUNICATION_ERROR_XMLPAY_NO_RESPONSE_ID, Err);
     }
-
-/**
-   * Pads out a string up to padlen with pad chars
-   * @param str Object.toString() to be padded
-   * @param padlen length of pad (+ve = pad on right, -ve pad on left)
-   * @param pad character
-   * @return value
-   */
-  private static String pad(Object str, int padlen, String pad)
-    {
-    String padding = new String();
-    int len = Math.abs(padlen) - str.toString().length();
-    if (len < 1)
-      return str.toString();
-    for (int i = 0 ; i < len ; ++i)
-      padding = padding + pad;
-
-    return (padlen < 0 ? padding + str : str + padding);
-    }
-
-
-}
\ No newline at end of file
+}
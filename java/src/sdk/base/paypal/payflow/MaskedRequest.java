@@ -0,0 +1,49 @@
+package paypal.payflow;
+
+/**
+ * A transaction request and its masked form for logging. The request is masked
+ * the first time the masked form is read and the result is kept, so a transaction
+ * whose request is never logged or read back is never masked.
+ */
+final class MaskedRequest {
+
+    private final String mRequest;
+
+    private volatile String mMasked;
+
+    /**
+     * @param request String unmasked request
+     */
+    MaskedRequest(String request) {
+        mRequest = request;
+    }
+
+    /**
+     * @param request String unmasked request
+     * @param masked  String masked request
+     */
+    MaskedRequest(String request, String masked) {
+        mRequest = request;
+        mMasked = masked;
+    }
+
+    /**
+     * @return unmasked request String
+     */
+    String getRequest() {
+        return mRequest;
+    }
+
+    /**
+     * @return masked request String, null if the request is null.
+     */
+    String getMasked() {
+        String masked = mMasked;
+        if (masked == null && mRequest != null) {
+            // masking is idempotent, so racing threads may both mask.
+            masked = PayflowUtility.maskSensitiveFields(mRequest);
+            mMasked = masked;
+        }
+        return masked;
+    }
+}
@@ -0,0 +1,81 @@
+package paypal.payflow;
+
+/**
+ * A message body with place holders, split once into the text between them.
+ * Formatting fills the n-th place holder with the n-th parameter, as
+ * PayflowUtility.format(String, String[]) does, in a single append pass.
+ */
+final class MessageTemplate {
+
+    private final String mPattern;
+
+    /**
+     * Text before, between and after the place holders.
+     */
+    private final String[] mLiterals;
+
+    /**
+     * The place holders as written in the pattern.
+     */
+    private final String[] mPlaceHolders;
+
+    /**
+     * @param pattern String message body with place holders such as {0}
+     */
+    MessageTemplate(String pattern) {
+        mPattern = pattern;
+        int count = 0;
+        int index = pattern.indexOf('{');
+        while (index >= 0 && pattern.indexOf('}', index) >= 0) {
+            count++;
+            index = pattern.indexOf('{', pattern.indexOf('}', index) + 1);
+        }
+        mLiterals = new String[count + 1];
+        mPlaceHolders = new String[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int open = pattern.indexOf('{', start);
+            int close = pattern.indexOf('}', open) + 1;
+            mLiterals[i] = pattern.substring(start, open);
+            mPlaceHolders[i] = pattern.substring(open, close);
+            start = close;
+        }
+        mLiterals[count] = pattern.substring(start);
+    }
+
+    /**
+     * @return message body String
+     */
+    String getPattern() {
+        return mPattern;
+    }
+
+    /**
+     * Fills the place holders. Place holders without a parameter are kept.
+     *
+     * @param msgParams String[]
+     * @return formatted message String
+     * @throws IllegalArgumentException if there are more parameters than place
+     *                                  holders or a parameter is null.
+     */
+    String format(String[] msgParams) {
+        if (msgParams.length > mPlaceHolders.length) {
+            throw new IllegalArgumentException(msgParams.length + " parameters for " + mPlaceHolders.length
+                    + " place holders");
+        }
+        int length = mPattern.length();
+        for (int i = 0; i < msgParams.length; i++) {
+            if (msgParams[i] == null) {
+                throw new IllegalArgumentException("parameter " + i + " is null");
+            }
+            length += msgParams[i].length();
+        }
+        StringBuilder message = new StringBuilder(length);
+        message.append(mLiterals[0]);
+        for (int i = 0; i < mPlaceHolders.length; i++) {
+            message.append(i < msgParams.length ? msgParams[i] : mPlaceHolders[i]);
+            message.append(mLiterals[i + 1]);
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,277 @@
+package paypal.payflow;
+
+import java.util.Hashtable;
+
+/**
+ * Read-only view of a tokenized name value pair list. The pairs are kept as
+ * offsets into the parsed string and names and values are only copied out when
+ * they are read. Lookups follow the Hashtable ParameterListValidator.parseNVPList()
+ * has always returned: a repeated name replaces the earlier value, unless the
+ * name equals a value already in the table, in which case it is stored under
+ * name + DUPLIACTE_NAME_KEY + a request id.
+ * <p>
+ * The response data objects look their parameters up by ResponseKeys id and
+ * remove them as they used to remove them from the Hashtable, so the parameters
+ * none of them took can be returned as extended data.
+ * </p>
+ */
+final class NameValueList {
+
+    /**
+     * Offsets per pair: name start, name end, value start, value end.
+     */
+    private static final int FIELDS = 4;
+
+    private final String mSource;
+
+    private int[] mOffsets;
+
+    private int mSize;
+
+    /**
+     * Names given to duplicate pairs, null until the first duplicate.
+     */
+    private String[] mDuplicateNames;
+
+    /**
+     * Pairs currently in the equivalent Hashtable.
+     */
+    private int[] mLive;
+
+    private int mLiveCount;
+
+    /**
+     * Pair index + 1 by ResponseKeys id, built on the first lookup by id.
+     */
+    private int[] mKeyIndex;
+
+    /**
+     * ResponseKeys ids removed from lookups, null until the first removal.
+     */
+    private boolean[] mRemoved;
+
+    /**
+     * @param source String parsed name value pair list
+     */
+    NameValueList(String source) {
+        mSource = source;
+        mOffsets = new int[16 * FIELDS];
+        mLive = new int[16];
+    }
+
+    /**
+     * Adds a pair. Names and values are trimmed as String.trim() does.
+     *
+     * @param nameStart  int
+     * @param nameEnd    int
+     * @param valueStart int
+     * @param valueEnd   int
+     */
+    void add(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+        while (nameStart < nameEnd && mSource.charAt(nameStart) <= ' ') {
+            nameStart++;
+        }
+        while (nameEnd > nameStart && mSource.charAt(nameEnd - 1) <= ' ') {
+            nameEnd--;
+        }
+        while (valueStart < valueEnd && mSource.charAt(valueStart) <= ' ') {
+            valueStart++;
+        }
+        while (valueEnd > valueStart && mSource.charAt(valueEnd - 1) <= ' ') {
+            valueEnd--;
+        }
+        if ((mSize + 1) * FIELDS > mOffsets.length) {
+            int[] grown = new int[mOffsets.length * 2];
+            System.arraycopy(mOffsets, 0, grown, 0, mOffsets.length);
+            mOffsets = grown;
+        }
+        int pair = mSize;
+        int offset = pair * FIELDS;
+        mOffsets[offset] = nameStart;
+        mOffsets[offset + 1] = nameEnd;
+        mOffsets[offset + 2] = valueStart;
+        mOffsets[offset + 3] = valueEnd;
+        mSize++;
+
+        // Hashtable.contains() looks at the values, so a name only counts as a
+        // duplicate if it equals a value already in the table.
+        boolean duplicate = false;
+        for (int i = 0; i < mLiveCount && !duplicate; i++) {
+            int other = mLive[i] * FIELDS;
+            duplicate = regionEquals(nameStart, nameEnd, mOffsets[other + 2], mOffsets[other + 3]);
+        }
+        if (duplicate) {
+            if (mDuplicateNames == null) {
+                mDuplicateNames = new String[mOffsets.length / FIELDS];
+            } else if (mDuplicateNames.length <= pair) {
+                String[] grown = new String[mOffsets.length / FIELDS];
+                System.arraycopy(mDuplicateNames, 0, grown, 0, mDuplicateNames.length);
+                mDuplicateNames = grown;
+            }
+            mDuplicateNames[pair] = mSource.substring(nameStart, nameEnd) + PayflowConstants.TAG_DUPLICATE
+                    + PayflowUtility.getRequestId();
+        } else {
+            for (int i = 0; i < mLiveCount; i++) {
+                int other = mLive[i];
+                if (!isDuplicate(other)
+                        && regionEquals(nameStart, nameEnd, mOffsets[other * FIELDS], mOffsets[other * FIELDS + 1])) {
+                    mLive[i] = mLive[--mLiveCount];
+                    break;
+                }
+            }
+        }
+        if (mLiveCount == mLive.length) {
+            int[] grown = new int[mLive.length * 2];
+            System.arraycopy(mLive, 0, grown, 0, mLive.length);
+            mLive = grown;
+        }
+        mLive[mLiveCount++] = pair;
+    }
+
+    /**
+     * @return number of pairs int
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * @param index int
+     * @return name String, renamed if the pair is a duplicate.
+     */
+    String getName(int index) {
+        if (isDuplicate(index)) {
+            return mDuplicateNames[index];
+        }
+        return mSource.substring(mOffsets[index * FIELDS], mOffsets[index * FIELDS + 1]);
+    }
+
+    /**
+     * @param index int
+     * @return value String
+     */
+    String getValue(int index) {
+        return mSource.substring(mOffsets[index * FIELDS + 2], mOffsets[index * FIELDS + 3]);
+    }
+
+    /**
+     * Gets the value for a name, as the Hashtable from
+     * ParameterListValidator.parseNVPList() would.
+     *
+     * @param name String
+     * @return value String, null if the name is not found.
+     */
+    String get(String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : getValue(index);
+    }
+
+    /**
+     * Gets the value of a response parameter by id.
+     *
+     * @param key int ResponseKeys id
+     * @return value String, null if the parameter is not found or was removed.
+     */
+    String get(int key) {
+        if (mRemoved != null && mRemoved[key]) {
+            return null;
+        }
+        if (mKeyIndex == null) {
+            indexKeys();
+        }
+        int index = mKeyIndex[key] - 1;
+        return index < 0 ? null : getValue(index);
+    }
+
+    /**
+     * Removes a response parameter from lookups by id.
+     *
+     * @param key int ResponseKeys id
+     */
+    void remove(int key) {
+        if (mRemoved == null) {
+            mRemoved = new boolean[ResponseKeys.COUNT];
+        }
+        mRemoved[key] = true;
+    }
+
+    /**
+     * @param key int ResponseKeys id
+     * @return true if the parameter was removed.
+     */
+    boolean isRemoved(int key) {
+        return mRemoved != null && mRemoved[key];
+    }
+
+    /**
+     * @param name String
+     * @return index of the pair the name maps to, -1 if the name is not found.
+     */
+    int indexOf(String name) {
+        int length = name.length();
+        for (int i = mSize - 1; i >= 0; i--) {
+            int offset = i * FIELDS;
+            if (!isDuplicate(i) && mOffsets[offset + 1] - mOffsets[offset] == length
+                    && mSource.regionMatches(mOffsets[offset], name, 0, length)) {
+                return i;
+            }
+        }
+        if (mDuplicateNames != null) {
+            for (int i = 0; i < mSize; i++) {
+                if (name.equals(mDuplicateNames[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the pairs as the Hashtable ParameterListValidator.parseNVPList() returns.
+     */
+    Hashtable toHashtable() {
+        // default capacity, so the table enumerates in the order it always has.
+        Hashtable table = new Hashtable();
+        for (int i = 0; i < mSize; i++) {
+            table.put(getName(i), getValue(i));
+        }
+        return table;
+    }
+
+    /**
+     * Resolves the pair names to ResponseKeys ids. A later pair replaces an
+     * earlier one of the same name, duplicates are not looked up by id.
+     */
+    private void indexKeys() {
+        int[] keyIndex = new int[ResponseKeys.COUNT];
+        for (int i = 0; i < mSize; i++) {
+            if (!isDuplicate(i)) {
+                int key = ResponseKeys.lookup(mSource, mOffsets[i * FIELDS], mOffsets[i * FIELDS + 1]);
+                if (key >= 0) {
+                    keyIndex[key] = i + 1;
+                }
+            }
+        }
+        mKeyIndex = keyIndex;
+    }
+
+    /**
+     * @param index int
+     * @return true if the pair was renamed as a duplicate.
+     */
+    private boolean isDuplicate(int index) {
+        return mDuplicateNames != null && index < mDuplicateNames.length && mDuplicateNames[index] != null;
+    }
+
+    /**
+     * @param start      int
+     * @param end        int
+     * @param otherStart int
+     * @param otherEnd   int
+     * @return true if both regions of the source hold the same characters.
+     */
+    private boolean regionEquals(int start, int end, int otherStart, int otherEnd) {
+        int length = end - start;
+        return length == otherEnd - otherStart && mSource.regionMatches(start, mSource, otherStart, length);
+    }
+}
@@ -0,0 +1,738 @@
+package paypal.payflow;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HashMap;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLParameters;
+
+/**
+ * A non-blocking HTTP/1.1 keep-alive connection of the NioTransport. Every method
+ * runs on the selector thread of the connection's NioSelectorLoop.
+ */
+final class NioConnection {
+
+    private static final int NEW = 0;
+    private static final int CONNECTING = 1;
+    private static final int TUNNELLING = 2;
+    private static final int HANDSHAKING = 3;
+    private static final int OPEN = 4;
+    private static final int CLOSED = 5;
+
+    /**
+     * Maximum size of the status line and headers of a response.
+     */
+    private static final int MAX_HEAD_LENGTH = 65536;
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final NioTransport mTransport;
+    private final TransportEndpoint mEndpoint;
+    private final InetSocketAddress mAddress;
+    private final NioSelectorLoop mLoop;
+
+    private int mState = NEW;
+    private SocketChannel mChannel;
+    private SelectionKey mKey;
+    private SSLEngine mEngine;
+    private ByteBuffer mNetIn;
+    private ByteBuffer mNetOut;
+    private ByteBuffer mAppIn;
+    private ByteBuffer mTunnel;
+    private long mHandshakeStart;
+    private long mCreatedTime;
+    private long mLastUsedTime;
+    private int mUseCount;
+    private boolean mKeepAlive = true;
+
+    /**
+     * Exchange in progress, null while idle.
+     */
+    private NioTransport.Exchange mExchange;
+
+    /**
+     * Response bytes received so far.
+     */
+    private byte[] mData = new byte[4096];
+    private int mDataLen;
+
+    /**
+     * Offset of the body in mData, -1 until the headers were parsed.
+     */
+    private int mBodyStart = -1;
+    private int mStatusCode;
+    private int mContentLength;
+    private boolean mChunked;
+    private HashMap mHeaders;
+
+    /**
+     * Constructor.
+     *
+     * @param transport NioTransport
+     * @param endpoint  TransportEndpoint
+     * @param address   InetSocketAddress to connect to, the proxy if one is set
+     * @param loop      NioSelectorLoop
+     */
+    NioConnection(NioTransport transport, TransportEndpoint endpoint, InetSocketAddress address, NioSelectorLoop loop) {
+        mTransport = transport;
+        mEndpoint = endpoint;
+        mAddress = address;
+        mLoop = loop;
+    }
+
+    /**
+     * @return mLoop NioSelectorLoop
+     */
+    NioSelectorLoop getLoop() {
+        return mLoop;
+    }
+
+    /**
+     * @return pool key of the endpoint.
+     */
+    String getPoolKey() {
+        return mEndpoint.getPoolKey();
+    }
+
+    /**
+     * Starts an exchange, connecting first if this is a new connection.
+     *
+     * @param exchange NioTransport.Exchange
+     */
+    void start(NioTransport.Exchange exchange) {
+        if (mState == CLOSED) {
+            // closed by the server while idle; the request was not sent.
+            mTransport.dispatch(exchange, true);
+            return;
+        }
+        if (exchange.mResult.isDone()) {
+            if (mState == NEW) {
+                mState = CLOSED;
+                mTransport.closed(this);
+            } else {
+                mTransport.release(this);
+            }
+            return;
+        }
+        mExchange = exchange;
+        exchange.mConnection = this;
+        mUseCount++;
+        mDataLen = 0;
+        mBodyStart = -1;
+        exchange.mRequest.rewind();
+        try {
+            if (mState == NEW) {
+                connect();
+            } else {
+                pump();
+            }
+        } catch (Exception ex) {
+            fail(ex instanceof IOException ? (IOException) ex : new IOException(ex));
+        }
+    }
+
+    /**
+     * Drops the exchange if it is still in progress, e.g. after it timed out or was cancelled.
+     * May be called from any thread.
+     *
+     * @param exchange NioTransport.Exchange
+     */
+    void abort(final NioTransport.Exchange exchange) {
+        if (mLoop.inLoop()) {
+            if (mExchange == exchange) {
+                mExchange = null;
+                exchange.mConnection = null;
+                close();
+            }
+            return;
+        }
+        try {
+            mLoop.execute(() -> abort(exchange));
+        } catch (IOException ex) {
+            // loop stopped, its connections are closed.
+        }
+    }
+
+    /**
+     * Handles a readiness event from the selector.
+     */
+    void handleReady() {
+        try {
+            switch (mState) {
+                case CONNECTING:
+                    if (mChannel.finishConnect()) {
+                        onConnected();
+                    }
+                    break;
+                case TUNNELLING:
+                    tunnel();
+                    break;
+                case HANDSHAKING:
+                case OPEN:
+                    pump();
+                    break;
+                default:
+                    break;
+            }
+        } catch (Exception ex) {
+            fail(ex instanceof IOException ? (IOException) ex : new IOException(ex));
+        }
+    }
+
+    /**
+     * Closes the connection if it has been idle or open for too long.
+     *
+     * @param now long
+     */
+    void checkIdle(long now) {
+        if (mState == OPEN && mExchange == null && !isReusable(now)) {
+            close();
+        }
+    }
+
+    /**
+     * Closes the connection.
+     */
+    void close() {
+        if (mState == CLOSED) {
+            return;
+        }
+        mState = CLOSED;
+        mKeepAlive = false;
+        if (mKey != null) {
+            mKey.cancel();
+        }
+        if (mChannel != null) {
+            try {
+                mChannel.close();
+            } catch (IOException ex) {
+                // nothing more to do.
+            }
+        }
+        mTransport.closed(this);
+    }
+
+    /**
+     * @param now long
+     * @return true if the connection is within its idle and lifetime limits.
+     */
+    private boolean isReusable(long now) {
+        long idleTimeout = SDKProperties.getConnectionIdleTimeout() * 1000L;
+        long maxLifetime = SDKProperties.getConnectionMaxLifetime() * 1000L;
+        return mKeepAlive && now - mLastUsedTime <= idleTimeout && now - mCreatedTime <= maxLifetime;
+    }
+
+    /**
+     * Starts a non-blocking connect.
+     *
+     * @throws IOException Exception
+     */
+    private void connect() throws IOException {
+        mCreatedTime = System.currentTimeMillis();
+        mChannel = SocketChannel.open();
+        mChannel.configureBlocking(false);
+        mChannel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+        mChannel.setOption(StandardSocketOptions.SO_KEEPALIVE, Boolean.TRUE);
+        mKey = mChannel.register(mLoop.getSelector(), 0, this);
+        mState = CONNECTING;
+        if (mChannel.connect(mAddress)) {
+            onConnected();
+        } else {
+            mKey.interestOps(SelectionKey.OP_CONNECT);
+        }
+    }
+
+    /**
+     * Continues with the proxy tunnel or the TLS handshake.
+     *
+     * @throws IOException Exception
+     */
+    private void onConnected() throws IOException {
+        if (mEndpoint.getProxyHost() != null) {
+            StringBuffer connect = new StringBuffer();
+            connect.append("CONNECT ").append(mEndpoint.getHost()).append(':').append(mEndpoint.getPort()).append(" HTTP/1.1\r\n")
+                    .append("Host: ").append(mEndpoint.getHost()).append(':').append(mEndpoint.getPort()).append("\r\n")
+                    .append("User-Agent: ").append(PayflowConstants.USER_AGENT).append("\r\n");
+            if (mEndpoint.getProxyAuthorization() != null) {
+                connect.append("Proxy-Authorization: ").append(mEndpoint.getProxyAuthorization()).append("\r\n");
+            }
+            connect.append("\r\n");
+            mTunnel = ByteBuffer.wrap(connect.toString().getBytes(StandardCharsets.ISO_8859_1));
+            mState = TUNNELLING;
+            tunnel();
+        } else {
+            startTls();
+        }
+    }
+
+    /**
+     * Writes the CONNECT request and reads the proxy reply. The server speaks only after
+     * the ClientHello, so the reply is all there is to read.
+     *
+     * @throws IOException Exception
+     */
+    private void tunnel() throws IOException {
+        if (mTunnel.hasRemaining()) {
+            mChannel.write(mTunnel);
+            if (mTunnel.hasRemaining()) {
+                mKey.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+        }
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        int read;
+        while ((read = mChannel.read(buf)) > 0) {
+            append(buf.array(), 0, buf.position());
+            buf.clear();
+        }
+        int headEnd = indexOfHeadEnd();
+        if (headEnd < 0) {
+            if (read < 0) {
+                throw new EOFException("Proxy closed connection during CONNECT");
+            }
+            mKey.interestOps(SelectionKey.OP_READ);
+            return;
+        }
+        String reply = new String(mData, 0, headEnd, StandardCharsets.ISO_8859_1);
+        int eol = reply.indexOf('\r');
+        String statusLine = eol >= 0 ? reply.substring(0, eol) : reply;
+        if (PooledConnection.parseStatusCode(statusLine) != 200) {
+            throw new IOException("Unable to tunnel through proxy. Proxy returns \"" + statusLine + "\"");
+        }
+        mDataLen = 0;
+        startTls();
+    }
+
+    /**
+     * Starts the TLS handshake with the shared SSLContext.
+     *
+     * @throws IOException Exception
+     */
+    private void startTls() throws IOException {
+        try {
+            mEngine = SSLContextHolder.getContext().createSSLEngine(mEndpoint.getHost(), mEndpoint.getPort());
+        } catch (GeneralSecurityException ex) {
+            throw new IOException(ex);
+        }
+        mEngine.setUseClientMode(true);
+        SSLParameters params = mEngine.getSSLParameters();
+        params.setEndpointIdentificationAlgorithm("HTTPS");
+        mEngine.setSSLParameters(params);
+        mNetIn = ByteBuffer.allocate(mEngine.getSession().getPacketBufferSize());
+        mNetOut = ByteBuffer.allocate(mEngine.getSession().getPacketBufferSize());
+        mAppIn = ByteBuffer.allocate(mEngine.getSession().getApplicationBufferSize());
+        mHandshakeStart = System.currentTimeMillis();
+        mState = HANDSHAKING;
+        mEngine.beginHandshake();
+        pump();
+    }
+
+    /**
+     * Moves data between the channel and the engine until it would block.
+     *
+     * @throws IOException Exception
+     */
+    private void pump() throws IOException {
+        while (mState == HANDSHAKING || mState == OPEN) {
+            if (!flush()) {
+                mKey.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            SSLEngineResult.HandshakeStatus status = mEngine.getHandshakeStatus();
+            if (status == SSLEngineResult.HandshakeStatus.NEED_TASK) {
+                Runnable task;
+                while ((task = mEngine.getDelegatedTask()) != null) {
+                    task.run();
+                }
+            } else if (status == SSLEngineResult.HandshakeStatus.NEED_WRAP) {
+                wrap(EMPTY);
+            } else if (mState == HANDSHAKING && status == SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING) {
+                SSLContextHolder.recordHandshake(mEngine.getSession(), mHandshakeStart);
+                mState = OPEN;
+            } else if (mState == OPEN && mExchange != null && mExchange.mRequest.hasRemaining()
+                    && status == SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING) {
+                wrap(mExchange.mRequest);
+            } else if (!unwrap()) {
+                if (mState != CLOSED) {
+                    mKey.interestOps(SelectionKey.OP_READ);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes pending TLS records.
+     *
+     * @return true if everything was written.
+     * @throws IOException Exception
+     */
+    private boolean flush() throws IOException {
+        if (mNetOut.position() > 0) {
+            mNetOut.flip();
+            mChannel.write(mNetOut);
+            mNetOut.compact();
+        }
+        return mNetOut.position() == 0;
+    }
+
+    /**
+     * @param src ByteBuffer application data
+     * @throws IOException Exception
+     */
+    private void wrap(ByteBuffer src) throws IOException {
+        SSLEngineResult result = mEngine.wrap(src, mNetOut);
+        if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+            mNetOut = enlarge(mNetOut, mEngine.getSession().getPacketBufferSize());
+        } else if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+            throw new EOFException("Connection closed by server");
+        }
+    }
+
+    /**
+     * Reads from the channel and decrypts what arrived.
+     *
+     * @return true if progress was made, false if more data has to arrive first.
+     * @throws IOException Exception
+     */
+    private boolean unwrap() throws IOException {
+        int read = mChannel.read(mNetIn);
+        if (read < 0) {
+            onEndOfStream();
+            return false;
+        }
+        boolean progress = read > 0;
+        while (mNetIn.position() > 0) {
+            mNetIn.flip();
+            SSLEngineResult result = mEngine.unwrap(mNetIn, mAppIn);
+            mNetIn.compact();
+            SSLEngineResult.Status status = result.getStatus();
+            if (status == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                mAppIn = enlarge(mAppIn, mEngine.getSession().getApplicationBufferSize());
+                continue;
+            }
+            if (status == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                if (mNetIn.position() == mNetIn.capacity()) {
+                    mNetIn = enlarge(mNetIn, mEngine.getSession().getPacketBufferSize());
+                }
+                break;
+            }
+            if (status == SSLEngineResult.Status.CLOSED) {
+                onEndOfStream();
+                return false;
+            }
+            progress = true;
+            if (result.bytesProduced() > 0) {
+                mAppIn.flip();
+                onData();
+                mAppIn.clear();
+                if (mState == CLOSED) {
+                    return false;
+                }
+            }
+            if (result.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING) {
+                break;
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Handles decrypted bytes in mAppIn.
+     *
+     * @throws IOException Exception
+     */
+    private void onData() throws IOException {
+        if (mExchange == null) {
+            // Nothing is expected on an idle connection.
+            close();
+            return;
+        }
+        append(mAppIn.array(), mAppIn.position(), mAppIn.remaining());
+        parseResponse();
+    }
+
+    /**
+     * Completes the exchange once the whole response is in mData.
+     *
+     * @throws IOException Exception
+     */
+    private void parseResponse() throws IOException {
+        if (mBodyStart < 0) {
+            int headEnd = indexOfHeadEnd();
+            if (headEnd < 0) {
+                if (mDataLen > MAX_HEAD_LENGTH) {
+                    throw new IOException("HTTP response headers too long");
+                }
+                return;
+            }
+            parseHead(headEnd);
+            if (mStatusCode >= 100 && mStatusCode < 200) {
+                // Skip interim 1xx responses.
+                System.arraycopy(mData, headEnd + 4, mData, 0, mDataLen - headEnd - 4);
+                mDataLen -= headEnd + 4;
+                parseResponse();
+                return;
+            }
+            mBodyStart = headEnd + 4;
+        }
+        if (mContentLength < 0) {
+            ResponseReader.checkSize(mDataLen - mBodyStart);
+        }
+        if (mChunked) {
+            byte[] body = decodeChunked();
+            if (body != null) {
+                complete(body);
+            }
+        } else if (mContentLength >= 0 && mDataLen - mBodyStart >= mContentLength) {
+            byte[] body = new byte[mContentLength];
+            System.arraycopy(mData, mBodyStart, body, 0, mContentLength);
+            complete(body);
+        }
+    }
+
+    /**
+     * @param headEnd int offset of the blank line
+     * @throws IOException Exception
+     */
+    private void parseHead(int headEnd) throws IOException {
+        String[] lines = new String(mData, 0, headEnd, StandardCharsets.ISO_8859_1).split("\r\n");
+        String statusLine = lines[0];
+        mStatusCode = PooledConnection.parseStatusCode(statusLine);
+        mHeaders = new HashMap();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) {
+                mHeaders.put(lines[i].substring(0, colon).trim().toLowerCase(), lines[i].substring(colon + 1).trim());
+            }
+        }
+        String connection = (String) mHeaders.get("connection");
+        if (statusLine.startsWith("HTTP/1.0")) {
+            mKeepAlive = connection != null && connection.equalsIgnoreCase("keep-alive");
+        } else if (connection != null && connection.equalsIgnoreCase("close")) {
+            mKeepAlive = false;
+        }
+        String transferEncoding = (String) mHeaders.get("transfer-encoding");
+        String contentLength = (String) mHeaders.get("content-length");
+        mChunked = transferEncoding != null && transferEncoding.toLowerCase().indexOf("chunked") >= 0;
+        mContentLength = -1;
+        if (!mChunked && contentLength != null) {
+            try {
+                mContentLength = Integer.parseInt(contentLength.trim());
+            } catch (NumberFormatException ex) {
+                mContentLength = -2;
+            }
+            if (mContentLength < 0) {
+                throw new IOException("Invalid Content-Length: " + contentLength);
+            }
+            ResponseReader.checkSize(mContentLength);
+        }
+    }
+
+    /**
+     * @return the decoded body, null if the last chunk has not arrived yet.
+     * @throws IOException Exception
+     */
+    private byte[] decodeChunked() throws IOException {
+        int length = scanChunks(null);
+        if (length < 0) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        scanChunks(body);
+        return body;
+    }
+
+    /**
+     * Walks the chunks received so far.
+     *
+     * @param body byte[] to copy the chunk data to, null to only measure
+     * @return length of the body, -1 if the last chunk has not arrived yet.
+     * @throws IOException Exception
+     */
+    private int scanChunks(byte[] body) throws IOException {
+        int bodyLen = 0;
+        int pos = mBodyStart;
+        while (true) {
+            int eol = indexOf(pos, mDataLen);
+            if (eol < 0) {
+                return -1;
+            }
+            String sizeLine = new String(mData, pos, eol - pos, StandardCharsets.ISO_8859_1);
+            int ext = sizeLine.indexOf(';');
+            int size;
+            try {
+                size = Integer.parseInt((ext >= 0 ? sizeLine.substring(0, ext) : sizeLine).trim(), 16);
+            } catch (NumberFormatException ex) {
+                size = -1;
+            }
+            if (size < 0) {
+                throw new IOException("Invalid chunk size: " + sizeLine);
+            }
+            pos = eol + 2;
+            if (size == 0) {
+                // Trailers, terminated by a blank line.
+                while (true) {
+                    eol = indexOf(pos, mDataLen);
+                    if (eol < 0) {
+                        return -1;
+                    }
+                    if (eol == pos) {
+                        return bodyLen;
+                    }
+                    pos = eol + 2;
+                }
+            }
+            if (mDataLen - pos < size + 2) {
+                return -1;
+            }
+            if (body != null) {
+                System.arraycopy(mData, pos, body, bodyLen, size);
+            }
+            bodyLen += size;
+            pos += size + 2;
+        }
+    }
+
+    /**
+     * Handles end of stream from the server.
+     *
+     * @throws IOException Exception
+     */
+    private void onEndOfStream() throws IOException {
+        mKeepAlive = false;
+        NioTransport.Exchange exchange = mExchange;
+        if (exchange == null) {
+            close();
+        } else if (mBodyStart >= 0 && !mChunked && mContentLength < 0) {
+            // Body delimited by the end of the stream.
+            byte[] body = new byte[mDataLen - mBodyStart];
+            System.arraycopy(mData, mBodyStart, body, 0, body.length);
+            complete(body);
+        } else if (mDataLen == 0 && mUseCount > 1 && !exchange.mRetried) {
+            // The server closed the reused connection before the request got through;
+            // the Payflow server de-duplicates on the request id.
+            Logger.getInstance().log("paypal.payflow.NioConnection.onEndOfStream(): Stale connection, resending request.",
+                    PayflowConstants.SEVERITY_INFO);
+            mExchange = null;
+            exchange.mConnection = null;
+            exchange.mRetried = true;
+            close();
+            mTransport.dispatch(exchange, true);
+        } else {
+            throw new EOFException("Connection closed by server before response");
+        }
+    }
+
+    /**
+     * Completes the exchange and makes the connection available again.
+     *
+     * @param body byte[]
+     */
+    private void complete(byte[] body) {
+        NioTransport.Exchange exchange = mExchange;
+        int statusCode = mStatusCode;
+        mExchange = null;
+        exchange.mConnection = null;
+        exchange.mResponseHeaders = mHeaders;
+        mLastUsedTime = System.currentTimeMillis();
+        if (!mChunked && mDataLen > mBodyStart + body.length) {
+            // more than the response arrived; the stream is out of step.
+            mKeepAlive = false;
+        }
+        if (mState == OPEN && isReusable(mLastUsedTime)) {
+            mKey.interestOps(SelectionKey.OP_READ);
+            mTransport.release(this);
+        } else {
+            close();
+        }
+        if (statusCode >= 400) {
+            exchange.mResult.completeExceptionally(new IOException("Server returned HTTP response code: " + statusCode));
+        } else {
+            exchange.mResult.complete(body);
+        }
+    }
+
+    /**
+     * Fails the exchange in progress and closes the connection.
+     *
+     * @param ex IOException
+     */
+    private void fail(IOException ex) {
+        NioTransport.Exchange exchange = mExchange;
+        mExchange = null;
+        if (mState < OPEN && !(ex instanceof ConnectException)) {
+            // report failures to connect, tunnel or handshake as such, like the blocking transports do.
+            ConnectException connectEx = new ConnectException(ex.getMessage());
+            connectEx.initCause(ex);
+            ex = connectEx;
+        }
+        close();
+        if (exchange != null) {
+            exchange.mConnection = null;
+            exchange.mResult.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * @param buf     byte[]
+     * @param offset  int
+     * @param length  int
+     */
+    private void append(byte[] buf, int offset, int length) {
+        if (mDataLen + length > mData.length) {
+            byte[] grown = new byte[Math.max(mData.length * 2, mDataLen + length)];
+            System.arraycopy(mData, 0, grown, 0, mDataLen);
+            mData = grown;
+        }
+        System.arraycopy(buf, offset, mData, mDataLen, length);
+        mDataLen += length;
+    }
+
+    /**
+     * @return offset of the CRLFCRLF ending the response head, -1 if not received yet.
+     */
+    private int indexOfHeadEnd() {
+        for (int i = 0; i + 3 < mDataLen; i++) {
+            if (mData[i] == '\r' && mData[i + 1] == '\n' && mData[i + 2] == '\r' && mData[i + 3] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param from int
+     * @param to   int
+     * @return offset of the next CRLF, -1 if none.
+     */
+    private int indexOf(int from, int to) {
+        for (int i = from; i + 1 < to; i++) {
+            if (mData[i] == '\r' && mData[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param buf     ByteBuffer in write mode
+     * @param minimum int
+     * @return a larger buffer holding the same data.
+     */
+    private static ByteBuffer enlarge(ByteBuffer buf, int minimum) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + minimum));
+        buf.flip();
+        grown.put(buf);
+        return grown;
+    }
+}
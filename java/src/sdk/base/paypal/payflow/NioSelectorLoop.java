@@ -0,0 +1,159 @@
+package paypal.payflow;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A selector thread of the NioTransport. All I/O and state changes of the
+ * NioConnections registered with a loop happen on its thread; other threads
+ * hand work over with execute().
+ */
+final class NioSelectorLoop implements Runnable {
+
+    /**
+     * Interval of the idle connection check in milliseconds.
+     */
+    private static final long TICK = 1000;
+
+    /**
+     * Name of the selector thread.
+     */
+    private final String mName;
+
+    /**
+     * Tasks handed over by other threads.
+     */
+    private final ConcurrentLinkedQueue mTasks = new ConcurrentLinkedQueue();
+
+    private volatile Selector mSelector;
+
+    private volatile Thread mThread;
+
+    private volatile boolean mStopped;
+
+    /**
+     * Constructor.
+     *
+     * @param name String
+     */
+    NioSelectorLoop(String name) {
+        mName = name;
+    }
+
+    /**
+     * Runs the task on the selector thread, starting the thread on first use.
+     *
+     * @param task Runnable
+     * @throws IOException Exception if the selector cannot be opened or the loop was stopped.
+     */
+    void execute(Runnable task) throws IOException {
+        if (mThread == null) {
+            start();
+        }
+        if (mStopped) {
+            throw new IOException("Transport shut down");
+        }
+        mTasks.add(task);
+        mSelector.wakeup();
+    }
+
+    /**
+     * @return true if called on the selector thread.
+     */
+    boolean inLoop() {
+        return Thread.currentThread() == mThread;
+    }
+
+    /**
+     * @return mSelector Selector
+     */
+    Selector getSelector() {
+        return mSelector;
+    }
+
+    /**
+     * Stops the loop and closes its connections.
+     */
+    void shutdown() {
+        mStopped = true;
+        Selector selector = mSelector;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Opens the selector and starts the thread.
+     *
+     * @throws IOException Exception
+     */
+    private synchronized void start() throws IOException {
+        if (mThread == null) {
+            mSelector = Selector.open();
+            Thread thread = new Thread(this, mName);
+            thread.setDaemon(true);
+            mThread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Selector loop.
+     */
+    public void run() {
+        long lastTick = System.currentTimeMillis();
+        while (!mStopped) {
+            try {
+                mSelector.select(TICK);
+                runTasks();
+                Iterator keys = mSelector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = (SelectionKey) keys.next();
+                    keys.remove();
+                    if (key.isValid()) {
+                        ((NioConnection) key.attachment()).handleReady();
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastTick >= TICK) {
+                    lastTick = now;
+                    Iterator registered = mSelector.keys().iterator();
+                    while (registered.hasNext()) {
+                        ((NioConnection) ((SelectionKey) registered.next()).attachment()).checkIdle(now);
+                    }
+                }
+            } catch (Exception ex) {
+                Logger.getInstance().log("paypal.payflow.NioSelectorLoop.run(): Caught Exception: ", ex,
+                        PayflowConstants.SEVERITY_ERROR);
+            }
+        }
+        runTasks();
+        Object[] keys = mSelector.keys().toArray();
+        for (int i = 0; i < keys.length; i++) {
+            ((NioConnection) ((SelectionKey) keys[i]).attachment()).close();
+        }
+        try {
+            mSelector.close();
+        } catch (IOException ex) {
+            // nothing more to do.
+        }
+    }
+
+    /**
+     * Runs the tasks handed over since the last select.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = (Runnable) mTasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception ex) {
+                Logger.getInstance().log("paypal.payflow.NioSelectorLoop.runTasks(): Caught Exception: ", ex,
+                        PayflowConstants.SEVERITY_ERROR);
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package paypal.payflow;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking transport: TLS over java.nio SocketChannels with an SSLEngine, driven by
+ * a small number of selector threads. Sending a request does not block and the response
+ * completes a future, so a transaction submitted with submitTransactionAsync holds no
+ * thread while it waits for the server. Connections are kept alive and reused; at most
+ * maxConnectionsPerHost are opened per host and further requests queue for a free one.
+ * <p>
+ * To use it: SDKProperties.setPaymentTransport(new NioTransport());
+ * </p>
+ */
+public final class NioTransport implements PaymentTransport {
+
+    /**
+     * Connections and queued requests of one host.
+     */
+    static final class HostState {
+        private int mOpen;
+        private final ArrayDeque mIdle = new ArrayDeque();
+        private final ArrayDeque mWaiting = new ArrayDeque();
+    }
+
+    /**
+     * A request and its response.
+     */
+    static final class Exchange {
+        final TransportEndpoint mEndpoint;
+        final InetSocketAddress mAddress;
+        final ByteBuffer mRequest;
+        final CompletableFuture<byte[]> mResult = new CompletableFuture<byte[]>();
+        volatile NioConnection mConnection;
+        volatile Map mResponseHeaders;
+        boolean mRetried;
+
+        Exchange(TransportEndpoint endpoint, InetSocketAddress address, ByteBuffer request) {
+            mEndpoint = endpoint;
+            mAddress = address;
+            mRequest = request;
+        }
+    }
+
+    private final NioSelectorLoop[] mLoops;
+
+    private final AtomicInteger mNextLoop = new AtomicInteger();
+
+    private final int mMaxConnectionsPerHost;
+
+    /**
+     * HostState by pool key.
+     */
+    private final ConcurrentHashMap mHosts = new ConcurrentHashMap();
+
+    /**
+     * Creates a transport with one selector thread and SDKProperties.getMaxConnectionsPerHost()
+     * connections per host.
+     */
+    public NioTransport() {
+        this(1, SDKProperties.getMaxConnectionsPerHost());
+    }
+
+    /**
+     * @param selectorThreads       int number of selector threads, at least 1
+     * @param maxConnectionsPerHost int maximum number of connections per host, at least 1
+     */
+    public NioTransport(int selectorThreads, int maxConnectionsPerHost) {
+        mLoops = new NioSelectorLoop[Math.max(1, selectorThreads)];
+        for (int i = 0; i < mLoops.length; i++) {
+            mLoops[i] = new NioSelectorLoop("payflow-nio-selector-" + (i + 1));
+        }
+        mMaxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+    }
+
+    /**
+     * Opens a channel. No I/O happens until the request is sent.
+     *
+     * @param endpoint TransportEndpoint
+     * @param timeout  int
+     * @return TransportChannel
+     * @throws IOException Exception
+     */
+    public TransportChannel open(TransportEndpoint endpoint, int timeout) throws IOException {
+        return new Channel(this, endpoint);
+    }
+
+    /**
+     * Stops the selector threads and closes all connections.
+     */
+    public void shutdown() {
+        for (int i = 0; i < mLoops.length; i++) {
+            mLoops[i].shutdown();
+        }
+    }
+
+    /**
+     * Starts the exchange on an idle connection, a new connection if the host is below its
+     * limit, or else queues it until a connection becomes free.
+     *
+     * @param exchange Exchange
+     * @param fresh    boolean true to skip idle connections
+     */
+    void dispatch(Exchange exchange, boolean fresh) {
+        HostState host = getHost(exchange.mEndpoint.getPoolKey());
+        NioConnection conn = null;
+        synchronized (host) {
+            if (!fresh) {
+                conn = (NioConnection) host.mIdle.pollFirst();
+            }
+            if (conn == null) {
+                if (host.mOpen >= mMaxConnectionsPerHost) {
+                    host.mWaiting.addLast(exchange);
+                    return;
+                }
+                host.mOpen++;
+            }
+        }
+        if (conn == null) {
+            conn = new NioConnection(this, exchange.mEndpoint, exchange.mAddress,
+                    mLoops[Math.abs(mNextLoop.getAndIncrement() % mLoops.length)]);
+        }
+        start(conn, exchange);
+    }
+
+    /**
+     * Called on the selector thread when a connection finished an exchange and can be reused.
+     *
+     * @param conn NioConnection
+     */
+    void release(NioConnection conn) {
+        HostState host = getHost(conn.getPoolKey());
+        Exchange next;
+        synchronized (host) {
+            next = pollWaiting(host);
+            if (next == null) {
+                host.mIdle.addFirst(conn);
+                return;
+            }
+        }
+        start(conn, next);
+    }
+
+    /**
+     * Called on the selector thread when a connection was closed.
+     *
+     * @param conn NioConnection
+     */
+    void closed(NioConnection conn) {
+        HostState host = getHost(conn.getPoolKey());
+        Exchange next;
+        synchronized (host) {
+            host.mOpen--;
+            host.mIdle.remove(conn);
+            next = pollWaiting(host);
+            if (next == null) {
+                return;
+            }
+            host.mOpen++;
+        }
+        start(new NioConnection(this, next.mEndpoint, next.mAddress, conn.getLoop()), next);
+    }
+
+    /**
+     * @param host HostState
+     * @return next queued exchange that is still pending, null if none.
+     */
+    private static Exchange pollWaiting(HostState host) {
+        Exchange next;
+        do {
+            next = (Exchange) host.mWaiting.pollFirst();
+        } while (next != null && next.mResult.isDone());
+        return next;
+    }
+
+    /**
+     * Hands the exchange to the connection's selector thread. Always queued, also from the
+     * selector thread itself, so a connection never starts an exchange while still inside
+     * the I/O handling of the previous one.
+     *
+     * @param conn     NioConnection
+     * @param exchange Exchange
+     */
+    private void start(final NioConnection conn, final Exchange exchange) {
+        try {
+            conn.getLoop().execute(() -> conn.start(exchange));
+        } catch (IOException ex) {
+            // transport shut down.
+            exchange.mResult.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * @param poolKey String
+     * @return HostState
+     */
+    private HostState getHost(String poolKey) {
+        HostState host = (HostState) mHosts.get(poolKey);
+        if (host == null) {
+            HostState created = new HostState();
+            host = (HostState) mHosts.putIfAbsent(poolKey, created);
+            if (host == null) {
+                host = created;
+            }
+        }
+        return host;
+    }
+
+    /**
+     * Exchange on a NioConnection. send() only queues the request; the response
+     * future completes on the selector thread.
+     */
+    private static final class Channel implements TransportChannel {
+        private final NioTransport mTransport;
+        private final TransportEndpoint mEndpoint;
+        private volatile Exchange mExchange;
+
+        Channel(NioTransport transport, TransportEndpoint endpoint) {
+            mTransport = transport;
+            mEndpoint = endpoint;
+        }
+
+        public void send(Map headers, byte[] body, int timeout) throws IOException {
+            byte[] head = PooledConnection.formatRequestHead(mEndpoint.getPath(), mEndpoint.getHost(),
+                    mEndpoint.getPort(), headers, body.length);
+            ByteBuffer request = ByteBuffer.allocate(head.length + body.length);
+            request.put(head).put(body).flip();
+            // Resolve on the calling thread; selector threads must not block on DNS.
+            InetSocketAddress address = mEndpoint.getProxyHost() != null
+                    ? new InetSocketAddress(mEndpoint.getProxyHost(), mEndpoint.getProxyPort())
+                    : new InetSocketAddress(mEndpoint.getHost(), mEndpoint.getPort());
+            if (address.isUnresolved()) {
+                throw new IOException("Unable to resolve " + address.getHostString());
+            }
+            final Exchange exchange = new Exchange(mEndpoint, address, request);
+            exchange.mResult.orTimeout(timeout, TimeUnit.MILLISECONDS);
+            exchange.mResult.whenComplete((response, ex) -> {
+                NioConnection conn = exchange.mConnection;
+                if (ex != null && conn != null) {
+                    conn.abort(exchange);
+                }
+            });
+            mExchange = exchange;
+            mTransport.dispatch(exchange, false);
+        }
+
+        public byte[] receive(int timeout) throws IOException {
+            try {
+                return mExchange.mResult.get();
+            } catch (InterruptedException ex) {
+                close();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for response");
+            } catch (CancellationException ex) {
+                throw new IOException("Connection closed");
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof TimeoutException) {
+                    throw new SocketTimeoutException("Read timed out");
+                }
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        public String getResponseHeader(String name) {
+            Exchange exchange = mExchange;
+            Map headers = exchange == null ? null : exchange.mResponseHeaders;
+            return headers == null ? null : (String) headers.get(name.toLowerCase());
+        }
+
+        public CompletableFuture<?> getResponseReady() {
+            Exchange exchange = mExchange;
+            return exchange == null ? null : exchange.mResult;
+        }
+
+        public void close() {
+            Exchange exchange = mExchange;
+            if (exchange != null && !exchange.mResult.isDone()) {
+                exchange.mResult.completeExceptionally(new IOException("Connection closed"));
+            }
+        }
+    }
+}
@@ -30,7 +30,7 @@ final class ParameterListValidator {
                 new IPXmlReader(paramList);
             } else {
                 if (paramList != null && paramList.length() > 0) {
-                    parseNVPList(paramList, currentContext, false);
+                    parse(paramList, currentContext);
                 }
             }
 
@@ -53,214 +53,174 @@ final class ParameterListValidator {
      */
     public static Hashtable parseNVPList(String paramList, Context currentContext, boolean populateResponseHashTable) {
         Logger.getInstance().log("paypal.payflow.ParameterListValidator.ParseNVPList(String, context, boolean): Entered", PayflowConstants.SEVERITY_DEBUG);
-        long paramListLen = paramList.length();
-        int index = 0;
-        boolean openBracket = false;
-        boolean closeBracket = false;
-        String addlMessage;
-        ErrorObject err;
-        Hashtable paramListHashTable = new Hashtable();
-        if (paramList == null || paramList.length() <= 0) {
-            err = PayflowUtility.populateCommError(PayflowConstants.E_EMPTY_PARAM_LIST, null, PayflowConstants.SEVERITY_FATAL, false, null);
+        NameValueList pairs = parse(paramList, currentContext);
+        Hashtable paramListHashTable = populateResponseHashTable ? pairs.toHashtable() : new Hashtable();
+        Logger.getInstance().log("paypal.payflow.ParameterListValidator.ParseNVPList(String,context,bool): Exiting", PayflowConstants.SEVERITY_DEBUG);
+        return paramListHashTable;
+    }
+
+    /**
+     * Tokenizes a Name Value Pair list in one pass. Names and values are not
+     * copied; the returned list holds their offsets. Errors are added to the
+     * context and end the parse.
+     *
+     * @param paramList      String
+     * @param currentContext Context
+     * @return pairs NameValueList
+     */
+    static NameValueList parse(String paramList, Context currentContext) {
+        int paramListLen = paramList.length();
+        NameValueList pairs = new NameValueList(paramList);
+        if (paramListLen <= 0) {
+            ErrorObject err = PayflowUtility.populateCommError(PayflowConstants.E_EMPTY_PARAM_LIST, null, PayflowConstants.SEVERITY_FATAL, false, null);
             currentContext.addError(err);
         }
-        while (index < paramListLen && currentContext.getHighestErrorLvl() < PayflowConstants.SEVERITY_FATAL) {
-            int NameBuffSize = 1000;
-            int ValBuffSize = 1000;
-            int LenBuffSize = 1000;
-            char[] NameBuffer = new char[NameBuffSize];
-            char[] LenValueBuffer = new char[LenBuffSize];
-            char[] ValueBuffer = new char[ValBuffSize];
-            char[] TempArray;
-            int LenIndex = 0;
-            int NameIndex = 0;
+        // every error raised here is fatal, so the level is only read once.
+        boolean fatal = currentContext.getHighestErrorLvl() >= PayflowConstants.SEVERITY_FATAL;
+        int index = 0;
+        // a NUL ends the list.
+        while (index < paramListLen && !fatal && paramList.charAt(index) != '\0') {
+            int nameStart = index;
+            int nameEnd = -1;
+            int lenStart = -1;
+            int lenEnd = -1;
+            boolean closed = false;
             while (index < paramListLen && paramList.charAt(index) != '\0' && paramList.charAt(index) != '=') {
-                if (paramList.charAt(index) == '[') {
-                    if (openBracket) {
-                        addlMessage = "Found unmatched '[' followed by another '[' at index  " + (index + 1);
-                        err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
-                        if (!currentContext.isCommunicationErrorContained(err)) {
-                            currentContext.addError(err);
-                        }
+                char c = paramList.charAt(index);
+                if (c == '[') {
+                    if (lenStart >= 0) {
+                        fatal = addError(currentContext, "Found unmatched '[' followed by another '[' at index  " + (index + 1));
                         break;
                     }
-                    openBracket = true;
-                    index++;
-                    continue;
-                }
-                if (paramList.charAt(index) == ']') {
-                    if (!openBracket) {
-                        addlMessage = "Unmatched ']' at index " + (index + 1);
-                        err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
-                        if (!currentContext.isCommunicationErrorContained(err)) {
-                            currentContext.addError(err);
-                        }
+                    nameEnd = index;
+                    lenStart = index + 1;
+                } else if (c == ']') {
+                    if (lenStart < 0) {
+                        fatal = addError(currentContext, "Unmatched ']' at index " + (index + 1));
                         break;
                     } else if ((index + 1) < paramListLen && paramList.charAt(index + 1) != '=') {
-                        addlMessage = "']' is not followed by '=' in param list at index " + (index + 1);
-                        err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
-                        if (!currentContext.isCommunicationErrorContained(err)) {
-                            currentContext.addError(err);
-                        }
+                        fatal = addError(currentContext, "']' is not followed by '=' in param list at index " + (index + 1));
                         break;
                     } else if ((index + 1) < paramListLen && paramList.charAt(index - 1) == '[') {
-                        addlMessage = "Length of value not found in '[]' at index " + (index + 1);
-                        err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
-                        if (!currentContext.isCommunicationErrorContained(err)) {
-                            currentContext.addError(err);
-                        }
+                        fatal = addError(currentContext, "Length of value not found in '[]' at index " + (index + 1));
+                        break;
+                    } else if (lenEnd >= 0) {
+                        fatal = addError(currentContext, "Found unmatched ']' followed by another ']' at index  " + (index + 1));
                         break;
-                    } else {
-                        if (closeBracket) {
-                            addlMessage = "Found unmatched ']' followed by another ']' at index  " + (index + 1);
-                            err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
-                            if (!currentContext.isCommunicationErrorContained(err)) {
-                                currentContext.addError(err);
-                            }
-                            break;
-                        }
-                        index++;
-                        closeBracket = true;
-                        continue;
                     }
-                }
-                if (openBracket && !closeBracket) {
-                    //increase the size of LenValueBuffer if required
-                    if (LenIndex >= LenBuffSize) {
-                        LenBuffSize += 2000;
-                        TempArray = new char[LenBuffSize];
-                        // Commented by CRT
-                        //System.Array.Copy(LenValueBuffer, TempArray, LenValueBuffer.length);
-                        LenValueBuffer = TempArray;
+                    lenEnd = index;
+                    closed = true;
+                } else if (lenStart < 0 && c == '&') {
+                    ErrorObject err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME, null, PayflowConstants.SEVERITY_FATAL, false,
+                            paramList.substring(nameStart, index + 1).trim());
+                    if (!currentContext.isCommunicationErrorContained(err)) {
+                        currentContext.addError(err);
                     }
-                    LenValueBuffer[LenIndex] = paramList.charAt(index);
-                    LenIndex++;
-                    index++;
-                } else {
-                    //increase the size of NameBuffer if required
-                    if (NameIndex >= NameBuffSize) {
-                        NameBuffSize += 2000;
-                        TempArray = new char[NameBuffSize];
-                        // Commented by CRT
-                        //System.Array.Copy(NameBuffer, TempArray, NameBuffer.length);
-                        NameBuffer = TempArray;
-                    }
-                    NameBuffer[NameIndex] = paramList.charAt(index);
-                    if (NameBuffer[NameIndex] == '&') {
-                        addlMessage = new String(NameBuffer);
-                        addlMessage = addlMessage.trim();
-                        err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
-                        if (!currentContext.isCommunicationErrorContained(err)) {
-                            currentContext.addError(err);
-                        }
-                    }
-                    index++;
-                    NameIndex++;
+                    fatal = true;
                 }
+                index++;
+            }
+            if (nameEnd < 0) {
+                nameEnd = index;
             }
             //skip '='
             if (index < paramListLen && paramList.charAt(index) != '\0') {
                 index++;
             }
-            if (openBracket && !closeBracket) {
-                addlMessage = "Unmatched '[' at index " + (index + 1);
-                err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
-                if (!currentContext.isCommunicationErrorContained(err)) {
-                    currentContext.addError(err);
-                }
+            if (lenStart >= 0 && !closed) {
+                addError(currentContext, "Unmatched '[' at index " + (index + 1));
                 break;
             }
-            if (openBracket && closeBracket && LenValueBuffer != null && LenValueBuffer.length > 0 && LenValueBuffer[0] == '-') {
-                String Len = new String(LenValueBuffer).trim();
-                addlMessage = "Invalid param length = " + Len;
-                err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
-                if (!currentContext.isCommunicationErrorContained(err)) {
-                    currentContext.addError(err);
-                }
+            if (closed && lenStart < lenEnd && paramList.charAt(lenStart) == '-') {
+                addError(currentContext, "Invalid param length = " + paramList.substring(lenStart, lenEnd).trim());
                 break;
             }
 
-            int ValIndex = 0;
-            while (index < paramListLen && paramList.charAt(index) != '\0' && currentContext.getHighestErrorLvl() < PayflowConstants.SEVERITY_FATAL) {
-                if (LenValueBuffer != null && LenValueBuffer.length > 0 && LenValueBuffer[0] != '\0') {
-                    String LenString = new String(LenValueBuffer);
-                    LenString = LenString.trim();
-                    int Len;
+            int valueStart = index;
+            int valueEnd = index;
+            if (index < paramListLen && paramList.charAt(index) != '\0' && !fatal) {
+                if (closed && lenStart < lenEnd) {
                     try {
-                        Len = Integer.parseInt(LenString);
-                    } catch (Exception Ex) {
-                        String Name = new String(NameBuffer).trim();
-                        addlMessage = "Value in [] is not numeric data, data in '[]' =  " + LenString.trim() + "for Name = " + Name;
-                        err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, Ex, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
-                        if (!currentContext.isCommunicationErrorContained(err)) {
-                            currentContext.addError(err);
+                        int len = parseLength(paramList, lenStart, lenEnd);
+                        if (len < 0 || (index + len < paramListLen && paramList.charAt(index + len) != '&')) {
+                            fatal = addError(currentContext, "Param length in '[]' does not match actual value length.Param Name = "
+                                    + paramList.substring(nameStart, nameEnd).trim());
+                        } else {
+                            valueEnd = Math.min(index + len, paramListLen);
                         }
-                        break;
-                    }
-                    int AmpIndex = index + Len;
-                    if (AmpIndex < paramListLen && paramList.charAt(AmpIndex) != '&') {
-                        // Modified by CRT
-                        String Name = new String(NameBuffer).trim();
-                        addlMessage = "Param length in '[]' does not match actual value length.Param Name = " + Name;
-                        err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
+                        index += len + 1;
+                    } catch (NumberFormatException Ex) {
+                        String addlMessage = "Value in [] is not numeric data, data in '[]' =  " + paramList.substring(lenStart, lenEnd).trim()
+                                + "for Name = " + paramList.substring(nameStart, nameEnd).trim();
+                        ErrorObject err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, Ex, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
                         if (!currentContext.isCommunicationErrorContained(err)) {
                             currentContext.addError(err);
                         }
-                        index += Len + 1;
-                        break;
-                    } else {
-                        //increase the size of ValueBuffer if required
-                        if (Len >= ValBuffSize) {
-                            // Fixed out of bounds array issue. 11/09/2007 tsieber
-                            ValBuffSize += Len + 2000;
-                            ValueBuffer = new char[ValBuffSize];
-                        }
-                        int ValueIndex;
-                        for (ValueIndex = 0; ValueIndex < Len && index + ValueIndex < paramListLen; ValueIndex++) {
-                            ValueBuffer[ValueIndex] = paramList.charAt(index + ValueIndex);
-                        }
-                        index += Len + 1;
-                        break;
+                        fatal = true;
                     }
                 } else {
-                    //increase the size of NameBuffer if required
-                    if (ValIndex >= ValBuffSize) {
-                        ValBuffSize += 2000;
-                        TempArray = new char[ValBuffSize];
-                        // Commented by CRT
-                        //System.Array.Copy(ValueBuffer, TempArray, ValueBuffer.length);
-                        ValueBuffer = TempArray;
-                    }
-                    if (paramList.charAt(index) == '&') {
-                        if ((index + 1) < paramListLen && paramList.charAt(index + 1) == '&') {
-                            ValueBuffer[ValIndex] = paramList.charAt(index);
-                        } else if (paramList.charAt(index - 1) == '&') {
-                            ValueBuffer[ValIndex] = paramList.charAt(index);
-                        } else {
+                    // a single '&' ends the value; "&&" is part of it.
+                    while (index < paramListLen && paramList.charAt(index) != '\0') {
+                        if (paramList.charAt(index) == '&'
+                                && !((index + 1) < paramListLen && paramList.charAt(index + 1) == '&')
+                                && paramList.charAt(index - 1) != '&') {
+                            valueEnd = index;
                             index++;
-                            // ValIndex++;
                             break;
                         }
-                    } else {
-                        ValueBuffer[ValIndex] = paramList.charAt(index);
+                        index++;
+                        valueEnd = index;
                     }
                 }
-                index++;
-                ValIndex++;
             }
-            //put data in hash table as name - value
-            if (populateResponseHashTable) {
-                String Name = new String(NameBuffer).trim();
-                String Value = new String(ValueBuffer).trim();
-                if (paramListHashTable.contains(Name)) {
-                    Name = Name + PayflowConstants.TAG_DUPLICATE + PayflowUtility.getRequestId();
-                }
-                paramListHashTable.put(Name, Value);
+            pairs.add(nameStart, nameEnd, valueStart, valueEnd);
+        }
+        return pairs;
+    }
+
+    /**
+     * Adds a fatal E_PARM_NAME_LEN error to the context.
+     *
+     * @param currentContext Context
+     * @param addlMessage    String
+     * @return true
+     */
+    private static boolean addError(Context currentContext, String addlMessage) {
+        ErrorObject err = PayflowUtility.populateCommError(PayflowConstants.E_PARM_NAME_LEN, null, PayflowConstants.SEVERITY_FATAL, false, addlMessage);
+        if (!currentContext.isCommunicationErrorContained(err)) {
+            currentContext.addError(err);
+        }
+        return true;
+    }
+
+    /**
+     * Parses the length given in '[]' as Integer.parseInt() does after trimming,
+     * copying it out of the list only if it is not a plain number.
+     *
+     * @param paramList String
+     * @param start     int
+     * @param end       int
+     * @return length int
+     * @throws NumberFormatException if the length is not a number.
+     */
+    private static int parseLength(String paramList, int start, int end) {
+        while (start < end && paramList.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && paramList.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start == 0 || end - start > 9) {
+            return Integer.parseInt(paramList.substring(start, end));
+        }
+        int len = 0;
+        for (int i = start; i < end; i++) {
+            char c = paramList.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.parseInt(paramList.substring(start, end));
             }
-            openBracket = false;
-            closeBracket = false;
+            len = len * 10 + (c - '0');
         }
-        Logger.getInstance().log("paypal.payflow.ParameterListValidator.ParseNVPList(String,context,bool): Exiting", PayflowConstants.SEVERITY_DEBUG);
-        return paramListHashTable;
+        return len;
     }
-}
\ No newline at end of file
+}
@@ -2,10 +2,13 @@ package paypal.payflow;
 
 
 
-import org.xml.sax.SAXException;
+import javax.xml.stream.XMLStreamException;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * PayflowAPI is used to submit a Name-value pair or XMLPay request to
@@ -87,15 +90,45 @@ public class PayflowAPI {
     private Context mTransactionContext;
 
     /**
-     * Transaction Request
+     * Transaction Request, masked on first read.
      */
-    private String mTransactionRequest;
+    private MaskedRequest mTransactionRequest;
+
+    /**
+     * XMLPay request parsed by checkTransactionArgs, null for NVP requests.
+     */
+    private XmlPayRequestDescriptor mXmlPayDescriptor;
 
     /**
      * Transaction Response
      */
     private String mTransactionResponse;
 
+    /**
+     * Messages of the transaction when it is not sampled for full logging, null otherwise.
+     */
+    private LogSample mLogSample;
+
+    /**
+     * Time the transaction was submitted, in milliseconds since the epoch.
+     */
+    private long mStartTime;
+
+    /**
+     * System.nanoTime() when the transaction was submitted.
+     */
+    private long mStartNanos;
+
+    /**
+     * Time spent validating the request and preparing the state machine.
+     */
+    private long mPrepareNanos;
+
+    /**
+     * Time spent in the states of the state machine, by JournalRecord phase;
+     * null if the transaction did not reach the state machine.
+     */
+    private long[] mPhaseNanos;
 
     /**
      * Flag for xml pay request
@@ -217,6 +250,13 @@ public class PayflowAPI {
      * @return transactionRequest String
      */
     public String getTransactionRequest() {
+        return mTransactionRequest == null ? null : mTransactionRequest.getMasked();
+    }
+
+    /**
+     * @return transactionRequest MaskedRequest
+     */
+    MaskedRequest getMaskedRequest() {
         return mTransactionRequest;
     }
 
@@ -312,79 +352,208 @@ public class PayflowAPI {
      * @return response String
      */
     public String submitTransaction(String paramList, String requestId) {
-        if (!isStrongAssemblyTransaction) {
-            Logger.getInstance().log("########### BEGIN TRANSACTION request id : " + requestId + " ###########", PayflowConstants.SEVERITY_INFO);
+        LogSample previousSample = Logger.bindSample(startTransaction(requestId));
+        try {
+            return endTransaction(requestId, runTransaction(paramList, requestId));
+        } finally {
+            Logger.bindSample(previousSample);
         }
-        Logger.getInstance().log("paypal.payflow.PayflowAPI.submitTransaction(String,String): Entered", PayflowConstants.SEVERITY_DEBUG);
+    }
 
+    /**
+     * Runs a transaction on the calling thread.
+     *
+     * @param paramList String
+     * @param requestId String
+     * @return response String
+     */
+    private String runTransaction(String paramList, String requestId) {
         String retVal = null;
-        mRequestId = requestId;
-        //masked Transaction Requests will be used for logging
-        mTransactionRequest = PayflowUtility.maskSensitiveFields(paramList);
-        Logger.getInstance().log("paypal.payflow.PayflowAPI.submitTransaction(String,String): Host " + mHostAddress, PayflowConstants.SEVERITY_DEBUG);
         try {
-            checkTransactionArgs(paramList, requestId);
-            //Logger.getInstance().log("paypal.payflow.PayflowAPI.submitTransaction(String,String): parmList " + paramList, PayflowConstants.SEVERITY_DEBUG);
-            mTransactionContext.setLoadLoggerErrs(true);
-            ArrayList errors = PayflowUtility.alignContext(mTransactionContext, getIsXmlPayRequest());
-            mTransactionContext.setLoadLoggerErrs(false);
-            mTransactionContext.clearErrors();
-            mTransactionContext.addErrors(errors);
-            //Logger.getInstance().log("submitTransaction()START", PayflowConstants.SEVERITY_DEBUG);
-            if (mTransactionContext.getHighestErrorLvl() == PayflowConstants.SEVERITY_FATAL) {
-                ArrayList errorList = mTransactionContext.getErrors(PayflowConstants.SEVERITY_FATAL);
-                ErrorObject firstFatalError = (ErrorObject) errorList.get(0);
-                retVal = firstFatalError.toString();
-                //mTransactionRequest = PayflowUtility.maskSensitiveFields(ParamList);
-                mTransactionResponse = retVal;
+            PaymentStateMachine mPaymentStateMachine = beginTransaction(paramList, requestId);
+            if (mPaymentStateMachine == null) {
+                retVal = mTransactionResponse;
             } else {
-                PaymentStateMachine mPaymentStateMachine = PaymentStateMachine.getInstance();
-                if (mClientInfo == null) {
-                    mClientInfo = new ClientInfo();
-                }
-                mClientInfo.setClientVersion(PayflowConstants.CLIENT_VERSION);
-                mClientInfo.setClientType(PayflowConstants.CLIENT_TYPE);
-                if (isStrongAssemblyTransaction) {
-                    mClientInfo.setPayflowAssembly(PayflowConstants.STRONG_ASSEMBLY);
-                } else {
-                    mClientInfo.setPayflowAssembly(PayflowConstants.WEAK_ASSEMBLY);
-                }
-                mPaymentStateMachine.initializeContext(mHostAddress, mHostPort, mTimeout, mProxyAddress, mProxyPort, mProxyLogon, mProxyPassword, mClientInfo);
-
-                //Initialize transaction
-                mPaymentStateMachine.initTrans(paramList, requestId);
-                if (PayflowUtility.isTimedOut(mPaymentStateMachine.getTimeout(), mPaymentStateMachine.getStartTime())) {
-                    String addlMessage = "Input timeout in millsec = " + mPaymentStateMachine.getTimeout();
-                    ErrorObject err = PayflowUtility.populateCommError(PayflowConstants.E_TIMEOUT_WAIT_RESP, null, PayflowConstants.SEVERITY_FATAL,
-                            mPaymentStateMachine.getIsXmlPayRequest(), addlMessage);
-                    if (!mPaymentStateMachine.getPsmContext().isCommunicationErrorContained(err)) {
-                        mPaymentStateMachine.getPsmContext().addError(err);
-                    }
-                }
-                //End Payflow Timeout Check Point 1
-
                 //Begin Toggle through states
                 while (mPaymentStateMachine.getInProgress()) {
                     mPaymentStateMachine.execute();
                 }
                 //End Toggle through states
 
-                mTransactionResponse = mPaymentStateMachine.getResponse();
-                retVal = mTransactionResponse;
-                mClientInfo = mPaymentStateMachine.getClientInfo();
-                mRequestId = mPaymentStateMachine.getRequestId();
-                mTransactionContext.addErrors(mPaymentStateMachine.getPsmContext().getErrors());
-                ArrayList errList = PayflowUtility.alignContext(mTransactionContext, getIsXmlPayRequest());
-                mTransactionContext.setLoadLoggerErrs(false);
-                mTransactionContext.clearErrors();
-                mTransactionContext.addErrors(errList);
+                retVal = collectResponse(mPaymentStateMachine);
             }
         } catch (Exception ex) {
             retVal = ex.toString();
         } finally {
             Logger.getInstance().log("paypal.payflow.PayflowAPI.SubmitTransaction(String,String): Exiting", PayflowConstants.SEVERITY_DEBUG);
         }
-        if (!isStrongAssemblyTransaction) {
+        return retVal;
+    }
+
+    /**
+     * Submits a transaction to Payflow Server without blocking the calling thread.
+     * The transaction runs on the SDK executor: virtual threads on a Java 21+ runtime,
+     * see SDKProperties.setVirtualThreadsEnabled(), a pool of platform threads otherwise.
+     *
+     * @param paramList String
+     * @param requestId String
+     * @return response CompletableFuture
+     */
+    public CompletableFuture<String> submitTransactionAsync(String paramList, String requestId) {
+        return submitTransactionAsync(paramList, requestId, TransactionExecutor.get());
+    }
+
+    /**
+     * Submits a transaction to Payflow Server without blocking the calling thread.
+     * The transaction runs as tasks on the given executor; the delay between reconnect
+     * attempts is scheduled rather than slept. The returned future completes with the
+     * same response string submitTransaction would return. Cancelling the future aborts
+     * the exchange in progress.
+     * <p>
+     * A PayflowAPI instance holds the state of one transaction: do not submit another
+     * transaction on the same instance until the future has completed.
+     *
+     * @param paramList String
+     * @param requestId String
+     * @param taskExecutor Executor
+     * @return response CompletableFuture
+     */
+    public CompletableFuture<String> submitTransactionAsync(final String paramList, final String requestId, Executor taskExecutor) {
+        final CompletableFuture<String> result = new CompletableFuture<String>();
+        final Executor executor = Logger.bindSample(startTransaction(requestId), taskExecutor);
+        try {
+            executor.execute(() -> {
+                try {
+                    final PaymentStateMachine mPaymentStateMachine = beginTransaction(paramList, requestId);
+                    if (mPaymentStateMachine == null) {
+                        result.complete(endTransaction(requestId, mTransactionResponse));
+                        return;
+                    }
+                    result.whenComplete((response, ex) -> {
+                        if (result.isCancelled()) {
+                            mPaymentStateMachine.cancel();
+                        }
+                    });
+                    mPaymentStateMachine.executeAsync(executor).whenComplete((done, ex) -> {
+                        if (result.isDone()) {
+                            // cancelled by the caller.
+                            endTransaction(requestId, null);
+                            return;
+                        }
+                        String retVal;
+                        try {
+                            retVal = ex == null ? collectResponse(mPaymentStateMachine) : ex.toString();
+                        } catch (Exception e) {
+                            retVal = e.toString();
+                        }
+                        result.complete(endTransaction(requestId, retVal));
+                    });
+                } catch (Exception ex) {
+                    result.complete(endTransaction(requestId, ex.toString()));
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Validates the request and prepares the state machine for the transaction.
+     *
+     * @param paramList String
+     * @param requestId String
+     * @return PaymentStateMachine, null if the request failed validation; the
+     * response is set to the first fatal error in that case.
+     */
+    private PaymentStateMachine beginTransaction(String paramList, String requestId) {
+        if (!isStrongAssemblyTransaction && Logger.isEnabled(PayflowConstants.SEVERITY_INFO)) {
+            Logger.getInstance().log("########### BEGIN TRANSACTION request id : " + requestId + " ###########", PayflowConstants.SEVERITY_INFO);
+        }
+        Logger.getInstance().log("paypal.payflow.PayflowAPI.submitTransaction(String,String): Entered", PayflowConstants.SEVERITY_DEBUG);
+
+        mRequestId = requestId;
+        Logger.getInstance().log("paypal.payflow.PayflowAPI.submitTransaction(String,String): Host ", mHostAddress, PayflowConstants.SEVERITY_DEBUG);
+        checkTransactionArgs(paramList, requestId);
+        //masked Transaction Requests will be used for logging
+        if (mXmlPayDescriptor != null) {
+            mTransactionRequest = new MaskedRequest(paramList, mXmlPayDescriptor.getMaskedRequest());
+        } else {
+            mTransactionRequest = new MaskedRequest(paramList);
+        }
+        //Logger.getInstance().log("paypal.payflow.PayflowAPI.submitTransaction(String,String): parmList " + paramList, PayflowConstants.SEVERITY_DEBUG);
+        mTransactionContext.setLoadLoggerErrs(true);
+        ArrayList errors = PayflowUtility.alignContext(mTransactionContext, getIsXmlPayRequest());
+        mTransactionContext.setLoadLoggerErrs(false);
+        mTransactionContext.clearErrors();
+        mTransactionContext.addErrors(errors);
+        //Logger.getInstance().log("submitTransaction()START", PayflowConstants.SEVERITY_DEBUG);
+        if (mTransactionContext.getHighestErrorLvl() == PayflowConstants.SEVERITY_FATAL) {
+            ArrayList errorList = mTransactionContext.getErrors(PayflowConstants.SEVERITY_FATAL);
+            ErrorObject firstFatalError = (ErrorObject) errorList.get(0);
+            //mTransactionRequest = PayflowUtility.maskSensitiveFields(ParamList);
+            mTransactionResponse = firstFatalError.toString();
+            return null;
+        }
+        PaymentStateMachine mPaymentStateMachine = PaymentStateMachine.getInstance();
+        if (mClientInfo == null) {
+            mClientInfo = new ClientInfo();
+        }
+        mClientInfo.setClientVersion(PayflowConstants.CLIENT_VERSION);
+        mClientInfo.setClientType(PayflowConstants.CLIENT_TYPE);
+        if (isStrongAssemblyTransaction) {
+            mClientInfo.setPayflowAssembly(PayflowConstants.STRONG_ASSEMBLY);
+        } else {
+            mClientInfo.setPayflowAssembly(PayflowConstants.WEAK_ASSEMBLY);
+        }
+        mPaymentStateMachine.initializeContext(mHostAddress, mHostPort, mTimeout, mProxyAddress, mProxyPort, mProxyLogon, mProxyPassword, mClientInfo);
+
+        //Initialize transaction
+        mPaymentStateMachine.initTrans(paramList, requestId, mXmlPayDescriptor);
+        mPaymentStateMachine.setMaskedRequest(mTransactionRequest);
+        if (PayflowUtility.isTimedOut(mPaymentStateMachine.getTimeout(), mPaymentStateMachine.getStartTime())) {
+            String addlMessage = "Input timeout in millsec = " + mPaymentStateMachine.getTimeout();
+            ErrorObject err = PayflowUtility.populateCommError(PayflowConstants.E_TIMEOUT_WAIT_RESP, null, PayflowConstants.SEVERITY_FATAL,
+                    mPaymentStateMachine.getIsXmlPayRequest(), addlMessage);
+            if (!mPaymentStateMachine.getPsmContext().isCommunicationErrorContained(err)) {
+                mPaymentStateMachine.getPsmContext().addError(err);
+            }
+        }
+        //End Payflow Timeout Check Point 1
+        mPrepareNanos = System.nanoTime() - mStartNanos;
+        mPhaseNanos = mPaymentStateMachine.getPhaseNanos();
+        return mPaymentStateMachine;
+    }
+
+    /**
+     * Copies the response, client info and errors of a completed state machine.
+     *
+     * @param mPaymentStateMachine PaymentStateMachine
+     * @return response String
+     */
+    private String collectResponse(PaymentStateMachine mPaymentStateMachine) {
+        mTransactionResponse = mPaymentStateMachine.getResponse();
+        mClientInfo = mPaymentStateMachine.getClientInfo();
+        mRequestId = mPaymentStateMachine.getRequestId();
+        if (mPaymentStateMachine.getPsmContext().isErrorContained()) {
+            mTransactionContext.addErrors(mPaymentStateMachine.getPsmContext().getErrorsReadOnly());
+        }
+        ArrayList errList = PayflowUtility.alignContext(mTransactionContext, getIsXmlPayRequest());
+        mTransactionContext.setLoadLoggerErrs(false);
+        mTransactionContext.clearErrors();
+        mTransactionContext.addErrors(errList);
+        return mTransactionResponse;
+    }
+
+    /**
+     * Logs the end of the transaction and its errors.
+     *
+     * @param requestId String
+     * @param retVal    String
+     * @return retVal String
+     */
+    private String endTransaction(String requestId, String retVal) {
+        if (!isStrongAssemblyTransaction && Logger.isEnabled(PayflowConstants.SEVERITY_INFO)) {
             Logger.getInstance().log("########### END TRANSACTION request id : " + requestId + "###########", PayflowConstants.SEVERITY_INFO);
         }
 
@@ -399,9 +568,75 @@ public class PayflowAPI {
         if (mTransactionContext.isErrorContained()) {
             mTransactionContext.logErrors();
         }
+        if (mLogSample != null) {
+            Logger.getInstance().endSample(mLogSample, !LogSample.isResultZero(retVal)
+                    || mTransactionContext.getHighestErrorLvl() >= PayflowConstants.SEVERITY_ERROR);
+            mLogSample = null;
+        }
+        TransactionJournal journal = TransactionJournal.getInstance();
+        if (journal != null) {
+            journalTransaction(journal, requestId, retVal);
+        }
         return retVal;
     }
 
+    /**
+     * Records the start of the transaction and decides whether it is logged in full.
+     *
+     * @param requestId String
+     * @return the sample holding the messages of the transaction, null if it is logged in full.
+     */
+    private LogSample startTransaction(String requestId) {
+        mStartTime = System.currentTimeMillis();
+        mStartNanos = System.nanoTime();
+        mTransactionRequest = null;
+        mPhaseNanos = null;
+        mLogSample = Logger.getInstance().newSample(requestId);
+        return mLogSample;
+    }
+
+    /**
+     * Appends the transaction to the transaction journal.
+     *
+     * @param journal   TransactionJournal
+     * @param requestId String
+     * @param retVal    String
+     */
+    private void journalTransaction(TransactionJournal journal, String requestId, String retVal) {
+        long total = System.nanoTime() - mStartNanos;
+        int[] phaseMicros = new int[JournalRecord.PHASE_COUNT];
+        if (mPhaseNanos != null) {
+            for (int i = 0; i < mPhaseNanos.length; i++) {
+                phaseMicros[i] = toMicros(mPhaseNanos[i]);
+            }
+            phaseMicros[JournalRecord.PHASE_PREPARE] = toMicros(mPrepareNanos);
+        } else {
+            phaseMicros[JournalRecord.PHASE_PREPARE] = toMicros(total);
+        }
+        phaseMicros[JournalRecord.PHASE_TOTAL] = toMicros(total);
+        String request = null;
+        String trxType = null;
+        if (mTransactionRequest != null) {
+            request = mTransactionRequest.getMasked();
+            trxType = TransactionJournal.getTrxType(mTransactionRequest.getRequest());
+        }
+        try {
+            journal.append(new JournalRecord(mStartTime, requestId, trxType, request, retVal,
+                    TransactionJournal.getResult(retVal), phaseMicros));
+        } catch (IOException ex) {
+            Logger.getInstance().log("paypal.payflow.PayflowAPI.journalTransaction(TransactionJournal,String,String): ", ex,
+                    PayflowConstants.SEVERITY_WARN);
+        }
+    }
+
+    /**
+     * @param nanos long
+     * @return microseconds, capped at Integer.MAX_VALUE.
+     */
+    private static int toMicros(long nanos) {
+        return (int) Math.min(Integer.MAX_VALUE, nanos / 1000);
+    }
+
     /**
      * For any value not passed in the constructor the values being set in the properties will
      * be used.
@@ -431,7 +666,7 @@ public class PayflowAPI {
                 ErrorObject error = new ErrorObject(PayflowConstants.SEVERITY_FATAL, PayflowConstants.EMPTY_STRING, RespMessage);
                 mTransactionContext.addError(error);
             }
-            Logger.getInstance().log("paypal.payflow.PayflowAPI.initSDKProperties(): host set: " + mHostAddress, PayflowConstants.SEVERITY_DEBUG);
+            Logger.getInstance().log("paypal.payflow.PayflowAPI.initSDKProperties(): host set: ", mHostAddress, PayflowConstants.SEVERITY_DEBUG);
         }
         if (mProxyPort == 0) {
             mProxyPort = SDKProperties.getProxyPort();
@@ -467,6 +702,7 @@ public class PayflowAPI {
      */
     private void checkTransactionArgs(String paramList, String requestId) {
         Logger.getInstance().log("paypal.payflow.PayflowAPI.CheckTransactionArgs(String, String): Entered", PayflowConstants.SEVERITY_DEBUG);
+        mXmlPayDescriptor = null;
         try {
             Context tempContext = null;
             if (paramList == null || paramList.trim().length() == 0) {
@@ -487,7 +723,8 @@ public class PayflowAPI {
                 int index = paramList.trim().indexOf(PayflowConstants.XML_ID);
                 if (index >= 0) {
                     String version;
-                    version = PayflowUtility.getXmlAttribute(paramList, PayflowConstants.XML_PARAM_VERSION);
+                    mXmlPayDescriptor = XmlPayRequestDescriptor.parse(paramList);
+                    version = mXmlPayDescriptor.getVersion();
 
                     if (version != null && version.trim().length() > 0) {
                         mIsXmlPayRequest = true;
@@ -516,18 +753,12 @@ public class PayflowAPI {
                 ErrorObject error = new ErrorObject(PayflowConstants.SEVERITY_FATAL, PayflowConstants.EMPTY_STRING, respMessage);
                 tempContext.addError(error);
             }
-        } catch (SAXException exp) {
+        } catch (XMLStreamException exp) {
             String addlMessage;
             setIsXmlPayRequest(true);
             addlMessage = "Error while parsing the xml request.";
             ErrorObject Error = PayflowUtility.populateCommError(PayflowConstants.E_UNKNOWN_STATE, exp, PayflowConstants.SEVERITY_FATAL, getIsXmlPayRequest(), addlMessage);
             mTransactionContext.addError(Error);
-        } catch (IOException exp) {
-            String addlMessage;
-            setIsXmlPayRequest(true);
-            addlMessage = "Error while parsing the xml request.";
-            ErrorObject error = PayflowUtility.populateCommError(PayflowConstants.E_UNKNOWN_STATE, exp, PayflowConstants.SEVERITY_FATAL, getIsXmlPayRequest(), addlMessage);
-            mTransactionContext.addError(error);
         } catch (Exception exp) {
             String addlMessage;
             setIsXmlPayRequest(false);
@@ -218,6 +218,7 @@ public final class PayflowConstants {
         ErrorCodeTable.put(E_INIT_ERROR, "-109");
         ErrorCodeTable.put(E_CURRENCY_PROCESS_ERROR, "-113");
         ErrorCodeTable.put(E_INVALID_TRANSACTION_REQUEST, "-114");
+        ErrorCodeTable.put(E_RESPONSE_TOO_LARGE, "-115");
         return ErrorCodeTable;
     }
 
@@ -246,6 +247,7 @@ public final class PayflowConstants {
         ErrorMessageTable.put(E_VERSION_NOT_SUPPORTED, "This XMLPay Version is not supported");
         ErrorMessageTable.put(E_INIT_ERROR, INIT_ERROR);
         ErrorMessageTable.put(E_INVALID_TRANSACTION_REQUEST, "The transaction request is invalid");
+        ErrorMessageTable.put(E_RESPONSE_TOO_LARGE, "Response exceeds the maximum response size");
         ErrorMessageTable.put(E_CURRENCY_PROCESS_ERROR, "Unable to round and truncate the currency value simultaneously. You can set only one of the two properties Round OR Truncate in the Data Object Currency.");
         return ErrorMessageTable;
     }
@@ -323,6 +325,18 @@ public final class PayflowConstants {
      * Severity for a DEBUG level message.
      */
     public static final int SEVERITY_DEBUG = 1;
+    /**
+     * Asynchronous logging: a full log queue makes the caller wait.
+     */
+    public static final int LOG_OVERFLOW_BLOCK = 0;
+    /**
+     * Asynchronous logging: a full log queue drops DEBUG messages and makes the caller wait otherwise.
+     */
+    public static final int LOG_OVERFLOW_DROP_DEBUG = 1;
+    /**
+     * Asynchronous logging: a full log queue drops the message.
+     */
+    public static final int LOG_OVERFLOW_DROP_ALL = 2;
     /**
      * represents any error occurring due to improper initialisation of system level properties
      */
@@ -466,6 +480,10 @@ public final class PayflowConstants {
      * Communication Error Version Not Supported
      */
     protected static final String E_VERSION_NOT_SUPPORTED = "E_VERSION_NOT_SUPPORTED";
+    /**
+     * Communication Error Response Too Large
+     */
+    protected static final String E_RESPONSE_TOO_LARGE = "E_RESPONSE_TOO_LARGE";
 
     /**
      * protected Error Init Error
@@ -1882,6 +1900,42 @@ public final class PayflowConstants {
      * max LogFile Size in Bytes; beyond this size the log file will be archived
      */
     protected static final int DEFAULT_MAX_LOG_FILE_SIZE = 10000000;
+    /**
+     * Default maximum number of pooled connections per Payflow host (10)
+     */
+    protected static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 10;
+    /**
+     * Default time in seconds a pooled connection may stay idle (30 sec)
+     */
+    protected static final int DEFAULT_CONNECTION_IDLE_TIMEOUT = 30;
+    /**
+     * Default time in seconds after which a pooled connection is recycled (300 sec)
+     */
+    protected static final int DEFAULT_CONNECTION_MAX_LIFETIME = 300;
+    /**
+     * Default number of cached TLS client sessions (100)
+     */
+    protected static final int DEFAULT_SSL_SESSION_CACHE_SIZE = 100;
+    /**
+     * Default lifetime in seconds of a cached TLS client session (3600 sec)
+     */
+    protected static final int DEFAULT_SSL_SESSION_TIMEOUT = 3600;
+    /**
+     * Default maximum size in bytes of a response body (1 MB)
+     */
+    protected static final int DEFAULT_MAX_RESPONSE_SIZE = 1048576;
+    /**
+     * Default number of messages the asynchronous log queue holds (8192)
+     */
+    protected static final int DEFAULT_LOG_QUEUE_SIZE = 8192;
+    /**
+     * Default size in bytes of a transaction journal segment (64 MB)
+     */
+    protected static final int DEFAULT_JOURNAL_SEGMENT_SIZE = 64 * 1024 * 1024;
+    /**
+     * Default time in milliseconds between forces of the transaction journal (100 ms)
+     */
+    protected static final int DEFAULT_JOURNAL_COMMIT_INTERVAL = 100;
 
 
     protected static final String PARAM_POSTALCODE = "POSTALCODE";
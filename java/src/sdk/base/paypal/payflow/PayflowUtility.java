@@ -2,22 +2,11 @@ package paypal.payflow;
 
 
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.rmi.server.UID;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.Random;
 import java.text.BreakIterator;
 
 import org.w3c.dom.*;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.StringWriter;
 
 /**
  * This class contains all the utility function's which may be required during a transaction.
@@ -33,71 +22,10 @@ public final class PayflowUtility {
     /**
      * Generates Request Id. This can be used to generate a random request id.
      *
-     * @return strRet
+     * @return request id String, 32 hex characters.
      */
     public static String getRequestId() {
-        // get the current time.
-        long aTime = new Date().getTime();
-        // add a random number to it.
-        long rand = new Random().nextLong();
-
-        String myRandString = Long.toString(aTime + Math.abs(rand));
-        //Logger.getInstance().log("paypal.payflow.PayflowUtility.getRequestId(String) : myRandString = " + myRandString, PayflowConstants.SEVERITY_DEBUG);
-        // get an Internet Address if it is available.
-        String myIPString;
-        // String mySocketString;
-        String toBeHashed;
-        // get a new MD5 message digest (outputs a 128 bit hash based on an input).
-        //String outputString;
-
-        String strRet;
-        // get a Java Unique ID.
-        UID uid = new UID();
-        //Logger.getInstance().log("paypal.payflow.PayflowUtility.getRequestId(String) : UID = " + uid.toString(), PayflowConstants.SEVERITY_DEBUG);
-
-        try {
-            myIPString = InetAddress.getLocalHost().getHostAddress();
-        } catch (UnknownHostException e) {
-            // myIPString = PayflowConstants.EMPTY_STRING;   Original entry
-            myIPString = ""; // Above entry seemed to cause some systems to hang, re (03/16/07)
-        }
-        //Logger.getInstance().log("paypal.payflow.PayflowUtility.getRequestId(String) : myIPString = " + myIPString, PayflowConstants.SEVERITY_DEBUG);
-        //try {
-        //    Socket httpSocket = new Socket(InetAddress.getLocalHost(), 80);
-        //mySocketString = httpSocket.toString();
-        //} catch (UnknownHostException uhe) {
-        //    mySocketString = PayflowConstants.EMPTY_STRING;
-        //} catch (IOException e) {
-        //    mySocketString = PayflowConstants.EMPTY_STRING;
-        //}
-
-        //  convert it all to a string.
-        // toBeHashed = myRandString + myIPString + mySocketString + uid.toString();
-        toBeHashed = myRandString + myIPString + uid.toString();
-        // Logger.getInstance().log("paypal.payflow.PayflowUtility.getRequestId(String) : toBeHashed = " + toBeHashed, PayflowConstants.SEVERITY_DEBUG);
-
-        try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            // Modified to work with IBM JDK, 07/03/07 tsieber
-            // update the message digest
-            md.update(toBeHashed.getBytes());
-            // format the input array.
-            byte[] in = toBeHashed.getBytes();
-
-            // use the digest to hash the input array to the output array.
-            byte[] out = md.digest(in);
-
-            // create the outputString.
-            // outputString = new String(out);
-            strRet = getStringValue(out, out.length);
-        } catch (NoSuchAlgorithmException e) {
-            // can't use the MD5, will resort to truncating the toBeHashed String.
-            // outputString = toBeHashed.substring(0, 16);
-            strRet = toBeHashed.substring(0, 16);
-        }
-        // strRet = getStringValue(outputString.getBytes(), outputString.getBytes().length);
-        // Logger.getInstance().log("paypal.payflow.PayflowUtility.getRequestId(String) : strRet = " + strRet, PayflowConstants.SEVERITY_DEBUG);
-        return strRet;
+        return RequestIdGenerator.next();
     }
 
     /**
@@ -148,37 +76,84 @@ public final class PayflowUtility {
      * @return RetVal String
      */
     protected static String appendToRequest(String name, Object value) {
-        String retVal;
+        if (null == name || null == value) {
+            return PayflowConstants.EMPTY_STRING;
+        }
         StringBuffer nvPair = new StringBuffer();
+        appendToRequest(nvPair, name, value);
+        return nvPair.toString();
+    }
 
+    /**
+     * Appends a name value pair directly to the request buffer.
+     * Nothing is appended if name or value is null.
+     *
+     * @param buffer StringBuffer
+     * @param name   String
+     * @param value  Object
+     */
+    protected static void appendToRequest(StringBuffer buffer, String name, Object value) {
         if (null == name || null == value) {
-            retVal = PayflowConstants.EMPTY_STRING;
-        } else {
-            String StringValue = value.toString();
-            nvPair.append(name);
-            nvPair.append(PayflowConstants.OPENING_BRACE_NVP);
-            // nvPair.append(StringValue.length());
-            nvPair.append(StringValueLength(StringValue));
-            nvPair.append(PayflowConstants.CLOSING_BRACE_NVP);
-            nvPair.append(PayflowConstants.SEPARATOR_NVP);
-            nvPair.append(StringValue);
-            nvPair.append(PayflowConstants.DELIMITER_NVP);
-
-            retVal = nvPair.toString();
+            return;
         }
-        return retVal;
-
+        String StringValue = value.toString();
+        buffer.append(name);
+        buffer.append(PayflowConstants.OPENING_BRACE_NVP);
+        buffer.append(valueLength(StringValue));
+        buffer.append(PayflowConstants.CLOSING_BRACE_NVP);
+        buffer.append(PayflowConstants.SEPARATOR_NVP);
+        buffer.append(StringValue);
+        buffer.append(PayflowConstants.DELIMITER_NVP);
     }
 
     public static String StringValueLength(String StringValue) {
-        BreakIterator it = BreakIterator.getCharacterInstance();
+        return String.valueOf(valueLength(StringValue));
+    }
+
+    /**
+     * Character iterator per thread; BreakIterator is not thread-safe and costly to create.
+     */
+    private static final ThreadLocal CHARACTER_ITERATOR = new ThreadLocal() {
+        protected Object initialValue() {
+            return BreakIterator.getCharacterInstance();
+        }
+    };
+
+    /**
+     * Grapheme length of the value as the server counts it. ASCII values are counted
+     * directly, where CR LF is a single grapheme; other values use a BreakIterator.
+     *
+     * @param StringValue String
+     * @return length int
+     */
+    static int valueLength(String StringValue) {
+        int length = StringValue.length();
+        int count = length;
+        for (int i = 0; i < length; i++) {
+            char c = StringValue.charAt(i);
+            if (c >= 0x80) {
+                return graphemeLength(StringValue);
+            }
+            if (c == '\r' && i + 1 < length && StringValue.charAt(i + 1) == '\n') {
+                count--;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param StringValue String
+     * @return number of grapheme clusters int
+     */
+    private static int graphemeLength(String StringValue) {
+        BreakIterator it = (BreakIterator) CHARACTER_ITERATOR.get();
         it.setText(StringValue);
         int count = 0;
         while (it.next() != BreakIterator.DONE) {
             count++;
         }
-        // System.out.println("Grapheme length: " + count+ " " + StringValue);
-        return String.valueOf(count);
+        it.setText(PayflowConstants.EMPTY_STRING);
+        return count;
     }
 
     /**
@@ -406,45 +381,25 @@ public final class PayflowUtility {
     protected static ErrorObject populateCommError(String commMessageCode,
                                                    Exception ex, int severityLevel, boolean isXmlPayReq, String addMessage) {
         Logger.getInstance().log("paypal.payflow.PayflowUtility.populateCommError(String,Exception,int,boolean,String) : Entered", PayflowConstants.SEVERITY_DEBUG);
-        String message;
         String messageCode;
-        String trace = PayflowConstants.EMPTY_STRING;
+        Throwable traceSource = null;
 
         //initStackTraceOn();
 
-        String[] msgParams;
-
-        if (addMessage == null) {
-            addMessage = PayflowConstants.EMPTY_STRING;
-        } else if (addMessage.length() > 0) {
-            addMessage = " " + addMessage;
-        }
-
+        // the message param and the stack trace are rendered when the error is read.
         if (ex != null && SDKProperties.isStackTraceOn()) {
-            trace = " ";
-            StackTraceElement[] stackTrace = ex.getStackTrace();
-            int size = stackTrace.length;
-            for (int i = 0; i < size; i++) {
-                trace += "\n" + stackTrace[i].toString();
-            }
+            traceSource = ex;
         }
 
-        message = PayflowConstants.CommErrorMessages.get(commMessageCode)
-                + addMessage + trace;
-
         if (isXmlPayReq) {
             messageCode = PayflowConstants.MSG_COMMUNICATION_ERROR_XMLPAY;
-            msgParams = new String[]
-                    {(String) PayflowConstants.CommErrorCodes.get(commMessageCode), message};
-
         } else {
             messageCode = PayflowConstants.MSG_COMMUNICATION_ERROR;
-            msgParams = new String[]
-                    {(String) PayflowConstants.CommErrorCodes.get(commMessageCode), message};
-
         }
 
-        ErrorObject InitError = new ErrorObject(severityLevel, messageCode, msgParams);
+        ErrorObject InitError = new ErrorObject(severityLevel, messageCode,
+                (String) PayflowConstants.CommErrorCodes.get(commMessageCode),
+                (String) PayflowConstants.CommErrorMessages.get(commMessageCode), addMessage, traceSource);
         Logger.getInstance().log("paypal.payflow.PayflowUtility.populateCommError(String,Exception,int,boolean,String) : Exiting", PayflowConstants.SEVERITY_DEBUG);
         return InitError;
     }
@@ -469,7 +424,7 @@ public final class PayflowUtility {
                 retVal = parmList;
             }
         } catch (Exception ex) {
-            Logger.getInstance().log("paypal.payflow.PayflowUtility.maskSensitiveFields(String) : XMLPay Request: " + parmList, PayflowConstants.SEVERITY_DEBUG);
+            Logger.getInstance().log("paypal.payflow.PayflowUtility.maskSensitiveFields(String) : XMLPay Request: ", parmList, PayflowConstants.SEVERITY_DEBUG);
             retVal = " The xml pay request is invalid : " + ex.getMessage();
         }
         Logger.getInstance().log("paypal.payflow.PayflowUtility.maskSensitiveFields(String) : Exiting", PayflowConstants.SEVERITY_DEBUG);
@@ -485,109 +440,135 @@ public final class PayflowUtility {
      * @throws Exception Exception
      */
     protected static String maskXMLPayRequest(final String parmList) throws Exception {
-        String retVal;
-
-        IPXmlReader xmlReader = new IPXmlReader(parmList);
-        Document xmlPayRequest = xmlReader.getXmlDocumentElement();
-        //Mask ACCT if present : Corresponding XmlPay element -- AcctNum or CardNum
-        PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_ACCTNUM);
-        PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_CARDNUM);
-        //Mask EXPDATE if present : Corresponding XmlPay element -- ExpDate
-        //PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_EXPDATE);
-        //Mask SWIPE if present : Corresponding XmlPay element -- MagData
-        PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_MAGDATA);
-        //Mask MICR if present : Corresponding XmlPay element -- MICR or MagData
-        PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_MICR);
-        //Mask CVV2 if present : Corresponding XmlPay element -- CVNum
-        PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_CVNUM);
-        //Mask PWD if present : Corresponding XmlPay element -- Password
-        PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_PASSWORD);
-        //Mask DL if present : Corresponding XmlPay element -- DL
-        PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_DL);
-        //Mask SS if present : Corresponding XmlPay element -- CVNum
-        PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_SS);
-        //Mask DOB if present : Corresponding XmlPay element -- DOB
-        PayflowUtility.maskXmlNodeValue(xmlPayRequest, PayflowConstants.XML_PARAM_DOB);
-
-        Transformer transformer = TransformerFactory.newInstance().newTransformer();
-        StringWriter writer = new StringWriter();
-        transformer.transform(new DOMSource(xmlPayRequest), new StreamResult(writer));
-        retVal = writer.toString();
-        return retVal;
+        return XmlPayMasker.mask(parmList);
     }
 
     /**
-     * Masks NVP Request
+     * NVP parameters masked in logged requests. EXPDATE is not masked.
+     */
+    private static final String[] MASKED_NVP_PARAMS = {
+            PayflowConstants.PARAM_ACCT,
+            PayflowConstants.PARAM_SWIPE,
+            PayflowConstants.PARAM_MICR,
+            PayflowConstants.PARAM_CVV2,
+            PayflowConstants.PARAM_PWD,
+            PayflowConstants.PARAM_DL,
+            PayflowConstants.PARAM_SS,
+            PayflowConstants.PARAM_DOB};
+
+    /**
+     * Masks NVP Request. Scans the name value pairs once, in both the NAME=value and
+     * NAME[len]=value form, and masks the values of all sensitive parameters. Only the
+     * first six and the trailing digits after the twelfth of ACCT stay readable.
+     * A NAME[len]= value is exactly len characters long and may hold '&amp;'. Other
+     * values, and values whose length does not end at a '&amp;' or the end of the
+     * request, end at the next '&amp;' not doubled. A name always starts after the
+     * last '&amp;' before its '=', so a stray '&amp;' in a value cannot hide the next
+     * sensitive parameter.
      *
      * @param parmList String
-     * @return maskedRequest String
+     * @return maskedRequest String, parmList itself if there was nothing to mask.
      */
     protected static String maskNVPRequest(final String parmList) {
-        String logParmList = parmList;
-        //Mask ACCT if present
-        logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_ACCT, true);
-        //Mask EXPDATE if present
-        //CR EXPDATE is unmasked
-        //logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_EXPDATE, true);
-        //Mask SWIPE if present
-        logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_SWIPE, true);
-        //Mask MICR if present
-        logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_MICR, true);
-        //Mask CVV2 if present
-        logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_CVV2, true);
-        //Mask PWD
-        logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_PWD, true);
-        //Mask DL if present
-        logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_DL, true);
-        //Mask SS if present
-        logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_SS, true);
-        //Mask DOB if present
-        logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_DOB, true);
-        //Mask VIT_OSNAME if present
-        //logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_VIT_OSNAME, true);
-        //Mask VIT_OSARCH if present
-        //logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_VIT_OSARCH, true);
-        //Mask VIT_OSVERSION if present
-        //logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_VIT_OSVERSION, true);
-        //Mask VIT_SDKRUNTIMEVERSION if present
-        //logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_VIT_SDKRUNTIMEVERSION, true);
-        //Mask VIT_PROXY if present
-        //logParmList = PayflowUtility.locateValueForName(logParmList, PayflowConstants.PARAM_VIT_PROXY, true);
-        return logParmList;
+        char[] masked = null;
+        int length = parmList.length();
+        int nameStart = 0;
+        while (nameStart < length) {
+            int separator = parmList.indexOf('=', nameStart);
+            if (separator < 0) {
+                break;
+            }
+            int delimiter = parmList.lastIndexOf('&', separator);
+            if (delimiter >= nameStart) {
+                nameStart = delimiter + 1;
+            }
+            int nameEnd = nameStart;
+            while (nameEnd < separator && parmList.charAt(nameEnd) != '[') {
+                nameEnd++;
+            }
+            int valueEnd = nameEnd < separator ? getLengthValueEnd(parmList, nameEnd, separator) : -1;
+            if (valueEnd < 0) {
+                valueEnd = findValueEnd(parmList, separator + 1);
+            }
+            String name = getMaskedParam(parmList, nameStart, nameEnd);
+            if (name != null && valueEnd > separator + 1) {
+                if (masked == null) {
+                    masked = parmList.toCharArray();
+                }
+                boolean isAcct = name.equals(PayflowConstants.PARAM_ACCT);
+                for (int i = separator + 1; i < valueEnd; i++) {
+                    int position = i - separator;
+                    if (isAcct && (position < 7 || position > 12)) {
+                        continue;
+                    }
+                    masked[i] = 'X';
+                }
+            }
+            nameStart = valueEnd + 1;
+        }
+        return masked == null ? parmList : new String(masked);
     }
 
     /**
-     * masks an xmlNodeValue
+     * Finds the end of a NAME[len]=value value from its length clause.
      *
-     * @param xmlPayRequest Document
-     * @param nodeName      String
+     * @param parmList  String
+     * @param open      int index of the '['
+     * @param separator int index of the '='
+     * @return index after the value, -1 if the name has no valid length clause or
+     * the value would not end at a '&amp;' or the end of parmList.
      */
-    protected static void maskXmlNodeValue(Document xmlPayRequest, String nodeName) {
-        String retVal;
-        String maskValue = PayflowConstants.EMPTY_STRING;
-
-        if (xmlPayRequest != null && nodeName != null && nodeName.length() > 0) {
-            NodeList nodeList = xmlPayRequest.getElementsByTagName(nodeName);
-
-            if (nodeList != null && nodeList.getLength() == 1) {
-                Node nodeElement = nodeList.item(0);
+    private static int getLengthValueEnd(String parmList, int open, int separator) {
+        int close = separator - 1;
+        if (close <= open + 1 || close - open > 10 || parmList.charAt(close) != ']') {
+            return -1;
+        }
+        int valueLength = 0;
+        for (int i = open + 1; i < close; i++) {
+            char c = parmList.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valueLength = valueLength * 10 + (c - '0');
+        }
+        long valueEnd = (long) separator + 1 + valueLength;
+        if (valueEnd > parmList.length() || (valueEnd < parmList.length() && parmList.charAt((int) valueEnd) != '&')) {
+            return -1;
+        }
+        return (int) valueEnd;
+    }
 
-                if (nodeElement != null) {
-                    retVal = nodeElement.getTextContent();
+    /**
+     * Finds the end of a value: the next '&amp;' not doubled as "&amp;&amp;".
+     *
+     * @param parmList   String
+     * @param valueStart int
+     * @return index of the delimiter, or the length of parmList.
+     */
+    private static int findValueEnd(String parmList, int valueStart) {
+        int length = parmList.length();
+        int delimiter = parmList.indexOf('&', valueStart);
+        while (delimiter >= 0 && delimiter + 1 < length && parmList.charAt(delimiter + 1) == '&') {
+            delimiter = parmList.indexOf('&', delimiter + 2);
+        }
+        return delimiter < 0 ? length : delimiter;
+    }
 
-                    if (null != retVal) {
-                        for (int i = 0; i < retVal.length(); i++) {
-                            if (((nodeName.equals(PayflowConstants.XML_PARAM_ACCTNUM)) || (nodeName.equals(PayflowConstants.XML_PARAM_CARDNUM)) && (i < 6 || i > 11))) {
-                                maskValue = maskValue + retVal.charAt(i);
-                            } else {
-                                maskValue = maskValue + "X";
-                            }
-                        }
-                    }
-                    nodeElement.setTextContent(maskValue);
-                }
+    /**
+     * @param parmList  String
+     * @param nameStart int
+     * @param nameEnd   int
+     * @return the sensitive parameter name at nameStart, null if the name is not masked.
+     */
+    private static String getMaskedParam(String parmList, int nameStart, int nameEnd) {
+        int nameLength = nameEnd - nameStart;
+        for (int i = 0; i < MASKED_NVP_PARAMS.length; i++) {
+            String name = MASKED_NVP_PARAMS[i];
+            if (name.length() == nameLength && parmList.regionMatches(nameStart, name, 0, nameLength)) {
+                return name;
             }
         }
+        return null;
     }
 
     /**
@@ -612,6 +593,26 @@ public final class PayflowUtility {
 
     }
 
+    /**
+     * Reads the RESULT of a response without parsing the whole response.
+     *
+     * @param response String name value pair or XMLPay response
+     * @return value of RESULT, null if the response holds none.
+     */
+    static String getResultValue(String response) {
+        if (response == null) {
+            return null;
+        }
+        if (response.indexOf(PayflowConstants.XML_RESP_ID) >= 0) {
+            String element = "<" + PayflowConstants.XML_PARAM_RESULT + ">";
+            int start = response.indexOf(element);
+            int end = start < 0 ? -1 : response.indexOf("</" + PayflowConstants.XML_PARAM_RESULT + ">", start);
+            return end < 0 ? null : response.substring(start + element.length(), end);
+        }
+        String result = locateValueForName(response, PayflowConstants.PARAM_RESULT, false);
+        return result.length() == 0 ? null : result;
+    }
+
     /**
      * Provides the status of the transaction based on the transaction response.
      *
@@ -662,14 +663,19 @@ public final class PayflowUtility {
      */
     protected static ArrayList alignContext(Context context, boolean isXmlPayRequest) {
         Logger.getInstance().log("paypal.payflow.PayflowUtility.alignContext(Context, boolean) : Entered", PayflowConstants.SEVERITY_DEBUG);
-        ArrayList errors = context.getErrors();
         ArrayList retVal = new ArrayList();
+        // a clean context has nothing to align, and getErrorsReadOnly() would only build an empty list.
+        if (!context.isErrorContained()
+                && (!context.getLoadLoggerErrs() || Logger.getInstance().getLoggerErrs().isEmpty())) {
+            return retVal;
+        }
+        ArrayList errors = context.getErrorsReadOnly();
         int errorCount = errors.size();
         int index;
         for (index = 0; index < errorCount; index++) {
             ErrorObject error = (ErrorObject) errors.get(index);
             String messageCode = error.getMessageCode();
-            Logger.getInstance().log("paypal.payflow.PayflowUtility.alignContext(Context,boolean) : messageCode = " + messageCode, PayflowConstants.SEVERITY_DEBUG);
+            Logger.getInstance().log("paypal.payflow.PayflowUtility.alignContext(Context,boolean) : messageCode = ", messageCode, PayflowConstants.SEVERITY_DEBUG);
             if (error != null) {
                 if (messageCode != null && messageCode.length() > 0) {
                     boolean msg1012 = false;
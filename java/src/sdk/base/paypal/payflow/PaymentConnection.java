@@ -1,22 +1,30 @@
 package paypal.payflow;
 
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InterruptedIOException;
 import java.net.SocketException;
 import java.net.*;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import javax.net.ssl.HttpsURLConnection;
-import javax.net.ssl.*;
-import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This is the Connection Class.
  */
 final class PaymentConnection {
 
+    /**
+     * Default transport: persistent pooled connections.
+     */
+    private static final PaymentTransport POOLED_TRANSPORT = new PooledSocketTransport();
+
+    /**
+     * Transport on HttpsURLConnection.
+     */
+    private static final PaymentTransport URL_CONNECTION_TRANSPORT = new UrlConnectionTransport();
+
     /**
      * Holds whether transaction is
      * with or without proxy.
@@ -39,9 +47,14 @@ final class PaymentConnection {
     private URL mServerUri;
 
     /**
-     * Connection object.
+     * Channel of the current attempt.
+     */
+    private volatile TransportChannel mChannel;
+
+    /**
+     * True if the transaction is driven asynchronously.
      */
-    private HttpsURLConnection mServerConnection;
+    private boolean mIsAsync;
 
     /**
      * Proxy Address.
@@ -200,6 +213,20 @@ final class PaymentConnection {
         mIsXmlPayRequest = value;
     }
 
+    /**
+     * @return isAsync boolean
+     */
+    public boolean getIsAsync() {
+        return mIsAsync;
+    }
+
+    /**
+     * @param value boolean
+     */
+    public void setIsAsync(boolean value) {
+        mIsAsync = value;
+    }
+
     /**
      * @param value ClientInfo
      */
@@ -249,7 +276,7 @@ final class PaymentConnection {
 
         if (hostAddress != null && hostAddress.length() > 0) {
             mHostAddress = hostAddress;
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.InitializeHost(String,int,int): HostAddress = " + mHostAddress,
+            Logger.getInstance().log("paypal.payflow.PaymentConnection.InitializeHost(String,int,int): HostAddress = ", mHostAddress,
                     PayflowConstants.SEVERITY_INFO);
         } else {
             ErrorObject nullHostError = PayflowUtility.populateCommError(PayflowConstants.E_NULL_HOST_STRING, null,
@@ -261,8 +288,10 @@ final class PaymentConnection {
         }
 
         mHostPort = hostPort;
-        Logger.getInstance().log("paypal.payflow.PaymentConnection.InitializeHost(String,int,int): HostPort = " + mHostPort,
-                PayflowConstants.SEVERITY_INFO);
+        if (Logger.isEnabled(PayflowConstants.SEVERITY_INFO)) {
+            Logger.getInstance().log("paypal.payflow.PaymentConnection.InitializeHost(String,int,int): HostPort = " + mHostPort,
+                    PayflowConstants.SEVERITY_INFO);
+        }
         mConnectionTimeout = timeout;
         Logger.getInstance().log("paypal.payflow.PaymentConnection.InitializeHost(String,int,int): Exiting",
                 PayflowConstants.SEVERITY_DEBUG);
@@ -318,7 +347,7 @@ final class PaymentConnection {
         try {
             String HostAddress;
             HostAddress = mHostAddress;
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.InitServerUri(String): URLStreamHandlerClass: " + classname,
+            Logger.getInstance().log("paypal.payflow.PaymentConnection.InitServerUri(String): URLStreamHandlerClass: ", classname,
                     PayflowConstants.SEVERITY_DEBUG);
             if (classname != null && classname.length() > 0) {
                 URLStreamHandler Handler = (URLStreamHandler) Class.forName(classname).newInstance();
@@ -327,146 +356,79 @@ final class PaymentConnection {
                 mServerUri = new URL(null, "https://" + HostAddress + ":" + mHostPort);
             }
         } catch (Exception ex) {
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.InitServerUri(String): Caught Exception: " + getStackTraceAsString(ex),
+            Logger.getInstance().log(() -> "paypal.payflow.PaymentConnection.InitServerUri(String): Caught Exception: " + getStackTraceAsString(ex),
                     PayflowConstants.SEVERITY_FATAL);
         }
     }
 
     /**
-     * Initializes Proxy Object from available proxy information.
+     * Populates the HTTP headers sent with the transaction.
      */
-    private void initProxyInfo() {
-        Logger.getInstance().log("paypal.payflow.PaymentConnection.InitProxyInfo(): Entered",
-                PayflowConstants.SEVERITY_DEBUG);
-        if (mIsProxy) {
-            try {
-                String pStr = mProxyLogon + ":" + mProxyPassword;
-                String auth = "Basic" + " " + Base64.getEncoder().encodeToString(pStr.getBytes());
-                mServerConnection.setRequestProperty("Proxy-Authorization", auth);
-            } catch (Exception ex) {
-                Logger.getInstance().log("paypal.payflow.PaymentConnection.InitProxyInfo(): Caught Exception: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_FATAL);
-                String addlMessage = "";
-                ErrorObject initError = PayflowUtility.populateCommError(PayflowConstants.E_SOK_CONN_FAILED, ex,
-                        PayflowConstants.SEVERITY_ERROR, getIsXmlPayRequest(),
-                        addlMessage);
-                if (!getConnContext().isCommunicationErrorContained(initError)) {
-                    getConnContext().addError(initError);
+    private void initRequestHeaders() {
+        mHeaders.clear();
+        if (getIsXmlPayRequest()) {
+            mHeaders.put("Content-Type", PayflowConstants.CONTENT_TYPE_XML);
+        } else {
+            mHeaders.put("Content-Type", PayflowConstants.CONTENT_TYPE_NAMEVALUE);
+        }
+        mHeaders.put("User-Agent", PayflowConstants.USER_AGENT);
+        mHeaders.put(PayflowConstants.PAYFLOWHEADER_REQUEST_ID, mRequestId);
+        mHeaders.put(PayflowConstants.PAYFLOWHEADER_TIMEOUT, Long.toString(mConnectionTimeout / 1000));
+
+        //Add VIT Headers
+        if (mClientInfo != null) {
+            //Get the Hash map.
+            Hashtable clientInfoHash = mClientInfo.getClientInfoHash();
+            if (clientInfoHash != null && clientInfoHash.size() > 0) {
+                //Iterate through the hash map to add the appropriate headers.
+                Iterator iter = clientInfoHash.values().iterator();
+                while (iter.hasNext()) {
+                    ClientInfoHeader currHeader = (ClientInfoHeader) iter.next();
+                    String hdrName = currHeader.getHeaderName();
+                    Object hdrValueObj = currHeader.getHeaderValue();
+                    String hdrValueStr = null;
+                    //Check if Header name is non-null, non-empty string.
+                    boolean validHeaderName = (hdrName != null && hdrName.length() > 0);
+                    boolean validHeaderValue = (hdrValueObj != null);
+                    //Check if Header value object is non-null, object.
+                    if (validHeaderValue) {
+                        hdrValueStr = hdrValueObj.toString();
+                        //Check if the header value is non-null, non-empty.
+                        validHeaderValue = (hdrValueStr != null && hdrValueStr.length() > 0);
+                    }
+                    //Valid header is Valid Header Name and Valid header value.
+                    if (validHeaderName && validHeaderValue) {
+                        mHeaders.put(hdrName, hdrValueStr);
+                    }
                 }
             }
         }
-        Logger.getInstance().log("paypal.payflow.PaymentConnection.InitProxyInfo(): Exiting",
-                PayflowConstants.SEVERITY_DEBUG);
     }
 
     /**
-     * Initializes all the connection attributes and creates the connection.
+     * @return the transport set through SDKProperties.setPaymentTransport(), or else the
+     * HttpsURLConnection transport if a URLStreamHandler class is set or pooling is disabled,
+     * or else the pooled connection transport.
      */
-    private void createConnection() {
-        Logger.getInstance().log("paypal.payflow.PaymentConnection.CreateConnection(): Entered",
-                PayflowConstants.SEVERITY_DEBUG);
-
-        try {
-            if (getIsProxy()) {
-                if (mIsProxy) {
-                    // Add TLS 1.2 support - tsieber 03/17/2017
-                    SSLContext sc = SSLContext.getInstance("TLSv1.2");
-                    // Init the SSLContext with a TrustManager [] and SecureRandom ()
-                    sc.init(null, null, new java.security.SecureRandom());
-                    Proxy proxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress(mProxyAddress, mProxyPort));
-                    mServerConnection = (HttpsURLConnection) mServerUri.openConnection(proxy);
-                    mServerConnection.setSSLSocketFactory(sc.getSocketFactory());
-                    Logger.getInstance().log("paypal.payflow.PaymentConnection.createConnection(String): Initialized. Using Proxy.",
-                            PayflowConstants.SEVERITY_INFO);
-                }
+    private static PaymentTransport selectTransport() {
+        PaymentTransport transport = SDKProperties.getPaymentTransport();
+        if (transport == null) {
+            // Application server specific URLStreamHandlers only apply to HttpsURLConnection.
+            String handlerClass = SDKProperties.getURLStreamHandlerClass();
+            if (SDKProperties.isConnectionPoolEnabled() && (handlerClass == null || handlerClass.length() == 0)) {
+                transport = POOLED_TRANSPORT;
             } else {
-                SSLContext sc = SSLContext.getInstance("TLSv1.2");
-                // Init the SSLContext with a TrustManager [] and SecureRandom ()
-                sc.init(null, null, new java.security.SecureRandom());
-                mServerConnection = (HttpsURLConnection) mServerUri.openConnection();
-                mServerConnection.setSSLSocketFactory(sc.getSocketFactory());
-
-                Logger.getInstance().log("paypal.payflow.PaymentConnection.createConnection(String): Initialized.",
-                        PayflowConstants.SEVERITY_INFO);
-            }
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.createConnection(String): openConnection = " +
-                    mServerConnection, PayflowConstants.SEVERITY_INFO);
-
-            mServerConnection.setDoOutput(true);
-            mServerConnection.setDoInput(true);
-            mServerConnection.setRequestMethod("POST");
-
-            if (getIsXmlPayRequest()) {
-                mServerConnection.setRequestProperty("Content-Type", PayflowConstants.CONTENT_TYPE_XML);
-                mHeaders.put("Content-Type", PayflowConstants.CONTENT_TYPE_XML);
-            } else {
-                mServerConnection.setRequestProperty("Content-Type", PayflowConstants.CONTENT_TYPE_NAMEVALUE);
-                mHeaders.put("Content-Type", PayflowConstants.CONTENT_TYPE_NAMEVALUE);
-            }
-
-            mServerConnection.setRequestProperty("User-Agent", PayflowConstants.USER_AGENT);
-            mServerConnection.setRequestProperty(PayflowConstants.PAYFLOWHEADER_REQUEST_ID, mRequestId);
-            mServerConnection.setRequestProperty(PayflowConstants.PAYFLOWHEADER_TIMEOUT, Long.toString(mConnectionTimeout / 1000));
-            mServerConnection.setRequestProperty("Keep-Alive", "false");
-            mServerConnection.setRequestProperty("Connection", "close");
-            mServerConnection.setUseCaches(false);
-            mServerConnection.setInstanceFollowRedirects(false);
-            //to print the header values
-            mHeaders.put("User-Agent", PayflowConstants.USER_AGENT);
-            mHeaders.put(PayflowConstants.PAYFLOWHEADER_REQUEST_ID, mRequestId);
-            mHeaders.put(PayflowConstants.PAYFLOWHEADER_TIMEOUT, Long.toString(mConnectionTimeout / 1000));
-            mHeaders.put("Keep-Alive", "false");
-            if (getIsProxy()) {
-                if (mIsProxy) {
-                    initProxyInfo();
-                }
+                transport = URL_CONNECTION_TRANSPORT;
             }
-
-            //Add VIT Headers
-            if (mClientInfo != null) {
-                //Get the Hash map.
-                Hashtable clientInfoHash = mClientInfo.getClientInfoHash();
-                if (clientInfoHash != null && clientInfoHash.size() > 0) {
-                    //Iterate through the hash map to add the appropriate headers.
-                    for (int i = 0; i < clientInfoHash.size(); i++) {
-                        Collection headerKeyValue = clientInfoHash.values();
-                        Object valueObj[] = headerKeyValue.toArray();
-                        if (valueObj != null) {
-                            ClientInfoHeader currHeader = (ClientInfoHeader) valueObj[i];
-                            String hdrName = currHeader.getHeaderName();
-                            Object hdrValueObj = currHeader.getHeaderValue();
-                            String hdrValueStr = null;
-                            //Check if Header name is non-null, non-empty string.
-                            boolean validHeaderName = (hdrName != null && hdrName.length() > 0);
-                            boolean validHeaderValue = (hdrValueObj != null);
-                            //Check if Header value object is non-null, object.
-                            if (validHeaderValue) {
-                                hdrValueStr = currHeader.getHeaderValue().toString();
-                                //Check if the header value is non-null, non-empty.
-                                validHeaderValue = (hdrValueStr != null && hdrValueStr.length() > 0);
-                            }
-                            //Valid header is Valid Header Name and Valid header value.
-                            if (validHeaderName && validHeaderValue) {
-                                mServerConnection.setRequestProperty(hdrName, hdrValueStr);
-                                mHeaders.put(hdrName, hdrValueStr);
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception ex) {
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.CreateConnection(): Caught Exception creating connection: " + getStackTraceAsString(ex),
-                    PayflowConstants.SEVERITY_FATAL);
-            String addlMessage = "Input Server Uri= " + mServerUri.getProtocol() + "://" + mServerUri.getHost() + ":" + mServerUri.getPort();
-            ErrorObject initError = PayflowUtility.populateCommError(PayflowConstants.E_SOK_CONN_FAILED, ex,
-                    PayflowConstants.SEVERITY_ERROR, getIsXmlPayRequest(),
-                    addlMessage);
-            if (!getConnContext().isCommunicationErrorContained(initError)) {
-                getConnContext().addError(initError);
-            }
-        } finally {
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.CreateConnection(): Exiting",
-                    PayflowConstants.SEVERITY_DEBUG);
         }
+        return transport;
+    }
+
+    /**
+     * @return milliseconds left before the transaction times out, at least 1.
+     */
+    private int getRemainingTimeout() {
+        return (int) Math.max(1, mConnectionTimeout - (System.currentTimeMillis() - getStartTime()));
     }
 
     /**
@@ -484,16 +446,23 @@ final class PaymentConnection {
             Logger.getInstance().log("paypal.payflow.PaymentConnection.ConnectToServer(String): Initializing Server Uri.",
                     PayflowConstants.SEVERITY_INFO);
             initServerUri();
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.ConnectToServer(String): Initialized Server Uri = "
-                            + mServerUri.getProtocol() + "://" + mServerUri.getHost() + ":" + mServerUri.getPort(),
-                    PayflowConstants.SEVERITY_INFO);
+            if (Logger.isEnabled(PayflowConstants.SEVERITY_INFO)) {
+                Logger.getInstance().log("paypal.payflow.PaymentConnection.ConnectToServer(String): Initialized Server Uri = "
+                                + mServerUri.getProtocol() + "://" + mServerUri.getHost() + ":" + mServerUri.getPort(),
+                        PayflowConstants.SEVERITY_INFO);
+            }
             Logger.getInstance().log("paypal.payflow.PaymentConnection.ConnectToServer(String): Initializing Connection Attributes.",
                     PayflowConstants.SEVERITY_INFO);
-            createConnection();
-            if (mServerConnection != null) {
+            initRequestHeaders();
+            TransportEndpoint endpoint = new TransportEndpoint(mHostAddress, mHostPort, serverFile,
+                    mIsProxy ? mProxyAddress : null, mProxyPort, mProxyLogon, mProxyPassword,
+                    mRequestId, getIsXmlPayRequest());
+            PaymentTransport transport = selectTransport();
+            mChannel = transport.open(endpoint, getRemainingTimeout());
+            if (mChannel != null) {
                 if (mProxyStatus) {
                     retVal = true;
-                    Logger.getInstance().log("paypal.payflow.PaymentConnection.ConnectToServer(String): Connection Created.",
+                    Logger.getInstance().log("paypal.payflow.PaymentConnection.ConnectToServer(String): Connection Created using ", transport.getClass().getName(),
                             PayflowConstants.SEVERITY_INFO);
                 } else {
                     retVal = false;
@@ -507,7 +476,8 @@ final class PaymentConnection {
                         PayflowConstants.SEVERITY_INFO);
             }
         } catch (Exception ex) {
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.ConnectToServer(String): Caught Exception: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_FATAL);
+            retVal = false;
+            Logger.getInstance().log(() -> "paypal.payflow.PaymentConnection.ConnectToServer(String): Caught Exception: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_FATAL);
             String addlMessage = "Input Server Uri = " + mServerUri.getProtocol() + "://" + mServerUri.getHost() + ":" + mServerUri.getPort();
             ErrorObject initError = PayflowUtility.populateCommError(PayflowConstants.E_SOK_CONN_FAILED, ex,
                     PayflowConstants.SEVERITY_ERROR, getIsXmlPayRequest(),
@@ -535,28 +505,27 @@ final class PaymentConnection {
         boolean retVal = false;
 
         try {
-            mServerConnection.connect();
             if (request != null) {
-                byte[] paramListBytes = request.getBytes();
-                OutputStream reqStram = mServerConnection.getOutputStream();
-                Map loggableHeaders = new HashMap();
-                reqStram.write(paramListBytes);
-                reqStram.close();
-                loggableHeaders.putAll(mHeaders);
-                Iterator iter = loggableHeaders.keySet().iterator();
-                String key;
+                byte[] paramListBytes = request.getBytes(StandardCharsets.UTF_8);
+                mChannel.send(mHeaders, paramListBytes, getRemainingTimeout());
                 //Dump the headers to the log file
-                Logger.getInstance().log("paypal.payflow.PaymentConnection.sendToServer(String request): Headers ",
-                        PayflowConstants.SEVERITY_DEBUG);
-                while (iter.hasNext()) {
-                    StringBuffer headerLog = new StringBuffer();
-                    key = iter.next().toString();
-                    headerLog.append("HTTP Header : Name = ")
-                            .append(key)
-                            .append(" | value = ")
-                            .append(loggableHeaders.get(key));
-                    Logger.getInstance().log("paypal.payflow.PaymentConnection.sendToServer(String request): " + headerLog.toString()
-                            , PayflowConstants.SEVERITY_DEBUG);
+                if (Logger.isEnabled(PayflowConstants.SEVERITY_DEBUG)) {
+                    Map loggableHeaders = new HashMap();
+                    loggableHeaders.putAll(mHeaders);
+                    Iterator iter = loggableHeaders.keySet().iterator();
+                    String key;
+                    Logger.getInstance().log("paypal.payflow.PaymentConnection.sendToServer(String request): Headers ",
+                            PayflowConstants.SEVERITY_DEBUG);
+                    while (iter.hasNext()) {
+                        StringBuffer headerLog = new StringBuffer();
+                        key = iter.next().toString();
+                        headerLog.append("HTTP Header : Name = ")
+                                .append(key)
+                                .append(" | value = ")
+                                .append(loggableHeaders.get(key));
+                        Logger.getInstance().log("paypal.payflow.PaymentConnection.sendToServer(String request): " + headerLog.toString()
+                                , PayflowConstants.SEVERITY_DEBUG);
+                    }
                 }
                 //Added VIT Headers to the http request.
                 retVal = true;
@@ -569,7 +538,7 @@ final class PaymentConnection {
                 }
             }
         } catch (Exception ex) {
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.SendToServer(String): Caught Exception: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_FATAL);
+            Logger.getInstance().log(() -> "paypal.payflow.PaymentConnection.SendToServer(String): Caught Exception: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_FATAL);
             String addlMessage = "Input Server Uri = " + mServerUri.getProtocol() + "://" + mServerUri.getHost() + ":" + mServerUri.getPort();
             ErrorObject initError = PayflowUtility.populateCommError(PayflowConstants.E_SOK_CONN_FAILED,
                     ex,
@@ -597,23 +566,51 @@ final class PaymentConnection {
 
         try {
 
-            InputStream serverResponse;
-            serverResponse = mServerConnection.getInputStream();
-            byte[] data = readInputBytes(serverResponse, mServerConnection.getContentLength());
-            response = new String(data);
-            serverResponse.close();
+            byte[] data = mChannel.receive(getRemainingTimeout());
+            response = ResponseReader.decode(data, mChannel.getResponseHeader("Content-Type"));
             disconnect();
 
-        } catch (SocketException ex) {
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.ReceiveResponse(): Caught SocketException: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_ERROR);
-            //Need to put a blank handler for this since there is a problem since the
-            //httpurlconnection keeps giving "unexpected end of file" exception intermittently
+        } catch (ConnectException ex) {
+            // Non-blocking transports only connect once the request is sent.
+            Logger.getInstance().log(() -> "paypal.payflow.PaymentConnection.ReceiveResponse(): Caught ConnectException: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_ERROR);
+            String addlMessage = "Input Server Uri = " + mServerUri.getProtocol() + "://" + mServerUri.getHost() + ":" + mServerUri.getPort();
+            ErrorObject initError = PayflowUtility.populateCommError(PayflowConstants.E_SOK_CONN_FAILED, ex,
+                    PayflowConstants.SEVERITY_ERROR, getIsXmlPayRequest(),
+                    addlMessage);
+            if (!getConnContext().isCommunicationErrorContained(initError)) {
+                getConnContext().addError(initError);
+            }
+        } catch (ResponseTooLargeException ex) {
+            // resending would only read the same response again.
+            Logger.getInstance().log("paypal.payflow.PaymentConnection.ReceiveResponse(): ", ex.getMessage(), PayflowConstants.SEVERITY_ERROR);
+            String addlMessage = "Maximum response size in bytes = " + SDKProperties.getMaxResponseSize();
+            ErrorObject initError = PayflowUtility.populateCommError(PayflowConstants.E_RESPONSE_TOO_LARGE, ex,
+                    PayflowConstants.SEVERITY_FATAL, getIsXmlPayRequest(),
+                    addlMessage);
+            if (!getConnContext().isCommunicationErrorContained(initError)) {
+                getConnContext().addError(initError);
+            }
+        } catch (InterruptedIOException | HttpTimeoutException ex) {
+            Logger.getInstance().log(() -> "paypal.payflow.PaymentConnection.ReceiveResponse(): Caught timeout: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_ERROR);
+            String addlMessage = "Input Server Uri = " + mServerUri.getProtocol() + "://" + mServerUri.getHost() + ":" + mServerUri.getPort();
+            ErrorObject initError = PayflowUtility.populateCommError(PayflowConstants.E_TIMEOUT_WAIT_RESP, ex,
+                    PayflowConstants.SEVERITY_ERROR, getIsXmlPayRequest(),
+                    addlMessage);
+            if (!getConnContext().isCommunicationErrorContained(initError)) {
+                getConnContext().addError(initError);
+            }
         } catch (IOException ex) {
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.ReceiveResponse(): Caught IOException: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_ERROR);
-            //Need to put a blank handler for this since there is a problem since the
-            //httpurlconnection keeps giving "unexpected end of file" exception intermittently
+            // the connection failed or was closed by the server before the whole response was read.
+            Logger.getInstance().log(() -> "paypal.payflow.PaymentConnection.ReceiveResponse(): Caught IOException: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_ERROR);
+            String addlMessage = "Input Server Uri = " + mServerUri.getProtocol() + "://" + mServerUri.getHost() + ":" + mServerUri.getPort();
+            ErrorObject initError = PayflowUtility.populateCommError(PayflowConstants.E_SOK_CONN_FAILED, ex,
+                    PayflowConstants.SEVERITY_ERROR, getIsXmlPayRequest(),
+                    addlMessage);
+            if (!getConnContext().isCommunicationErrorContained(initError)) {
+                getConnContext().addError(initError);
+            }
         } catch (Exception ex) {
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.ReceiveResponse(): Caught Exception: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_ERROR);
+            Logger.getInstance().log(() -> "paypal.payflow.PaymentConnection.ReceiveResponse(): Caught Exception: " + getStackTraceAsString(ex), PayflowConstants.SEVERITY_ERROR);
 
             String addlMessage = "Input Server Uri = " + mServerUri.getProtocol() + "://" + mServerUri.getHost() + ":" + mServerUri.getPort();
 
@@ -631,50 +628,49 @@ final class PaymentConnection {
         return response;
     }
 
-    public void disconnect() {
-        Logger.getInstance().log("paypal.payflow.PaymentConnection.Disconnect(): Entered",
-                PayflowConstants.SEVERITY_DEBUG);
-        try {
-            if (mServerConnection != null) {
-                mServerConnection.disconnect();
-                mServerConnection = null;
-                }
-        } catch (Exception ex) {
-            Logger.getInstance().log("paypal.payflow.PaymentConnection.Disconnect(): Caught Exception: " + getStackTraceAsString(ex),
-                    PayflowConstants.SEVERITY_FATAL);
-        }
-        Logger.getInstance().log("paypal.payflow.PaymentConnection.Disconnect(): Exiting",
-                PayflowConstants.SEVERITY_DEBUG);
+    /**
+     * @return future completed once the response can be read without blocking,
+     * null if the transport cannot tell or no exchange is in progress.
+     */
+    public CompletableFuture<?> getResponseReady() {
+        TransportChannel channel = mChannel;
+        return channel == null ? null : channel.getResponseReady();
     }
 
     /**
-     * @param in       InputStream
-     * @param totalLen int
-     * @return data byte[]
-     * @throws IOException Exception
+     * Aborts the exchange in progress, e.g. when the transaction is cancelled.
+     * May be called from a thread other than the one running the transaction.
      */
-    private byte[] readInputBytes(InputStream in, int totalLen)
-            throws IOException {
-        Logger.getInstance().log("paypal.payflow.PaymentConnection.readInputBytes(InputStream,int) : Entered",
+    public void abort() {
+        Logger.getInstance().log("paypal.payflow.PaymentConnection.abort(): Entered",
                 PayflowConstants.SEVERITY_DEBUG);
-        byte[] data;
-
-        if (totalLen >= 0) {
-            data = new byte[totalLen];
-            for (int offset = 0; offset < totalLen; ) {
-                offset += in.read(data, offset, totalLen - offset);
+        TransportChannel channel = mChannel;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (Exception ex) {
+                Logger.getInstance().log(() -> "paypal.payflow.PaymentConnection.abort(): Caught Exception: " + getStackTraceAsString(ex),
+                        PayflowConstants.SEVERITY_ERROR);
             }
-        } else {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            while (true) {
-                int c = in.read();
-                if (c < 0) break;
-                out.write(c);
+        }
+        Logger.getInstance().log("paypal.payflow.PaymentConnection.abort(): Exiting",
+                PayflowConstants.SEVERITY_DEBUG);
+    }
+
+    public void disconnect() {
+        Logger.getInstance().log("paypal.payflow.PaymentConnection.Disconnect(): Entered",
+                PayflowConstants.SEVERITY_DEBUG);
+        try {
+            if (mChannel != null) {
+                TransportChannel channel = mChannel;
+                mChannel = null;
+                channel.close();
             }
-            data = out.toByteArray();
+        } catch (Exception ex) {
+            Logger.getInstance().log(() -> "paypal.payflow.PaymentConnection.Disconnect(): Caught Exception: " + getStackTraceAsString(ex),
+                    PayflowConstants.SEVERITY_FATAL);
         }
-        Logger.getInstance().log("paypal.payflow.PaymentConnection.readInputBytes(InputStream,int) : Exiting",
+        Logger.getInstance().log("paypal.payflow.PaymentConnection.Disconnect(): Exiting",
                 PayflowConstants.SEVERITY_DEBUG);
-        return data;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,256 @@
+package paypal.payflow;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process wide pool of persistent connections to the Payflow server.
+ * Connections are pooled per host (and proxy); each host pool is bounded by
+ * SDKProperties.getMaxConnectionsPerHost(). Idle connections are evicted after
+ * SDKProperties.getConnectionIdleTimeout() and recycled after
+ * SDKProperties.getConnectionMaxLifetime().
+ */
+final class PaymentConnectionPool {
+
+    /**
+     * Interval of the idle connection reaper in milliseconds.
+     */
+    private static final long EVICTION_INTERVAL = 5000;
+
+    /**
+     * Opens a new connection for a host pool.
+     */
+    interface ConnectionFactory {
+        /**
+         * @return a newly established connection.
+         * @throws IOException Exception
+         */
+        PooledConnection open() throws IOException;
+    }
+
+    /**
+     * Idle connections and lease permits of a single host.
+     */
+    private static final class HostPool {
+        private final Semaphore mPermits;
+        private final ArrayDeque mIdle = new ArrayDeque();
+
+        HostPool(int maxConnections) {
+            mPermits = new Semaphore(maxConnections);
+        }
+    }
+
+    private static final PaymentConnectionPool INSTANCE = new PaymentConnectionPool();
+
+    private final ConcurrentHashMap mHostPools = new ConcurrentHashMap();
+
+    private volatile ScheduledExecutorService mReaper;
+
+    /**
+     * Private constructor.
+     */
+    private PaymentConnectionPool() {
+    }
+
+    /**
+     * @return PaymentConnectionPool
+     */
+    static PaymentConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Leases a connection for the given host, reusing a healthy idle connection when one
+     * is available and opening a new one otherwise.
+     *
+     * @param poolKey String
+     * @param timeout long maximum time to wait for a free slot, in milliseconds
+     * @param factory ConnectionFactory
+     * @return PooledConnection, null if no slot became free within the timeout.
+     * @throws IOException          Exception
+     * @throws InterruptedException Exception
+     */
+    PooledConnection lease(String poolKey, long timeout, ConnectionFactory factory)
+            throws IOException, InterruptedException {
+        HostPool hostPool = getHostPool(poolKey);
+        if (!hostPool.mPermits.tryAcquire(Math.max(timeout, 0), TimeUnit.MILLISECONDS)) {
+            return null;
+        }
+        try {
+            PooledConnection conn;
+            while ((conn = pollIdle(hostPool)) != null) {
+                long now = System.currentTimeMillis();
+                if (conn.isUsable(now, getIdleTimeout(), getMaxLifetime()) && conn.probe(now)) {
+                    Logger.getInstance().log("paypal.payflow.PaymentConnectionPool.lease(String,long,ConnectionFactory): Reusing pooled connection for ", poolKey,
+                            PayflowConstants.SEVERITY_DEBUG);
+                    return conn;
+                }
+                conn.close();
+            }
+            conn = factory.open();
+            Logger.getInstance().log("paypal.payflow.PaymentConnectionPool.lease(String,long,ConnectionFactory): Opened new connection for ", poolKey,
+                    PayflowConstants.SEVERITY_DEBUG);
+            startReaper();
+            return conn;
+        } catch (IOException ex) {
+            hostPool.mPermits.release();
+            throw ex;
+        } catch (RuntimeException ex) {
+            hostPool.mPermits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Replaces a leased connection found to be stale with a new one, keeping the lease.
+     *
+     * @param conn    PooledConnection
+     * @param factory ConnectionFactory
+     * @return PooledConnection
+     * @throws IOException Exception; the lease is given up in that case.
+     */
+    PooledConnection reopen(PooledConnection conn, ConnectionFactory factory) throws IOException {
+        conn.close();
+        try {
+            return factory.open();
+        } catch (IOException ex) {
+            getHostPool(conn.getPoolKey()).mPermits.release();
+            throw ex;
+        } catch (RuntimeException ex) {
+            getHostPool(conn.getPoolKey()).mPermits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns a leased connection. It is kept for reuse if it is still keep-alive
+     * and within its lifetime, and closed otherwise.
+     *
+     * @param conn PooledConnection
+     */
+    void release(PooledConnection conn) {
+        HostPool hostPool = getHostPool(conn.getPoolKey());
+        conn.touch();
+        if (conn.isUsable(conn.getLastUsedTime(), getIdleTimeout(), getMaxLifetime())) {
+            synchronized (hostPool.mIdle) {
+                hostPool.mIdle.addFirst(conn);
+            }
+        } else {
+            conn.close();
+        }
+        hostPool.mPermits.release();
+    }
+
+    /**
+     * Closes a leased connection whose state is unknown, e.g. after an I/O error.
+     *
+     * @param conn PooledConnection
+     */
+    void discard(PooledConnection conn) {
+        conn.close();
+        getHostPool(conn.getPoolKey()).mPermits.release();
+    }
+
+    /**
+     * Closes idle connections that exceeded the idle timeout or the maximum lifetime.
+     */
+    void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        long idleTimeout = getIdleTimeout();
+        long maxLifetime = getMaxLifetime();
+        Iterator pools = mHostPools.values().iterator();
+        while (pools.hasNext()) {
+            HostPool hostPool = (HostPool) pools.next();
+            synchronized (hostPool.mIdle) {
+                Iterator iter = hostPool.mIdle.iterator();
+                while (iter.hasNext()) {
+                    PooledConnection conn = (PooledConnection) iter.next();
+                    if (!conn.isUsable(now, idleTimeout, maxLifetime)) {
+                        iter.remove();
+                        conn.close();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes all idle connections.
+     */
+    void closeIdleConnections() {
+        Iterator pools = mHostPools.values().iterator();
+        while (pools.hasNext()) {
+            HostPool hostPool = (HostPool) pools.next();
+            PooledConnection conn;
+            while ((conn = pollIdle(hostPool)) != null) {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * @param poolKey String
+     * @return HostPool
+     */
+    private HostPool getHostPool(String poolKey) {
+        HostPool hostPool = (HostPool) mHostPools.get(poolKey);
+        if (hostPool == null) {
+            HostPool created = new HostPool(SDKProperties.getMaxConnectionsPerHost());
+            hostPool = (HostPool) mHostPools.putIfAbsent(poolKey, created);
+            if (hostPool == null) {
+                hostPool = created;
+            }
+        }
+        return hostPool;
+    }
+
+    /**
+     * @param hostPool HostPool
+     * @return most recently used idle connection, null if none.
+     */
+    private PooledConnection pollIdle(HostPool hostPool) {
+        synchronized (hostPool.mIdle) {
+            return (PooledConnection) hostPool.mIdle.pollFirst();
+        }
+    }
+
+    /**
+     * Starts the idle connection reaper on first use.
+     */
+    private void startReaper() {
+        if (mReaper == null) {
+            synchronized (this) {
+                if (mReaper == null) {
+                    ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "payflow-connection-reaper");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    reaper.scheduleWithFixedDelay(this::evictIdleConnections, EVICTION_INTERVAL,
+                            EVICTION_INTERVAL, TimeUnit.MILLISECONDS);
+                    mReaper = reaper;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return idle timeout in milliseconds.
+     */
+    private static long getIdleTimeout() {
+        return SDKProperties.getConnectionIdleTimeout() * 1000L;
+    }
+
+    /**
+     * @return maximum lifetime in milliseconds.
+     */
+    private static long getMaxLifetime() {
+        return SDKProperties.getConnectionMaxLifetime() * 1000L;
+    }
+}
@@ -31,6 +31,16 @@ abstract class PaymentState {
      */
     private String mTransactionRequest;
 
+    /**
+     * Parsed XMLPay request, null for NVP requests.
+     */
+    private XmlPayRequestDescriptor mXmlPayDescriptor;
+
+    /**
+     * Transaction Request masked for logging.
+     */
+    private MaskedRequest mMaskedRequest;
+
     /**
      * Transaction Response.
      */
@@ -56,6 +66,11 @@ abstract class PaymentState {
      */
     private boolean mStateSucceeded;
 
+    /**
+     * Delay in milliseconds requested before the next state runs.
+     */
+    private long mRetryDelay;
+
     /**
      * Context object.
      */
@@ -95,6 +110,26 @@ abstract class PaymentState {
      */
     public void setTransactionRequest(String value) {
         mTransactionRequest = value;
+        mMaskedRequest = null;
+    }
+
+    /**
+     * Gets, Sets the masked transaction request.
+     *
+     * @return maskedRequest MaskedRequest
+     */
+    MaskedRequest getMaskedRequest() {
+        if (mMaskedRequest == null) {
+            mMaskedRequest = new MaskedRequest(mTransactionRequest);
+        }
+        return mMaskedRequest;
+    }
+
+    /**
+     * @param value MaskedRequest
+     */
+    void setMaskedRequest(MaskedRequest value) {
+        mMaskedRequest = value;
     }
 
     /**
@@ -232,11 +267,24 @@ abstract class PaymentState {
      * @throws Exception Exception
      */
     public PaymentState(PaymentConnection connection, String paramList, Context psmContext) throws Exception {
+        this(connection, paramList, psmContext, null);
+    }
+
+    /**
+     * @param connection       PaymentConnection
+     * @param paramList        String
+     * @param psmContext       Context
+     * @param xmlPayDescriptor XmlPayRequestDescriptor already parsed XMLPay request, may be null.
+     * @throws Exception Exception
+     */
+    PaymentState(PaymentConnection connection, String paramList, Context psmContext,
+                 XmlPayRequestDescriptor xmlPayDescriptor) throws Exception {
         this();
         Logger.getInstance().log("paypal.payflow.PaymentState.PaymentState(PaymentConnection,String,Context): Entered", PayflowConstants.SEVERITY_DEBUG);
 
         mContext = psmContext;
         mConnection = connection;
+        mXmlPayDescriptor = xmlPayDescriptor;
 
         initializeContentType(paramList);
 
@@ -265,6 +313,8 @@ abstract class PaymentState {
         this.mConnection = currentPmtState.getConnection();
         this.mParameterList = currentPmtState.getParameterList();
         this.mTransactionRequest = currentPmtState.getTransactionRequest();
+        this.mMaskedRequest = currentPmtState.mMaskedRequest;
+        this.mXmlPayDescriptor = currentPmtState.mXmlPayDescriptor;
         this.mTransactionResponse = currentPmtState.getTransactionResponse();
         this.mConnection.setRequestId(currentPmtState.mConnection.getRequestId());
         this.mConnection.setIsXmlPayRequest(currentPmtState.mConnection.getIsXmlPayRequest());
@@ -301,13 +351,17 @@ abstract class PaymentState {
             if (index >= 0) {
                 mConnection.setIsXmlPayRequest(true);
                 mContentType = PayflowConstants.XML_CONTENT_TYPE;
-                mPayflowXmlNameSpace = PayflowUtility.getXmlNameSpace(initialParamList);
+                if (mXmlPayDescriptor != null) {
+                    mPayflowXmlNameSpace = mXmlPayDescriptor.getNameSpace();
+                } else {
+                    mPayflowXmlNameSpace = PayflowUtility.getXmlNameSpace(initialParamList);
+                }
             } else {
                 mConnection.setIsXmlPayRequest(false);
                 mContentType = PayflowConstants.NV_CONTENT_TYPE;
             }
         }
-        Logger.getInstance().log("paypal.payflow.PaymentState.InitializeContentType(String): ContentType = " + mContentType,
+        Logger.getInstance().log("paypal.payflow.PaymentState.InitializeContentType(String): ContentType = ", mContentType,
                 PayflowConstants.SEVERITY_INFO);
         Logger.getInstance().log("paypal.payflow.PaymentState.InitializeContentType(String): Exiting",
                 PayflowConstants.SEVERITY_DEBUG);
@@ -361,6 +415,23 @@ abstract class PaymentState {
         setStateOutCome(false);
     }
 
+    /**
+     * Gets the delay in milliseconds to observe
+     * before the next state runs.
+     *
+     * @return mRetryDelay long
+     */
+    public long getRetryDelay() {
+        return mRetryDelay;
+    }
+
+    /**
+     * @param value long
+     */
+    protected void setRetryDelay(long value) {
+        mRetryDelay = value;
+    }
+
     /**
      * Abstract function declaration
      * of Execute.
@@ -3,6 +3,11 @@ package paypal.payflow;
 
 
 import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -30,6 +35,21 @@ final class PaymentStateMachine {
      */
     private ClientInfo mClientInfo;
 
+    /**
+     * Delay requested by the last executed state.
+     */
+    private long mRetryDelay;
+
+    /**
+     * Set once the transaction is cancelled.
+     */
+    private volatile boolean mCancelled;
+
+    /**
+     * Time spent in the states, by JournalRecord phase.
+     */
+    private final long[] mPhaseNanos = new long[JournalRecord.PHASE_COUNT];
+
     /**
      * Gets the instance of PaymentStateMachine.
      *
@@ -89,6 +109,18 @@ final class PaymentStateMachine {
         return retVal;
     }
 
+    /**
+     * Sets the masked transaction request shared with the PayflowAPI, so the
+     * request is masked at most once per transaction.
+     *
+     * @param request MaskedRequest
+     */
+    void setMaskedRequest(MaskedRequest request) {
+        if (mPaymentState != null) {
+            mPaymentState.setMaskedRequest(request);
+        }
+    }
+
     /**
      * Gets the Request Id
      *
@@ -279,11 +311,22 @@ final class PaymentStateMachine {
      * @param requestId String
      */
     public void initTrans(String paramList, String requestId) {
+        initTrans(paramList, requestId, null);
+    }
+
+    /**
+     * Initializes the transaction with an already parsed XMLPay request.
+     *
+     * @param paramList        String
+     * @param requestId        String
+     * @param xmlPayDescriptor XmlPayRequestDescriptor, null for NVP requests.
+     */
+    void initTrans(String paramList, String requestId, XmlPayRequestDescriptor xmlPayDescriptor) {
         Logger.getInstance().log("paypal.payflow.PaymentStateMachine.InitTrans(String,String): Entered",
                 PayflowConstants.SEVERITY_DEBUG);
         try {
             this.mConnection.setRequestId(requestId);
-            this.mPaymentState = new SendInitState(this.mConnection, paramList, psmContext);
+            this.mPaymentState = new SendInitState(this.mConnection, paramList, psmContext, xmlPayDescriptor);
         } catch (Exception ex) {
             ErrorObject err = PayflowUtility.populateCommError(PayflowConstants.E_CONTXT_INIT_FAILED, ex,
                     PayflowConstants.SEVERITY_ERROR, mPaymentState.getIsXmlPayRequest(),
@@ -319,8 +362,14 @@ final class PaymentStateMachine {
                 }
                 mPaymentState.setTransactionFail(message);
             } else {
-                mPaymentState.execute();
+                long start = System.nanoTime();
+                try {
+                    mPaymentState.execute();
+                } finally {
+                    mPhaseNanos[getPhase(mPaymentState)] += System.nanoTime() - start;
+                }
             }
+            mRetryDelay = mPaymentState.getRetryDelay();
         } catch (Exception ex) {
             ErrorObject err = PayflowUtility.populateCommError(PayflowConstants.E_UNKNOWN_STATE, ex, PayflowConstants.SEVERITY_ERROR,
                     mPaymentState.getIsXmlPayRequest(),
@@ -331,11 +380,117 @@ final class PaymentStateMachine {
         } finally {
             // perform state transition
             mPaymentState = getNextState(mPaymentState);
+            if (!getInProgress()) {
+                // give back any connection still held by a failed transaction.
+                mConnection.disconnect();
+            }
             Logger.getInstance().log("paypal.payflow.PaymentStateMachine.Execute(): Exiting",
                     PayflowConstants.SEVERITY_DEBUG);
         }
     }
 
+    /**
+     * @param paymentState PaymentState
+     * @return JournalRecord phase the state belongs to.
+     */
+    private static int getPhase(PaymentState paymentState) {
+        if (paymentState instanceof InitState || paymentState instanceof ReconnectState) {
+            return JournalRecord.PHASE_CONNECT;
+        } else if (paymentState instanceof SendState) {
+            return JournalRecord.PHASE_SEND;
+        } else if (paymentState instanceof ReceiveState) {
+            return JournalRecord.PHASE_RECEIVE;
+        }
+        return JournalRecord.PHASE_RETRY;
+    }
+
+    /**
+     * @return time in nanoseconds spent in the states, by JournalRecord phase.
+     */
+    long[] getPhaseNanos() {
+        return mPhaseNanos;
+    }
+
+    /**
+     * Drives the transaction on the executor. Each step runs as an executor task and the
+     * delay between reconnect attempts is scheduled instead of blocking a thread.
+     *
+     * @param executor Executor
+     * @return future completed when the transaction is no longer in progress
+     */
+    public CompletableFuture<Void> executeAsync(Executor executor) {
+        Logger.getInstance().log("paypal.payflow.PaymentStateMachine.executeAsync(Executor): Entered",
+                PayflowConstants.SEVERITY_DEBUG);
+        mConnection.setIsAsync(true);
+        CompletableFuture<Void> done = new CompletableFuture<Void>();
+        runSteps(executor, executor, done);
+        Logger.getInstance().log("paypal.payflow.PaymentStateMachine.executeAsync(Executor): Exiting",
+                PayflowConstants.SEVERITY_DEBUG);
+        return done;
+    }
+
+    /**
+     * Runs states on the given executor until the transaction completes or a state asks for a delay.
+     *
+     * @param executor Executor
+     * @param next     Executor to run the next steps on
+     * @param done     CompletableFuture
+     */
+    private void runSteps(final Executor executor, Executor next, final CompletableFuture<Void> done) {
+        try {
+            next.execute(() -> {
+                try {
+                    while (getInProgress() && !mCancelled) {
+                        execute();
+                        if (mRetryDelay > 0 && getInProgress()) {
+                            long delay = mRetryDelay;
+                            mRetryDelay = 0;
+                            runSteps(executor, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor), done);
+                            return;
+                        }
+                        CompletableFuture<?> ready = mConnection.getResponseReady();
+                        if (ready != null && !ready.isDone() && getInProgress()) {
+                            // non-blocking transports: continue once the response has arrived.
+                            ready.whenComplete((response, ex) -> runSteps(executor, executor, done));
+                            return;
+                        }
+                    }
+                    if (mCancelled) {
+                        mConnection.disconnect();
+                        done.completeExceptionally(new CancellationException("Transaction cancelled"));
+                    } else {
+                        done.complete(null);
+                    }
+                } catch (Throwable ex) {
+                    mConnection.disconnect();
+                    done.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            mConnection.disconnect();
+            done.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Cancels the transaction: no further state runs and the exchange in progress is aborted.
+     */
+    public void cancel() {
+        Logger.getInstance().log("paypal.payflow.PaymentStateMachine.cancel(): Entered",
+                PayflowConstants.SEVERITY_DEBUG);
+        mCancelled = true;
+        mConnection.abort();
+        Logger.getInstance().log("paypal.payflow.PaymentStateMachine.cancel(): Exiting",
+                PayflowConstants.SEVERITY_DEBUG);
+    }
+
+    /**
+     * @return true if the transaction was cancelled.
+     */
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+
     /**
      * Changes the Payment States depending upon
      * the current state status.
@@ -381,7 +536,7 @@ final class PaymentStateMachine {
                     }
                 } else {
                     ArrayList ErrList = new ArrayList();
-                    ErrList.addAll(getPsmContext().getErrors());
+                    ErrList.addAll(getPsmContext().getErrorsReadOnly());
                     int HighestSevLevel = getPsmContext().getHighestErrorLvl();
 
                     int ErrorListIndex;
@@ -425,8 +580,8 @@ final class PaymentStateMachine {
             }
         }
 
-        Logger.getInstance().log("paypal.payflow.PaymentStateMachine.GetNextState(PaymentState): Obtained State = "
-                + mPaymentState.getClass(),
+        Logger.getInstance().log("paypal.payflow.PaymentStateMachine.GetNextState(PaymentState): Obtained State = ",
+                mPaymentState.getClass(),
                 PayflowConstants.SEVERITY_INFO);
         Logger.getInstance().log("paypal.payflow.PaymentStateMachine.GetNextState(PaymentState): Exiting",
                 PayflowConstants.SEVERITY_DEBUG);
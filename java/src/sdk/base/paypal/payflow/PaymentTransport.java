@@ -0,0 +1,27 @@
+package paypal.payflow;
+
+import java.io.IOException;
+
+/**
+ * The HTTP layer used by the SDK to talk to the Payflow server.
+ * <p>
+ * A transport opens a TransportChannel for every attempt of a transaction. The
+ * SDK ships a pooled keep-alive socket transport (the default), a transport on
+ * HttpsURLConnection (used when a URLStreamHandler class is configured or
+ * connection pooling is disabled), HttpClientTransport and InMemoryTransport.
+ * A transport is set for the process with SDKProperties.setPaymentTransport().
+ * </p>
+ * Implementations must be thread safe; channels are used by one thread at a time.
+ */
+public interface PaymentTransport {
+
+    /**
+     * Opens a channel to the endpoint.
+     *
+     * @param endpoint TransportEndpoint
+     * @param timeout  int milliseconds left for the transaction
+     * @return TransportChannel
+     * @throws IOException Exception
+     */
+    TransportChannel open(TransportEndpoint endpoint, int timeout) throws IOException;
+}
@@ -0,0 +1,559 @@
+package paypal.payflow;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * A persistent HTTP/1.1 connection to the Payflow server.
+ * Instances are leased from and returned to the PaymentConnectionPool
+ * and are only ever used by one transaction at a time.
+ */
+final class PooledConnection {
+
+    /**
+     * Maximum length of a status or header line.
+     */
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    /**
+     * Idle time after which a lease probes the socket for a close by the peer.
+     * A connection closed sooner is caught by resending the request once.
+     */
+    private static final long PROBE_IDLE_MILLIS = 1000;
+
+    /**
+     * Key of the host pool this connection belongs to.
+     */
+    private final String mPoolKey;
+
+    /**
+     * Underlying TLS socket.
+     */
+    private final SSLSocket mSocket;
+
+    /**
+     * Buffered socket input.
+     */
+    private final InputStream mIn;
+
+    /**
+     * Buffered socket output.
+     */
+    private final OutputStream mOut;
+
+    /**
+     * Time the connection was established.
+     */
+    private final long mCreatedTime;
+
+    /**
+     * Time the connection was last returned to the pool.
+     */
+    private long mLastUsedTime;
+
+    /**
+     * Number of requests sent on this connection.
+     */
+    private int mUseCount;
+
+    /**
+     * False once either side asked for the connection to be closed.
+     */
+    private boolean mKeepAlive = true;
+
+    /**
+     * True once the response to the last request has been read completely.
+     */
+    private boolean mResponseComplete;
+
+    /**
+     * HTTP status code of the last response.
+     */
+    private int mStatusCode;
+
+    /**
+     * Headers of the last response, keyed by lower case name.
+     */
+    private HashMap mResponseHeaders = new HashMap();
+
+    /**
+     * Constructor.
+     *
+     * @param poolKey String
+     * @param socket  SSLSocket
+     * @throws IOException Exception
+     */
+    private PooledConnection(String poolKey, SSLSocket socket) throws IOException {
+        mPoolKey = poolKey;
+        mSocket = socket;
+        mIn = new BufferedInputStream(socket.getInputStream());
+        mOut = new BufferedOutputStream(socket.getOutputStream());
+        mCreatedTime = System.currentTimeMillis();
+        mLastUsedTime = mCreatedTime;
+    }
+
+    /**
+     * Opens a new TLS connection to the host, tunnelling through the proxy when one is given.
+     *
+     * @param poolKey        String
+     * @param host           String
+     * @param port           int
+     * @param proxyHost      String (null if NA)
+     * @param proxyPort      int
+     * @param proxyAuth      String Proxy-Authorization header value (null if NA)
+     * @param socketFactory  SSLSocketFactory
+     * @param connectTimeout int in milliseconds
+     * @return PooledConnection
+     * @throws IOException Exception
+     */
+    static PooledConnection open(String poolKey, String host, int port, String proxyHost, int proxyPort,
+                                 String proxyAuth, SSLSocketFactory socketFactory, int connectTimeout)
+            throws IOException {
+        Socket plain = new Socket();
+        SSLSocket socket = null;
+        try {
+            plain.setTcpNoDelay(true);
+            plain.setKeepAlive(true);
+            if (proxyHost != null) {
+                plain.connect(new InetSocketAddress(proxyHost, proxyPort), connectTimeout);
+                plain.setSoTimeout(connectTimeout);
+                openTunnel(plain, host, port, proxyAuth);
+            } else {
+                plain.connect(new InetSocketAddress(host, port), connectTimeout);
+                plain.setSoTimeout(connectTimeout);
+            }
+            socket = (SSLSocket) socketFactory.createSocket(plain, host, port, true);
+            SSLParameters params = socket.getSSLParameters();
+            params.setEndpointIdentificationAlgorithm("HTTPS");
+            socket.setSSLParameters(params);
+            long handshakeStart = System.currentTimeMillis();
+            socket.startHandshake();
+            SSLContextHolder.recordHandshake(socket, handshakeStart);
+            return new PooledConnection(poolKey, socket);
+        } catch (IOException ex) {
+            closeQuietly(socket != null ? socket : plain);
+            throw ex;
+        }
+    }
+
+    /**
+     * Issues an HTTP CONNECT on the proxy socket.
+     *
+     * @param proxySocket Socket
+     * @param host        String
+     * @param port        int
+     * @param proxyAuth   String
+     * @throws IOException Exception
+     */
+    private static void openTunnel(Socket proxySocket, String host, int port, String proxyAuth)
+            throws IOException {
+        StringBuffer connect = new StringBuffer();
+        connect.append("CONNECT ").append(host).append(':').append(port).append(" HTTP/1.1\r\n")
+                .append("Host: ").append(host).append(':').append(port).append("\r\n")
+                .append("User-Agent: ").append(PayflowConstants.USER_AGENT).append("\r\n");
+        if (proxyAuth != null) {
+            connect.append("Proxy-Authorization: ").append(proxyAuth).append("\r\n");
+        }
+        connect.append("\r\n");
+        OutputStream out = proxySocket.getOutputStream();
+        out.write(connect.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+
+        // Read the proxy reply unbuffered so no tunnelled bytes are consumed.
+        InputStream in = proxySocket.getInputStream();
+        String statusLine = readLine(in);
+        if (statusLine == null) {
+            throw new EOFException("Proxy closed connection during CONNECT");
+        }
+        int code = parseStatusCode(statusLine);
+        String line;
+        do {
+            line = readLine(in);
+        } while (line != null && line.length() > 0);
+        if (code != 200) {
+            throw new IOException("Unable to tunnel through proxy. Proxy returns \"" + statusLine + "\"");
+        }
+    }
+
+    /**
+     * @return mPoolKey String
+     */
+    String getPoolKey() {
+        return mPoolKey;
+    }
+
+    /**
+     * @return mCreatedTime long
+     */
+    long getCreatedTime() {
+        return mCreatedTime;
+    }
+
+    /**
+     * @return mLastUsedTime long
+     */
+    long getLastUsedTime() {
+        return mLastUsedTime;
+    }
+
+    /**
+     * @return true if a request has already been sent on this connection.
+     */
+    boolean isReused() {
+        return mUseCount > 1;
+    }
+
+    /**
+     * @return mKeepAlive boolean
+     */
+    boolean isKeepAlive() {
+        return mKeepAlive;
+    }
+
+    /**
+     * @return mResponseComplete boolean
+     */
+    boolean isResponseComplete() {
+        return mResponseComplete;
+    }
+
+    /**
+     * @return mStatusCode int
+     */
+    int getStatusCode() {
+        return mStatusCode;
+    }
+
+    /**
+     * @param name String
+     * @return value of the response header, null if absent.
+     */
+    String getResponseHeader(String name) {
+        return (String) mResponseHeaders.get(name.toLowerCase());
+    }
+
+    /**
+     * Marks the connection as idle.
+     */
+    void touch() {
+        mLastUsedTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks whether an idle connection can still be handed out.
+     *
+     * @param now         long
+     * @param idleTimeout long in milliseconds
+     * @param maxLifetime long in milliseconds
+     * @return true if the connection is within its idle and lifetime limits.
+     */
+    boolean isUsable(long now, long idleTimeout, long maxLifetime) {
+        if (!mKeepAlive || mSocket.isClosed() || mSocket.isInputShutdown() || mSocket.isOutputShutdown()) {
+            return false;
+        }
+        if (idleTimeout > 0 && now - mLastUsedTime > idleTimeout) {
+            return false;
+        }
+        return maxLifetime <= 0 || now - mCreatedTime <= maxLifetime;
+    }
+
+    /**
+     * Health check: an idle connection must have nothing to read. A peer that closed the
+     * connection shows up as end of stream; any other byte means the stream is out of step.
+     * The blocking read for end of stream is only done for connections idle longer
+     * than PROBE_IDLE_MILLIS.
+     *
+     * @param now long current time in milliseconds
+     * @return true if the connection appears healthy.
+     */
+    boolean probe(long now) {
+        try {
+            if (mIn.available() > 0) {
+                return false;
+            }
+            if (now - mLastUsedTime < PROBE_IDLE_MILLIS) {
+                return true;
+            }
+            mSocket.setSoTimeout(1);
+            mIn.mark(1);
+            mIn.read();
+            return false;
+        } catch (SocketTimeoutException ex) {
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes a POST request.
+     *
+     * @param path    String
+     * @param host    String
+     * @param port    int
+     * @param headers Map
+     * @param body    byte[]
+     * @param timeout int in milliseconds
+     * @throws IOException Exception
+     */
+    void writeRequest(String path, String host, int port, Map headers, byte[] body, int timeout)
+            throws IOException {
+        mUseCount++;
+        mResponseComplete = false;
+        mSocket.setSoTimeout(timeout);
+        mOut.write(formatRequestHead(path, host, port, headers, body.length));
+        mOut.write(body);
+        mOut.flush();
+    }
+
+    /**
+     * Formats the request line and headers of a POST request.
+     *
+     * @param path          String
+     * @param host          String
+     * @param port          int
+     * @param headers       Map
+     * @param contentLength int
+     * @return head byte[]
+     */
+    static byte[] formatRequestHead(String path, String host, int port, Map headers, int contentLength) {
+        StringBuffer head = new StringBuffer(256);
+        head.append("POST ").append(path.length() > 0 ? path : "/").append(" HTTP/1.1\r\n")
+                .append("Host: ").append(host);
+        if (port != PayflowConstants.DEFAULT_HOSTPORT) {
+            head.append(':').append(port);
+        }
+        head.append("\r\n");
+        Iterator iter = headers.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry header = (Map.Entry) iter.next();
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        head.append("Content-Length: ").append(contentLength).append("\r\n\r\n");
+        return head.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads the response to the last request. The body is drained completely so that
+     * the connection can be reused.
+     *
+     * @param timeout int in milliseconds
+     * @return body byte[]
+     * @throws IOException Exception; EOFException if the peer closed before any response byte.
+     */
+    byte[] readResponse(int timeout) throws IOException {
+        mSocket.setSoTimeout(timeout);
+        mResponseHeaders.clear();
+        String statusLine;
+        do {
+            statusLine = readLine(mIn);
+            if (statusLine == null) {
+                mKeepAlive = false;
+                throw new EOFException("Connection closed by server before response");
+            }
+            mStatusCode = parseStatusCode(statusLine);
+            readHeaders();
+            // Skip interim 1xx responses.
+        } while (mStatusCode >= 100 && mStatusCode < 200);
+
+        String connection = getResponseHeader("Connection");
+        if (statusLine.startsWith("HTTP/1.0")) {
+            mKeepAlive = connection != null && connection.equalsIgnoreCase("keep-alive");
+        } else if (connection != null && connection.equalsIgnoreCase("close")) {
+            mKeepAlive = false;
+        }
+
+        byte[] body;
+        String transferEncoding = getResponseHeader("Transfer-Encoding");
+        String contentLength = getResponseHeader("Content-Length");
+        if (transferEncoding != null && transferEncoding.toLowerCase().indexOf("chunked") >= 0) {
+            body = readChunked();
+        } else if (contentLength != null) {
+            body = readFully(parseContentLength(contentLength));
+        } else {
+            body = readToEnd();
+            mKeepAlive = false;
+        }
+        mResponseComplete = true;
+        if (mStatusCode >= 400) {
+            throw new IOException("Server returned HTTP response code: " + mStatusCode);
+        }
+        return body;
+    }
+
+    /**
+     * Closes the connection.
+     */
+    void close() {
+        mKeepAlive = false;
+        closeQuietly(mSocket);
+    }
+
+    /**
+     * Reads header lines up to the blank line.
+     *
+     * @throws IOException Exception
+     */
+    private void readHeaders() throws IOException {
+        String line;
+        while ((line = readLine(mIn)) != null && line.length() > 0) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                mResponseHeaders.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+        }
+        if (line == null) {
+            throw new EOFException("Connection closed by server while reading headers");
+        }
+    }
+
+    /**
+     * @param length int
+     * @return data byte[]
+     * @throws IOException Exception
+     */
+    private byte[] readFully(int length) throws IOException {
+        ResponseReader.checkSize(length);
+        byte[] data = new byte[length];
+        try {
+            ResponseReader.readFully(mIn, data, 0, length);
+        } catch (EOFException ex) {
+            mKeepAlive = false;
+            throw ex;
+        }
+        return data;
+    }
+
+    /**
+     * @param contentLength String
+     * @return length int
+     * @throws IOException Exception if the value is invalid or exceeds the maximum response size.
+     */
+    private static int parseContentLength(String contentLength) throws IOException {
+        long length;
+        try {
+            length = Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException ex) {
+            throw new IOException("Invalid Content-Length: " + contentLength);
+        }
+        if (length < 0) {
+            throw new IOException("Invalid Content-Length: " + contentLength);
+        }
+        ResponseReader.checkSize(length);
+        return (int) length;
+    }
+
+    /**
+     * @return data byte[]
+     * @throws IOException Exception
+     */
+    private byte[] readChunked() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while (true) {
+            String sizeLine = readLine(mIn);
+            if (sizeLine == null) {
+                mKeepAlive = false;
+                throw new EOFException("Connection closed by server while reading chunk");
+            }
+            int ext = sizeLine.indexOf(';');
+            int size;
+            try {
+                size = Integer.parseInt((ext >= 0 ? sizeLine.substring(0, ext) : sizeLine).trim(), 16);
+            } catch (NumberFormatException ex) {
+                size = -1;
+            }
+            if (size < 0) {
+                throw new IOException("Invalid chunk size: " + sizeLine);
+            }
+            if (size == 0) {
+                // Trailers, terminated by a blank line.
+                String line;
+                while ((line = readLine(mIn)) != null && line.length() > 0) {
+                    // ignore
+                }
+                break;
+            }
+            ResponseReader.checkSize((long) out.size() + size);
+            out.write(readFully(size));
+            readLine(mIn);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return data byte[]
+     * @throws IOException Exception
+     */
+    private byte[] readToEnd() throws IOException {
+        return ResponseReader.read(mIn, -1);
+    }
+
+    /**
+     * Reads a CRLF (or LF) terminated line.
+     *
+     * @param in InputStream
+     * @return line without terminator, null at end of stream.
+     * @throws IOException Exception
+     */
+    private static String readLine(InputStream in) throws IOException {
+        StringBuffer line = new StringBuffer();
+        int c;
+        while ((c = in.read()) >= 0) {
+            if (c == '\n') {
+                int len = line.length();
+                if (len > 0 && line.charAt(len - 1) == '\r') {
+                    line.setLength(len - 1);
+                }
+                return line.toString();
+            }
+            if (line.length() >= MAX_LINE_LENGTH) {
+                throw new IOException("HTTP header line too long");
+            }
+            line.append((char) c);
+        }
+        return line.length() > 0 ? line.toString() : null;
+    }
+
+    /**
+     * @param statusLine String
+     * @return status code int
+     * @throws IOException Exception
+     */
+    static int parseStatusCode(String statusLine) throws IOException {
+        int start = statusLine.indexOf(' ');
+        if (!statusLine.startsWith("HTTP/") || start < 0 || statusLine.length() < start + 4) {
+            throw new IOException("Invalid HTTP status line: " + statusLine);
+        }
+        try {
+            return Integer.parseInt(statusLine.substring(start + 1, start + 4));
+        } catch (NumberFormatException ex) {
+            throw new IOException("Invalid HTTP status line: " + statusLine);
+        }
+    }
+
+    /**
+     * @param socket Socket
+     */
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ex) {
+            // nothing more to do.
+        }
+    }
+}
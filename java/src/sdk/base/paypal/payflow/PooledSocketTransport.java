@@ -0,0 +1,154 @@
+package paypal.payflow;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Map;
+
+/**
+ * Default transport: HTTP/1.1 keep-alive connections leased from the PaymentConnectionPool.
+ */
+final class PooledSocketTransport implements PaymentTransport {
+
+    /**
+     * Opens a channel leasing a pooled connection.
+     *
+     * @param endpoint TransportEndpoint
+     * @param timeout  int
+     * @return TransportChannel
+     * @throws IOException Exception
+     */
+    public TransportChannel open(TransportEndpoint endpoint, int timeout) throws IOException {
+        Channel channel = new Channel(endpoint);
+        try {
+            channel.mConnection = PaymentConnectionPool.getInstance().lease(endpoint.getPoolKey(), timeout,
+                    () -> openConnection(endpoint, timeout));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a pooled connection", ex);
+        }
+        if (channel.mConnection == null) {
+            throw new IOException("Connection pool exhausted for " + endpoint.getPoolKey());
+        }
+        return channel;
+    }
+
+    /**
+     * Opens a new connection to the server, tunnelling through the proxy if one is set.
+     *
+     * @param endpoint TransportEndpoint
+     * @param timeout  int
+     * @return PooledConnection
+     * @throws IOException Exception
+     */
+    private static PooledConnection openConnection(TransportEndpoint endpoint, int timeout) throws IOException {
+        try {
+            return PooledConnection.open(endpoint.getPoolKey(), endpoint.getHost(), endpoint.getPort(),
+                    endpoint.getProxyHost(), endpoint.getProxyPort(), endpoint.getProxyAuthorization(),
+                    SSLContextHolder.getSocketFactory(), timeout);
+        } catch (GeneralSecurityException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Exchange on a leased pooled connection. If a reused connection turns out to have been
+     * closed by the server while idle, the request is sent once more on a new connection;
+     * the Payflow server de-duplicates on the request id.
+     */
+    private static final class Channel implements TransportChannel {
+        private final TransportEndpoint mEndpoint;
+        private volatile PooledConnection mConnection;
+        private volatile boolean mClosed;
+        private Map mHeaders;
+        private byte[] mBody;
+
+        Channel(TransportEndpoint endpoint) {
+            mEndpoint = endpoint;
+        }
+
+        public void send(Map headers, byte[] body, int timeout) throws IOException {
+            mHeaders = headers;
+            mBody = body;
+            try {
+                write(timeout);
+            } catch (IOException ex) {
+                if (mClosed || !connection().isReused()) {
+                    throw ex;
+                }
+                Logger.getInstance().log("paypal.payflow.PooledSocketTransport.send(Map,byte[],int): Stale pooled connection, reconnecting.",
+                        PayflowConstants.SEVERITY_INFO);
+                reopen(timeout);
+                write(timeout);
+            }
+        }
+
+        public byte[] receive(int timeout) throws IOException {
+            try {
+                return connection().readResponse(timeout);
+            } catch (EOFException ex) {
+                if (mClosed || !connection().isReused()) {
+                    throw ex;
+                }
+                Logger.getInstance().log("paypal.payflow.PooledSocketTransport.receive(int): Stale pooled connection, resending request.",
+                        PayflowConstants.SEVERITY_INFO);
+                reopen(timeout);
+                write(timeout);
+                return connection().readResponse(timeout);
+            }
+        }
+
+        public String getResponseHeader(String name) {
+            PooledConnection conn = mConnection;
+            return conn == null ? null : conn.getResponseHeader(name);
+        }
+
+        public void close() {
+            PooledConnection conn;
+            // close may come from another thread when the transaction is cancelled.
+            synchronized (this) {
+                mClosed = true;
+                conn = mConnection;
+                mConnection = null;
+            }
+            if (conn != null) {
+                // Only a connection whose response was read completely goes back to the pool.
+                if (conn.isResponseComplete() && conn.isKeepAlive()) {
+                    PaymentConnectionPool.getInstance().release(conn);
+                } else {
+                    PaymentConnectionPool.getInstance().discard(conn);
+                }
+            }
+        }
+
+        private PooledConnection connection() throws IOException {
+            PooledConnection conn = mConnection;
+            if (conn == null) {
+                throw new IOException("Connection closed");
+            }
+            return conn;
+        }
+
+        private void write(int timeout) throws IOException {
+            connection().writeRequest(mEndpoint.getPath(), mEndpoint.getHost(), mEndpoint.getPort(),
+                    mHeaders, mBody, timeout);
+        }
+
+        private void reopen(int timeout) throws IOException {
+            PooledConnection stale;
+            synchronized (this) {
+                stale = connection();
+                mConnection = null;
+            }
+            PooledConnection fresh = PaymentConnectionPool.getInstance().reopen(stale, () -> openConnection(mEndpoint, timeout));
+            synchronized (this) {
+                if (!mClosed) {
+                    mConnection = fresh;
+                    return;
+                }
+            }
+            PaymentConnectionPool.getInstance().discard(fresh);
+            throw new IOException("Connection closed");
+        }
+    }
+}
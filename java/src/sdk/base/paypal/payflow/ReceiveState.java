@@ -40,7 +40,7 @@ abstract class ReceiveState extends PaymentState {
                 isReceiveSuccess = setReceiveResponse(responseValue);
              } catch (Exception Ex) {
                 Logger.getInstance().log("paypal.payflow.ReceiveState.Execute(): Following Error occurred While Receiving Response.", PayflowConstants.SEVERITY_ERROR);
-                Logger.getInstance().log("paypal.payflow.ReceiveState.Execute(): Exception " + Ex.toString(), PayflowConstants.SEVERITY_ERROR);
+                Logger.getInstance().log("paypal.payflow.ReceiveState.Execute(): Exception ", Ex, PayflowConstants.SEVERITY_ERROR);
                 isReceiveSuccess = false;
             } finally {
                 if (isReceiveSuccess) {
@@ -30,23 +30,32 @@ abstract class ReconnectState extends PaymentState {
 
             mAttemptNo++;
 
-            Logger.getInstance().log("paypal.payflow.ReconnectState.Execute(): Current Reconnect Attempt No. = " + mAttemptNo, PayflowConstants.SEVERITY_DEBUG);
+            if (Logger.isEnabled(PayflowConstants.SEVERITY_DEBUG)) {
+                Logger.getInstance().log("paypal.payflow.ReconnectState.Execute(): Current Reconnect Attempt No. = " + mAttemptNo, PayflowConstants.SEVERITY_DEBUG);
+            }
             Logger.getInstance().log("paypal.payflow.ReconnectState.Execute(): Maximum Number of Reconnect Attempts Allowed = " + PayflowConstants.MAX_RETRY, PayflowConstants.SEVERITY_DEBUG);
             if (mAttemptNo > PayflowConstants.MAX_RETRY) {
                 Logger.getInstance().log("paypal.payflow.ReconnectState.Execute(): Maximum Number of Reconnect Attempts Exceeded.", PayflowConstants.SEVERITY_WARN);
                 setStateFail();
             } else {
                 //implementing delay between each reconnect attempt
-                synchronized (this) {
-                    if (this.mAttemptNo > 0) {
-                        try {
-                            wait(PayflowConstants.RETRY_DELAY);
-                        } catch (InterruptedException e) {
-                            e.printStackTrace();
-                        }
+                if (mConnection.getIsAsync()) {
+                    // the asynchronous driver schedules the next state after the delay.
+                    setRetryDelay(PayflowConstants.RETRY_DELAY);
+                } else if (this.mAttemptNo > 0) {
+                    // sleep rather than Object.wait: a virtual thread sleeping here releases its carrier.
+                    try {
+                        Thread.sleep(PayflowConstants.RETRY_DELAY);
+                    } catch (InterruptedException e) {
+                        // an interrupt cancels the remaining attempts; the caller keeps the interrupt.
+                        Thread.currentThread().interrupt();
+                        Logger.getInstance().log("paypal.payflow.ReconnectState.Execute(): Interrupted, no further Reconnect Attempts.", PayflowConstants.SEVERITY_WARN);
+                        setStateFail();
                     }
                 }
-                setStateSuccess();
+                if (!getFailed()) {
+                    setStateSuccess();
+                }
             }
 
             Logger.getInstance().log("paypal.payflow.ReconnectState.Execute() : Exiting", PayflowConstants.SEVERITY_DEBUG);
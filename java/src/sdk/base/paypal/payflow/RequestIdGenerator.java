@@ -0,0 +1,111 @@
+package paypal.payflow;
+
+import java.net.NetworkInterface;
+import java.security.SecureRandom;
+import java.util.Enumeration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates request ids: 32 hex characters, unique across hosts and processes.
+ * <p>
+ * The upper 64 bits identify the process: a host fingerprint, the process id and start time,
+ * mixed with a SecureRandom seed. They are computed once, without DNS lookups. The lower
+ * 64 bits are a scrambled 48 bit counter and 16 random bits, so every id of a process is
+ * distinct until the counter wraps after 2^48 ids. Generating an id takes no lock.
+ * </p>
+ */
+final class RequestIdGenerator {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Identifies this process.
+     */
+    private static final long PROCESS_KEY;
+
+    /**
+     * Id sequence, starting at a random value.
+     */
+    private static final AtomicLong SEQUENCE;
+
+    static {
+        SecureRandom seed = new SecureRandom();
+        long key = seed.nextLong();
+        key = mix(key ^ getHostFingerprint());
+        key = mix(key ^ ProcessHandle.current().pid());
+        key = mix(key ^ System.nanoTime() ^ System.currentTimeMillis());
+        PROCESS_KEY = key;
+        SEQUENCE = new AtomicLong(seed.nextLong());
+    }
+
+    /**
+     * Private constructor.
+     */
+    private RequestIdGenerator() {
+    }
+
+    /**
+     * @return new request id String
+     */
+    static String next() {
+        long sequence = SEQUENCE.getAndIncrement() << 16;
+        long random = ThreadLocalRandom.current().nextInt() & 0xFFFFL;
+        char[] id = new char[32];
+        toHex(PROCESS_KEY, id, 0);
+        // mix is a bijection, so distinct sequence values stay distinct.
+        toHex(mix(sequence | random), id, 16);
+        return new String(id);
+    }
+
+    /**
+     * @param value  long
+     * @param id     char[]
+     * @param offset int
+     */
+    private static void toHex(long value, char[] id, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            id[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * Invertible 64 bit mixing function (MurmurHash3 finalizer).
+     *
+     * @param value long
+     * @return mixed value long
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Hashes the hardware addresses of the network interfaces. Unlike
+     * InetAddress.getLocalHost() this needs no name resolution.
+     *
+     * @return fingerprint long, 0 if no interface could be read.
+     */
+    private static long getHostFingerprint() {
+        long fingerprint = 0;
+        try {
+            Enumeration interfaces = NetworkInterface.getNetworkInterfaces();
+            while (interfaces != null && interfaces.hasMoreElements()) {
+                byte[] address = ((NetworkInterface) interfaces.nextElement()).getHardwareAddress();
+                if (address != null) {
+                    for (int i = 0; i < address.length; i++) {
+                        fingerprint = fingerprint * 31 + (address[i] & 0xFF);
+                    }
+                }
+            }
+        } catch (Exception ex) {
+            // the random seed alone still separates processes.
+        }
+        return fingerprint;
+    }
+}
@@ -0,0 +1,414 @@
+package paypal.payflow;
+
+import java.util.Arrays;
+
+/**
+ * Ids of the response parameters the response data objects read. A parsed name
+ * is resolved to its id with a perfect hash over the known names, without
+ * copying it out of the response, so the data objects look their fields up by
+ * id instead of hashing String keys.
+ */
+final class ResponseKeys {
+
+    // TransactionResponse
+    static final int PARAM_RESULT = 0;
+    static final int PARAM_PPREF = 1;
+    static final int PARAM_PNREF = 2;
+    static final int PARAM_RESPMSG = 3;
+    static final int PARAM_AUTHCODE = 4;
+    static final int PARAM_AVSADDR = 5;
+    static final int PARAM_AVSZIP = 6;
+    static final int PARAM_CARDSECURE = 7;
+    static final int PARAM_CVV2MATCH = 8;
+    static final int PARAM_IAVS = 9;
+    static final int PARAM_ORIGRESULT = 10;
+    static final int PARAM_TRANSSTATE = 11;
+    static final int PARAM_CUSTREF = 12;
+    static final int PARAM_STARTTIME = 13;
+    static final int PARAM_ENDTIME = 14;
+    static final int PARAM_DUPLICATE = 15;
+    static final int PARAM_DATE_TO_SETTLE = 16;
+    static final int PARAM_BATCHID = 17;
+    static final int PARAM_ADDLMSGS = 18;
+    static final int PARAM_RESPTEXT = 19;
+    static final int PARAM_PROCAVS = 20;
+    static final int PARAM_PROCCARDSECURE = 21;
+    static final int PARAM_PROCCVV2 = 22;
+    static final int PARAM_HOSTCODE = 23;
+    static final int PARAM_SETTLE_DATE = 24;
+    static final int PARAM_ORIGPNREF = 25;
+    static final int PARAM_FEEAMT = 26;
+    static final int PARAM_PENDINGREASON = 27;
+    static final int PARAM_PAYMENTTYPE = 28;
+    static final int PARAM_CORRELATIONID = 29;
+    static final int PARAM_STATUS = 30;
+    static final int PARAM_BALAMT = 31;
+    static final int PARAM_AMEXID = 32;
+    static final int PARAM_AMEXPOSDATA = 33;
+    static final int PARAM_ACCT = 34;
+    static final int PARAM_LASTNAME = 35;
+    static final int PARAM_FIRSTNAME = 36;
+    static final int PARAM_AMT = 37;
+    static final int PARAM_TRANSTIME = 38;
+    static final int PARAM_EXPDATE = 39;
+    static final int PARAM_CARDTYPE = 40;
+    static final int PARAM_ORIGAMT = 41;
+    static final int PARAM_SECURETOKEN = 42;
+    static final int PARAM_SECURETOKENID = 43;
+    static final int PARAM_PHONEMATCH = 44;
+    static final int PARAM_EMAILMATCH = 45;
+    static final int PARAM_EXTRSPMSG = 46;
+    static final int PARAM_PAYMENTADVICECODE = 47;
+    static final int PARAM_ASSOCIATIONRESPCODE = 48;
+    static final int PARAM_TRANSACTIONID = 49;
+    static final int PARAM_TXID = 50;
+    static final int MAGTEK_PARAM_MAGTRESPONSE = 51;
+    static final int PARAM_TRACEID = 52;
+    static final int PARAM_ACHSTATUS = 53;
+    static final int PARAM_TYPE = 54;
+    static final int PARAM_AFFLUENT = 55;
+    static final int PARAM_CCUPDATED = 56;
+    static final int PARAM_RRN = 57;
+    static final int PARAM_STAN = 58;
+    static final int PARAM_ACI = 59;
+    static final int PARAM_VALIDATIONCODE = 60;
+    static final int PARAM_CCTRANSID = 61;
+    static final int PARAM_CCTRANS_POSDATA = 62;
+    static final int PARAM_PARID = 63;
+
+    // FraudResponse
+    static final int PARAM_PREFPSMSG = 64;
+    static final int PARAM_POSTFPSMSG = 65;
+    static final int PARAM_FPS_PREXMLDATA = 66;
+    static final int PARAM_FPS_POSTXMLDATA = 67;
+
+    // BuyerAuthResponse
+    static final int PARAM_ACSURL = 68;
+    static final int PARAM_AUTHENTICATION_ID = 69;
+    static final int PARAM_AUTHENICATION_STATUS = 70;
+    static final int PARAM_CAVV = 71;
+    static final int PARAM_ECI = 72;
+    static final int PARAM_MD = 73;
+    static final int PARAM_PAREQ = 74;
+    static final int PARAM_XID = 75;
+
+    // RecurringResponse
+    static final int PARAM_PROFILEID = 76;
+    static final int PARAM_RPREF = 77;
+    static final int PARAM_TRXPNREF = 78;
+    static final int PARAM_TRXRESULT = 79;
+    static final int PARAM_TRXRESPMSG = 80;
+    static final int PARAM_PROFILENAME = 81;
+    static final int PARAM_START = 82;
+    static final int PARAM_TERM = 83;
+    static final int PARAM_PAYPERIOD = 84;
+    static final int PARAM_TENDER = 85;
+    static final int PARAM_PAYMENTSLEFT = 86;
+    static final int PARAM_NEXTPAYMENT = 87;
+    static final int PARAM_END = 88;
+    static final int PARAM_AGGREGATEAMT = 89;
+    static final int PARAM_AGGREGATEOPTIONALAMT = 90;
+    static final int PARAM_MAXFAILPAYMENTS = 91;
+    static final int PARAM_NUMFAILPAYMENTS = 92;
+    static final int PARAM_RETRYNUMDAYS = 93;
+    static final int PARAM_COMPANYNAME = 94;
+    static final int PARAM_NAME = 95;
+    static final int PARAM_MIDDLENAME = 96;
+    static final int LASTNAME = 97;
+    static final int STREET = 98;
+    static final int CITY = 99;
+    static final int STATE = 100;
+    static final int ZIP = 101;
+    static final int EMAIL = 102;
+    static final int PARAM_COUNTRY = 103;
+    static final int PARAM_PHONENUM = 104;
+    static final int PARAM_SHIPTOFIRSTNAME = 105;
+    static final int PARAM_SHIPTOMIDDLENAME = 106;
+    static final int PARAM_SHIPTOLASTNAME = 107;
+    static final int PARAM_SHIPTOSTREET = 108;
+    static final int PARAM_SHIPTOCITY = 109;
+    static final int PARAM_SHIPTOSTATE = 110;
+    static final int PARAM_SHIPTOZIP = 111;
+    static final int PARAM_SHIPTOCOUNTRY = 112;
+    static final int PARAM_CREATIONDATE = 113;
+    static final int PARAM_LASTCHANGED = 114;
+    static final int PARAM_RPSTATE = 115;
+    static final int PARAM_NEXTPAYMENTNUM = 116;
+    static final int PARAM_FREQUENCY = 117;
+    static final int PARAM_CURRENCY = 118;
+    static final int PARAM_P_RESULTn = 119;
+    static final int PARAM_P_PNREFn = 120;
+    static final int PARAM_P_TRANSTATEn = 121;
+    static final int PARAM_P_TENDERn = 122;
+    static final int PARAM_P_TRANSTIMEn = 123;
+    static final int PARAM_P_AMOUNTn = 124;
+
+    // ECDoResponse
+    static final int PARAM_SETTLEAMT = 125;
+    static final int PARAM_TAXAMT = 126;
+    static final int PARAM_EXCHANGERATE = 127;
+    static final int PARAM_PAYMENTDATE = 128;
+    static final int PARAM_PAYMENTSTATUS = 129;
+    static final int PARAM_BAID = 130;
+
+    // ECGetResponse
+    static final int PARAM_EMAIL = 131;
+    static final int PARAM_PAYERID = 132;
+    static final int PARAM_PAYERSTATUS = 133;
+    static final int PARAM_SHIPTONAME = 134;
+    static final int PARAM_SHIPTOBUSINESS = 135;
+    static final int PARAM_STREET = 136;
+    static final int PARAM_STREET2 = 137;
+    static final int PARAM_CITY = 138;
+    static final int PARAM_STATE = 139;
+    static final int PARAM_ZIP = 140;
+    static final int PARAM_SHIPTOSTREET2 = 141;
+    static final int PARAM_COUNTRYCODE = 142;
+    static final int PARAM_BA_FLAG = 143;
+    static final int PARAM_ADDRESSSTATUS = 144;
+
+    // ExpressCheckoutResponse
+    static final int PARAM_TOKEN = 145;
+
+    // ECUpdateResponse
+    static final int PARAM_BA_DESC = 146;
+    static final int PARAM_BA_STATUS = 147;
+
+    /**
+     * Names by id.
+     */
+    private static final String[] NAMES = {
+            PayflowConstants.PARAM_RESULT,
+            PayflowConstants.PARAM_PPREF,
+            PayflowConstants.PARAM_PNREF,
+            PayflowConstants.PARAM_RESPMSG,
+            PayflowConstants.PARAM_AUTHCODE,
+            PayflowConstants.PARAM_AVSADDR,
+            PayflowConstants.PARAM_AVSZIP,
+            PayflowConstants.PARAM_CARDSECURE,
+            PayflowConstants.PARAM_CVV2MATCH,
+            PayflowConstants.PARAM_IAVS,
+            PayflowConstants.PARAM_ORIGRESULT,
+            PayflowConstants.PARAM_TRANSSTATE,
+            PayflowConstants.PARAM_CUSTREF,
+            PayflowConstants.PARAM_STARTTIME,
+            PayflowConstants.PARAM_ENDTIME,
+            PayflowConstants.PARAM_DUPLICATE,
+            PayflowConstants.PARAM_DATE_TO_SETTLE,
+            PayflowConstants.PARAM_BATCHID,
+            PayflowConstants.PARAM_ADDLMSGS,
+            PayflowConstants.PARAM_RESPTEXT,
+            PayflowConstants.PARAM_PROCAVS,
+            PayflowConstants.PARAM_PROCCARDSECURE,
+            PayflowConstants.PARAM_PROCCVV2,
+            PayflowConstants.PARAM_HOSTCODE,
+            PayflowConstants.PARAM_SETTLE_DATE,
+            PayflowConstants.PARAM_ORIGPNREF,
+            PayflowConstants.PARAM_FEEAMT,
+            PayflowConstants.PARAM_PENDINGREASON,
+            PayflowConstants.PARAM_PAYMENTTYPE,
+            PayflowConstants.PARAM_CORRELATIONID,
+            PayflowConstants.PARAM_STATUS,
+            PayflowConstants.PARAM_BALAMT,
+            PayflowConstants.PARAM_AMEXID,
+            PayflowConstants.PARAM_AMEXPOSDATA,
+            PayflowConstants.PARAM_ACCT,
+            PayflowConstants.PARAM_LASTNAME,
+            PayflowConstants.PARAM_FIRSTNAME,
+            PayflowConstants.PARAM_AMT,
+            PayflowConstants.PARAM_TRANSTIME,
+            PayflowConstants.PARAM_EXPDATE,
+            PayflowConstants.PARAM_CARDTYPE,
+            PayflowConstants.PARAM_ORIGAMT,
+            PayflowConstants.PARAM_SECURETOKEN,
+            PayflowConstants.PARAM_SECURETOKENID,
+            PayflowConstants.PARAM_PHONEMATCH,
+            PayflowConstants.PARAM_EMAILMATCH,
+            PayflowConstants.PARAM_EXTRSPMSG,
+            PayflowConstants.PARAM_PAYMENTADVICECODE,
+            PayflowConstants.PARAM_ASSOCIATIONRESPCODE,
+            PayflowConstants.PARAM_TRANSACTIONID,
+            PayflowConstants.PARAM_TXID,
+            PayflowConstants.MAGTEK_PARAM_MAGTRESPONSE,
+            PayflowConstants.PARAM_TRACEID,
+            PayflowConstants.PARAM_ACHSTATUS,
+            PayflowConstants.PARAM_TYPE,
+            PayflowConstants.PARAM_AFFLUENT,
+            PayflowConstants.PARAM_CCUPDATED,
+            PayflowConstants.PARAM_RRN,
+            PayflowConstants.PARAM_STAN,
+            PayflowConstants.PARAM_ACI,
+            PayflowConstants.PARAM_VALIDATIONCODE,
+            PayflowConstants.PARAM_CCTRANSID,
+            PayflowConstants.PARAM_CCTRANS_POSDATA,
+            PayflowConstants.PARAM_PARID,
+            PayflowConstants.PARAM_PREFPSMSG,
+            PayflowConstants.PARAM_POSTFPSMSG,
+            PayflowConstants.PARAM_FPS_PREXMLDATA,
+            PayflowConstants.PARAM_FPS_POSTXMLDATA,
+            PayflowConstants.PARAM_ACSURL,
+            PayflowConstants.PARAM_AUTHENTICATION_ID,
+            PayflowConstants.PARAM_AUTHENICATION_STATUS,
+            PayflowConstants.PARAM_CAVV,
+            PayflowConstants.PARAM_ECI,
+            PayflowConstants.PARAM_MD,
+            PayflowConstants.PARAM_PAREQ,
+            PayflowConstants.PARAM_XID,
+            PayflowConstants.PARAM_PROFILEID,
+            PayflowConstants.PARAM_RPREF,
+            PayflowConstants.PARAM_TRXPNREF,
+            PayflowConstants.PARAM_TRXRESULT,
+            PayflowConstants.PARAM_TRXRESPMSG,
+            PayflowConstants.PARAM_PROFILENAME,
+            PayflowConstants.PARAM_START,
+            PayflowConstants.PARAM_TERM,
+            PayflowConstants.PARAM_PAYPERIOD,
+            PayflowConstants.PARAM_TENDER,
+            PayflowConstants.PARAM_PAYMENTSLEFT,
+            PayflowConstants.PARAM_NEXTPAYMENT,
+            PayflowConstants.PARAM_END,
+            PayflowConstants.PARAM_AGGREGATEAMT,
+            PayflowConstants.PARAM_AGGREGATEOPTIONALAMT,
+            PayflowConstants.PARAM_MAXFAILPAYMENTS,
+            PayflowConstants.PARAM_NUMFAILPAYMENTS,
+            PayflowConstants.PARAM_RETRYNUMDAYS,
+            PayflowConstants.PARAM_COMPANYNAME,
+            PayflowConstants.PARAM_NAME,
+            PayflowConstants.PARAM_MIDDLENAME,
+            "LASTNAME",
+            "STREET",
+            "CITY",
+            "STATE",
+            "ZIP",
+            "EMAIL",
+            PayflowConstants.PARAM_COUNTRY,
+            PayflowConstants.PARAM_PHONENUM,
+            PayflowConstants.PARAM_SHIPTOFIRSTNAME,
+            PayflowConstants.PARAM_SHIPTOMIDDLENAME,
+            PayflowConstants.PARAM_SHIPTOLASTNAME,
+            PayflowConstants.PARAM_SHIPTOSTREET,
+            PayflowConstants.PARAM_SHIPTOCITY,
+            PayflowConstants.PARAM_SHIPTOSTATE,
+            PayflowConstants.PARAM_SHIPTOZIP,
+            PayflowConstants.PARAM_SHIPTOCOUNTRY,
+            PayflowConstants.PARAM_CREATIONDATE,
+            PayflowConstants.PARAM_LASTCHANGED,
+            PayflowConstants.PARAM_RPSTATE,
+            PayflowConstants.PARAM_NEXTPAYMENTNUM,
+            PayflowConstants.PARAM_FREQUENCY,
+            PayflowConstants.PARAM_CURRENCY,
+            PayflowConstants.PARAM_P_RESULTn,
+            PayflowConstants.PARAM_P_PNREFn,
+            PayflowConstants.PARAM_P_TRANSTATEn,
+            PayflowConstants.PARAM_P_TENDERn,
+            PayflowConstants.PARAM_P_TRANSTIMEn,
+            PayflowConstants.PARAM_P_AMOUNTn,
+            PayflowConstants.PARAM_SETTLEAMT,
+            PayflowConstants.PARAM_TAXAMT,
+            PayflowConstants.PARAM_EXCHANGERATE,
+            PayflowConstants.PARAM_PAYMENTDATE,
+            PayflowConstants.PARAM_PAYMENTSTATUS,
+            PayflowConstants.PARAM_BAID,
+            PayflowConstants.PARAM_EMAIL,
+            PayflowConstants.PARAM_PAYERID,
+            PayflowConstants.PARAM_PAYERSTATUS,
+            PayflowConstants.PARAM_SHIPTONAME,
+            PayflowConstants.PARAM_SHIPTOBUSINESS,
+            PayflowConstants.PARAM_STREET,
+            PayflowConstants.PARAM_STREET2,
+            PayflowConstants.PARAM_CITY,
+            PayflowConstants.PARAM_STATE,
+            PayflowConstants.PARAM_ZIP,
+            PayflowConstants.PARAM_SHIPTOSTREET2,
+            PayflowConstants.PARAM_COUNTRYCODE,
+            PayflowConstants.PARAM_BA_FLAG,
+            PayflowConstants.PARAM_ADDRESSSTATUS,
+            PayflowConstants.PARAM_TOKEN,
+            PayflowConstants.PARAM_BA_DESC,
+            PayflowConstants.PARAM_BA_STATUS};
+
+    /**
+     * Number of ids.
+     */
+    static final int COUNT = NAMES.length;
+
+    /**
+     * log2 of the hash table size.
+     */
+    private static final int TABLE_BITS = 10;
+
+    /**
+     * First multiplier tried; it maps the names above to distinct slots.
+     */
+    private static final int SEED = 0x9E378189;
+
+    private static final int MULTIPLIER;
+
+    /**
+     * Slot to id + 1, 0 for an empty slot.
+     */
+    private static final short[] TABLE = new short[1 << TABLE_BITS];
+
+    static {
+        // search for a multiplier that gives every name its own slot. The seed
+        // works for the names above, so this only loops if the names change.
+        int multiplier = SEED;
+        while (!fill(multiplier)) {
+            multiplier += 2;
+        }
+        MULTIPLIER = multiplier;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private ResponseKeys() {
+    }
+
+    /**
+     * Resolves a parameter name.
+     *
+     * @param source String
+     * @param start  int start of the name
+     * @param end    int end of the name
+     * @return id int, -1 if the name is not a known response parameter.
+     */
+    static int lookup(String source, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        int id = TABLE[(hash * MULTIPLIER) >>> (32 - TABLE_BITS)] - 1;
+        if (id >= 0 && NAMES[id].length() == end - start && source.regionMatches(start, NAMES[id], 0, end - start)) {
+            return id;
+        }
+        return -1;
+    }
+
+    /**
+     * @param id int
+     * @return name String
+     */
+    static String getName(int id) {
+        return NAMES[id];
+    }
+
+    /**
+     * Fills the table.
+     *
+     * @param multiplier int
+     * @return false if two names fall into the same slot.
+     */
+    private static boolean fill(int multiplier) {
+        Arrays.fill(TABLE, (short) 0);
+        for (int id = 0; id < NAMES.length; id++) {
+            // String.hashCode() is the hash lookup() computes over the name.
+            int slot = (NAMES[id].hashCode() * multiplier) >>> (32 - TABLE_BITS);
+            if (TABLE[slot] != 0) {
+                return false;
+            }
+            TABLE[slot] = (short) (id + 1);
+        }
+        return true;
+    }
+}
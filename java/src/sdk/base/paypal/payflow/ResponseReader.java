@@ -0,0 +1,140 @@
+package paypal.payflow;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Reads and decodes response bodies. Bodies are read in bulk, never past
+ * SDKProperties.getMaxResponseSize(), and decoded with the charset of the
+ * Content-Type header (UTF-8 if none is given).
+ */
+final class ResponseReader {
+
+    /**
+     * Size of the pooled read buffers; a typical Payflow response fits in one.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Read buffers for bodies of unknown length.
+     */
+    private static final ArrayBlockingQueue BUFFERS = new ArrayBlockingQueue(64);
+
+    /**
+     * Private constructor.
+     */
+    private ResponseReader() {
+    }
+
+    /**
+     * Reads a response body.
+     *
+     * @param in            InputStream
+     * @param contentLength long -1 if unknown, in which case the body ends with the stream.
+     * @return body byte[]
+     * @throws IOException Exception, also if the body exceeds the maximum response size.
+     */
+    static byte[] read(InputStream in, long contentLength) throws IOException {
+        if (contentLength >= 0) {
+            checkSize(contentLength);
+            byte[] data = new byte[(int) contentLength];
+            readFully(in, data, 0, data.length);
+            return data;
+        }
+        byte[] buf = (byte[]) BUFFERS.poll();
+        if (buf == null) {
+            buf = new byte[BUFFER_SIZE];
+        }
+        byte[] data = buf;
+        int length = 0;
+        try {
+            int read;
+            while ((read = in.read(data, length, data.length - length)) >= 0) {
+                length += read;
+                checkSize(length);
+                if (length == data.length) {
+                    byte[] grown = new byte[(int) Math.min((long) data.length * 2, SDKProperties.getMaxResponseSize() + 1L)];
+                    System.arraycopy(data, 0, grown, 0, length);
+                    data = grown;
+                }
+            }
+            byte[] body = new byte[length];
+            System.arraycopy(data, 0, body, 0, length);
+            return body;
+        } finally {
+            BUFFERS.offer(buf);
+        }
+    }
+
+    /**
+     * @param in     InputStream
+     * @param data   byte[]
+     * @param offset int
+     * @param length int
+     * @throws IOException Exception; EOFException if the stream ends first.
+     */
+    static void readFully(InputStream in, byte[] data, int offset, int length) throws IOException {
+        int end = offset + length;
+        while (offset < end) {
+            int read = in.read(data, offset, end - offset);
+            if (read < 0) {
+                throw new EOFException("Connection closed by server after " + (length - (end - offset)) + " of " + length + " bytes");
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * @param size long number of body bytes
+     * @throws ResponseTooLargeException Exception if the size exceeds SDKProperties.getMaxResponseSize().
+     */
+    static void checkSize(long size) throws ResponseTooLargeException {
+        int maxResponseSize = SDKProperties.getMaxResponseSize();
+        if (size > maxResponseSize) {
+            throw new ResponseTooLargeException(maxResponseSize);
+        }
+    }
+
+    /**
+     * Decodes a response body.
+     *
+     * @param data        byte[]
+     * @param contentType String Content-Type header, null if absent.
+     * @return response String
+     */
+    static String decode(byte[] data, String contentType) {
+        return new String(data, getCharset(contentType));
+    }
+
+    /**
+     * @param contentType String
+     * @return the charset parameter of the content type, UTF-8 if absent or unsupported.
+     */
+    static Charset getCharset(String contentType) {
+        if (contentType != null) {
+            int index = contentType.toLowerCase().indexOf("charset=");
+            if (index >= 0) {
+                String name = contentType.substring(index + 8);
+                int end = name.indexOf(';');
+                if (end >= 0) {
+                    name = name.substring(0, end);
+                }
+                name = name.trim();
+                if (name.length() > 1 && name.charAt(0) == '"' && name.charAt(name.length() - 1) == '"') {
+                    name = name.substring(1, name.length() - 1);
+                }
+                try {
+                    return Charset.forName(name);
+                } catch (IllegalArgumentException ex) {
+                    Logger.getInstance().log("paypal.payflow.ResponseReader.getCharset(String): Unsupported charset " + name + ", using UTF-8",
+                            PayflowConstants.SEVERITY_WARN);
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
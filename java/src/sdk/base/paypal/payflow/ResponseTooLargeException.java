@@ -0,0 +1,19 @@
+package paypal.payflow;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a response body exceeds SDKProperties.getMaxResponseSize().
+ * Reported as E_RESPONSE_TOO_LARGE; the transaction is not retried.
+ */
+final class ResponseTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param maxResponseSize int maximum response size in bytes
+     */
+    ResponseTooLargeException(int maxResponseSize) {
+        super("Response exceeds the maximum response size of " + maxResponseSize + " bytes");
+    }
+}
@@ -20,6 +20,26 @@ public class SDKProperties {
     private static String proxyPassword = null;
     private static int maxLogFileSize = PayflowConstants.DEFAULT_MAX_LOG_FILE_SIZE;
     private static boolean maxlogFileSizeSet = false;
+    private static boolean connectionPoolEnabled = true;
+    private static int maxConnectionsPerHost = PayflowConstants.DEFAULT_MAX_CONNECTIONS_PER_HOST;
+    private static int connectionIdleTimeout = PayflowConstants.DEFAULT_CONNECTION_IDLE_TIMEOUT;
+    private static int connectionMaxLifetime = PayflowConstants.DEFAULT_CONNECTION_MAX_LIFETIME;
+    private static int sslSessionCacheSize = PayflowConstants.DEFAULT_SSL_SESSION_CACHE_SIZE;
+    private static int sslSessionTimeout = PayflowConstants.DEFAULT_SSL_SESSION_TIMEOUT;
+    private static volatile PaymentTransport paymentTransport = null;
+    private static volatile boolean virtualThreadsEnabled = true;
+    private static int maxResponseSize = PayflowConstants.DEFAULT_MAX_RESPONSE_SIZE;
+    private static volatile boolean logAsync = false;
+    private static int logQueueSize = PayflowConstants.DEFAULT_LOG_QUEUE_SIZE;
+    private static volatile int logOverflowPolicy = PayflowConstants.LOG_OVERFLOW_BLOCK;
+    private static volatile int logSamplePercent = 100;
+    private static volatile int logSampleInterval = 0;
+    private static volatile boolean logArchiveCompressed = false;
+    private static volatile int logRetentionCount = 0;
+    private static volatile String journalDirectory = null;
+    private static volatile int journalSegmentSize = PayflowConstants.DEFAULT_JOURNAL_SEGMENT_SIZE;
+    private static volatile int journalCommitInterval = PayflowConstants.DEFAULT_JOURNAL_COMMIT_INTERVAL;
+    private static volatile boolean journalSyncCommit = false;
 
     /**
      * Modified 09/20/06: To retrieve application server specific URLStreamHandler class name using
@@ -234,4 +254,399 @@ public class SDKProperties {
     public static void setURLStreamHandlerClass(String urlStreamHandlerClass) {
         SDKProperties.urlStreamHandlerClass = urlStreamHandlerClass;
     }
+
+    /**
+     * @return Returns true if transactions reuse persistent connections from the connection pool.
+     */
+    public static boolean isConnectionPoolEnabled() {
+        return connectionPoolEnabled;
+    }
+
+    /**
+     * Enables or disables persistent connection pooling. When disabled, or when a
+     * URLStreamHandler class is set, every transaction opens and closes its own connection.
+     *
+     * @param connectionPoolEnabled The connectionPoolEnabled to set.
+     */
+    public static void setConnectionPoolEnabled(boolean connectionPoolEnabled) {
+        SDKProperties.connectionPoolEnabled = connectionPoolEnabled;
+        if (!connectionPoolEnabled) {
+            PaymentConnectionPool.getInstance().closeIdleConnections();
+        }
+    }
+
+    /**
+     * @return Returns the maximum number of pooled connections per host.
+     */
+    public static int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of connections per host. Takes effect for hosts
+     * first contacted after the change.
+     *
+     * @param maxConnectionsPerHost The maxConnectionsPerHost to set.
+     */
+    public static void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        if (maxConnectionsPerHost > 0) {
+            SDKProperties.maxConnectionsPerHost = maxConnectionsPerHost;
+        }
+    }
+
+    /**
+     * @return Returns the time in seconds a pooled connection may stay idle.
+     */
+    public static int getConnectionIdleTimeout() {
+        return connectionIdleTimeout;
+    }
+
+    /**
+     * @param connectionIdleTimeout The connectionIdleTimeout to set in seconds.
+     */
+    public static void setConnectionIdleTimeout(int connectionIdleTimeout) {
+        if (connectionIdleTimeout > 0) {
+            SDKProperties.connectionIdleTimeout = connectionIdleTimeout;
+        }
+    }
+
+    /**
+     * @return Returns the time in seconds after which a pooled connection is recycled.
+     */
+    public static int getConnectionMaxLifetime() {
+        return connectionMaxLifetime;
+    }
+
+    /**
+     * @param connectionMaxLifetime The connectionMaxLifetime to set in seconds.
+     */
+    public static void setConnectionMaxLifetime(int connectionMaxLifetime) {
+        if (connectionMaxLifetime > 0) {
+            SDKProperties.connectionMaxLifetime = connectionMaxLifetime;
+        }
+    }
+
+    /**
+     * @return Returns the number of TLS sessions kept for resumption.
+     */
+    public static int getSSLSessionCacheSize() {
+        return sslSessionCacheSize;
+    }
+
+    /**
+     * @param sslSessionCacheSize The number of TLS sessions to keep for resumption.
+     */
+    public static void setSSLSessionCacheSize(int sslSessionCacheSize) {
+        if (sslSessionCacheSize > 0) {
+            SDKProperties.sslSessionCacheSize = sslSessionCacheSize;
+            SSLContextHolder.applySessionSettings();
+        }
+    }
+
+    /**
+     * @return Returns the time in seconds a TLS session can be resumed.
+     */
+    public static int getSSLSessionTimeout() {
+        return sslSessionTimeout;
+    }
+
+    /**
+     * @param sslSessionTimeout The time in seconds a TLS session can be resumed.
+     */
+    public static void setSSLSessionTimeout(int sslSessionTimeout) {
+        if (sslSessionTimeout > 0) {
+            SDKProperties.sslSessionTimeout = sslSessionTimeout;
+            SSLContextHolder.applySessionSettings();
+        }
+    }
+
+    /**
+     * @return Returns the number of TLS handshakes that resumed a cached session.
+     */
+    public static long getSSLSessionHits() {
+        return SSLContextHolder.getSessionHits();
+    }
+
+    /**
+     * @return Returns the number of full TLS handshakes.
+     */
+    public static long getSSLSessionMisses() {
+        return SSLContextHolder.getSessionMisses();
+    }
+
+    /**
+     * @return Returns the maximum size in bytes of a response body.
+     */
+    public static int getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a response body. A larger response, e.g. an error
+     * page from a misbehaving proxy, fails the transaction instead of being read into memory.
+     *
+     * @param maxResponseSize The maxResponseSize to set.
+     */
+    public static void setMaxResponseSize(int maxResponseSize) {
+        if (maxResponseSize > 0) {
+            SDKProperties.maxResponseSize = maxResponseSize;
+        }
+    }
+
+    /**
+     * @return Returns the transport set by user code, null if the SDK default is used.
+     */
+    public static PaymentTransport getPaymentTransport() {
+        return paymentTransport;
+    }
+
+    /**
+     * Sets the transport used to talk to the Payflow server, e.g. an HttpClientTransport
+     * or an InMemoryTransport. Null restores the SDK default.
+     *
+     * @param paymentTransport The paymentTransport to set.
+     */
+    public static void setPaymentTransport(PaymentTransport paymentTransport) {
+        SDKProperties.paymentTransport = paymentTransport;
+    }
+
+    /**
+     * @return Returns true if asynchronous transactions submitted without an executor run on virtual threads.
+     */
+    public static boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * Runs asynchronous transactions submitted without an executor on virtual threads
+     * (the default) or on a pool of platform threads. Virtual threads need a Java 21
+     * or later runtime; on older runtimes the platform thread pool is always used.
+     *
+     * @param virtualThreadsEnabled The virtualThreadsEnabled to set.
+     */
+    public static void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+        SDKProperties.virtualThreadsEnabled = virtualThreadsEnabled;
+    }
+
+    /**
+     * @return Returns true if the runtime supports virtual threads.
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        return TransactionExecutor.isVirtualThreadsAvailable();
+    }
+
+    /**
+     * @return Returns true if log messages are written by a background thread.
+     */
+    public static boolean isLogAsync() {
+        return logAsync;
+    }
+
+    /**
+     * Writes log messages from a background thread instead of the logging thread.
+     * Messages are queued and written in batches; the queue is flushed when the
+     * JVM shuts down. Set this before the first transaction.
+     *
+     * @param logAsync The logAsync to set.
+     */
+    public static void setLogAsync(boolean logAsync) {
+        SDKProperties.logAsync = logAsync;
+    }
+
+    /**
+     * @return Returns the number of messages the asynchronous log queue holds.
+     */
+    public static int getLogQueueSize() {
+        return logQueueSize;
+    }
+
+    /**
+     * Sets the number of messages the asynchronous log queue holds, rounded up to a
+     * power of two. Read when the background writer starts.
+     *
+     * @param logQueueSize The logQueueSize to set.
+     */
+    public static void setLogQueueSize(int logQueueSize) {
+        if (logQueueSize > 0) {
+            SDKProperties.logQueueSize = logQueueSize;
+        }
+    }
+
+    /**
+     * @return Returns what happens to a message logged while the asynchronous log queue is full.
+     */
+    public static int getLogOverflowPolicy() {
+        return logOverflowPolicy;
+    }
+
+    /**
+     * Sets what happens to a message logged while the asynchronous log queue is full.
+     *
+     * @param logOverflowPolicy int - one of:
+     *                          <ol>
+     *                          <li> PayflowConstants.LOG_OVERFLOW_BLOCK (default) </li>
+     *                          <li> PayflowConstants.LOG_OVERFLOW_DROP_DEBUG </li>
+     *                          <li> PayflowConstants.LOG_OVERFLOW_DROP_ALL </li>
+     *                          </ol>
+     */
+    public static void setLogOverflowPolicy(int logOverflowPolicy) {
+        if (logOverflowPolicy >= PayflowConstants.LOG_OVERFLOW_BLOCK
+                && logOverflowPolicy <= PayflowConstants.LOG_OVERFLOW_DROP_ALL) {
+            SDKProperties.logOverflowPolicy = logOverflowPolicy;
+        }
+    }
+
+    /**
+     * @return Returns the percentage of transactions logged in full.
+     */
+    public static int getLogSamplePercent() {
+        return logSamplePercent;
+    }
+
+    /**
+     * Sets the percentage of transactions whose INFO and DEBUG messages are logged in
+     * full. The other transactions log a one-line summary, unless they fail: a
+     * non-zero RESULT or a communication error logs the transaction in full. The
+     * choice is made from the request id, so a resubmitted request id is logged the
+     * same way. Defaults to 100.
+     *
+     * @param logSamplePercent int - 0 to 100
+     */
+    public static void setLogSamplePercent(int logSamplePercent) {
+        if (logSamplePercent >= 0 && logSamplePercent <= 100) {
+            SDKProperties.logSamplePercent = logSamplePercent;
+        }
+    }
+
+    /**
+     * @return Returns K when 1 in K transactions is logged in full, 0 if not set.
+     */
+    public static int getLogSampleInterval() {
+        return logSampleInterval;
+    }
+
+    /**
+     * Logs 1 in K transactions in full, as setLogSamplePercent() does. Takes
+     * precedence over the sample percentage while set; 1 logs every transaction
+     * and 0 unsets it.
+     *
+     * @param logSampleInterval The logSampleInterval to set.
+     */
+    public static void setLogSampleInterval(int logSampleInterval) {
+        if (logSampleInterval >= 0) {
+            SDKProperties.logSampleInterval = logSampleInterval;
+        }
+    }
+
+    /**
+     * @return Returns true if archived log files are gzip compressed.
+     */
+    public static boolean isLogArchiveCompressed() {
+        return logArchiveCompressed;
+    }
+
+    /**
+     * Compresses archived log files, file_1.log.gz, file_2.log.gz, ..., on a
+     * background thread.
+     *
+     * @param logArchiveCompressed The logArchiveCompressed to set.
+     */
+    public static void setLogArchiveCompressed(boolean logArchiveCompressed) {
+        SDKProperties.logArchiveCompressed = logArchiveCompressed;
+    }
+
+    /**
+     * @return Returns the number of archived log files kept, 0 if all are kept.
+     */
+    public static int getLogRetentionCount() {
+        return logRetentionCount;
+    }
+
+    /**
+     * Sets the number of archived log files kept. Older archives are deleted on a
+     * background thread when the log file is archived. By default, and when set
+     * to 0, all archives are kept.
+     *
+     * @param logRetentionCount The logRetentionCount to set.
+     */
+    public static void setLogRetentionCount(int logRetentionCount) {
+        if (logRetentionCount >= 0) {
+            SDKProperties.logRetentionCount = logRetentionCount;
+        }
+    }
+
+    /**
+     * @return Returns the transaction journal directory, null if no journal is written.
+     */
+    public static String getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    /**
+     * Writes a binary record per transaction (request id, transaction type, masked
+     * request, response, RESULT and timings) to memory-mapped segment files in the
+     * directory. The records are read with JournalReader. null or an empty
+     * directory stops the journal. By default no journal is written. The directory
+     * is stored as java.io.File normalises it, e.g. without a trailing separator.
+     *
+     * @param journalDirectory The journalDirectory to set.
+     */
+    public static void setJournalDirectory(String journalDirectory) {
+        SDKProperties.journalDirectory = journalDirectory == null || journalDirectory.length() == 0
+                ? null : new File(journalDirectory).getPath();
+    }
+
+    /**
+     * @return Returns the size in bytes of a transaction journal segment.
+     */
+    public static int getJournalSegmentSize() {
+        return journalSegmentSize;
+    }
+
+    /**
+     * Sets the size in bytes of a transaction journal segment file. Defaults to 64 MB.
+     *
+     * @param journalSegmentSize The journalSegmentSize to set.
+     */
+    public static void setJournalSegmentSize(int journalSegmentSize) {
+        if (journalSegmentSize > 0) {
+            SDKProperties.journalSegmentSize = journalSegmentSize;
+        }
+    }
+
+    /**
+     * @return Returns the time in milliseconds between forces of the transaction journal.
+     */
+    public static int getJournalCommitInterval() {
+        return journalCommitInterval;
+    }
+
+    /**
+     * Sets how often in milliseconds the records appended to the transaction
+     * journal are forced to disk. Defaults to 100.
+     *
+     * @param journalCommitInterval The journalCommitInterval to set.
+     */
+    public static void setJournalCommitInterval(int journalCommitInterval) {
+        if (journalCommitInterval > 0) {
+            SDKProperties.journalCommitInterval = journalCommitInterval;
+        }
+    }
+
+    /**
+     * @return Returns true if a transaction waits until its journal record is on disk.
+     */
+    public static boolean isJournalSyncCommit() {
+        return journalSyncCommit;
+    }
+
+    /**
+     * Makes a transaction wait until its journal record is forced to disk. Records
+     * of concurrent transactions are forced together. Defaults to false.
+     *
+     * @param journalSyncCommit The journalSyncCommit to set.
+     */
+    public static void setJournalSyncCommit(boolean journalSyncCommit) {
+        SDKProperties.journalSyncCommit = journalSyncCommit;
+    }
 }
@@ -0,0 +1,130 @@
+package paypal.payflow;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Holds the process wide TLS 1.2 SSLContext used for all connections to the Payflow server.
+ * The context, its SecureRandom and its client session cache are created once, so
+ * reconnecting clients can resume earlier sessions with an abbreviated handshake.
+ */
+final class SSLContextHolder {
+
+    /**
+     * Number of handshakes that resumed a cached session.
+     */
+    private static final AtomicLong SESSION_HITS = new AtomicLong();
+
+    /**
+     * Number of full handshakes.
+     */
+    private static final AtomicLong SESSION_MISSES = new AtomicLong();
+
+    /**
+     * Shared context, created on first use.
+     */
+    private static volatile SSLContext sslContext;
+
+    /**
+     * Socket factory of the shared context.
+     */
+    private static volatile SSLSocketFactory socketFactory;
+
+    /**
+     * Private constructor.
+     */
+    private SSLContextHolder() {
+    }
+
+    /**
+     * @return the shared socket factory.
+     * @throws GeneralSecurityException Exception
+     */
+    static SSLSocketFactory getSocketFactory() throws GeneralSecurityException {
+        SSLSocketFactory factory = socketFactory;
+        if (factory == null) {
+            synchronized (SSLContextHolder.class) {
+                if (socketFactory == null) {
+                    // Add TLS 1.2 support - tsieber 03/17/2017
+                    SSLContext sc = SSLContext.getInstance("TLSv1.2");
+                    // Init the SSLContext with a TrustManager [] and SecureRandom ()
+                    sc.init(null, null, new SecureRandom());
+                    sslContext = sc;
+                    applySessionSettings();
+                    socketFactory = sc.getSocketFactory();
+                    Logger.getInstance().log("paypal.payflow.SSLContextHolder.getSocketFactory(): Initialized shared SSLContext.",
+                            PayflowConstants.SEVERITY_DEBUG);
+                }
+                factory = socketFactory;
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * @return the shared context.
+     * @throws GeneralSecurityException Exception
+     */
+    static SSLContext getContext() throws GeneralSecurityException {
+        getSocketFactory();
+        return sslContext;
+    }
+
+    /**
+     * Applies SDKProperties session cache size and timeout to the client session cache.
+     */
+    static void applySessionSettings() {
+        SSLContext sc = sslContext;
+        if (sc != null) {
+            SSLSessionContext sessionContext = sc.getClientSessionContext();
+            if (sessionContext != null) {
+                sessionContext.setSessionCacheSize(SDKProperties.getSSLSessionCacheSize());
+                sessionContext.setSessionTimeout(SDKProperties.getSSLSessionTimeout());
+            }
+        }
+    }
+
+    /**
+     * @return number of handshakes that resumed a cached session.
+     */
+    static long getSessionHits() {
+        return SESSION_HITS.get();
+    }
+
+    /**
+     * @return number of full handshakes.
+     */
+    static long getSessionMisses() {
+        return SESSION_MISSES.get();
+    }
+
+    /**
+     * Records whether a completed handshake resumed a session created before it started.
+     *
+     * @param socket         SSLSocket
+     * @param handshakeStart long
+     */
+    static void recordHandshake(SSLSocket socket, long handshakeStart) {
+        recordHandshake(socket.getSession(), handshakeStart);
+    }
+
+    /**
+     * Records whether a completed handshake resumed a session created before it started.
+     *
+     * @param session        SSLSession
+     * @param handshakeStart long
+     */
+    static void recordHandshake(SSLSession session, long handshakeStart) {
+        if (session.getCreationTime() < handshakeStart) {
+            SESSION_HITS.incrementAndGet();
+        } else {
+            SESSION_MISSES.incrementAndGet();
+        }
+    }
+}
@@ -31,6 +31,18 @@ class SendInitState extends InitState {
         Logger.getInstance().log("paypal.payflow.SendInitState.SendInitState(PaymentConnection,String,Context) : Exiting", PayflowConstants.SEVERITY_DEBUG);
     }
 
+    /**
+     * @param connection           PaymentConnection
+     * @param initialParameterList String
+     * @param psmContext           Context
+     * @param xmlPayDescriptor     XmlPayRequestDescriptor
+     * @throws Exception Exception
+     */
+    SendInitState(PaymentConnection connection, String initialParameterList, Context psmContext,
+                  XmlPayRequestDescriptor xmlPayDescriptor) throws Exception {
+        super(connection, initialParameterList, psmContext, xmlPayDescriptor);
+    }
+
     /**
      * Copy Constructor for SendInitState
      *
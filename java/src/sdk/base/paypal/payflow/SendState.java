@@ -50,7 +50,7 @@ abstract class SendState extends PaymentState {
                 isSendSuccess = mConnection.sendToServer(getSendRequest());
             } catch (Exception ex) {
                 Logger.getInstance().log("paypal.payflowCommunication.SendState.Execute(): Following Error occurred While Initializing Connection.", PayflowConstants.SEVERITY_ERROR);
-                Logger.getInstance().log("paypal.payflowCommunication.SendState.Execute(): Exception " + ex.toString(), PayflowConstants.SEVERITY_ERROR);
+                Logger.getInstance().log("paypal.payflowCommunication.SendState.Execute(): Exception ", ex, PayflowConstants.SEVERITY_ERROR);
                 isSendSuccess = false;
             } finally {
                 if (isSendSuccess) {
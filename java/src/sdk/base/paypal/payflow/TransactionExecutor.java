@@ -0,0 +1,76 @@
+package paypal.payflow;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor used by the submitTransactionAsync overloads that take no executor.
+ * On a Java 21+ runtime with SDKProperties.isVirtualThreadsEnabled() every transaction step
+ * runs on its own virtual thread, so tens of thousands of transactions can be in flight
+ * without sizing a thread pool. Otherwise a cached pool of daemon platform threads is used.
+ * The SDK is compiled for Java 11, so the virtual thread executor is looked up reflectively.
+ */
+final class TransactionExecutor {
+
+    /**
+     * Virtual thread per task executor, null if the runtime has no virtual threads.
+     */
+    private static final ExecutorService VIRTUAL_THREAD_EXECUTOR = createVirtualThreadExecutor();
+
+    /**
+     * Platform thread pool, created on first use.
+     */
+    private static volatile ExecutorService platformThreadExecutor;
+
+    /**
+     * Private constructor.
+     */
+    private TransactionExecutor() {
+    }
+
+    /**
+     * @return the executor for asynchronous transactions.
+     */
+    static Executor get() {
+        if (VIRTUAL_THREAD_EXECUTOR != null && SDKProperties.isVirtualThreadsEnabled()) {
+            return VIRTUAL_THREAD_EXECUTOR;
+        }
+        ExecutorService executor = platformThreadExecutor;
+        if (executor == null) {
+            synchronized (TransactionExecutor.class) {
+                if (platformThreadExecutor == null) {
+                    final AtomicInteger threadNo = new AtomicInteger();
+                    platformThreadExecutor = Executors.newCachedThreadPool(r -> {
+                        Thread thread = new Thread(r, "payflow-transaction-" + threadNo.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                executor = platformThreadExecutor;
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * @return true if the runtime supports virtual threads.
+     */
+    static boolean isVirtualThreadsAvailable() {
+        return VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * @return Executors.newVirtualThreadPerTaskExecutor(), null before Java 21.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+}
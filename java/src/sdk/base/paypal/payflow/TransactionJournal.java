@@ -0,0 +1,330 @@
+package paypal.payflow;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends a JournalRecord per transaction to memory-mapped segment files in
+ * SDKProperties.getJournalDirectory(): journal-1.pfj, journal-2.pfj, ...
+ * A segment starts with a header (magic, version, segment number) and is
+ * followed by records; a zero length ends the records of a segment.
+ * <p>
+ * Records are copied into the mapped segment under a lock and the length is
+ * written last, so a reader never sees part of a record. A background thread
+ * forces the segment to disk for all records appended since its last pass (group
+ * commit), every SDKProperties.getJournalCommitInterval() milliseconds or as
+ * soon as a transaction waits for its record (SDKProperties.isJournalSyncCommit()).
+ * Each process starts a new segment.
+ * </p>
+ * {@link JournalReader}
+ */
+final class TransactionJournal implements Runnable {
+
+    static final int MAGIC = 0x50464A31;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+
+    static final String SEGMENT_PREFIX = "journal-";
+
+    static final String SEGMENT_SUFFIX = ".pfj";
+
+    private static volatile TransactionJournal sInstance;
+
+    private final File mDirectory;
+
+    private final ReentrantLock mLock = new ReentrantLock();
+
+    /**
+     * Signalled when records were appended and a transaction waits for them.
+     */
+    private final Condition mAppendedCondition = mLock.newCondition();
+
+    /**
+     * Signalled when the forced position moves.
+     */
+    private final Condition mCommittedCondition = mLock.newCondition();
+
+    private MappedByteBuffer mSegment;
+
+    private long mSegmentNumber;
+
+    /**
+     * Bytes appended to all segments of this process.
+     */
+    private long mAppended;
+
+    /**
+     * Bytes known to be on disk.
+     */
+    private long mCommitted;
+
+    private int mWaiting;
+
+    private boolean mClosed;
+
+    private final Thread mThread;
+
+    /**
+     * @param directory File
+     * @throws IOException if the directory cannot be created or read.
+     */
+    private TransactionJournal(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create journal directory " + directory);
+        }
+        mDirectory = directory;
+        mSegmentNumber = getLastSegmentNumber(directory);
+        mThread = new Thread(this, "payflow-journal-commit");
+        mThread.setDaemon(true);
+    }
+
+    /**
+     * @return the journal of SDKProperties.getJournalDirectory(), null if no
+     * journal is configured or it cannot be opened.
+     */
+    static TransactionJournal getInstance() {
+        String directory = SDKProperties.getJournalDirectory();
+        if (directory == null) {
+            return null;
+        }
+        TransactionJournal journal = sInstance;
+        if (journal == null || !journal.mDirectory.getPath().equals(directory)) {
+            synchronized (TransactionJournal.class) {
+                journal = sInstance;
+                if (journal == null || !journal.mDirectory.getPath().equals(directory)) {
+                    if (journal != null) {
+                        journal.close();
+                    }
+                    try {
+                        journal = new TransactionJournal(new File(directory));
+                        journal.mThread.start();
+                    } catch (IOException ex) {
+                        Logger.getInstance().log("paypal.payflow.TransactionJournal.getInstance(): ", ex, PayflowConstants.SEVERITY_ERROR);
+                        journal = null;
+                    }
+                    sInstance = journal;
+                }
+            }
+        }
+        return journal;
+    }
+
+    /**
+     * Appends a record. If SDKProperties.isJournalSyncCommit() is set, waits until
+     * the record is on disk. If the journal was closed because the directory
+     * changed, the record goes to the journal of the new directory.
+     *
+     * @param record JournalRecord
+     * @throws IOException if a segment cannot be created.
+     */
+    void append(JournalRecord record) throws IOException {
+        if (!append(record.encode())) {
+            TransactionJournal journal = getInstance();
+            if (journal != null && journal != this) {
+                journal.append(record);
+            }
+        }
+    }
+
+    /**
+     * @param bytes byte[] encoded record
+     * @return false if the journal is closed and the record was not appended.
+     * @throws IOException if a segment cannot be created.
+     */
+    private boolean append(byte[] bytes) throws IOException {
+        long end;
+        mLock.lock();
+        try {
+            if (mClosed) {
+                return false;
+            }
+            if (mSegment == null || mSegment.remaining() < bytes.length + 4) {
+                nextSegment(bytes.length);
+            }
+            int position = mSegment.position();
+            mSegment.position(position + 4);
+            mSegment.put(bytes, 4, bytes.length - 4);
+            // the length last: a reader stops at a zero length.
+            mSegment.putInt(position, bytes.length - 4);
+            mAppended += bytes.length;
+            end = mAppended;
+            if (!SDKProperties.isJournalSyncCommit()) {
+                return true;
+            }
+            mWaiting++;
+            try {
+                mAppendedCondition.signal();
+                while (mCommitted < end && !mClosed) {
+                    mCommittedCondition.awaitUninterruptibly();
+                }
+            } finally {
+                mWaiting--;
+            }
+            return true;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the records to disk and stops the commit thread.
+     */
+    void close() {
+        mLock.lock();
+        try {
+            mClosed = true;
+            mAppendedCondition.signal();
+            mCommittedCondition.signalAll();
+        } finally {
+            mLock.unlock();
+        }
+        try {
+            mThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Commit thread: forces the current segment whenever records were appended.
+     */
+    public void run() {
+        while (true) {
+            MappedByteBuffer segment;
+            long target;
+            long committed;
+            boolean closed;
+            mLock.lock();
+            try {
+                if (mAppended == mCommitted && !mClosed) {
+                    long interval = TimeUnit.MILLISECONDS.toNanos(SDKProperties.getJournalCommitInterval());
+                    mAppendedCondition.awaitNanos(interval);
+                } else if (mWaiting == 0 && !mClosed) {
+                    mAppendedCondition.awaitNanos(TimeUnit.MILLISECONDS.toNanos(SDKProperties.getJournalCommitInterval()));
+                }
+                segment = mSegment;
+                target = mAppended;
+                committed = mCommitted;
+                closed = mClosed;
+            } catch (InterruptedException ex) {
+                return;
+            } finally {
+                mLock.unlock();
+            }
+            if (segment != null && target > committed) {
+                segment.force();
+            }
+            mLock.lock();
+            try {
+                if (target > mCommitted) {
+                    mCommitted = target;
+                }
+                mCommittedCondition.signalAll();
+            } finally {
+                mLock.unlock();
+            }
+            if (closed) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forces the current segment and maps a new one. Called with the lock held.
+     *
+     * @param recordSize int size of the record that did not fit
+     * @throws IOException if the segment cannot be created.
+     */
+    private void nextSegment(int recordSize) throws IOException {
+        if (mSegment != null) {
+            mSegment.force();
+            mCommitted = mAppended;
+            mCommittedCondition.signalAll();
+        }
+        int size = Math.max(SDKProperties.getJournalSegmentSize(), HEADER_SIZE + recordSize + 4);
+        File file = new File(mDirectory, SEGMENT_PREFIX + (++mSegmentNumber) + SEGMENT_SUFFIX);
+        try (RandomAccessFile segmentFile = new RandomAccessFile(file, "rw")) {
+            segmentFile.setLength(size);
+            mSegment = segmentFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        mSegment.putInt(MAGIC);
+        mSegment.putInt(VERSION);
+        mSegment.putLong(mSegmentNumber);
+    }
+
+    /**
+     * @param directory File
+     * @return number of the last segment in the directory, 0 if there is none.
+     */
+    static long getLastSegmentNumber(File directory) {
+        long last = 0;
+        String[] names = directory.list();
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                last = Math.max(last, getSegmentNumber(names[i]));
+            }
+        }
+        return last;
+    }
+
+    /**
+     * @param name String file name
+     * @return segment number, -1 if the name is not a segment file.
+     */
+    static long getSegmentNumber(String name) {
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param request String
+     * @return TRXTYPE of a name value pair request, the transaction element of an
+     * XMLPay request, null if not found.
+     */
+    static String getTrxType(String request) {
+        if (request == null) {
+            return null;
+        }
+        int transaction = request.indexOf("<Transaction>");
+        if (transaction < 0) {
+            transaction = request.indexOf("<Transaction ");
+        }
+        if (transaction >= 0) {
+            int start = request.indexOf('<', transaction + 1) + 1;
+            int end = start;
+            while (end > 0 && end < request.length() && Character.isLetterOrDigit(request.charAt(end))) {
+                end++;
+            }
+            return end > start ? request.substring(start, end) : null;
+        }
+        String trxType = PayflowUtility.locateValueForName(request, PayflowConstants.PARAM_TRXTYPE, false);
+        return trxType.length() == 0 ? null : trxType;
+    }
+
+    /**
+     * @param response String
+     * @return RESULT of a name value pair or XMLPay response, JournalRecord.NO_RESULT if not found.
+     */
+    static int getResult(String response) {
+        String result = PayflowUtility.getResultValue(response);
+        try {
+            return result == null ? JournalRecord.NO_RESULT : Integer.parseInt(result.trim());
+        } catch (NumberFormatException ex) {
+            return JournalRecord.NO_RESULT;
+        }
+    }
+}
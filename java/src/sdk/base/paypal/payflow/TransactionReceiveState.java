@@ -36,7 +36,7 @@ class TransactionReceiveState extends ReceiveState {
         } else {
             //Get proper response
             setTransactionResponse(response);
-            Logger.getInstance().log("paypal.payflow.TransactionReceiveState.SetReceiveResponse(String): Response = " + getTransactionResponse(), PayflowConstants.SEVERITY_INFO);
+            Logger.getInstance().log("paypal.payflow.TransactionReceiveState.SetReceiveResponse(String): Response = ", getTransactionResponse(), PayflowConstants.SEVERITY_INFO);
             retVal = true;
             setProgressComplete();
         }
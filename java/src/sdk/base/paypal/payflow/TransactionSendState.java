@@ -23,11 +23,11 @@ class TransactionSendState extends SendState {
      */
     public String getSendRequest() {
         Logger.getInstance().log("paypal.payflow.TransactionSendState.GetSendRequest(): Entered", PayflowConstants.SEVERITY_DEBUG);
-        String logRequest = super.getTransactionRequest();
-        logRequest = PayflowUtility.maskSensitiveFields(logRequest);
-
-
-        Logger.getInstance().log("paypal.payflow.TransactionSendState.GetSendRequest(): TransactionRequest = " + logRequest, PayflowConstants.SEVERITY_INFO);
+        // mask only when the request is actually logged.
+        if (Logger.isEnabled(PayflowConstants.SEVERITY_INFO)) {
+            String logRequest = getMaskedRequest().getMasked();
+            Logger.getInstance().log("paypal.payflow.TransactionSendState.GetSendRequest(): TransactionRequest = ", logRequest, PayflowConstants.SEVERITY_INFO);
+        }
         Logger.getInstance().log("paypal.payflow.TransactionSendState.GetSendRequest(): Exiting", PayflowConstants.SEVERITY_DEBUG);
         return super.getTransactionRequest();
 
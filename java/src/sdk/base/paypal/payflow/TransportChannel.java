@@ -0,0 +1,52 @@
+package paypal.payflow;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A single request/response exchange with the Payflow server, opened by a PaymentTransport.
+ */
+public interface TransportChannel {
+
+    /**
+     * Sends the request as an HTTP POST.
+     *
+     * @param headers Map of header name to value
+     * @param body    byte[]
+     * @param timeout int milliseconds left for the transaction
+     * @throws IOException Exception
+     */
+    void send(Map headers, byte[] body, int timeout) throws IOException;
+
+    /**
+     * Waits for and reads the response body.
+     *
+     * @param timeout int milliseconds left for the transaction
+     * @return body byte[]
+     * @throws IOException Exception
+     */
+    byte[] receive(int timeout) throws IOException;
+
+    /**
+     * @param name String
+     * @return value of the response header, null if absent or no response was read.
+     */
+    String getResponseHeader(String name);
+
+    /**
+     * Lets an asynchronous caller wait for the response without holding a thread.
+     * Channels that cannot tell return null and receive() is simply called.
+     *
+     * @return future completed once receive() will not block, null if not known.
+     */
+    default CompletableFuture<?> getResponseReady() {
+        return null;
+    }
+
+    /**
+     * Ends the exchange. Resources of an exchange that completed normally may be kept
+     * for reuse; otherwise they are discarded.
+     */
+    void close();
+}
@@ -0,0 +1,137 @@
+package paypal.payflow;
+
+import java.util.Base64;
+
+/**
+ * The Payflow server, and optional proxy, a transaction is sent to.
+ */
+public final class TransportEndpoint {
+
+    private final String mHost;
+    private final int mPort;
+    private final String mPath;
+    private final String mProxyHost;
+    private final int mProxyPort;
+    private final String mProxyLogon;
+    private final String mProxyPassword;
+    private final String mRequestId;
+    private final boolean mIsXmlPayRequest;
+
+    /**
+     * Constructor.
+     *
+     * @param host            String
+     * @param port            int
+     * @param path            String
+     * @param proxyHost       String (null if NA)
+     * @param proxyPort       int
+     * @param proxyLogon      String (null if NA)
+     * @param proxyPassword   String (null if NA)
+     * @param requestId       String
+     * @param isXmlPayRequest boolean
+     */
+    TransportEndpoint(String host, int port, String path, String proxyHost, int proxyPort,
+                      String proxyLogon, String proxyPassword, String requestId, boolean isXmlPayRequest) {
+        mHost = host;
+        mPort = port;
+        mPath = (path == null || path.length() == 0) ? "/" : path;
+        mProxyHost = proxyHost;
+        mProxyPort = proxyPort;
+        mProxyLogon = proxyLogon;
+        mProxyPassword = proxyPassword;
+        mRequestId = requestId;
+        mIsXmlPayRequest = isXmlPayRequest;
+    }
+
+    /**
+     * @return Payflow host address.
+     */
+    public String getHost() {
+        return mHost;
+    }
+
+    /**
+     * @return Payflow host port.
+     */
+    public int getPort() {
+        return mPort;
+    }
+
+    /**
+     * @return request path, "/" if none.
+     */
+    public String getPath() {
+        return mPath;
+    }
+
+    /**
+     * @return proxy address, null if no proxy is used.
+     */
+    public String getProxyHost() {
+        return mProxyHost;
+    }
+
+    /**
+     * @return proxy port.
+     */
+    public int getProxyPort() {
+        return mProxyPort;
+    }
+
+    /**
+     * @return proxy logon id, null if NA.
+     */
+    public String getProxyLogon() {
+        return mProxyLogon;
+    }
+
+    /**
+     * @return proxy password, null if NA.
+     */
+    public String getProxyPassword() {
+        return mProxyPassword;
+    }
+
+    /**
+     * @return Basic Proxy-Authorization header value, null if no proxy logon is set.
+     */
+    public String getProxyAuthorization() {
+        if (mProxyHost == null || mProxyLogon == null) {
+            return null;
+        }
+        String pStr = mProxyLogon + ":" + mProxyPassword;
+        return "Basic" + " " + Base64.getEncoder().encodeToString(pStr.getBytes());
+    }
+
+    /**
+     * @return request id of the transaction.
+     */
+    public String getRequestId() {
+        return mRequestId;
+    }
+
+    /**
+     * @return true if the transaction is an XMLPay request.
+     */
+    public boolean getIsXmlPayRequest() {
+        return mIsXmlPayRequest;
+    }
+
+    /**
+     * @return key identifying the host and proxy, used to pool connections.
+     */
+    String getPoolKey() {
+        String key = mHost + ":" + mPort;
+        if (mProxyHost != null) {
+            key = key + "|" + mProxyHost + ":" + mProxyPort + "|" + mProxyLogon;
+        }
+        return key;
+    }
+
+    /**
+     * @return https uri of the server.
+     */
+    public String toString() {
+        return "https://" + mHost + ":" + mPort;
+    }
+}
@@ -0,0 +1,124 @@
+package paypal.payflow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.net.URLStreamHandler;
+import java.security.GeneralSecurityException;
+import java.util.Iterator;
+import java.util.Map;
+import javax.net.ssl.HttpsURLConnection;
+
+/**
+ * Transport on HttpsURLConnection, one connection per transaction.
+ * Used when an application server specific URLStreamHandler class is set through
+ * SDKProperties.setURLStreamHandlerClass(), or connection pooling is disabled.
+ */
+final class UrlConnectionTransport implements PaymentTransport {
+
+    /**
+     * Opens an HttpsURLConnection to the endpoint.
+     *
+     * @param endpoint TransportEndpoint
+     * @param timeout  int
+     * @return TransportChannel
+     * @throws IOException Exception
+     */
+    public TransportChannel open(TransportEndpoint endpoint, int timeout) throws IOException {
+        URL serverUri;
+        String classname = SDKProperties.getURLStreamHandlerClass();
+        try {
+            if (classname != null && classname.length() > 0) {
+                URLStreamHandler handler = (URLStreamHandler) Class.forName(classname).getDeclaredConstructor().newInstance();
+                serverUri = new URL(null, endpoint.toString(), handler);
+            } else {
+                serverUri = new URL(null, endpoint.toString());
+            }
+        } catch (ReflectiveOperationException | ClassCastException ex) {
+            throw new IOException("Unable to load URLStreamHandler class " + classname, ex);
+        }
+
+        HttpsURLConnection connection;
+        if (endpoint.getProxyHost() != null) {
+            Proxy proxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress(endpoint.getProxyHost(), endpoint.getProxyPort()));
+            connection = (HttpsURLConnection) serverUri.openConnection(proxy);
+        } else {
+            connection = (HttpsURLConnection) serverUri.openConnection();
+        }
+        try {
+            connection.setSSLSocketFactory(SSLContextHolder.getSocketFactory());
+        } catch (GeneralSecurityException ex) {
+            throw new IOException(ex);
+        }
+        connection.setDoOutput(true);
+        connection.setDoInput(true);
+        connection.setRequestMethod("POST");
+        connection.setUseCaches(false);
+        connection.setInstanceFollowRedirects(false);
+        connection.setRequestProperty("Keep-Alive", "false");
+        connection.setRequestProperty("Connection", "close");
+        String proxyAuth = endpoint.getProxyAuthorization();
+        if (proxyAuth != null) {
+            connection.setRequestProperty("Proxy-Authorization", proxyAuth);
+        }
+        return new Channel(connection);
+    }
+
+    /**
+     * Exchange on a single HttpsURLConnection.
+     */
+    private static final class Channel implements TransportChannel {
+        private volatile HttpsURLConnection mConnection;
+
+        Channel(HttpsURLConnection connection) {
+            mConnection = connection;
+        }
+
+        public void send(Map headers, byte[] body, int timeout) throws IOException {
+            Iterator iter = headers.entrySet().iterator();
+            while (iter.hasNext()) {
+                Map.Entry header = (Map.Entry) iter.next();
+                mConnection.setRequestProperty((String) header.getKey(), (String) header.getValue());
+            }
+            mConnection.connect();
+            OutputStream reqStram = mConnection.getOutputStream();
+            reqStram.write(body);
+            reqStram.close();
+        }
+
+        public byte[] receive(int timeout) throws IOException {
+            try {
+                InputStream serverResponse = mConnection.getInputStream();
+                try {
+                    return ResponseReader.read(serverResponse, mConnection.getContentLengthLong());
+                } finally {
+                    serverResponse.close();
+                }
+            } catch (ResponseTooLargeException ex) {
+                throw ex;
+            } catch (IOException ex) {
+                //Need to put a blank handler for this since there is a problem since the
+                //httpurlconnection keeps giving "unexpected end of file" exception intermittently
+                Logger.getInstance().log("paypal.payflow.UrlConnectionTransport.receive(int): Caught IOException: ", ex,
+                        PayflowConstants.SEVERITY_ERROR);
+                return new byte[0];
+            }
+        }
+
+        public String getResponseHeader(String name) {
+            HttpsURLConnection connection = mConnection;
+            return connection == null ? null : connection.getHeaderField(name);
+        }
+
+        public void close() {
+            HttpsURLConnection connection = mConnection;
+            if (connection != null) {
+                mConnection = null;
+                connection.disconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package paypal.payflow;
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Provides the XML parsers of the SDK. The parser factories are looked up and
+ * configured once; DocumentBuilders and XMLInputFactories are kept in small pools
+ * and lent to one thread at a time, so a parse neither repeats the factory lookup
+ * nor takes a lock. Builders are reset before they go back to the pool.
+ */
+final class XmlParserProvider {
+
+    /**
+     * Number of idle parsers kept per pool.
+     */
+    private static final int POOL_SIZE = 64;
+
+    private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    private static final DocumentBuilderFactory NAMESPACE_AWARE_FACTORY;
+
+    private static final DocumentBuilderFactory DEFAULT_FACTORY;
+
+    private static final ArrayBlockingQueue NAMESPACE_AWARE_BUILDERS = new ArrayBlockingQueue(POOL_SIZE);
+
+    private static final ArrayBlockingQueue DEFAULT_BUILDERS = new ArrayBlockingQueue(POOL_SIZE);
+
+    private static final ArrayBlockingQueue INPUT_FACTORIES = new ArrayBlockingQueue(POOL_SIZE);
+
+    static {
+        NAMESPACE_AWARE_FACTORY = DocumentBuilderFactory.newInstance();
+        // getLocalName() returns null unless namespace-aware — PayflowUtility.getXmlAttribute()
+        // calls getLocalName() and NPEs without this, breaking XMLPay request detection.
+        NAMESPACE_AWARE_FACTORY.setNamespaceAware(true);
+        DEFAULT_FACTORY = DocumentBuilderFactory.newInstance();
+    }
+
+    /**
+     * Private constructor.
+     */
+    private XmlParserProvider() {
+    }
+
+    /**
+     * Parses a document with a pooled DocumentBuilder.
+     *
+     * @param source         InputSource
+     * @param namespaceAware boolean
+     * @return Document
+     * @throws ParserConfigurationException if no builder can be created.
+     * @throws SAXException                 if the document is not well-formed.
+     * @throws IOException                  if the source cannot be read.
+     */
+    static Document parse(InputSource source, boolean namespaceAware)
+            throws ParserConfigurationException, SAXException, IOException {
+        ArrayBlockingQueue pool = namespaceAware ? NAMESPACE_AWARE_BUILDERS : DEFAULT_BUILDERS;
+        DocumentBuilder builder = (DocumentBuilder) pool.poll();
+        if (builder == null) {
+            DocumentBuilderFactory factory = namespaceAware ? NAMESPACE_AWARE_FACTORY : DEFAULT_FACTORY;
+            synchronized (factory) {
+                builder = factory.newDocumentBuilder();
+            }
+        }
+        try {
+            return builder.parse(source);
+        } finally {
+            release(pool, builder);
+        }
+    }
+
+    /**
+     * Creates a namespace-aware, non-coalescing stream reader that reports CDATA
+     * sections and does not resolve external entities.
+     *
+     * @param reader Reader
+     * @return XMLStreamReader
+     * @throws XMLStreamException Exception
+     */
+    static XMLStreamReader createStreamReader(Reader reader) throws XMLStreamException {
+        XMLInputFactory factory = (XMLInputFactory) INPUT_FACTORIES.poll();
+        if (factory == null) {
+            factory = newInputFactory();
+        }
+        try {
+            return factory.createXMLStreamReader(reader);
+        } finally {
+            // the reader does not use the factory once created.
+            INPUT_FACTORIES.offer(factory);
+        }
+    }
+
+    /**
+     * @return configured XMLInputFactory
+     */
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        // the JDK parser reports CDATA sections as plain text unless asked not to.
+        if (factory.isPropertySupported(REPORT_CDATA)) {
+            factory.setProperty(REPORT_CDATA, Boolean.TRUE);
+        }
+        return factory;
+    }
+
+    /**
+     * Resets a builder and returns it to its pool. A builder that cannot be reset
+     * is dropped.
+     *
+     * @param pool    ArrayBlockingQueue
+     * @param builder DocumentBuilder
+     */
+    private static void release(ArrayBlockingQueue pool, DocumentBuilder builder) {
+        try {
+            builder.reset();
+        } catch (UnsupportedOperationException ex) {
+            return;
+        }
+        pool.offer(builder);
+    }
+}
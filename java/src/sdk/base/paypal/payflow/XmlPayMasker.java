@@ -0,0 +1,389 @@
+package paypal.payflow;
+
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Masks the sensitive elements of an XMLPay request in one streaming pass. The
+ * document is copied through a StAX reader and written in the same form as a DOM
+ * Transformer would serialize it: the XML declaration is rewritten, the DOCTYPE is
+ * dropped, namespace declarations and attributes are sorted and empty elements are
+ * collapsed. Only the text of the sensitive elements is replaced. The same pass
+ * reads the attributes of the XMLPayRequest element for the XmlPayRequestDescriptor.
+ */
+final class XmlPayMasker {
+
+    /**
+     * Elements whose text is masked. AcctNum and CardNum keep their first six and
+     * trailing characters.
+     */
+    private static final String[] MASKED_ELEMENTS = {
+            PayflowConstants.XML_PARAM_ACCTNUM,
+            PayflowConstants.XML_PARAM_CARDNUM,
+            PayflowConstants.XML_PARAM_MAGDATA,
+            PayflowConstants.XML_PARAM_MICR,
+            PayflowConstants.XML_PARAM_CVNUM,
+            PayflowConstants.XML_PARAM_PASSWORD,
+            PayflowConstants.XML_PARAM_DL,
+            PayflowConstants.XML_PARAM_SS,
+            PayflowConstants.XML_PARAM_DOB};
+
+    private final XMLStreamReader mReader;
+
+    private final StringBuilder mOut;
+
+    /**
+     * Encoder of the declared encoding, null if it can encode every character.
+     */
+    private CharsetEncoder mEncoder;
+
+    /**
+     * True while the start tag of the current element is still open.
+     */
+    private boolean mTagOpen;
+
+    /**
+     * Attributes of the XMLPayRequest element.
+     */
+    private String mVersion;
+
+    private String mRequestId;
+
+    /**
+     * Constructor.
+     *
+     * @param reader XMLStreamReader
+     * @param length int length of the request
+     */
+    private XmlPayMasker(XMLStreamReader reader, int length) {
+        mReader = reader;
+        mOut = new StringBuilder(length + 64);
+    }
+
+    /**
+     * Masks an XMLPay request.
+     *
+     * @param xmlPayRequest String
+     * @return maskedRequest String
+     * @throws XMLStreamException if the request is not well-formed.
+     */
+    static String mask(String xmlPayRequest) throws XMLStreamException {
+        return describe(xmlPayRequest).getMaskedRequest();
+    }
+
+    /**
+     * Masks an XMLPay request and reads its XMLPayRequest attributes.
+     *
+     * @param xmlPayRequest String
+     * @return XmlPayRequestDescriptor
+     * @throws XMLStreamException if the request is not well-formed.
+     */
+    static XmlPayRequestDescriptor describe(String xmlPayRequest) throws XMLStreamException {
+        XMLStreamReader reader = XmlParserProvider.createStreamReader(new StringReader(xmlPayRequest));
+        try {
+            XmlPayMasker masker = new XmlPayMasker(reader, xmlPayRequest.length());
+            masker.copy();
+            return new XmlPayRequestDescriptor(masker.mVersion, masker.mRequestId, masker.mOut.toString());
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Copies the document, masking the sensitive elements.
+     *
+     * @throws XMLStreamException Exception
+     */
+    private void copy() throws XMLStreamException {
+        writeDeclaration();
+        int depth = 0;
+        while (mReader.hasNext()) {
+            int event = mReader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    closeStartTag();
+                    if (depth == 0 && PayflowConstants.XMLPAY_REQUEST_TAG.equals(mReader.getLocalName())) {
+                        mVersion = getRootAttribute(PayflowConstants.XML_PARAM_VERSION);
+                        mRequestId = getRootAttribute(PayflowConstants.XML_PARAM_REQUEST_ID);
+                    }
+                    String name = getMaskedElement(mReader.getLocalName());
+                    writeStartTag();
+                    if (name != null) {
+                        writeMaskedText(name);
+                        writeEndTag();
+                    } else {
+                        depth++;
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    writeEndTag();
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    // the DOM keeps no text outside the document element.
+                    if (depth > 0 && mReader.getTextLength() > 0) {
+                        closeStartTag();
+                        writeEscaped(mReader.getTextCharacters(), mReader.getTextStart(), mReader.getTextLength(), false);
+                    }
+                    break;
+                case XMLStreamConstants.CDATA:
+                    if (mReader.getTextLength() > 0) {
+                        closeStartTag();
+                        mOut.append("<![CDATA[");
+                        mOut.append(mReader.getTextCharacters(), mReader.getTextStart(), mReader.getTextLength());
+                        mOut.append("]]>");
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    closeStartTag();
+                    mOut.append("<!--").append(mReader.getText()).append("-->");
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    closeStartTag();
+                    mOut.append("<?").append(mReader.getPITarget());
+                    String data = mReader.getPIData();
+                    if (data != null && data.length() > 0) {
+                        mOut.append(' ').append(data);
+                    }
+                    mOut.append("?>");
+                    break;
+                default:
+                    // DTD and END_DOCUMENT are not written.
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Writes the XML declaration the way the Transformer does.
+     */
+    private void writeDeclaration() {
+        String version = mReader.getVersion();
+        String encoding = mReader.getCharacterEncodingScheme();
+        if (encoding == null) {
+            encoding = "UTF-8";
+        }
+        mOut.append("<?xml version=\"").append(version == null ? "1.0" : version)
+                .append("\" encoding=\"").append(encoding).append('"');
+        if (!(mReader.standaloneSet() && mReader.isStandalone())) {
+            mOut.append(" standalone=\"no\"");
+        }
+        mOut.append("?>");
+        try {
+            Charset charset = Charset.forName(encoding);
+            if (!charset.equals(StandardCharsets.UTF_8) && !charset.name().startsWith("UTF-")) {
+                mEncoder = charset.newEncoder();
+            }
+        } catch (IllegalArgumentException ex) {
+            mEncoder = StandardCharsets.US_ASCII.newEncoder();
+        }
+    }
+
+    /**
+     * Writes the start tag of the current element and leaves it open, so an
+     * element without content can be closed with "/&gt;".
+     */
+    private void writeStartTag() {
+        mOut.append('<');
+        appendName(mReader.getPrefix(), mReader.getLocalName());
+        int count = mReader.getNamespaceCount();
+        if (count > 0) {
+            String[][] declarations = new String[count][];
+            for (int i = 0; i < count; i++) {
+                String prefix = mReader.getNamespacePrefix(i);
+                String uri = mReader.getNamespaceURI(i);
+                declarations[i] = new String[]{prefix == null || prefix.length() == 0 ? "xmlns" : "xmlns:" + prefix,
+                        uri == null ? PayflowConstants.EMPTY_STRING : uri};
+            }
+            writeAttributes(declarations);
+        }
+        count = mReader.getAttributeCount();
+        if (count > 0) {
+            String[][] attributes = new String[count][];
+            for (int i = 0; i < count; i++) {
+                String prefix = mReader.getAttributePrefix(i);
+                String localName = mReader.getAttributeLocalName(i);
+                attributes[i] = new String[]{prefix == null || prefix.length() == 0 ? localName : prefix + ":" + localName,
+                        mReader.getAttributeValue(i)};
+            }
+            writeAttributes(attributes);
+        }
+        mTagOpen = true;
+    }
+
+    /**
+     * @param attributes String[][] name and value pairs, written in name order.
+     */
+    private void writeAttributes(String[][] attributes) {
+        if (attributes.length > 1) {
+            Arrays.sort(attributes, (a, b) -> a[0].compareTo(b[0]));
+        }
+        for (int i = 0; i < attributes.length; i++) {
+            mOut.append(' ').append(attributes[i][0]).append("=\"");
+            String value = attributes[i][1];
+            writeEscaped(value.toCharArray(), 0, value.length(), true);
+            mOut.append('"');
+        }
+    }
+
+    /**
+     * Writes the end tag of the current element.
+     */
+    private void writeEndTag() {
+        if (mTagOpen) {
+            mOut.append("/>");
+            mTagOpen = false;
+        } else {
+            mOut.append("</");
+            appendName(mReader.getPrefix(), mReader.getLocalName());
+            mOut.append('>');
+        }
+    }
+
+    /**
+     * Closes a pending start tag before content is written.
+     */
+    private void closeStartTag() {
+        if (mTagOpen) {
+            mOut.append('>');
+            mTagOpen = false;
+        }
+    }
+
+    /**
+     * Reads the text of a sensitive element, including the text of nested elements,
+     * and writes it masked. Returns with the reader on the element's end tag.
+     *
+     * @param name String
+     * @throws XMLStreamException Exception
+     */
+    private void writeMaskedText(String name) throws XMLStreamException {
+        StringBuilder text = null;
+        int depth = 1;
+        while (depth > 0) {
+            int event = mReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE
+                    || event == XMLStreamConstants.CDATA) {
+                if (text == null) {
+                    text = new StringBuilder();
+                }
+                text.append(mReader.getTextCharacters(), mReader.getTextStart(), mReader.getTextLength());
+            }
+        }
+        if (text == null || text.length() == 0) {
+            return;
+        }
+        boolean partial = name.equals(PayflowConstants.XML_PARAM_ACCTNUM) || name.equals(PayflowConstants.XML_PARAM_CARDNUM);
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (!partial || (i >= 6 && i <= 11)) {
+                text.setCharAt(i, 'X');
+            }
+        }
+        closeStartTag();
+        char[] masked = new char[length];
+        text.getChars(0, length, masked, 0);
+        writeEscaped(masked, 0, length, false);
+    }
+
+    /**
+     * Escapes text or an attribute value like the Transformer's serializer.
+     *
+     * @param chars       char[]
+     * @param start       int
+     * @param length      int
+     * @param isAttribute boolean
+     */
+    private void writeEscaped(char[] chars, int start, int length, boolean isAttribute) {
+        int end = start + length;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            switch (c) {
+                case '&':
+                    mOut.append("&amp;");
+                    break;
+                case '<':
+                    mOut.append("&lt;");
+                    break;
+                case '>':
+                    mOut.append("&gt;");
+                    break;
+                case '\r':
+                    mOut.append("&#13;");
+                    break;
+                case '"':
+                    mOut.append(isAttribute ? "&quot;" : "\"");
+                    break;
+                case '\n':
+                case '\t':
+                    if (isAttribute) {
+                        mOut.append("&#").append((int) c).append(';');
+                    } else {
+                        mOut.append(c);
+                    }
+                    break;
+                default:
+                    if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                        mOut.append("&#").append(Character.toCodePoint(c, chars[i + 1])).append(';');
+                        i++;
+                    } else if (c >= 0x80 && mEncoder != null && !mEncoder.canEncode(c)) {
+                        mOut.append("&#").append((int) c).append(';');
+                    } else {
+                        mOut.append(c);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @param name String unprefixed attribute name
+     * @return value of the attribute of the current element, null if absent.
+     */
+    private String getRootAttribute(String name) {
+        int count = mReader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            String prefix = mReader.getAttributePrefix(i);
+            if ((prefix == null || prefix.length() == 0) && name.equals(mReader.getAttributeLocalName(i))) {
+                return mReader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param prefix    String
+     * @param localName String
+     */
+    private void appendName(String prefix, String localName) {
+        if (prefix != null && prefix.length() > 0) {
+            mOut.append(prefix).append(':');
+        }
+        mOut.append(localName);
+    }
+
+    /**
+     * @param localName String
+     * @return the sensitive element name, null if the element is not masked.
+     */
+    private static String getMaskedElement(String localName) {
+        for (int i = 0; i < MASKED_ELEMENTS.length; i++) {
+            if (MASKED_ELEMENTS[i].equals(localName)) {
+                return MASKED_ELEMENTS[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package paypal.payflow;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * What the SDK needs to know about an XMLPay request, read in a single parse: the
+ * version and request_id attributes of the XMLPayRequest element and the masked
+ * request for logging. Created by PayflowAPI and passed on to the payment states,
+ * so a request is parsed once per submission.
+ */
+final class XmlPayRequestDescriptor {
+
+    private final String mVersion;
+
+    private final String mRequestId;
+
+    private final String mMaskedRequest;
+
+    /**
+     * @param version       String
+     * @param requestId     String
+     * @param maskedRequest String
+     */
+    XmlPayRequestDescriptor(String version, String requestId, String maskedRequest) {
+        mVersion = version;
+        mRequestId = requestId;
+        mMaskedRequest = maskedRequest;
+    }
+
+    /**
+     * Parses an XMLPay request.
+     *
+     * @param request String
+     * @return XmlPayRequestDescriptor
+     * @throws XMLStreamException if the request is not well-formed.
+     */
+    static XmlPayRequestDescriptor parse(String request) throws XMLStreamException {
+        return XmlPayMasker.describe(request);
+    }
+
+    /**
+     * @return version attribute String, null if absent.
+     */
+    String getVersion() {
+        return mVersion;
+    }
+
+    /**
+     * @return request_id attribute String, null if absent.
+     */
+    String getRequestId() {
+        return mRequestId;
+    }
+
+    /**
+     * Gets the Xml Namespace of the request, as PayflowUtility.getXmlNameSpace(String) does.
+     *
+     * @return xmlNameSpace String
+     */
+    String getNameSpace() {
+        if ("1.0".equals(mVersion)) {
+            return PayflowConstants.EMPTY_STRING;
+        }
+        return PayflowConstants.XMLPAY_NAMESPACE;
+    }
+
+    /**
+     * @return masked request String
+     */
+    String getMaskedRequest() {
+        return mMaskedRequest;
+    }
+}
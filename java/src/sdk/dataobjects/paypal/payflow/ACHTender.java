@@ -180,10 +180,10 @@ public final class ACHTender extends BaseTender {
 
     protected void generateRequest() {
         super.generateRequest();
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_AUTHTYPE, authType));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PRENOTE, preNote));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TERMCITY, termCity));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TERMSTATE, termState));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_AUTHTYPE, authType);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PRENOTE, preNote);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_TERMCITY, termCity);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_TERMSTATE, termState);
     }
 
 
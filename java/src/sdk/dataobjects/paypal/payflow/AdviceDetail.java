@@ -92,8 +92,8 @@ public class AdviceDetail extends BaseRequestDataObject {
         try {
             String IndexVal = String.valueOf(Index+1);  // adding +1 as range is 1 to 5.
 
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ADDLAMT + IndexVal, addLAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ADDLAMTTYPE+ IndexVal, addLAmtType));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ADDLAMT + IndexVal, addLAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ADDLAMTTYPE+ IndexVal, addLAmtType);
 
         }
         catch (Exception ex) {
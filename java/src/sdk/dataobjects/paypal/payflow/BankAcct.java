@@ -30,8 +30,8 @@ public final class BankAcct extends PaymentDevice {
     protected void generateRequest() {
         super.generateRequest();
         //Add ABA and ACCTTYPE to parameter list.
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ABA, aba));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ACCTTYPE, acctType));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ABA, aba);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ACCTTYPE, acctType);
     }
 
     /**
@@ -202,12 +202,12 @@ public class BaseTender extends BaseRequestDataObject {
             paymentDevice.generateRequest();
         }
 
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TENDER, tender));
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CHKNUM, chkNum));
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CHKTYPE, chkType));
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DL, dL));
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SS, sS));
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_AUTHTYPE, authType));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_TENDER, tender);
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CHKNUM, chkNum);
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CHKTYPE, chkType);
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_DL, dL);
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_SS, sS);
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_AUTHTYPE, authType);
     }
 
 }
@@ -414,20 +414,20 @@ public final class BillTo extends Address {
     }
 
     protected void generateRequest() {
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_STREET, this.getBillToStreet()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_STREET2, this.getBillToStreet2()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CITY, this.getBillToCity()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_STATE, this.getBillToState()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BILLTOCOUNTRY, this.getBillToCountry()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ZIP, this.getBillToZip()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PHONENUM, this.getBillToPhone()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BILLTOPHONE2, this.getBillToPhone2()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_EMAIL, this.getBillToEmail()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_FAX, this.getBillToFax()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_FIRSTNAME, this.getBillToFirstName()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MIDDLENAME, this.getBillToMiddleName()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_LASTNAME, this.getBillToLastName()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_HOMEPHONE, billToHomePhone));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_COMPANYNAME, billToCompanyName));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_STREET, this.getBillToStreet());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_STREET2, this.getBillToStreet2());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CITY, this.getBillToCity());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_STATE, this.getBillToState());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_BILLTOCOUNTRY, this.getBillToCountry());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ZIP, this.getBillToZip());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PHONENUM, this.getBillToPhone());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_BILLTOPHONE2, this.getBillToPhone2());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_EMAIL, this.getBillToEmail());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_FAX, this.getBillToFax());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_FIRSTNAME, this.getBillToFirstName());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_MIDDLENAME, this.getBillToMiddleName());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_LASTNAME, this.getBillToLastName());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_HOMEPHONE, billToHomePhone);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_COMPANYNAME, billToCompanyName);
     }
 }
@@ -39,13 +39,13 @@ public final class BrowserInfo extends BaseRequestDataObject {
 
     protected void generateRequest() {
         try {
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BROWSERTIME, browserTime));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BROWSERCOUNTRYCODE, browserCountryCode));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BROWSERUSERAGENT, browserUserAgent));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BUTTONSOURCE, buttonSource));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTOM, custom));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_NOTIFYURL, notifyURL));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTSESSIONID, merchantSessionId));
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_BROWSERTIME, browserTime);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_BROWSERCOUNTRYCODE, browserCountryCode);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_BROWSERUSERAGENT, browserUserAgent);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_BUTTONSOURCE, buttonSource);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTOM, custom);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_NOTIFYURL, notifyURL);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTSESSIONID, merchantSessionId);
         } catch (Exception ex) {
             ErrorObject error = PayflowUtility.populateCommError(PayflowConstants.E_UNKNOWN_STATE, ex, PayflowConstants.SEVERITY_FATAL, false, null);
             getContext().addError(error);
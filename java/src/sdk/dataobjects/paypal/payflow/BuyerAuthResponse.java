@@ -1,7 +1,5 @@
 package paypal.payflow;
 
-import java.util.Hashtable;
-
 /**
  * Used for the buyerauth operation
  */
@@ -180,24 +178,24 @@ public class BuyerAuthResponse extends BaseResponseDataObject {
         this.xid = xid;
     }
 
-    protected void setParams(Hashtable ResponseHashTable) {
-
-        acsUrl = (String) ResponseHashTable.get(PayflowConstants.PARAM_ACSURL);
-        authenticationId = (String) ResponseHashTable.get(PayflowConstants.PARAM_AUTHENTICATION_ID);
-        authenticationStatus = (String) ResponseHashTable.get(PayflowConstants.PARAM_AUTHENICATION_STATUS);
-        cavv = (String) ResponseHashTable.get(PayflowConstants.PARAM_CAVV);
-        eci = (String) ResponseHashTable.get(PayflowConstants.PARAM_ECI);
-        md = (String) ResponseHashTable.get(PayflowConstants.PARAM_MD);
-        paReq = (String) ResponseHashTable.get(PayflowConstants.PARAM_PAREQ);
-        xid = (String) ResponseHashTable.get(PayflowConstants.PARAM_XID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ACSURL);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AUTHENTICATION_ID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AUTHENICATION_STATUS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CAVV);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ECI);
-        ResponseHashTable.remove(PayflowConstants.PARAM_MD);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PAREQ);
-        ResponseHashTable.remove(PayflowConstants.PARAM_XID);
+    void setParams(NameValueList ResponsePairs) {
+
+        acsUrl = ResponsePairs.get(ResponseKeys.PARAM_ACSURL);
+        authenticationId = ResponsePairs.get(ResponseKeys.PARAM_AUTHENTICATION_ID);
+        authenticationStatus = ResponsePairs.get(ResponseKeys.PARAM_AUTHENICATION_STATUS);
+        cavv = ResponsePairs.get(ResponseKeys.PARAM_CAVV);
+        eci = ResponsePairs.get(ResponseKeys.PARAM_ECI);
+        md = ResponsePairs.get(ResponseKeys.PARAM_MD);
+        paReq = ResponsePairs.get(ResponseKeys.PARAM_PAREQ);
+        xid = ResponsePairs.get(ResponseKeys.PARAM_XID);
+        ResponsePairs.remove(ResponseKeys.PARAM_ACSURL);
+        ResponsePairs.remove(ResponseKeys.PARAM_AUTHENTICATION_ID);
+        ResponsePairs.remove(ResponseKeys.PARAM_AUTHENICATION_STATUS);
+        ResponsePairs.remove(ResponseKeys.PARAM_CAVV);
+        ResponsePairs.remove(ResponseKeys.PARAM_ECI);
+        ResponsePairs.remove(ResponseKeys.PARAM_MD);
+        ResponsePairs.remove(ResponseKeys.PARAM_PAREQ);
+        ResponsePairs.remove(ResponseKeys.PARAM_XID);
     }
 
 }
\ No newline at end of file
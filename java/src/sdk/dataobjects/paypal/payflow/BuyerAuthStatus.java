@@ -156,13 +156,13 @@ public class BuyerAuthStatus extends BaseRequestDataObject {
 
     protected void generateRequest() {
 
-        this.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_AUTHENTICATION_ID, this.authenticationId));
-        this.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_AUTHENICATION_STATUS, this.authenticationStatus));
-        this.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CAVV, this.cavv));
-        this.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_XID, this.xid));
-        this.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ECI, this.eci));
-        this.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DSTRANSACTIONID, this.dsTransactionId));
-        this.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_THREEDSVERSION, this.threeDSVersion));
+        PayflowUtility.appendToRequest(this.getRequestBuffer(), PayflowConstants.PARAM_AUTHENTICATION_ID, this.authenticationId);
+        PayflowUtility.appendToRequest(this.getRequestBuffer(), PayflowConstants.PARAM_AUTHENICATION_STATUS, this.authenticationStatus);
+        PayflowUtility.appendToRequest(this.getRequestBuffer(), PayflowConstants.PARAM_CAVV, this.cavv);
+        PayflowUtility.appendToRequest(this.getRequestBuffer(), PayflowConstants.PARAM_XID, this.xid);
+        PayflowUtility.appendToRequest(this.getRequestBuffer(), PayflowConstants.PARAM_ECI, this.eci);
+        PayflowUtility.appendToRequest(this.getRequestBuffer(), PayflowConstants.PARAM_DSTRANSACTIONID, this.dsTransactionId);
+        PayflowUtility.appendToRequest(this.getRequestBuffer(), PayflowConstants.PARAM_THREEDSVERSION, this.threeDSVersion);
 
     }
 
@@ -23,8 +23,8 @@ public final class CheckPayment extends PaymentDevice {
 
     protected void generateRequest() {
 //    	Put the base field Acct as MICR.
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MICR, super.getAcct()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_NAME, super.getName()));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_MICR, super.getAcct());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_NAME, super.getName());
     }
 
 }
\ No newline at end of file
@@ -40,17 +40,17 @@ public final class CustomerInfo extends BaseRequestDataObject {
 
     protected void generateRequest() {
         try {
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_REQNAME, reqName));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTCODE, custCode));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTIP, custIP));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTVATREGNUM, custVatRegNum));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DOB, dob));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTID, custId));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTHOSTNAME, custHostName));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTBROWSER, custBrowser));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTDATA, custData));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTOMERID, customerId));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTOMERNUMBER, customerNumber));
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_REQNAME, reqName);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTCODE, custCode);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTIP, custIP);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTVATREGNUM, custVatRegNum);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_DOB, dob);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTID, custId);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTHOSTNAME, custHostName);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTBROWSER, custBrowser);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTDATA, custData);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTOMERID, customerId);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CUSTOMERNUMBER, customerNumber);
         } catch (Exception ex) {
             ErrorObject err = new ErrorObject(PayflowConstants.SEVERITY_FATAL, "", ex.toString());
             if (getContext() != null) {
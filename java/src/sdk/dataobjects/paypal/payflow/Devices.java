@@ -77,8 +77,8 @@ public final class Devices extends BaseRequestDataObject {
     }
 
     protected void generateRequest() {
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CATTYPE, catType));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CONTACTLESS, contactLess));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CATTYPE, catType);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CONTACTLESS, contactLess);
     }
 
 }
@@ -62,7 +62,7 @@ public class ECDoRequest extends ExpressCheckoutRequest {
         //in its respective derived classes.
         super.generateRequest();
 
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAYERID, payerId));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_PAYERID, payerId);
 
     }
 }
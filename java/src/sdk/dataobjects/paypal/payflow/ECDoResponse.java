@@ -17,8 +17,6 @@ package paypal.payflow;
 
 import paypal.payflow.ECGetResponse;
 
-import java.util.Hashtable;
-
 /**
  * UUsed for ExpressCheckout Do operation.
  * {@link ExpressCheckoutResponse}
@@ -108,22 +106,22 @@ public class ECDoResponse extends ExpressCheckoutResponse {
     protected ECDoResponse() {
     }
 
-    protected void setParams(Hashtable ResponseHashTable) {
-
-        amt = (String) ResponseHashTable.get(PayflowConstants.PARAM_AMT);
-        settleAmt = (String) ResponseHashTable.get(PayflowConstants.PARAM_SETTLEAMT);
-        taxAmt = (String) ResponseHashTable.get(PayflowConstants.PARAM_TAXAMT);
-        exchangeRate = (String) ResponseHashTable.get(PayflowConstants.PARAM_EXCHANGERATE);
-        paymentDate = (String) ResponseHashTable.get(PayflowConstants.PARAM_PAYMENTDATE);
-        paymentStatus = (String) ResponseHashTable.get(PayflowConstants.PARAM_PAYMENTSTATUS);
-        baId = (String) ResponseHashTable.get(PayflowConstants.PARAM_BAID);
-
-        ResponseHashTable.remove(PayflowConstants.PARAM_AMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SETTLEAMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TAXAMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_EXCHANGERATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PAYMENTDATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PAYMENTSTATUS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_BAID);
+    void setParams(NameValueList ResponsePairs) {
+
+        amt = ResponsePairs.get(ResponseKeys.PARAM_AMT);
+        settleAmt = ResponsePairs.get(ResponseKeys.PARAM_SETTLEAMT);
+        taxAmt = ResponsePairs.get(ResponseKeys.PARAM_TAXAMT);
+        exchangeRate = ResponsePairs.get(ResponseKeys.PARAM_EXCHANGERATE);
+        paymentDate = ResponsePairs.get(ResponseKeys.PARAM_PAYMENTDATE);
+        paymentStatus = ResponsePairs.get(ResponseKeys.PARAM_PAYMENTSTATUS);
+        baId = ResponsePairs.get(ResponseKeys.PARAM_BAID);
+
+        ResponsePairs.remove(ResponseKeys.PARAM_AMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_SETTLEAMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_TAXAMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_EXCHANGERATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_PAYMENTDATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_PAYMENTSTATUS);
+        ResponsePairs.remove(ResponseKeys.PARAM_BAID);
     }
 }
@@ -17,8 +17,6 @@ package paypal.payflow;
 
 import paypal.payflow.ExpressCheckoutResponse;
 
-import java.util.Hashtable;
-
 /**
  * Used for ExpressCheckout update operation.
  * {@link ExpressCheckoutResponse}
@@ -293,57 +291,57 @@ public class ECGetResponse extends ExpressCheckoutResponse {
     protected ECGetResponse() {
     }
 
-    protected void setParams(Hashtable ResponseHashTable) {
-        email = (String) ResponseHashTable.get(PayflowConstants.PARAM_EMAIL);
-        payerId = (String) ResponseHashTable.get(PayflowConstants.PARAM_PAYERID);
-        payerStatus = (String) ResponseHashTable.get(PayflowConstants.PARAM_PAYERSTATUS);
-        shipToName = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTONAME);
+    void setParams(NameValueList ResponsePairs) {
+        email = ResponsePairs.get(ResponseKeys.PARAM_EMAIL);
+        payerId = ResponsePairs.get(ResponseKeys.PARAM_PAYERID);
+        payerStatus = ResponsePairs.get(ResponseKeys.PARAM_PAYERSTATUS);
+        shipToName = ResponsePairs.get(ResponseKeys.PARAM_SHIPTONAME);
         // 04/08/2015 shipToFirstName and shipToLastName are not returned in the response, mapping only.
-        shipToFirstName = (String) ResponseHashTable.get(PayflowConstants.PARAM_FIRSTNAME);
-        shipToLastName = (String) ResponseHashTable.get(PayflowConstants.PARAM_LASTNAME);
-        shipToCountryCode = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOCOUNTRY);
-        shipToBusiness = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOBUSINESS);
-        //firstName = (String) ResponseHashTable.get(PayflowConstants.PARAM_FIRSTNAME);
-        //lastName = (String) ResponseHashTable.get(PayflowConstants.PARAM_LASTNAME);
-        street = (String) ResponseHashTable.get(PayflowConstants.PARAM_STREET);
-        street2 = (String) ResponseHashTable.get(PayflowConstants.PARAM_STREET2);
-        city = (String) ResponseHashTable.get(PayflowConstants.PARAM_CITY);
-        state = (String) ResponseHashTable.get(PayflowConstants.PARAM_STATE);
-        zip = (String) ResponseHashTable.get(PayflowConstants.PARAM_ZIP);
-        shipToStreet = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOSTREET);
-        shipToStreet2 = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOSTREET2);
-        shipToCity = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOCITY);
-        shipToState = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOSTATE);
-        shipToZip = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOZIP);
-        countryCode = (String) ResponseHashTable.get(PayflowConstants.PARAM_COUNTRYCODE);
-        phoneNum = (String) ResponseHashTable.get(PayflowConstants.PARAM_PHONENUM);
-        ba_Flag = (String) ResponseHashTable.get(PayflowConstants.PARAM_BA_FLAG);
-        addressStatus = (String) ResponseHashTable.get(PayflowConstants.PARAM_ADDRESSSTATUS);
-
-        ResponseHashTable.remove(PayflowConstants.PARAM_EMAIL);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PAYERID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PAYERSTATUS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTONAME);
-        //ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOFIRSTNAME);
-        //ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOLASTNAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOCOUNTRY);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOBUSINESS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_FIRSTNAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_LASTNAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOSTREET);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOSTREET2);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOCITY);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOSTATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOZIP);
-        ResponseHashTable.remove(PayflowConstants.PARAM_COUNTRYCODE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PHONENUM);
-        ResponseHashTable.remove(PayflowConstants.PARAM_BA_FLAG);
-        ResponseHashTable.remove(PayflowConstants.PARAM_STREET);
-        ResponseHashTable.remove(PayflowConstants.PARAM_STREET2);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CITY);
-        ResponseHashTable.remove(PayflowConstants.PARAM_STATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ZIP);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ADDRESSSTATUS);
+        shipToFirstName = ResponsePairs.get(ResponseKeys.PARAM_FIRSTNAME);
+        shipToLastName = ResponsePairs.get(ResponseKeys.PARAM_LASTNAME);
+        shipToCountryCode = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOCOUNTRY);
+        shipToBusiness = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOBUSINESS);
+        //firstName = ResponsePairs.get(ResponseKeys.PARAM_FIRSTNAME);
+        //lastName = ResponsePairs.get(ResponseKeys.PARAM_LASTNAME);
+        street = ResponsePairs.get(ResponseKeys.PARAM_STREET);
+        street2 = ResponsePairs.get(ResponseKeys.PARAM_STREET2);
+        city = ResponsePairs.get(ResponseKeys.PARAM_CITY);
+        state = ResponsePairs.get(ResponseKeys.PARAM_STATE);
+        zip = ResponsePairs.get(ResponseKeys.PARAM_ZIP);
+        shipToStreet = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOSTREET);
+        shipToStreet2 = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOSTREET2);
+        shipToCity = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOCITY);
+        shipToState = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOSTATE);
+        shipToZip = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOZIP);
+        countryCode = ResponsePairs.get(ResponseKeys.PARAM_COUNTRYCODE);
+        phoneNum = ResponsePairs.get(ResponseKeys.PARAM_PHONENUM);
+        ba_Flag = ResponsePairs.get(ResponseKeys.PARAM_BA_FLAG);
+        addressStatus = ResponsePairs.get(ResponseKeys.PARAM_ADDRESSSTATUS);
+
+        ResponsePairs.remove(ResponseKeys.PARAM_EMAIL);
+        ResponsePairs.remove(ResponseKeys.PARAM_PAYERID);
+        ResponsePairs.remove(ResponseKeys.PARAM_PAYERSTATUS);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTONAME);
+        //ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOFIRSTNAME);
+        //ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOLASTNAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOCOUNTRY);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOBUSINESS);
+        ResponsePairs.remove(ResponseKeys.PARAM_FIRSTNAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_LASTNAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOSTREET);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOSTREET2);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOCITY);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOSTATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOZIP);
+        ResponsePairs.remove(ResponseKeys.PARAM_COUNTRYCODE);
+        ResponsePairs.remove(ResponseKeys.PARAM_PHONENUM);
+        ResponsePairs.remove(ResponseKeys.PARAM_BA_FLAG);
+        ResponsePairs.remove(ResponseKeys.PARAM_STREET);
+        ResponsePairs.remove(ResponseKeys.PARAM_STREET2);
+        ResponsePairs.remove(ResponseKeys.PARAM_CITY);
+        ResponsePairs.remove(ResponseKeys.PARAM_STATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_ZIP);
+        ResponsePairs.remove(ResponseKeys.PARAM_ADDRESSSTATUS);
 
     }
 }
@@ -515,25 +515,25 @@ public class ECSetRequest extends ExpressCheckoutRequest {
         //address information is validated and generated
         //in its respective derived classes.
         super.generateRequest();
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_RETURNURL, returnUrl));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CANCELURL, cancelUrl));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_REQCONFIRMSHIPPING, reqConfirmShipping));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_REQBILLINGADDRESS, reqBillingAddress));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_NOSHIPPING, noShipping));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_LOCALECODE, localecode));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MAXAMT, maxAmt));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAGESTYLE, pageStyle));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_HDRIMG, headerImg));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_HDRBORDERCOLOR, headerBorderColor));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_HDRBACKCOLOR, headerBackColor));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAYFLOWCOLOR, payFlowColor));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BILLINGTYPE, billingType));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BA_DESC, ba_Desc));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAYMENTTYPE, paymentType));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BA_CUSTOM, ba_Custom));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ADDROVERRIDE, addrOverride));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTONAME, shiptoName));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ALLOWNOTE, allowNote));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_RETURNURL, returnUrl);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CANCELURL, cancelUrl);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_REQCONFIRMSHIPPING, reqConfirmShipping);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_REQBILLINGADDRESS, reqBillingAddress);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_NOSHIPPING, noShipping);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_LOCALECODE, localecode);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_MAXAMT, maxAmt);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PAGESTYLE, pageStyle);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_HDRIMG, headerImg);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_HDRBORDERCOLOR, headerBorderColor);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_HDRBACKCOLOR, headerBackColor);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PAYFLOWCOLOR, payFlowColor);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_BILLINGTYPE, billingType);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_BA_DESC, ba_Desc);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PAYMENTTYPE, paymentType);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_BA_CUSTOM, ba_Custom);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ADDROVERRIDE, addrOverride);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTONAME, shiptoName);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ALLOWNOTE, allowNote);
 
         if (payLater != null) {
             payLater.setRequestBuffer(getRequestBuffer());
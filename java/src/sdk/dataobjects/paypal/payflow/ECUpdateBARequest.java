@@ -140,9 +140,9 @@ public class ECUpdateBARequest extends ExpressCheckoutRequest {
         //address information is validated and generated
         //in its respective derived classes.
         super.generateRequest();
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BA_STATUS, ba_Status));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BA_DESC, ba_Desc));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_BAID, baid));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_BA_STATUS, ba_Status);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_BA_DESC, ba_Desc);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_BAID, baid);
 
     }
 }
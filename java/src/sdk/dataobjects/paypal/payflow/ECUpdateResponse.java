@@ -1,7 +1,5 @@
 package paypal.payflow;
 
-import java.util.Hashtable;
-
 public class ECUpdateResponse extends ExpressCheckoutResponse {
 
     private String ba_Desc;
@@ -53,13 +51,13 @@ public class ECUpdateResponse extends ExpressCheckoutResponse {
     protected ECUpdateResponse() {
     }
 
-    protected void setParams(Hashtable ResponseHashTable) {
+    void setParams(NameValueList ResponsePairs) {
 
-        ba_Desc = (String) ResponseHashTable.get(PayflowConstants.PARAM_BA_DESC);
-        ba_Status = (String) ResponseHashTable.get(PayflowConstants.PARAM_BA_STATUS);
+        ba_Desc = ResponsePairs.get(ResponseKeys.PARAM_BA_DESC);
+        ba_Status = ResponsePairs.get(ResponseKeys.PARAM_BA_STATUS);
 
-        ResponseHashTable.remove(PayflowConstants.PARAM_BA_DESC);
-        ResponseHashTable.remove(PayflowConstants.PARAM_BA_STATUS);
+        ResponsePairs.remove(ResponseKeys.PARAM_BA_DESC);
+        ResponsePairs.remove(ResponseKeys.PARAM_BA_STATUS);
     }
 
 
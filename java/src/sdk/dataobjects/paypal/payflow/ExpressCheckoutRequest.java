@@ -119,11 +119,11 @@ public class ExpressCheckoutRequest extends BaseRequestDataObject {
         //address information is validated and generated
         //in its respective derived classes.
         super.generateRequest();
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TOKEN, token));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_COUNTRYCODE, countryCode));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_POSTALCODE, postalCode));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ACTION, action));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DOREAUTHORIZATION, doReauthorization));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_TOKEN, token);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_COUNTRYCODE, countryCode);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_POSTALCODE, postalCode);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ACTION, action);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_DOREAUTHORIZATION, doReauthorization);
 
     }
 
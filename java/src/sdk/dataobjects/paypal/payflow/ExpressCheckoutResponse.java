@@ -2,8 +2,6 @@ package paypal.payflow;
 
 import paypal.payflow.ECGetResponse;
 
-import java.util.Hashtable;
-
 /**
  * This  class serves as base class of all ExpressCheckout response classes.
  * <p>Each response object is associated with a particular type of expressCheckout operation.</p>
@@ -32,9 +30,9 @@ public class ExpressCheckoutResponse extends BaseResponseDataObject {
     protected ExpressCheckoutResponse() {
     }
 
-    protected void setParams(Hashtable ResponseHashTable) {
-        token = (String) ResponseHashTable.get(PayflowConstants.PARAM_TOKEN);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TOKEN);
+    void setParams(NameValueList ResponsePairs) {
+        token = ResponsePairs.get(ResponseKeys.PARAM_TOKEN);
+        ResponsePairs.remove(ResponseKeys.PARAM_TOKEN);
     }
 
 }
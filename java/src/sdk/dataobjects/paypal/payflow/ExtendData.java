@@ -34,6 +34,6 @@ public final class ExtendData extends BaseRequestDataObject {
     }
 
     protected void generateRequest() {
-        this.getRequestBuffer().append(PayflowUtility.appendToRequest(paramName, paramValue));
+        PayflowUtility.appendToRequest(this.getRequestBuffer(), paramName, paramValue);
     }
 }
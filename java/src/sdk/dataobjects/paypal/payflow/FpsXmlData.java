@@ -1,6 +1,7 @@
 package paypal.payflow;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 
 /**
@@ -68,6 +69,8 @@ public class FpsXmlData {
 
     private ArrayList rules;
 
+    private HashMap rulesByNum;
+
     /**
      * Gets the Rules list.
      *
@@ -77,6 +80,19 @@ public class FpsXmlData {
         return rules;
     }
 
+    /**
+     * Gets a rule by its number.
+     *
+     * @param num int
+     * @return Rule, null if there is no rule with the number.
+     */
+    public Rule getRule(int num) {
+        if (rulesByNum == null) {
+            return null;
+        }
+        return (Rule) rulesByNum.get(Integer.valueOf(num));
+    }
+
     /**
      * constructor
      */
@@ -86,6 +102,12 @@ public class FpsXmlData {
 
     protected void SetRuleList(ArrayList RuleList) {
         rules = RuleList;
+        rulesByNum = new HashMap(RuleList.size() * 2);
+        for (int index = RuleList.size() - 1; index >= 0; index--) {
+            Rule currRule = (Rule) RuleList.get(index);
+            // the first rule with a number wins.
+            rulesByNum.put(Integer.valueOf(currRule.getNum()), currRule);
+        }
     }
 
 
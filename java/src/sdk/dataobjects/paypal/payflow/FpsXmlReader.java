@@ -0,0 +1,93 @@
+package paypal.payflow;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the rules of an FPS_PREXMLDATA or FPS_POSTXMLDATA response message in a
+ * single StAX pass, without building a DOM of the message.
+ * {@link FraudResponse}
+ */
+final class FpsXmlReader {
+
+    /**
+     * Private constructor.
+     */
+    private FpsXmlReader() {
+    }
+
+    /**
+     * Reads the rule elements of an FPS xml message, and the rule parameters
+     * under their rulevendorparms elements.
+     *
+     * @param XmlData String
+     * @return ArrayList of Rule, in document order.
+     * @throws XMLStreamException    if the message is not well-formed.
+     * @throws NumberFormatException if a rule or rule parameter has no numeric num attribute.
+     */
+    static ArrayList readRules(String XmlData) throws XMLStreamException {
+        ArrayList ruleList = new ArrayList();
+        XMLStreamReader reader = XmlParserProvider.createStreamReader(new StringReader(XmlData));
+        try {
+            Rule currRule = null;
+            RuleParameter currRuleParam = null;
+            boolean inVendorParms = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String Name = reader.getLocalName();
+                    if (PayflowConstants.XML_PARAM_RULE.equals(Name)) {
+                        currRule = new Rule();
+                        currRule.setNum(Integer.parseInt(reader.getAttributeValue(null, PayflowConstants.XML_PARAM_NUM)));
+                        inVendorParms = false;
+                    } else if (currRule == null) {
+                        continue;
+                    } else if (currRuleParam != null) {
+                        if (PayflowConstants.XML_PARAM_NAME.equals(Name)) {
+                            currRuleParam.setName(reader.getElementText());
+                        } else if (PayflowConstants.XML_PARAM_VALUE.equals(Name)) {
+                            String Type = reader.getAttributeValue(null, PayflowConstants.XML_PARAM_TYPE);
+                            currRuleParam.setType(Type == null ? PayflowConstants.EMPTY_STRING : Type);
+                            currRuleParam.setValue(reader.getElementText());
+                        }
+                    } else if (inVendorParms) {
+                        if (PayflowConstants.XML_PARAM_RULEPARAMETER.equals(Name)) {
+                            currRuleParam = new RuleParameter();
+                            currRuleParam.setNum(Integer.parseInt(reader.getAttributeValue(null, PayflowConstants.XML_PARAM_NUM)));
+                        }
+                    } else if (PayflowConstants.XML_PARAM_RULEID.equals(Name)) {
+                        currRule.setRuleId(reader.getElementText());
+                    } else if (PayflowConstants.XML_PARAM_RULEALIAS.equals(Name)) {
+                        currRule.setRuleAlias(reader.getElementText());
+                    } else if (PayflowConstants.XML_PARAM_RULEDESCRIPTION.equals(Name)) {
+                        currRule.setRuleDescription(reader.getElementText());
+                    } else if (PayflowConstants.XML_PARAM_ACTION.equals(Name)) {
+                        currRule.setAction(reader.getElementText());
+                    } else if (PayflowConstants.XML_PARAM_TRIGGEREDMESSAGE.equals(Name)) {
+                        currRule.setTriggeredMessage(reader.getElementText());
+                    } else if (PayflowConstants.XML_PARAM_RULEVENDORPARMS.equals(Name)) {
+                        inVendorParms = true;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && currRule != null) {
+                    String Name = reader.getLocalName();
+                    if (currRuleParam != null && PayflowConstants.XML_PARAM_RULEPARAMETER.equals(Name)) {
+                        currRule.getRuleVendorParms().add(currRuleParam);
+                        currRuleParam = null;
+                    } else if (PayflowConstants.XML_PARAM_RULEVENDORPARMS.equals(Name)) {
+                        inVendorParms = false;
+                    } else if (PayflowConstants.XML_PARAM_RULE.equals(Name)) {
+                        ruleList.add(currRule);
+                        currRule = null;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return ruleList;
+    }
+}
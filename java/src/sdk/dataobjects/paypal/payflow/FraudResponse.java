@@ -1,15 +1,6 @@
 package paypal.payflow;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
-import java.util.Hashtable;
 
 /**
  * Container class for response messages specific Fraud Protections Services.
@@ -18,6 +9,8 @@ import java.util.Hashtable;
  * services related response messages and data objects parsed
  * from the xml data in the fraud response.
  * </p>
+ * <p>The xml data is parsed the first time getFpsPreXmlData() or
+ * getFpsPostXmlData() is called.</p>
  * {@link FpsXmlData}
  */
 public final class FraudResponse extends BaseResponseDataObject {
@@ -27,6 +20,8 @@ public final class FraudResponse extends BaseResponseDataObject {
     private String postFpsMsg;
     private FpsXmlData fpsPreXmlData;
     private FpsXmlData fpsPostXmlData;
+    private String fpsPreXml;
+    private String fpsPostXml;
 
     /**
      * Gets the PreFpsMsg parameter.
@@ -55,7 +50,11 @@ public final class FraudResponse extends BaseResponseDataObject {
      *         <p>Its an itemized list of responses for triggered filters</p>
      *         {@link FpsXmlData}
      */
-    public FpsXmlData getFpsPreXmlData() {
+    public synchronized FpsXmlData getFpsPreXmlData() {
+        if (fpsPreXmlData == null) {
+            fpsPreXmlData = SetRules(fpsPreXml);
+            fpsPreXml = null;
+        }
         return fpsPreXmlData;
     }
 
@@ -67,7 +66,11 @@ public final class FraudResponse extends BaseResponseDataObject {
      *         {@link FpsXmlData}
      *  <p>Maps to Payflow Parameter: FPS_POSTXMLDATA
      */
-    public FpsXmlData getFpsPostXmlData() {
+    public synchronized FpsXmlData getFpsPostXmlData() {
+        if (fpsPostXmlData == null) {
+            fpsPostXmlData = SetRules(fpsPostXml);
+            fpsPostXml = null;
+        }
         return fpsPostXmlData;
     }
 
@@ -79,92 +82,20 @@ public final class FraudResponse extends BaseResponseDataObject {
     protected FraudResponse() {
     }
 
-    private ArrayList parseXmlData(String XmlData) throws Exception {
-
-        ByteArrayInputStream byteStream = new ByteArrayInputStream(XmlData.getBytes());
-        InputSource source = new InputSource(byteStream);
-        ArrayList fraudRuleList = new ArrayList();
-
-        Document xmlDocument = DocumentBuilderFactory.newInstance()
-                .newDocumentBuilder()
-                .parse(source);
-
-        NodeList ruleList = xmlDocument.getElementsByTagName(PayflowConstants.XML_PARAM_RULE);
-        if (ruleList != null) {
-            int length = ruleList.getLength();
-            if (length > 0) {
-                for (int index = 0; index < length; index++) {
-                    Node ruleNode = ruleList.item(index);
-                    Rule currRule = new Rule();
-                    currRule.setNum(Integer.parseInt(ruleNode.getAttributes().getNamedItem(PayflowConstants.XML_PARAM_NUM).getNodeValue()));
-                    NodeList childNodes = ruleNode.getChildNodes();
-                    int childLength = childNodes.getLength();
-                    for (int cindex = 0; cindex < childLength; cindex++) {
-                        Element currChild = (Element) childNodes.item(cindex);
-                        String Name = currChild.getNodeName();
-                        Node child = currChild.getFirstChild();
-                        if (PayflowConstants.XML_PARAM_RULEID.equals(Name)) {
-                            currRule.setRuleId(child.getNodeValue());
-                        } else if (PayflowConstants.XML_PARAM_RULEALIAS.equals(Name)) {
-                            currRule.setRuleAlias(child.getNodeValue());
-                        } else if (PayflowConstants.XML_PARAM_RULEDESCRIPTION.equals(Name)) {
-                            currRule.setRuleDescription(child.getNodeValue());
-                        } else if (PayflowConstants.XML_PARAM_ACTION.equals(Name)) {
-                            currRule.setAction(child.getNodeValue());
-                        } else if (PayflowConstants.XML_PARAM_TRIGGEREDMESSAGE.equals(Name)) {
-                            currRule.setTriggeredMessage(child.getNodeValue());
-                        } else if (PayflowConstants.XML_PARAM_RULEVENDORPARMS.equals(Name)) {
-                            Element ruleVendorParams;
-                            ruleVendorParams = currChild;
-                            NodeList ruleParamList = ruleVendorParams.getElementsByTagName(PayflowConstants.XML_PARAM_RULEPARAMETER);
-                            int ruleParamLength = ruleParamList.getLength();
-                            for (int rindex = 0; rindex < ruleParamLength; rindex++) {
-                                Node ruleParamNode = ruleParamList.item(rindex);
-                                RuleParameter currRuleParam = new RuleParameter();
-                                currRuleParam.setNum(Integer.parseInt(ruleParamNode.getAttributes().getNamedItem(PayflowConstants.XML_PARAM_NUM).getNodeValue()));
-                                NodeList ruleParamChildNodes = ruleParamNode.getChildNodes();
-                                int ruleParamChildLength = ruleParamChildNodes.getLength();
-                                for (int rpindex = 0; rpindex < ruleParamChildLength; rpindex++) {
-                                    Element currRuleParamChild = (Element) ruleParamChildNodes.item(rpindex);
-                                    String ruleParamName = currRuleParamChild.getNodeName();
-                                    Node ruleParamChild = currRuleParamChild.getFirstChild();
-                                    if (PayflowConstants.XML_PARAM_NAME.equals(ruleParamName)) {
-                                        currRuleParam.setName(ruleParamChild.getNodeValue());
-                                    } else if (PayflowConstants.XML_PARAM_VALUE.equals(ruleParamName)) {
-                                        currRuleParam.setType(currRuleParamChild.getAttribute(PayflowConstants.XML_PARAM_TYPE));
-                                        currRuleParam.setValue(ruleParamChild.getNodeValue());
-                                    }
-                                }
-                                currRule.getRuleVendorParms().add(currRuleParam);
-                            }
-                        }
-
-                    }
-                    fraudRuleList.add(currRule);
-                }
-            }
-        }
-
-        return fraudRuleList;
-    }
-
-
-    protected void setParams(Hashtable ResponseHashTable) {
-        preFpsMsg = (String) ResponseHashTable.get(PayflowConstants.PARAM_PREFPSMSG);
-        postFpsMsg = (String) ResponseHashTable.get(PayflowConstants.PARAM_POSTFPSMSG);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PREFPSMSG);
-        ResponseHashTable.remove(PayflowConstants.PARAM_POSTFPSMSG);
-        SetFpsXmlData(ResponseHashTable);
+    void setParams(NameValueList ResponsePairs) {
+        preFpsMsg = ResponsePairs.get(ResponseKeys.PARAM_PREFPSMSG);
+        postFpsMsg = ResponsePairs.get(ResponseKeys.PARAM_POSTFPSMSG);
+        ResponsePairs.remove(ResponseKeys.PARAM_PREFPSMSG);
+        ResponsePairs.remove(ResponseKeys.PARAM_POSTFPSMSG);
+        SetFpsXmlData(ResponsePairs);
     }
 
-    private void SetFpsXmlData(Hashtable ResponseHashTable) {
-        String XmlData;
-        XmlData = (String) ResponseHashTable.get(PayflowConstants.PARAM_FPS_PREXMLDATA);
-        fpsPreXmlData = SetRules(XmlData);
-        XmlData = (String) ResponseHashTable.get(PayflowConstants.PARAM_FPS_POSTXMLDATA);
-        fpsPostXmlData = SetRules(XmlData);
-        ResponseHashTable.remove(PayflowConstants.PARAM_FPS_PREXMLDATA);
-        ResponseHashTable.remove(PayflowConstants.PARAM_FPS_POSTXMLDATA);
+    private void SetFpsXmlData(NameValueList ResponsePairs) {
+        // parsed when first read.
+        fpsPreXml = ResponsePairs.get(ResponseKeys.PARAM_FPS_PREXMLDATA);
+        fpsPostXml = ResponsePairs.get(ResponseKeys.PARAM_FPS_POSTXMLDATA);
+        ResponsePairs.remove(ResponseKeys.PARAM_FPS_PREXMLDATA);
+        ResponsePairs.remove(ResponseKeys.PARAM_FPS_POSTXMLDATA);
     }
 
     private FpsXmlData SetRules(String XmlData) {
@@ -173,7 +104,7 @@ public final class FraudResponse extends BaseResponseDataObject {
             if (XmlData != null && XmlData.length() > 0) {
                 ArrayList ruleList;
 
-                ruleList = parseXmlData(XmlData);
+                ruleList = FpsXmlReader.readRules(XmlData);
                 if (ruleList != null && ruleList.size() > 0) {
                     FpsData.SetRuleList(ruleList);
                 }
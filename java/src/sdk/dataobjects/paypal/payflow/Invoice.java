@@ -267,55 +267,55 @@ public class Invoice extends BaseRequestDataObject {
         try {
             initErrorContext();
 
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_INVNUM, invNum));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_AMT, amt));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_INVNUM, invNum);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_AMT, amt);
             if (amt != null) {
-                super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CURRENCY, amt.getCurrencyCode()));
+                PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CURRENCY, amt.getCurrencyCode());
             }
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TAXEXEMPT, taxExempt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TAXAMT, taxAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DUTYAMT, dutyAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_FREIGHTAMT, freightAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_HANDLINGAMT, handlingAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPPINGAMT, shippingAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DISCOUNT, discount));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DESC, desc));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_COMMENT1, comment1));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_COMMENT2, comment2));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DESC1, desc1));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DESC2, desc2));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DESC3, desc3));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_DESC4, desc4));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTREF, custRef));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PONUM, poNum));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_VATREGNUM, vatRegNum));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_VATTAXAMT, vatTaxAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_LOCALTAXAMT, localTaxAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_NATIONALTAXAMT, nationalTaxAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ALTTAXAMT, altTaxAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_COMMCODE, commCode));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_VATTAXPERCENT, vatTaxPercent));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_INVOICEDATE, invoiceDate));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_STARTTIME, startTime));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ENDTIME, endTime));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORDERDATE, orderDate));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORDERTIME, orderTime));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_RECURRING, recurring));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ITEMAMT, itemAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORDERDESC, orderDesc));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CUSTIP, custIp));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_RECURRINGTYPE, recurringType));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TRANSACTIONID, transactionId));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ECHODATA, echoData));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORDERID, orderId));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_VATINVNUM, vatInvNum));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_VATTAXRATE, vatTaxRate));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_REPORTGROUP, reportGroup));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MISCDATA, miscData));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SCAEXEMPTION, scaExemption));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CITDATE, citDate));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_VMAID, vMaid));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAR, par));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_TAXEXEMPT, taxExempt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_TAXAMT, taxAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_DUTYAMT, dutyAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_FREIGHTAMT, freightAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_HANDLINGAMT, handlingAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPPINGAMT, shippingAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_DISCOUNT, discount);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_DESC, desc);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_COMMENT1, comment1);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_COMMENT2, comment2);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_DESC1, desc1);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_DESC2, desc2);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_DESC3, desc3);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_DESC4, desc4);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CUSTREF, custRef);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PONUM, poNum);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_VATREGNUM, vatRegNum);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_VATTAXAMT, vatTaxAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_LOCALTAXAMT, localTaxAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_NATIONALTAXAMT, nationalTaxAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ALTTAXAMT, altTaxAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_COMMCODE, commCode);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_VATTAXPERCENT, vatTaxPercent);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_INVOICEDATE, invoiceDate);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_STARTTIME, startTime);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ENDTIME, endTime);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ORDERDATE, orderDate);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ORDERTIME, orderTime);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_RECURRING, recurring);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ITEMAMT, itemAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ORDERDESC, orderDesc);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CUSTIP, custIp);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_RECURRINGTYPE, recurringType);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_TRANSACTIONID, transactionId);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ECHODATA, echoData);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ORDERID, orderId);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_VATINVNUM, vatInvNum);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_VATTAXRATE, vatTaxRate);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_REPORTGROUP, reportGroup);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_MISCDATA, miscData);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SCAEXEMPTION, scaExemption);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CITDATE, citDate);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_VMAID, vMaid);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PAR, par);
 
             if (billTo != null) {
                 billTo.setRequestBuffer(getRequestBuffer());
@@ -833,41 +833,41 @@ public final class LineItem extends BaseRequestDataObject {
         try {
             String IndexVal = String.valueOf(Index);
 
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_AMT + IndexVal, amt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_COST + IndexVal, cost));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_FREIGHTAMT + IndexVal, freightAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_HANDLINGAMT + IndexVal, handlingAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_TAXAMT + IndexVal, taxAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_UOM + IndexVal, uom));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_PICKUPSTREET + IndexVal, pickupStreet));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_PICKUPSTATE + IndexVal, pickupState));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_PICKUPCOUNTRY + IndexVal, pickupCountry));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_PICKUPCITY + IndexVal, pickupCity));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_PICKUPZIP + IndexVal, pickupZip));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_DESC + IndexVal, desc));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_DISCOUNT + IndexVal, discount));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_MANUFACTURER + IndexVal, manufacturer));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_PRODCODE + IndexVal, prodCode));
-
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_ITEMNUMBER + IndexVal, itemNumber));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_AMT + IndexVal, amt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_COST + IndexVal, cost);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_FREIGHTAMT + IndexVal, freightAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_HANDLINGAMT + IndexVal, handlingAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_TAXAMT + IndexVal, taxAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_UOM + IndexVal, uom);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_PICKUPSTREET + IndexVal, pickupStreet);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_PICKUPSTATE + IndexVal, pickupState);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_PICKUPCOUNTRY + IndexVal, pickupCountry);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_PICKUPCITY + IndexVal, pickupCity);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_PICKUPZIP + IndexVal, pickupZip);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_DESC + IndexVal, desc);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_DISCOUNT + IndexVal, discount);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_MANUFACTURER + IndexVal, manufacturer);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_PRODCODE + IndexVal, prodCode);
+
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_ITEMNUMBER + IndexVal, itemNumber);
             if (qty != PayflowConstants.INVALID_NUMBER) {
-                super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_QTY + IndexVal, String.valueOf(qty)));
+                PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_QTY + IndexVal, String.valueOf(qty));
             }
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_SKU + IndexVal, sku));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_TAXRATE + IndexVal, taxRate));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_TAXTYPE + IndexVal, taxType));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_TYPE + IndexVal, type));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_COMMCODE + IndexVal, commCode));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_TRACKINGNUM + IndexVal, trackingNum));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_COSTCENTERNUM + IndexVal, costCenterNum));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_CATALOGNUM + IndexVal, catalogNum));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_UPC + IndexVal, upc));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_UNSPSCCODE + IndexVal, unspscCode));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_ALTTAXAMT + IndexVal, altTaxAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_ALTTAXID + IndexVal, altTaxId));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_ALTTAXRATE + IndexVal, altTaxRate));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_CARRIERSERVICESLEVELCODE + IndexVal, carrierServiceLevelCode));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_L_EXTAMT+ IndexVal,extAmt));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_SKU + IndexVal, sku);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_TAXRATE + IndexVal, taxRate);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_TAXTYPE + IndexVal, taxType);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_TYPE + IndexVal, type);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_COMMCODE + IndexVal, commCode);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_TRACKINGNUM + IndexVal, trackingNum);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_COSTCENTERNUM + IndexVal, costCenterNum);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_CATALOGNUM + IndexVal, catalogNum);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_UPC + IndexVal, upc);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_UNSPSCCODE + IndexVal, unspscCode);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_ALTTAXAMT + IndexVal, altTaxAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_ALTTAXID + IndexVal, altTaxId);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_ALTTAXRATE + IndexVal, altTaxRate);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_CARRIERSERVICESLEVELCODE + IndexVal, carrierServiceLevelCode);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_L_EXTAMT+ IndexVal,extAmt);
 
 
 
@@ -42,25 +42,25 @@ public final class MagTekInfo extends BaseRequestDataObject {
 
     protected void generateRequest() {
         try {
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_ENCMP, encMP));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_ENCRYPTIONBLOCKTYPE, encryptionBlockType));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_ENCTRACK1, encTrack1));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_ENCTRACK2, encTrack2));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_ENCTRACK3, encTrack3));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_KSN, ksn));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_MAGTEKCARDTYPE, magtekCardType));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_REGISTEREDBY, registeredBy));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_SWIPEDECRHOST, swipedECRHost));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_DEVICESN, deviceSN));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_MPSTATUS, mpStatus));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_PAN4, pan4));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_MERCHANTID, merchantId));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_PCODE, pCode));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_AUTHVALUE1, authValue1));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_AUTHVALUE2, authValue2));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_AUTHVALUE3, authValue3));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_MAGTEKUSERNAME, magtekUserName));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.MAGTEK_PARAM_MAGTEKPWD, magtekPassword));
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_ENCMP, encMP);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_ENCRYPTIONBLOCKTYPE, encryptionBlockType);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_ENCTRACK1, encTrack1);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_ENCTRACK2, encTrack2);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_ENCTRACK3, encTrack3);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_KSN, ksn);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_MAGTEKCARDTYPE, magtekCardType);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_REGISTEREDBY, registeredBy);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_SWIPEDECRHOST, swipedECRHost);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_DEVICESN, deviceSN);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_MPSTATUS, mpStatus);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_PAN4, pan4);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_MERCHANTID, merchantId);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_PCODE, pCode);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_AUTHVALUE1, authValue1);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_AUTHVALUE2, authValue2);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_AUTHVALUE3, authValue3);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_MAGTEKUSERNAME, magtekUserName);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.MAGTEK_PARAM_MAGTEKPWD, magtekPassword);
 
 
         } catch (Exception ex) {
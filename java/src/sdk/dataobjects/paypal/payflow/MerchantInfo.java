@@ -41,21 +41,21 @@ public final class MerchantInfo extends BaseRequestDataObject {
 
     protected void generateRequest() {
         try {
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTNAME, merchantName));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTSTREET, merchantStreet));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTCITY, merchantCity));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTSTATE, merchantState));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTZIP, merchantZip));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTCOUNTRYCODE, merchantCountryCode));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTURL, merchantUrl));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTVATNUM, merchantVatNum));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTINVOICENUM, merchantInvoiceNum));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTLOCATIONID, merchantLocationId));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTID, merchantId));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHANTCONTACTINFO, merchantContactInfo));
-
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHDESCR, merchDescr));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MERCHSVC, merchSvc));
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTNAME, merchantName);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTSTREET, merchantStreet);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTCITY, merchantCity);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTSTATE, merchantState);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTZIP, merchantZip);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTCOUNTRYCODE, merchantCountryCode);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTURL, merchantUrl);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTVATNUM, merchantVatNum);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTINVOICENUM, merchantInvoiceNum);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTLOCATIONID, merchantLocationId);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTID, merchantId);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHANTCONTACTINFO, merchantContactInfo);
+
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHDESCR, merchDescr);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_MERCHSVC, merchSvc);
         } catch (Exception ex) {
             ErrorObject err = new ErrorObject(PayflowConstants.SEVERITY_FATAL, "", ex.toString());
             if (getContext() != null) {
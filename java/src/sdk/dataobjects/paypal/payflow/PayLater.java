@@ -130,11 +130,11 @@ public class PayLater extends BaseRequestDataObject {
 
     protected void generateRequest() {
         try {
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPPINGMETHOD, shippingMethod));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PROMOCODEOVERRIDE, promoCodeOverride));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PROFILEADDRESSCHANGEDATE, profileAddressChangeDate));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAYPALCHECKOUTBTNTYPE, paypalCheckoutBtnType));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PRODUCTCATEGORY, productCategory));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPPINGMETHOD, shippingMethod);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PROMOCODEOVERRIDE, promoCodeOverride);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PROFILEADDRESSCHANGEDATE, profileAddressChangeDate);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PAYPALCHECKOUTBTNTYPE, paypalCheckoutBtnType);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PRODUCTCATEGORY, productCategory);
             if (itemList != null && itemList.size() > 0) {
                 generateItemRequest();
             }
@@ -82,7 +82,7 @@ public final class PayLaterLineItem extends BaseRequestDataObject {
 
         try {
             String IndexVal = String.valueOf(Index);
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PROMOCODE + IndexVal, promoCode));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PROMOCODE + IndexVal, promoCode);
         }
         catch (Exception ex) {
             ErrorObject err = new ErrorObject(PayflowConstants.SEVERITY_FATAL, "", ex.toString());
@@ -206,12 +206,12 @@ abstract class PaymentCard extends PaymentDevice {
      */
     protected void generateRequest() {
         super.generateRequest();
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_EXPDATE, expDate));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CVV2, cvv2));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CARDSTART, cardStart));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CARDISSUE, cardIssue));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CARDONFILE, cardOnFile));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TXID, txId));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAR, par));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_EXPDATE, expDate);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CVV2, cvv2);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CARDSTART, cardStart);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CARDISSUE, cardIssue);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_CARDONFILE, cardOnFile);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_TXID, txId);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PAR, par);
     }
 }
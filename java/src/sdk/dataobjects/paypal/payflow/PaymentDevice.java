@@ -112,8 +112,8 @@ abstract class PaymentDevice extends BaseRequestDataObject {
      * Generates the transaction request.
      */
     protected void generateRequest() {
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ACCT, acct));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_NAME, name));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ACCT, acct);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_NAME, name);
     }
 
 }
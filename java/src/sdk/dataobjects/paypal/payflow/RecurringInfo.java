@@ -407,24 +407,24 @@ public final class RecurringInfo extends BaseRequestDataObject {
 
     protected void generateRequest() {
         try {
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PROFILENAME, profileName));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_START, start));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PROFILENAME, profileName);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_START, start);
 
             if (term != PayflowConstants.INVALID_NUMBER) {
-                super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TERM, String.valueOf(term)));
+                PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_TERM, String.valueOf(term));
             }
 
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAYPERIOD, payPeriod));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_OPTIONALTRX, optionalTrx));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_OPTIONALTRXAMT, optionalTrxAmt));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_RETRYNUMDAYS, String.valueOf(retryNumDays)));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PAYPERIOD, payPeriod);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_OPTIONALTRX, optionalTrx);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_OPTIONALTRXAMT, optionalTrxAmt);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_RETRYNUMDAYS, String.valueOf(retryNumDays));
             if (maxFailPayments != PayflowConstants.INVALID_NUMBER) {
-                super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_MAXFAILPAYMENTS, String.valueOf(maxFailPayments)));
+                PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_MAXFAILPAYMENTS, String.valueOf(maxFailPayments));
             }
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORIGPROFILEID, origProfileId));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAYMENTHISTORY, paymentHistory));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PAYMENTNUM, paymentNum));
-            super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_FREQUENCY, frequency));
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_ORIGPROFILEID, origProfileId);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PAYMENTHISTORY, paymentHistory);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PAYMENTNUM, paymentNum);
+            PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_FREQUENCY, frequency);
         }
         catch (Exception ex) {
             ErrorObject err = new ErrorObject(PayflowConstants.SEVERITY_FATAL, "", ex.toString());
@@ -587,114 +587,114 @@ public final class RecurringResponse extends BaseResponseDataObject {
         inquiryParams = new Hashtable();
     }
 
-    protected void setParams(Hashtable ResponseHashTable) {
-        profileId = (String) ResponseHashTable.get(PayflowConstants.PARAM_PROFILEID);
-        rpRef = (String) ResponseHashTable.get(PayflowConstants.PARAM_RPREF);
-        trxPNRef = (String) ResponseHashTable.get(PayflowConstants.PARAM_TRXPNREF);
-        trxResult = (String) ResponseHashTable.get(PayflowConstants.PARAM_TRXRESULT);
-        trxRespMsg = (String) ResponseHashTable.get(PayflowConstants.PARAM_TRXRESPMSG);
+    void setParams(NameValueList ResponsePairs) {
+        profileId = ResponsePairs.get(ResponseKeys.PARAM_PROFILEID);
+        rpRef = ResponsePairs.get(ResponseKeys.PARAM_RPREF);
+        trxPNRef = ResponsePairs.get(ResponseKeys.PARAM_TRXPNREF);
+        trxResult = ResponsePairs.get(ResponseKeys.PARAM_TRXRESULT);
+        trxRespMsg = ResponsePairs.get(ResponseKeys.PARAM_TRXRESPMSG);
 
         //Additional fields for Inquiry transaction
-        profileName = (String) ResponseHashTable.get(PayflowConstants.PARAM_PROFILENAME);
-        start = (String) ResponseHashTable.get(PayflowConstants.PARAM_START);
-        term = (String) ResponseHashTable.get(PayflowConstants.PARAM_TERM);
-        payPeriod = (String) ResponseHashTable.get(PayflowConstants.PARAM_PAYPERIOD);
-        status = (String) ResponseHashTable.get(PayflowConstants.PARAM_STATUS);
-        tender = (String) ResponseHashTable.get(PayflowConstants.PARAM_TENDER);
-        paymentsLeft = (String) ResponseHashTable.get(PayflowConstants.PARAM_PAYMENTSLEFT);
-        nextPayment = (String) ResponseHashTable.get(PayflowConstants.PARAM_NEXTPAYMENT);
-        end = (String) ResponseHashTable.get(PayflowConstants.PARAM_END);
-        aggregateAmt = (String) ResponseHashTable.get(PayflowConstants.PARAM_AGGREGATEAMT);
-        aggregateOptionalAmt = (String) ResponseHashTable.get(PayflowConstants.PARAM_AGGREGATEOPTIONALAMT);
-        amt = (String) ResponseHashTable.get(PayflowConstants.PARAM_AMT);
-        acct = (String) ResponseHashTable.get(PayflowConstants.PARAM_ACCT);
-        expDate = (String) ResponseHashTable.get(PayflowConstants.PARAM_EXPDATE);
-        maxFailPayments = (String) ResponseHashTable.get(PayflowConstants.PARAM_MAXFAILPAYMENTS);
-        numFailPayments = (String) ResponseHashTable.get(PayflowConstants.PARAM_NUMFAILPAYMENTS);
-        retryNumDays = (String) ResponseHashTable.get(PayflowConstants.PARAM_RETRYNUMDAYS);
-        companyName = (String) ResponseHashTable.get(PayflowConstants.PARAM_COMPANYNAME);
+        profileName = ResponsePairs.get(ResponseKeys.PARAM_PROFILENAME);
+        start = ResponsePairs.get(ResponseKeys.PARAM_START);
+        term = ResponsePairs.get(ResponseKeys.PARAM_TERM);
+        payPeriod = ResponsePairs.get(ResponseKeys.PARAM_PAYPERIOD);
+        status = ResponsePairs.get(ResponseKeys.PARAM_STATUS);
+        tender = ResponsePairs.get(ResponseKeys.PARAM_TENDER);
+        paymentsLeft = ResponsePairs.get(ResponseKeys.PARAM_PAYMENTSLEFT);
+        nextPayment = ResponsePairs.get(ResponseKeys.PARAM_NEXTPAYMENT);
+        end = ResponsePairs.get(ResponseKeys.PARAM_END);
+        aggregateAmt = ResponsePairs.get(ResponseKeys.PARAM_AGGREGATEAMT);
+        aggregateOptionalAmt = ResponsePairs.get(ResponseKeys.PARAM_AGGREGATEOPTIONALAMT);
+        amt = ResponsePairs.get(ResponseKeys.PARAM_AMT);
+        acct = ResponsePairs.get(ResponseKeys.PARAM_ACCT);
+        expDate = ResponsePairs.get(ResponseKeys.PARAM_EXPDATE);
+        maxFailPayments = ResponsePairs.get(ResponseKeys.PARAM_MAXFAILPAYMENTS);
+        numFailPayments = ResponsePairs.get(ResponseKeys.PARAM_NUMFAILPAYMENTS);
+        retryNumDays = ResponsePairs.get(ResponseKeys.PARAM_RETRYNUMDAYS);
+        companyName = ResponsePairs.get(ResponseKeys.PARAM_COMPANYNAME);
         // Since Recurring Billing was never updated to support "BILLTO" parameters, overriding with older NVPs.
-        name = (String) ResponseHashTable.get(PayflowConstants.PARAM_NAME);
-        firstName = (String) ResponseHashTable.get(PayflowConstants.PARAM_FIRSTNAME);
-        middleName = (String) ResponseHashTable.get(PayflowConstants.PARAM_MIDDLENAME);
-        lastname = (String) ResponseHashTable.get("LASTNAME");
-        street = (String) ResponseHashTable.get("STREET");
-        city = (String) ResponseHashTable.get("CITY");
-        state = (String) ResponseHashTable.get("STATE");
-        zip = (String) ResponseHashTable.get("ZIP");
-        email = (String) ResponseHashTable.get("EMAIL");
-        country = (String) ResponseHashTable.get(PayflowConstants.PARAM_COUNTRY);
-        phoneNum = (String) ResponseHashTable.get(PayflowConstants.PARAM_PHONENUM);
-        shipToFName = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOFIRSTNAME);
-        shipToMName = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOMIDDLENAME);
-        shipToLName = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOLASTNAME);
-        shipToStreet = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOSTREET);
-        shipToCity = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOCITY);
-        shipToState = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOSTATE);
-        shipToZip = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOZIP);
-        shipToCountry = (String) ResponseHashTable.get(PayflowConstants.PARAM_SHIPTOCOUNTRY);
-        creationDate = (String) ResponseHashTable.get(PayflowConstants.PARAM_CREATIONDATE);
-        lastChanged = (String) ResponseHashTable.get(PayflowConstants.PARAM_LASTCHANGED);
-        rpState = (String) ResponseHashTable.get(PayflowConstants.PARAM_RPSTATE);
-        nextPaymentNumber = (String) ResponseHashTable.get(PayflowConstants.PARAM_NEXTPAYMENTNUM);
-        frequency = (String) ResponseHashTable.get(PayflowConstants.PARAM_FREQUENCY);
-        currency = (String) ResponseHashTable.get(PayflowConstants.PARAM_CURRENCY);
-
-
-        ResponseHashTable.remove(PayflowConstants.PARAM_PROFILEID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_RPREF);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TRXPNREF);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TRXRESULT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TRXRESPMSG);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PROFILENAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_START);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TERM);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PAYPERIOD);
-        ResponseHashTable.remove(PayflowConstants.PARAM_STATUS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TENDER);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PAYMENTSLEFT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_NEXTPAYMENT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_END);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AGGREGATEAMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AGGREGATEOPTIONALAMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ACCT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_EXPDATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_MAXFAILPAYMENTS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_NUMFAILPAYMENTS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_RETRYNUMDAYS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_COMPANYNAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_NAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_FIRSTNAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_MIDDLENAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_LASTNAME);
-        ResponseHashTable.remove("STREET");
-        ResponseHashTable.remove("CITY");
-        ResponseHashTable.remove("STATE");
-        ResponseHashTable.remove("ZIP");
-        ResponseHashTable.remove("EMAIL");
-        ResponseHashTable.remove(PayflowConstants.PARAM_COUNTRY);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PHONENUM);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOFIRSTNAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOMIDDLENAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOLASTNAME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOSTREET);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOCITY);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOSTATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOZIP);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SHIPTOCOUNTRY);
-        ResponseHashTable.remove(PayflowConstants.PARAM_P_RESULTn);
-        ResponseHashTable.remove(PayflowConstants.PARAM_P_PNREFn);
-        ResponseHashTable.remove(PayflowConstants.PARAM_P_TRANSTATEn);
-        ResponseHashTable.remove(PayflowConstants.PARAM_P_TENDERn);
-        ResponseHashTable.remove(PayflowConstants.PARAM_P_TRANSTIMEn);
-        ResponseHashTable.remove(PayflowConstants.PARAM_P_AMOUNTn);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CREATIONDATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_LASTCHANGED);
-        ResponseHashTable.remove(PayflowConstants.PARAM_RPSTATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_NEXTPAYMENTNUM);
-        ResponseHashTable.remove(PayflowConstants.PARAM_FREQUENCY);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CURRENCY);
+        name = ResponsePairs.get(ResponseKeys.PARAM_NAME);
+        firstName = ResponsePairs.get(ResponseKeys.PARAM_FIRSTNAME);
+        middleName = ResponsePairs.get(ResponseKeys.PARAM_MIDDLENAME);
+        lastname = ResponsePairs.get(ResponseKeys.LASTNAME);
+        street = ResponsePairs.get(ResponseKeys.STREET);
+        city = ResponsePairs.get(ResponseKeys.CITY);
+        state = ResponsePairs.get(ResponseKeys.STATE);
+        zip = ResponsePairs.get(ResponseKeys.ZIP);
+        email = ResponsePairs.get(ResponseKeys.EMAIL);
+        country = ResponsePairs.get(ResponseKeys.PARAM_COUNTRY);
+        phoneNum = ResponsePairs.get(ResponseKeys.PARAM_PHONENUM);
+        shipToFName = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOFIRSTNAME);
+        shipToMName = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOMIDDLENAME);
+        shipToLName = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOLASTNAME);
+        shipToStreet = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOSTREET);
+        shipToCity = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOCITY);
+        shipToState = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOSTATE);
+        shipToZip = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOZIP);
+        shipToCountry = ResponsePairs.get(ResponseKeys.PARAM_SHIPTOCOUNTRY);
+        creationDate = ResponsePairs.get(ResponseKeys.PARAM_CREATIONDATE);
+        lastChanged = ResponsePairs.get(ResponseKeys.PARAM_LASTCHANGED);
+        rpState = ResponsePairs.get(ResponseKeys.PARAM_RPSTATE);
+        nextPaymentNumber = ResponsePairs.get(ResponseKeys.PARAM_NEXTPAYMENTNUM);
+        frequency = ResponsePairs.get(ResponseKeys.PARAM_FREQUENCY);
+        currency = ResponsePairs.get(ResponseKeys.PARAM_CURRENCY);
+
+
+        ResponsePairs.remove(ResponseKeys.PARAM_PROFILEID);
+        ResponsePairs.remove(ResponseKeys.PARAM_RPREF);
+        ResponsePairs.remove(ResponseKeys.PARAM_TRXPNREF);
+        ResponsePairs.remove(ResponseKeys.PARAM_TRXRESULT);
+        ResponsePairs.remove(ResponseKeys.PARAM_TRXRESPMSG);
+        ResponsePairs.remove(ResponseKeys.PARAM_PROFILENAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_START);
+        ResponsePairs.remove(ResponseKeys.PARAM_TERM);
+        ResponsePairs.remove(ResponseKeys.PARAM_PAYPERIOD);
+        ResponsePairs.remove(ResponseKeys.PARAM_STATUS);
+        ResponsePairs.remove(ResponseKeys.PARAM_TENDER);
+        ResponsePairs.remove(ResponseKeys.PARAM_PAYMENTSLEFT);
+        ResponsePairs.remove(ResponseKeys.PARAM_NEXTPAYMENT);
+        ResponsePairs.remove(ResponseKeys.PARAM_END);
+        ResponsePairs.remove(ResponseKeys.PARAM_AGGREGATEAMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_AGGREGATEOPTIONALAMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_AMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_ACCT);
+        ResponsePairs.remove(ResponseKeys.PARAM_EXPDATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_MAXFAILPAYMENTS);
+        ResponsePairs.remove(ResponseKeys.PARAM_NUMFAILPAYMENTS);
+        ResponsePairs.remove(ResponseKeys.PARAM_RETRYNUMDAYS);
+        ResponsePairs.remove(ResponseKeys.PARAM_COMPANYNAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_NAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_FIRSTNAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_MIDDLENAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_LASTNAME);
+        ResponsePairs.remove(ResponseKeys.STREET);
+        ResponsePairs.remove(ResponseKeys.CITY);
+        ResponsePairs.remove(ResponseKeys.STATE);
+        ResponsePairs.remove(ResponseKeys.ZIP);
+        ResponsePairs.remove(ResponseKeys.EMAIL);
+        ResponsePairs.remove(ResponseKeys.PARAM_COUNTRY);
+        ResponsePairs.remove(ResponseKeys.PARAM_PHONENUM);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOFIRSTNAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOMIDDLENAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOLASTNAME);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOSTREET);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOCITY);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOSTATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOZIP);
+        ResponsePairs.remove(ResponseKeys.PARAM_SHIPTOCOUNTRY);
+        ResponsePairs.remove(ResponseKeys.PARAM_P_RESULTn);
+        ResponsePairs.remove(ResponseKeys.PARAM_P_PNREFn);
+        ResponsePairs.remove(ResponseKeys.PARAM_P_TRANSTATEn);
+        ResponsePairs.remove(ResponseKeys.PARAM_P_TENDERn);
+        ResponsePairs.remove(ResponseKeys.PARAM_P_TRANSTIMEn);
+        ResponsePairs.remove(ResponseKeys.PARAM_P_AMOUNTn);
+        ResponsePairs.remove(ResponseKeys.PARAM_CREATIONDATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_LASTCHANGED);
+        ResponsePairs.remove(ResponseKeys.PARAM_RPSTATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_NEXTPAYMENTNUM);
+        ResponsePairs.remove(ResponseKeys.PARAM_FREQUENCY);
+        ResponsePairs.remove(ResponseKeys.PARAM_CURRENCY);
     }
 
 }
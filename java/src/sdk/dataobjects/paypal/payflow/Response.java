@@ -89,14 +89,16 @@ public final class Response extends BaseResponseDataObject {
     private ECDoResponse ecDoResponse;
     private TransactionResponse transactionResponse;
     private Context context;
-    private Hashtable responseHashTable;
+    private NameValueList responsePairs;
+    private String fullResponse;
     private ArrayList extDataList;
-    private String requestString;
+    private MaskedRequest request;
     private String responseString;
     private String requestId;
     private ECGetResponse ecGetResponse;
     private ExpressCheckoutResponse ecSetResponse;
     private ECUpdateResponse ecUpdateResponse;
+    private Boolean recurring;
 
     /**
      * Gets the container object for all the fraud filters
@@ -105,7 +107,10 @@ public final class Response extends BaseResponseDataObject {
      *
      * @return - FraudResponse
      */
-    public FraudResponse getFraudResponse() {
+    public synchronized FraudResponse getFraudResponse() {
+        if (fraudResponse == null && responsePairs != null) {
+            setFraudResultParams();
+        }
         return fraudResponse;
     }
 
@@ -116,7 +121,10 @@ public final class Response extends BaseResponseDataObject {
      *
      * @return - ECGetResponse
      */
-    public ECGetResponse getEcGetResponse() {
+    public synchronized ECGetResponse getEcGetResponse() {
+        if (ecGetResponse == null && responsePairs != null && !isRecurring()) {
+            setECGetResultParams();
+        }
         return ecGetResponse;
     }
 
@@ -127,7 +135,10 @@ public final class Response extends BaseResponseDataObject {
      *
      * @return - ExpressCheckoutResponse
      */
-    public ExpressCheckoutResponse getEcSetResponse() {
+    public synchronized ExpressCheckoutResponse getEcSetResponse() {
+        if (ecSetResponse == null && responsePairs != null && !isRecurring()) {
+            setECSetResultParams();
+        }
         return ecSetResponse;
     }
 
@@ -138,7 +149,10 @@ public final class Response extends BaseResponseDataObject {
      *
      * @return - ExpressCheckoutResponse
      */
-    public ECUpdateResponse getEcUpdateResponse() {
+    public synchronized ECUpdateResponse getEcUpdateResponse() {
+        if (ecUpdateResponse == null && responsePairs != null && !isRecurring()) {
+            setECUpdateResultParams();
+        }
         return ecUpdateResponse;
     }
 
@@ -149,7 +163,10 @@ public final class Response extends BaseResponseDataObject {
      *
      * @return - BuyerAuthResponse
      */
-    public BuyerAuthResponse getBuyerAuthResponse() {
+    public synchronized BuyerAuthResponse getBuyerAuthResponse() {
+        if (buyerAuthResponse == null && responsePairs != null) {
+            setBuyerAuthResultParams();
+        }
         return buyerAuthResponse;
     }
 
@@ -160,7 +177,9 @@ public final class Response extends BaseResponseDataObject {
      *
      * @return - RecurringResponse
      */
-    public RecurringResponse getRecurringResponse() {
+    public synchronized RecurringResponse getRecurringResponse() {
+        // the inquiry parameters are collected with the extended data.
+        completeResponseDataObjects();
         return recurringResponse;
     }
 
@@ -171,7 +190,10 @@ public final class Response extends BaseResponseDataObject {
      *
      * @return - ECDoResponse
      */
-    public ECDoResponse getEcDoResponse() {
+    public synchronized ECDoResponse getEcDoResponse() {
+        if (ecDoResponse == null && responsePairs != null && !isRecurring()) {
+            setECDoResultParms();
+        }
         return ecDoResponse;
     }
 
@@ -204,7 +226,8 @@ public final class Response extends BaseResponseDataObject {
      *
      * @return - ArrayList
      */
-    public ArrayList getExtDataList() {
+    public synchronized ArrayList getExtDataList() {
+        completeResponseDataObjects();
         return extDataList;
     }
 
@@ -214,7 +237,7 @@ public final class Response extends BaseResponseDataObject {
      * @return - String
      */
     public String getRequestString() {
-        return requestString;
+        return request == null ? null : request.getMasked();
     }
 
     /**
@@ -236,7 +259,16 @@ public final class Response extends BaseResponseDataObject {
     }
 
     protected void setRequestString(String RequestString) {
-        requestString = RequestString;
+        request = new MaskedRequest(RequestString, RequestString);
+    }
+
+    /**
+     * Sets the request, masked when getRequestString() is first called.
+     *
+     * @param value MaskedRequest
+     */
+    void setMaskedRequest(MaskedRequest value) {
+        request = value;
     }
 
     /**
@@ -261,90 +293,122 @@ public final class Response extends BaseResponseDataObject {
      * @param Response String
      */
     private void parseResponse(String Response) {
+        clearResponseDataObjects();
         Context respContext;
         respContext = new Context();
-        if (respContext.getHighestErrorLvl() == PayflowConstants.SEVERITY_FATAL) {
-
-            String Result = PayflowUtility.locateValueForName(Response, PayflowConstants.PARAM_RESULT, false);
-            String RespMsg = PayflowUtility.locateValueForName(Response, PayflowConstants.PARAM_RESPMSG, false);
-            if (responseHashTable == null) {
-                responseHashTable = new Hashtable();
-            }
-
-            responseHashTable.put(PayflowConstants.INTL_PARAM_FULLRESPONSE, responseString);
-            responseHashTable.put(PayflowConstants.PARAM_RESULT, Result);
-            responseHashTable.put(PayflowConstants.PARAM_RESPMSG, RespMsg);
-
-
-        } else {
-            responseHashTable = ParameterListValidator.parseNVPList(Response, respContext, true);
-            if (responseHashTable != null) {
-                responseHashTable.put(PayflowConstants.INTL_PARAM_FULLRESPONSE, Response);
-            }
-        }
-
+        responsePairs = ParameterListValidator.parse(Response, respContext);
+        fullResponse = Response;
     }
 
     private void setResultParams() {
         transactionResponse = new TransactionResponse();
-        transactionResponse.setParams(responseHashTable);
+        transactionResponse.setParams(responsePairs);
     }
 
 
     private void setBuyerAuthResultParams() {
         buyerAuthResponse = new BuyerAuthResponse();
-        buyerAuthResponse.setParams(responseHashTable);
+        buyerAuthResponse.setParams(responsePairs);
     }
 
 
     private void setRecurringResultParams() {
         recurringResponse = new RecurringResponse();
-        recurringResponse.setParams(responseHashTable);
+        recurringResponse.setParams(responsePairs);
     }
 
     private void setFraudResultParams() {
         fraudResponse = new FraudResponse();
         fraudResponse.setContext(context);
-        fraudResponse.setParams(responseHashTable);
+        fraudResponse.setParams(responsePairs);
     }
 
     private void setECGetResultParams() {
         ecGetResponse = new ECGetResponse();
-        ecGetResponse.setParams(responseHashTable);
+        ecGetResponse.setParams(responsePairs);
     }
 
     private void setECDoResultParms() {
         ecDoResponse = new ECDoResponse();
-        ecDoResponse.setParams(responseHashTable);
+        ecDoResponse.setParams(responsePairs);
     }
 
     private void setECUpdateResultParams() {
         ecUpdateResponse = new ECUpdateResponse();
-        ecUpdateResponse.setParams(responseHashTable);
+        ecUpdateResponse.setParams(responsePairs);
     }
 
     private void setECSetResultParams() {
         ecSetResponse = new ExpressCheckoutResponse();
-        ecSetResponse.setParams(responseHashTable);
+        ecSetResponse.setParams(responsePairs);
     }
 
     private void setResponseDataObjects() {
+        // the other data objects are built when they are first read.
         this.setResultParams();
-        this.setFraudResultParams();
-        this.setBuyerAuthResultParams();
-        String TrxType = PayflowUtility.locateValueForName(requestString,
-                PayflowConstants.PARAM_TRXTYPE, false);
+    }
 
-        if (PayflowConstants.TRXTYPE_RECURRING.equals(TrxType)) {
+    /**
+     * Builds the data objects not read yet and the extended data from the
+     * parameters none of them took.
+     */
+    private synchronized void completeResponseDataObjects() {
+        if (responsePairs == null) {
+            return;
+        }
+        if (fraudResponse == null) {
+            this.setFraudResultParams();
+        }
+        if (buyerAuthResponse == null) {
+            this.setBuyerAuthResultParams();
+        }
+        if (isRecurring()) {
             this.setRecurringResultParams();
         } else {
-            this.setECDoResultParms();
-            this.setECGetResultParams();
-            this.setECSetResultParams();
-            this.setECUpdateResultParams();
+            if (ecDoResponse == null) {
+                this.setECDoResultParms();
+            }
+            if (ecGetResponse == null) {
+                this.setECGetResultParams();
+            }
+            if (ecSetResponse == null) {
+                this.setECSetResultParams();
+            }
+            if (ecUpdateResponse == null) {
+                this.setECUpdateResultParams();
+            }
         }
         this.setExtDataList();
-        responseHashTable = null;
+        responsePairs = null;
+        fullResponse = null;
+    }
+
+    /**
+     * Drops the data objects of an earlier parse.
+     */
+    private synchronized void clearResponseDataObjects() {
+        transactionResponse = null;
+        fraudResponse = null;
+        buyerAuthResponse = null;
+        recurringResponse = null;
+        ecDoResponse = null;
+        ecGetResponse = null;
+        ecSetResponse = null;
+        ecUpdateResponse = null;
+        extDataList = null;
+        recurring = null;
+    }
+
+    /**
+     * @return true if the request was a recurring transaction.
+     */
+    private boolean isRecurring() {
+        if (recurring == null) {
+            String TrxType = PayflowUtility.locateValueForName(request == null ? null : request.getRequest(),
+                    PayflowConstants.PARAM_TRXTYPE, false);
+            recurring = Boolean.valueOf(PayflowConstants.TRXTYPE_RECURRING.equals(TrxType));
+        }
+        return recurring.booleanValue();
     }
 
     /**
@@ -391,27 +455,40 @@ public final class Response extends BaseResponseDataObject {
     }
 
     /**
-     *
+     * Sets the extended data from the parameters none of the data objects took.
      */
     private void setExtDataList() {
         ExtendData ExtData;
         String Name;
         String Value;
-        if (responseHashTable == null || responseHashTable.size() == 0) {
+        if (responsePairs == null) {
+            extDataList = null;
+            return;
+        }
+        // the table is filled and emptied as it always was, so the extended data
+        // enumerates in the same order.
+        Hashtable respTable = responsePairs.toHashtable();
+        respTable.put(PayflowConstants.INTL_PARAM_FULLRESPONSE, fullResponse);
+        for (int Key = 0; Key < ResponseKeys.COUNT; Key++) {
+            if (responsePairs.isRemoved(Key)) {
+                respTable.remove(ResponseKeys.getName(Key));
+            }
+        }
+        if (respTable.size() == 0) {
             extDataList = null;
         } else {
             extDataList = new ArrayList();
 
-            Enumeration respKeys = responseHashTable.keys();
+            Enumeration respKeys = respTable.keys();
 
             while (respKeys.hasMoreElements()) {
                 Name = (String) respKeys.nextElement();
-                Value = (String) responseHashTable.get(Name);
+                Value = (String) respTable.get(Name);
                 int DuplicateKeyIndex = Name.indexOf(PayflowConstants.TAG_DUPLICATE);
                 if (DuplicateKeyIndex > 0) {
                     Name = Name.substring(0, DuplicateKeyIndex - 1);
                 }
-                if (Name.startsWith(PayflowConstants.PREFIX_RECURRING_INQUIRY_RESP)) {
+                if (recurringResponse != null && Name.startsWith(PayflowConstants.PREFIX_RECURRING_INQUIRY_RESP)) {
                     recurringResponse.getInquiryParams().put(Name, Value);
                 } else {
                     ExtData = new ExtendData(Name, Value);
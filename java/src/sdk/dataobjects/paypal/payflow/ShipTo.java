@@ -385,22 +385,22 @@ public final class ShipTo extends Address {
     }
 
     protected void generateRequest() {
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOSTREET, this.getShipToStreet()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOSTREET2, this.getShipToStreet2()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOCITY, this.getShipToCity()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOSTATE, this.getShipToState()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOCOUNTRY, this.getShipToCountry()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOZIP, this.getShipToZip()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOPHONE, this.getShipToPhone()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOPHONE2, this.getShipToPhone2()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOEMAIL, this.getShipToEmail()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOFIRSTNAME, this.getShipToFirstName()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOMIDDLENAME, this.getShipToMiddleName()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPTOLASTNAME, this.getShipToLastName()));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPCARRIER, shipCarrier));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPMETHOD, shipMethod));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPFROMZIP, shipFromZip));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SHIPPEDFROMZIP, shipFromZip));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOSTREET, this.getShipToStreet());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOSTREET2, this.getShipToStreet2());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOCITY, this.getShipToCity());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOSTATE, this.getShipToState());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOCOUNTRY, this.getShipToCountry());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOZIP, this.getShipToZip());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOPHONE, this.getShipToPhone());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOPHONE2, this.getShipToPhone2());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOEMAIL, this.getShipToEmail());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOFIRSTNAME, this.getShipToFirstName());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOMIDDLENAME, this.getShipToMiddleName());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPTOLASTNAME, this.getShipToLastName());
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPCARRIER, shipCarrier);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPMETHOD, shipMethod);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPFROMZIP, shipFromZip);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SHIPPEDFROMZIP, shipFromZip);
     }
 
 }
@@ -33,7 +33,7 @@ public final class SwipeCard extends PaymentDevice {
      */
     protected void generateRequest() {
         super.generateRequest();
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SWIPE, super.getAcct()));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_SWIPE, super.getAcct());
     }
 }
 
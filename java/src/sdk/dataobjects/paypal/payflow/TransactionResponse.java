@@ -1,7 +1,5 @@
 package paypal.payflow;
 
-import java.util.Hashtable;
-
 /**
  * Used for transaction response.
  *  * <p>
@@ -766,137 +764,137 @@ public final class TransactionResponse extends BaseResponseDataObject {
     protected TransactionResponse() {
     }
 
-    protected void setParams(Hashtable ResponseHashTable) {
-
-        result = Integer.parseInt((String) ResponseHashTable.get(PayflowConstants.PARAM_RESULT));
-        ppref = (String) ResponseHashTable.get(PayflowConstants.PARAM_PPREF);
-        pnref = (String) ResponseHashTable.get(PayflowConstants.PARAM_PNREF);
-        respMsg = (String) ResponseHashTable.get(PayflowConstants.PARAM_RESPMSG);
-        authCode = (String) ResponseHashTable.get(PayflowConstants.PARAM_AUTHCODE);
-        avsAddr = (String) ResponseHashTable.get(PayflowConstants.PARAM_AVSADDR);
-        avsZip = (String) ResponseHashTable.get(PayflowConstants.PARAM_AVSZIP);
-        cardSecure = (String) ResponseHashTable.get(PayflowConstants.PARAM_CARDSECURE);
-        cvv2Match = (String) ResponseHashTable.get(PayflowConstants.PARAM_CVV2MATCH);
-        iavs = (String) ResponseHashTable.get(PayflowConstants.PARAM_IAVS);
-        origResult = (String) ResponseHashTable.get(PayflowConstants.PARAM_ORIGRESULT);
-        transState = (String) ResponseHashTable.get(PayflowConstants.PARAM_TRANSSTATE);
-        custRef = (String) ResponseHashTable.get(PayflowConstants.PARAM_CUSTREF);
-        startTime = (String) ResponseHashTable.get(PayflowConstants.PARAM_STARTTIME);
-        endTime = (String) ResponseHashTable.get(PayflowConstants.PARAM_ENDTIME);
-        duplicate = (String) ResponseHashTable.get(PayflowConstants.PARAM_DUPLICATE);
-        dateToSettle = (String) ResponseHashTable.get(PayflowConstants.PARAM_DATE_TO_SETTLE);
-        batchId = (String) ResponseHashTable.get(PayflowConstants.PARAM_BATCHID);
-        addlMsgs = (String) ResponseHashTable.get(PayflowConstants.PARAM_ADDLMSGS);
-        respText = (String) ResponseHashTable.get(PayflowConstants.PARAM_RESPTEXT);
-        procAvs = (String) ResponseHashTable.get(PayflowConstants.PARAM_PROCAVS);
-        procCardSecure = (String) ResponseHashTable.get(PayflowConstants.PARAM_PROCCARDSECURE);
-        procCVV2 = (String) ResponseHashTable.get(PayflowConstants.PARAM_PROCCVV2);
-        hostCode = (String) ResponseHashTable.get(PayflowConstants.PARAM_HOSTCODE);
-        settleDate = (String) ResponseHashTable.get(PayflowConstants.PARAM_SETTLE_DATE);
-        origPnref = (String) ResponseHashTable.get(PayflowConstants.PARAM_ORIGPNREF);
-        feeAmt = (String) ResponseHashTable.get(PayflowConstants.PARAM_FEEAMT);
-        pendingReason = (String) ResponseHashTable.get(PayflowConstants.PARAM_PENDINGREASON);
-        paymentType = (String) ResponseHashTable.get(PayflowConstants.PARAM_PAYMENTTYPE);
-        correlationId = (String) ResponseHashTable.get(PayflowConstants.PARAM_CORRELATIONID);
-        status = (String) ResponseHashTable.get(PayflowConstants.PARAM_STATUS);
-        balAmt = (String) ResponseHashTable.get(PayflowConstants.PARAM_BALAMT);
-        amexId = (String) ResponseHashTable.get(PayflowConstants.PARAM_AMEXID);
-        amexPosData = (String) ResponseHashTable.get(PayflowConstants.PARAM_AMEXPOSDATA);
-        acct = (String) ResponseHashTable.get(PayflowConstants.PARAM_ACCT);
-        billToLastName = (String) ResponseHashTable.get(PayflowConstants.PARAM_LASTNAME);
-        billToFirstName = (String) ResponseHashTable.get(PayflowConstants.PARAM_FIRSTNAME);
-        amt = (String) ResponseHashTable.get(PayflowConstants.PARAM_AMT);
-        transTime = (String) ResponseHashTable.get(PayflowConstants.PARAM_TRANSTIME);
-        expDate = (String) ResponseHashTable.get(PayflowConstants.PARAM_EXPDATE);
-        cardType = (String) ResponseHashTable.get(PayflowConstants.PARAM_CARDTYPE);
-        origAmt = (String) ResponseHashTable.get(PayflowConstants.PARAM_ORIGAMT);
-        secureToken = (String) ResponseHashTable.get(PayflowConstants.PARAM_SECURETOKEN);
-        secureTokenId = (String) ResponseHashTable.get(PayflowConstants.PARAM_SECURETOKENID);
-        phoneMatch = (String) ResponseHashTable.get(PayflowConstants.PARAM_PHONEMATCH);
-        emailMatch = (String) ResponseHashTable.get(PayflowConstants.PARAM_EMAILMATCH);
-        extRspMsg = (String) ResponseHashTable.get(PayflowConstants.PARAM_EXTRSPMSG);
-        paymentAdviceCode = (String) ResponseHashTable.get(PayflowConstants.PARAM_PAYMENTADVICECODE);
-        associationResponseCode = (String) ResponseHashTable.get(PayflowConstants.PARAM_ASSOCIATIONRESPCODE);
-        transactionId = (String) ResponseHashTable.get(PayflowConstants.PARAM_TRANSACTIONID);
-        txId = (String) ResponseHashTable.get(PayflowConstants.PARAM_TXID);
-        magTResponse = (String) ResponseHashTable.get(PayflowConstants.MAGTEK_PARAM_MAGTRESPONSE);
-        traceId = (String) ResponseHashTable.get(PayflowConstants.PARAM_TRACEID);
-        achStatus = (String) ResponseHashTable.get(PayflowConstants.PARAM_ACHSTATUS);
-        type = (String) ResponseHashTable.get(PayflowConstants.PARAM_TYPE);
-        affluent= (String) ResponseHashTable.get(PayflowConstants.PARAM_AFFLUENT);
-        ccUpdated = (String) ResponseHashTable.get(PayflowConstants.PARAM_CCUPDATED);
-        rrn = (String) ResponseHashTable.get(PayflowConstants.PARAM_RRN);
-        stan = (String) ResponseHashTable.get(PayflowConstants.PARAM_STAN);
-        aci = (String) ResponseHashTable.get(PayflowConstants.PARAM_ACI);
-        validationCode = (String) ResponseHashTable.get(PayflowConstants.PARAM_VALIDATIONCODE);
-        ccTransId = (String) ResponseHashTable.get(PayflowConstants.PARAM_CCTRANSID);
-        ccTrans_PosData = (String) ResponseHashTable.get(PayflowConstants.PARAM_CCTRANS_POSDATA);
-        parId= (String) ResponseHashTable.get(PayflowConstants.PARAM_PARID);
+    void setParams(NameValueList ResponsePairs) {
+
+        result = Integer.parseInt(ResponsePairs.get(ResponseKeys.PARAM_RESULT));
+        ppref = ResponsePairs.get(ResponseKeys.PARAM_PPREF);
+        pnref = ResponsePairs.get(ResponseKeys.PARAM_PNREF);
+        respMsg = ResponsePairs.get(ResponseKeys.PARAM_RESPMSG);
+        authCode = ResponsePairs.get(ResponseKeys.PARAM_AUTHCODE);
+        avsAddr = ResponsePairs.get(ResponseKeys.PARAM_AVSADDR);
+        avsZip = ResponsePairs.get(ResponseKeys.PARAM_AVSZIP);
+        cardSecure = ResponsePairs.get(ResponseKeys.PARAM_CARDSECURE);
+        cvv2Match = ResponsePairs.get(ResponseKeys.PARAM_CVV2MATCH);
+        iavs = ResponsePairs.get(ResponseKeys.PARAM_IAVS);
+        origResult = ResponsePairs.get(ResponseKeys.PARAM_ORIGRESULT);
+        transState = ResponsePairs.get(ResponseKeys.PARAM_TRANSSTATE);
+        custRef = ResponsePairs.get(ResponseKeys.PARAM_CUSTREF);
+        startTime = ResponsePairs.get(ResponseKeys.PARAM_STARTTIME);
+        endTime = ResponsePairs.get(ResponseKeys.PARAM_ENDTIME);
+        duplicate = ResponsePairs.get(ResponseKeys.PARAM_DUPLICATE);
+        dateToSettle = ResponsePairs.get(ResponseKeys.PARAM_DATE_TO_SETTLE);
+        batchId = ResponsePairs.get(ResponseKeys.PARAM_BATCHID);
+        addlMsgs = ResponsePairs.get(ResponseKeys.PARAM_ADDLMSGS);
+        respText = ResponsePairs.get(ResponseKeys.PARAM_RESPTEXT);
+        procAvs = ResponsePairs.get(ResponseKeys.PARAM_PROCAVS);
+        procCardSecure = ResponsePairs.get(ResponseKeys.PARAM_PROCCARDSECURE);
+        procCVV2 = ResponsePairs.get(ResponseKeys.PARAM_PROCCVV2);
+        hostCode = ResponsePairs.get(ResponseKeys.PARAM_HOSTCODE);
+        settleDate = ResponsePairs.get(ResponseKeys.PARAM_SETTLE_DATE);
+        origPnref = ResponsePairs.get(ResponseKeys.PARAM_ORIGPNREF);
+        feeAmt = ResponsePairs.get(ResponseKeys.PARAM_FEEAMT);
+        pendingReason = ResponsePairs.get(ResponseKeys.PARAM_PENDINGREASON);
+        paymentType = ResponsePairs.get(ResponseKeys.PARAM_PAYMENTTYPE);
+        correlationId = ResponsePairs.get(ResponseKeys.PARAM_CORRELATIONID);
+        status = ResponsePairs.get(ResponseKeys.PARAM_STATUS);
+        balAmt = ResponsePairs.get(ResponseKeys.PARAM_BALAMT);
+        amexId = ResponsePairs.get(ResponseKeys.PARAM_AMEXID);
+        amexPosData = ResponsePairs.get(ResponseKeys.PARAM_AMEXPOSDATA);
+        acct = ResponsePairs.get(ResponseKeys.PARAM_ACCT);
+        billToLastName = ResponsePairs.get(ResponseKeys.PARAM_LASTNAME);
+        billToFirstName = ResponsePairs.get(ResponseKeys.PARAM_FIRSTNAME);
+        amt = ResponsePairs.get(ResponseKeys.PARAM_AMT);
+        transTime = ResponsePairs.get(ResponseKeys.PARAM_TRANSTIME);
+        expDate = ResponsePairs.get(ResponseKeys.PARAM_EXPDATE);
+        cardType = ResponsePairs.get(ResponseKeys.PARAM_CARDTYPE);
+        origAmt = ResponsePairs.get(ResponseKeys.PARAM_ORIGAMT);
+        secureToken = ResponsePairs.get(ResponseKeys.PARAM_SECURETOKEN);
+        secureTokenId = ResponsePairs.get(ResponseKeys.PARAM_SECURETOKENID);
+        phoneMatch = ResponsePairs.get(ResponseKeys.PARAM_PHONEMATCH);
+        emailMatch = ResponsePairs.get(ResponseKeys.PARAM_EMAILMATCH);
+        extRspMsg = ResponsePairs.get(ResponseKeys.PARAM_EXTRSPMSG);
+        paymentAdviceCode = ResponsePairs.get(ResponseKeys.PARAM_PAYMENTADVICECODE);
+        associationResponseCode = ResponsePairs.get(ResponseKeys.PARAM_ASSOCIATIONRESPCODE);
+        transactionId = ResponsePairs.get(ResponseKeys.PARAM_TRANSACTIONID);
+        txId = ResponsePairs.get(ResponseKeys.PARAM_TXID);
+        magTResponse = ResponsePairs.get(ResponseKeys.MAGTEK_PARAM_MAGTRESPONSE);
+        traceId = ResponsePairs.get(ResponseKeys.PARAM_TRACEID);
+        achStatus = ResponsePairs.get(ResponseKeys.PARAM_ACHSTATUS);
+        type = ResponsePairs.get(ResponseKeys.PARAM_TYPE);
+        affluent= ResponsePairs.get(ResponseKeys.PARAM_AFFLUENT);
+        ccUpdated = ResponsePairs.get(ResponseKeys.PARAM_CCUPDATED);
+        rrn = ResponsePairs.get(ResponseKeys.PARAM_RRN);
+        stan = ResponsePairs.get(ResponseKeys.PARAM_STAN);
+        aci = ResponsePairs.get(ResponseKeys.PARAM_ACI);
+        validationCode = ResponsePairs.get(ResponseKeys.PARAM_VALIDATIONCODE);
+        ccTransId = ResponsePairs.get(ResponseKeys.PARAM_CCTRANSID);
+        ccTrans_PosData = ResponsePairs.get(ResponseKeys.PARAM_CCTRANS_POSDATA);
+        parId= ResponsePairs.get(ResponseKeys.PARAM_PARID);
 
         // items commented out below are due to being used in RecurringResponse too.
-        ResponseHashTable.remove(PayflowConstants.PARAM_RESULT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PPREF);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PNREF);
-        ResponseHashTable.remove(PayflowConstants.PARAM_RESPMSG);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AUTHCODE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AVSADDR);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AVSZIP);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CARDSECURE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CVV2MATCH);
-        ResponseHashTable.remove(PayflowConstants.PARAM_IAVS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ORIGRESULT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TRANSSTATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CUSTREF);
-        ResponseHashTable.remove(PayflowConstants.PARAM_STARTTIME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ENDTIME);
-        ResponseHashTable.remove(PayflowConstants.PARAM_DUPLICATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_DATE_TO_SETTLE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_BATCHID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ADDLMSGS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_RESPTEXT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PROCAVS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PROCCARDSECURE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PROCCVV2);
-        ResponseHashTable.remove(PayflowConstants.PARAM_HOSTCODE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ORIGPNREF);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SETTLE_DATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_FEEAMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PENDINGREASON);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PAYMENTTYPE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CORRELATIONID);
-        //ResponseHashTable.remove(PayflowConstants.PARAM_STATUS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_BALAMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AMEXID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AMEXPOSDATA);
-        //ResponseHashTable.remove(PayflowConstants.PARAM_ACCT);
-        //ResponseHashTable.remove(PayflowConstants.PARAM_LASTNAME);
-        //ResponseHashTable.remove(PayflowConstants.PARAM_FIRSTNAME);
-        //ResponseHashTable.remove(PayflowConstants.PARAM_AMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TRANSTIME);
-        //ResponseHashTable.remove(PayflowConstants.PARAM_EXPDATE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CARDTYPE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ORIGAMT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SECURETOKEN);
-        ResponseHashTable.remove(PayflowConstants.PARAM_SECURETOKENID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PHONEMATCH);
-        ResponseHashTable.remove(PayflowConstants.PARAM_EMAILMATCH);
-        ResponseHashTable.remove(PayflowConstants.PARAM_EXTRSPMSG);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PAYMENTADVICECODE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ASSOCIATIONRESPCODE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TXID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TRANSACTIONID);
-        ResponseHashTable.remove(PayflowConstants.MAGTEK_PARAM_MAGTRESPONSE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TRACEID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ACHSTATUS);
-        ResponseHashTable.remove(PayflowConstants.PARAM_AFFLUENT);
-        ResponseHashTable.remove(PayflowConstants.PARAM_TYPE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_RRN);
-        ResponseHashTable.remove(PayflowConstants.PARAM_STAN);
-        ResponseHashTable.remove(PayflowConstants.PARAM_ACI);
-        ResponseHashTable.remove(PayflowConstants.PARAM_VALIDATIONCODE);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CCTRANSID);
-        ResponseHashTable.remove(PayflowConstants.PARAM_CCTRANS_POSDATA);
-        ResponseHashTable.remove(PayflowConstants.PARAM_PARID);
+        ResponsePairs.remove(ResponseKeys.PARAM_RESULT);
+        ResponsePairs.remove(ResponseKeys.PARAM_PPREF);
+        ResponsePairs.remove(ResponseKeys.PARAM_PNREF);
+        ResponsePairs.remove(ResponseKeys.PARAM_RESPMSG);
+        ResponsePairs.remove(ResponseKeys.PARAM_AUTHCODE);
+        ResponsePairs.remove(ResponseKeys.PARAM_AVSADDR);
+        ResponsePairs.remove(ResponseKeys.PARAM_AVSZIP);
+        ResponsePairs.remove(ResponseKeys.PARAM_CARDSECURE);
+        ResponsePairs.remove(ResponseKeys.PARAM_CVV2MATCH);
+        ResponsePairs.remove(ResponseKeys.PARAM_IAVS);
+        ResponsePairs.remove(ResponseKeys.PARAM_ORIGRESULT);
+        ResponsePairs.remove(ResponseKeys.PARAM_TRANSSTATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_CUSTREF);
+        ResponsePairs.remove(ResponseKeys.PARAM_STARTTIME);
+        ResponsePairs.remove(ResponseKeys.PARAM_ENDTIME);
+        ResponsePairs.remove(ResponseKeys.PARAM_DUPLICATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_DATE_TO_SETTLE);
+        ResponsePairs.remove(ResponseKeys.PARAM_BATCHID);
+        ResponsePairs.remove(ResponseKeys.PARAM_ADDLMSGS);
+        ResponsePairs.remove(ResponseKeys.PARAM_RESPTEXT);
+        ResponsePairs.remove(ResponseKeys.PARAM_PROCAVS);
+        ResponsePairs.remove(ResponseKeys.PARAM_PROCCARDSECURE);
+        ResponsePairs.remove(ResponseKeys.PARAM_PROCCVV2);
+        ResponsePairs.remove(ResponseKeys.PARAM_HOSTCODE);
+        ResponsePairs.remove(ResponseKeys.PARAM_ORIGPNREF);
+        ResponsePairs.remove(ResponseKeys.PARAM_SETTLE_DATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_FEEAMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_PENDINGREASON);
+        ResponsePairs.remove(ResponseKeys.PARAM_PAYMENTTYPE);
+        ResponsePairs.remove(ResponseKeys.PARAM_CORRELATIONID);
+        //ResponsePairs.remove(ResponseKeys.PARAM_STATUS);
+        ResponsePairs.remove(ResponseKeys.PARAM_BALAMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_AMEXID);
+        ResponsePairs.remove(ResponseKeys.PARAM_AMEXPOSDATA);
+        //ResponsePairs.remove(ResponseKeys.PARAM_ACCT);
+        //ResponsePairs.remove(ResponseKeys.PARAM_LASTNAME);
+        //ResponsePairs.remove(ResponseKeys.PARAM_FIRSTNAME);
+        //ResponsePairs.remove(ResponseKeys.PARAM_AMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_TRANSTIME);
+        //ResponsePairs.remove(ResponseKeys.PARAM_EXPDATE);
+        ResponsePairs.remove(ResponseKeys.PARAM_CARDTYPE);
+        ResponsePairs.remove(ResponseKeys.PARAM_ORIGAMT);
+        ResponsePairs.remove(ResponseKeys.PARAM_SECURETOKEN);
+        ResponsePairs.remove(ResponseKeys.PARAM_SECURETOKENID);
+        ResponsePairs.remove(ResponseKeys.PARAM_PHONEMATCH);
+        ResponsePairs.remove(ResponseKeys.PARAM_EMAILMATCH);
+        ResponsePairs.remove(ResponseKeys.PARAM_EXTRSPMSG);
+        ResponsePairs.remove(ResponseKeys.PARAM_PAYMENTADVICECODE);
+        ResponsePairs.remove(ResponseKeys.PARAM_ASSOCIATIONRESPCODE);
+        ResponsePairs.remove(ResponseKeys.PARAM_TXID);
+        ResponsePairs.remove(ResponseKeys.PARAM_TRANSACTIONID);
+        ResponsePairs.remove(ResponseKeys.MAGTEK_PARAM_MAGTRESPONSE);
+        ResponsePairs.remove(ResponseKeys.PARAM_TRACEID);
+        ResponsePairs.remove(ResponseKeys.PARAM_ACHSTATUS);
+        ResponsePairs.remove(ResponseKeys.PARAM_AFFLUENT);
+        ResponsePairs.remove(ResponseKeys.PARAM_TYPE);
+        ResponsePairs.remove(ResponseKeys.PARAM_RRN);
+        ResponsePairs.remove(ResponseKeys.PARAM_STAN);
+        ResponsePairs.remove(ResponseKeys.PARAM_ACI);
+        ResponsePairs.remove(ResponseKeys.PARAM_VALIDATIONCODE);
+        ResponsePairs.remove(ResponseKeys.PARAM_CCTRANSID);
+        ResponsePairs.remove(ResponseKeys.PARAM_CCTRANS_POSDATA);
+        ResponsePairs.remove(ResponseKeys.PARAM_PARID);
 
 
 
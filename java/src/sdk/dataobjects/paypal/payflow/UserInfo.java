@@ -48,9 +48,9 @@ public final class UserInfo extends BaseRequestDataObject {
     }
 
     protected void generateRequest() {
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_USER, user));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_VENDOR, vendor));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PARTNER, partner));
-        super.getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PWD, pwd));
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_USER, user);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_VENDOR, vendor);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PARTNER, partner);
+        PayflowUtility.appendToRequest(super.getRequestBuffer(), PayflowConstants.PARAM_PWD, pwd);
     }
 }
@@ -463,10 +463,10 @@ public class AuthorizationTransaction extends BaseTransaction {
     protected void generateRequest() {
         try {
             super.generateRequest();
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORIGID, origId));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PARTIALAUTH, partialAuth));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CREATESECURETOKEN, createSecureToken));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SECURETOKENID, secureTokenId));
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_ORIGID, origId);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_PARTIALAUTH, partialAuth);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CREATESECURETOKEN, createSecureToken);
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_SECURETOKENID, secureTokenId);
         } catch (Exception ex) {
             ErrorObject error = PayflowUtility.populateCommError(PayflowConstants.E_UNKNOWN_STATE, ex, PayflowConstants.SEVERITY_FATAL, false, null);
             getContext().addError(error);
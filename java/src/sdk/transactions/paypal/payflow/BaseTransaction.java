@@ -1,6 +1,9 @@
 package paypal.payflow;
 
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 
 /**
@@ -82,6 +85,11 @@ public class BaseTransaction {
      */
     private String request;
 
+    /**
+     * Submitted request, masked when first read after the transaction completed.
+     */
+    private MaskedRequest maskedRequest;
+
     /**
      * Tender object for ACH, Credit Card, PINless Debit & eCheck
      */
@@ -130,6 +138,11 @@ public class BaseTransaction {
      */
     private StringBuffer requestBuffer;
 
+    /**
+     * Initial capacity of the request buffer; most requests fit without growing it.
+     */
+    private static final int REQUEST_BUFFER_SIZE = 1024;
+
     /**
      * Client Header Information
      */
@@ -204,6 +217,9 @@ public class BaseTransaction {
      * USER=user&amp;VENDOR=vendor&amp;PARTNER=partner&amp;PWD=password
      */
     public String getRequest() {
+        if (maskedRequest != null) {
+            return maskedRequest.getMasked();
+        }
         return request;
     }
 
@@ -416,7 +432,7 @@ public class BaseTransaction {
         }
         if (payflowConnectionData != null) {
             if (payflowConnectionData.getContext() != null && payflowConnectionData.getContext().isErrorContained()) {
-                context.addErrors(payflowConnectionData.getContext().getErrors());
+                context.addErrors(payflowConnectionData.getContext().getErrorsReadOnly());
             }
         }
     }
@@ -556,11 +572,98 @@ public class BaseTransaction {
      */
     public Response submitTransaction() {
 
-        PayflowAPI objPayflowApi = null;
         String responseValue = null;
-        boolean fatal = false;
         //Logger.getInstance().log("########### BEGIN TRANSACTION ###########", PayflowConstants.SEVERITY_INFO);
         Logger.getInstance().log("paypal.payflow.BaseTransaction.SubmitTransaction(): Entered", PayflowConstants.SEVERITY_DEBUG);
+        PayflowAPI objPayflowApi = prepareTransaction();
+        if (objPayflowApi != null) {
+            try {
+                responseValue = objPayflowApi.submitTransaction(request, requestId);
+            } catch (Exception ex) {
+                ErrorObject Error = PayflowUtility.populateCommError(PayflowConstants.E_UNKNOWN_STATE, ex, PayflowConstants.SEVERITY_FATAL, false, null);
+                context.addError(Error);
+            }
+        }
+        Logger.getInstance().log("paypal.payflow.BaseTransaction.SubmitTransaction(): Exiting", PayflowConstants.SEVERITY_DEBUG);
+        //Logger.getInstance().log("########### END TRANSACTION ###########", PayflowConstants.SEVERITY_INFO);
+        return completeTransaction(objPayflowApi, responseValue);
+    }
+
+    /**
+     * This method submits the transaction to the PayPal Payment Gateway without
+     * blocking the calling thread, on the SDK executor: virtual threads on a
+     * Java 21+ runtime, see SDKProperties.setVirtualThreadsEnabled(), a pool of
+     * platform threads otherwise.
+     *
+     * @return response CompletableFuture
+     */
+    public CompletableFuture<Response> submitTransactionAsync() {
+        return submitTransactionAsync(TransactionExecutor.get());
+    }
+
+    /**
+     * This method submits the transaction to the PayPal Payment Gateway without
+     * blocking the calling thread. The transaction runs as tasks on the given
+     * executor and the returned future completes with the same Response
+     * submitTransaction() would return. Cancelling the future aborts the
+     * exchange in progress.
+     * <p>
+     * Do not change or resubmit the transaction object until the future has completed.
+     *
+     * @param executor Executor
+     * @return response CompletableFuture
+     */
+    public CompletableFuture<Response> submitTransactionAsync(final Executor executor) {
+        Logger.getInstance().log("paypal.payflow.BaseTransaction.submitTransactionAsync(Executor): Entered", PayflowConstants.SEVERITY_DEBUG);
+        final CompletableFuture<Response> result = new CompletableFuture<Response>();
+        try {
+            executor.execute(() -> {
+                try {
+                    final PayflowAPI objPayflowApi = prepareTransaction();
+                    if (objPayflowApi == null) {
+                        result.complete(completeTransaction(null, null));
+                        return;
+                    }
+                    final CompletableFuture<String> pending = objPayflowApi.submitTransactionAsync(request, requestId, executor);
+                    result.whenComplete((resp, ex) -> {
+                        if (result.isCancelled()) {
+                            pending.cancel(true);
+                        }
+                    });
+                    pending.whenComplete((responseValue, ex) -> {
+                        if (result.isDone()) {
+                            return;
+                        }
+                        try {
+                            if (ex != null) {
+                                Exception cause = ex instanceof Exception ? (Exception) ex : new Exception(ex);
+                                ErrorObject Error = PayflowUtility.populateCommError(PayflowConstants.E_UNKNOWN_STATE, cause, PayflowConstants.SEVERITY_FATAL, false, null);
+                                context.addError(Error);
+                            }
+                            result.complete(completeTransaction(objPayflowApi, responseValue));
+                        } catch (RuntimeException e) {
+                            // what submitTransaction() would throw to its caller.
+                            result.completeExceptionally(e);
+                        }
+                    });
+                } catch (RuntimeException ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+        Logger.getInstance().log("paypal.payflow.BaseTransaction.submitTransactionAsync(Executor): Exiting", PayflowConstants.SEVERITY_DEBUG);
+        return result;
+    }
+
+    /**
+     * Generates the request and creates the PayflowAPI it is submitted with.
+     *
+     * @return PayflowAPI, null if the request could not be generated.
+     */
+    private PayflowAPI prepareTransaction() {
+        PayflowAPI objPayflowApi = null;
         try {
             if (clientInfo == null) {
                 clientInfo = new ClientInfo();
@@ -573,82 +676,84 @@ public class BaseTransaction {
             generateRequest();
             if (context.getHighestErrorLvl()
                     == PayflowConstants.SEVERITY_FATAL) {
-                Logger.getInstance().log("paypal.payflow.BaseTransaction.SubmitTransaction(): Exiting", PayflowConstants.SEVERITY_DEBUG);
-                fatal = true;
+                return null;
             }
-            if (!fatal) {
-                generateRequest();
-                request = requestBuffer.toString();
-                //Remove the trailing PayflowConstants.DELIMITER_NVP;
-                int parmListLen = request.length();
-                if (parmListLen > 0 && request.charAt(parmListLen - 1) == '&') {
-                    request = request.substring(0, parmListLen - 1);
-                }
-                //Call the api from here and submit transaction
-
-                if (payflowConnectionData != null) {
-                    objPayflowApi = new PayflowAPI(payflowConnectionData.getHostAddress(),
-                            payflowConnectionData.getHostPort(),
-                            payflowConnectionData.getTimeOut(),
-                            payflowConnectionData.getProxyAddress(),
-                            payflowConnectionData.getProxyPort(),
-                            payflowConnectionData.getProxyLogon(),
-                            payflowConnectionData.getProxyPassword());
-                } else {
-                    objPayflowApi = new PayflowAPI();
-                }
-
-                objPayflowApi.isStrongAssemblyTransaction = true;
-                objPayflowApi.setClientInfo(clientInfo);
-                responseValue = objPayflowApi.submitTransaction(request, requestId);
-
-                Logger.getInstance().log("paypal.payflow.BaseTransaction.SubmitTransaction(): Exiting", PayflowConstants.SEVERITY_DEBUG);
+            request = requestBuffer.toString();
+            maskedRequest = null;
+            //Remove the trailing PayflowConstants.DELIMITER_NVP;
+            int parmListLen = request.length();
+            if (parmListLen > 0 && request.charAt(parmListLen - 1) == '&') {
+                request = request.substring(0, parmListLen - 1);
             }
+            //Call the api from here and submit transaction
+
+            if (payflowConnectionData != null) {
+                objPayflowApi = new PayflowAPI(payflowConnectionData.getHostAddress(),
+                        payflowConnectionData.getHostPort(),
+                        payflowConnectionData.getTimeOut(),
+                        payflowConnectionData.getProxyAddress(),
+                        payflowConnectionData.getProxyPort(),
+                        payflowConnectionData.getProxyLogon(),
+                        payflowConnectionData.getProxyPassword());
+            } else {
+                objPayflowApi = new PayflowAPI();
+            }
+
+            objPayflowApi.isStrongAssemblyTransaction = true;
+            objPayflowApi.setClientInfo(clientInfo);
         }
         catch (Exception ex) {
             ErrorObject Error = PayflowUtility.populateCommError(PayflowConstants.E_UNKNOWN_STATE, ex, PayflowConstants.SEVERITY_FATAL, false, null);
             context.addError(Error);
         }
-        finally {
-            if (objPayflowApi != null) {
-                request = objPayflowApi.getTransactionRequest();
-                context.addErrors(objPayflowApi.getTransactionContext().getErrors());
-                requestId = objPayflowApi.getRequestId();
-                clientInfo = objPayflowApi.getClientInfo();
-            } else {
-                //There is some error due to which the return
-                //is called even before payflownetapi object is
-                //created.
-                //Check the first fatal error in context and
-                //put its response value to string.
-                if (request != null && request.length() > 0) {
-                    request = PayflowUtility.maskSensitiveFields(request);
-                }
-                ArrayList errorList = context.getErrors(PayflowConstants.SEVERITY_FATAL);
-                ErrorObject firstFatalError = (ErrorObject) errorList.get(0);
-                responseValue = firstFatalError.toString();
+        return objPayflowApi;
+    }
+
+    /**
+     * Builds the Response from the PayflowAPI result.
+     *
+     * @param objPayflowApi PayflowAPI, null if the transaction was not submitted.
+     * @param responseValue String
+     * @return Response
+     */
+    private Response completeTransaction(PayflowAPI objPayflowApi, String responseValue) {
+        if (objPayflowApi != null) {
+            maskedRequest = objPayflowApi.getMaskedRequest();
+            if (objPayflowApi.getTransactionContext().isErrorContained()) {
+                context.addErrors(objPayflowApi.getTransactionContext().getErrorsReadOnly());
             }
+            requestId = objPayflowApi.getRequestId();
+            clientInfo = objPayflowApi.getClientInfo();
+        } else {
+            //There is some error due to which the return
+            //is called even before payflownetapi object is
+            //created.
+            //Check the first fatal error in context and
+            //put its response value to string.
+            maskedRequest = new MaskedRequest(request);
+            ArrayList errorList = context.getErrors(PayflowConstants.SEVERITY_FATAL);
+            ErrorObject firstFatalError = (ErrorObject) errorList.get(0);
+            responseValue = firstFatalError.toString();
+        }
 
-            response = new Response(requestId, context);
+        response = new Response(requestId, context);
 
-            //If the response string is populated from the
-            //context and if response id is not obtained, then
-            //response string ends with RESPONSE_ID=.
-            //We don't require this. so if we find response
-            //ending with RESPONSE_ID= we will remove the same.
-            if (responseValue != null && responseValue.endsWith("&RESPONSE_ID=")) {
-                responseValue = responseValue.substring(0, responseValue.length() - 13);
-            }
+        //If the response string is populated from the
+        //context and if response id is not obtained, then
+        //response string ends with RESPONSE_ID=.
+        //We don't require this. so if we find response
+        //ending with RESPONSE_ID= we will remove the same.
+        if (responseValue != null && responseValue.endsWith("&RESPONSE_ID=")) {
+            responseValue = responseValue.substring(0, responseValue.length() - 13);
+        }
 
-            response.setRequestString(request);
-            response.setParams(responseValue);
+        response.setMaskedRequest(maskedRequest);
+        response.setParams(responseValue);
 
-            //Log the context
-            if (context.isErrorContained()) {
-                context.logErrors();
-            }
+        //Log the context
+        if (context.isErrorContained()) {
+            context.logErrors();
         }
-        //Logger.getInstance().log("########### END TRANSACTION ###########", PayflowConstants.SEVERITY_INFO);
         return response;
     }
 
@@ -658,9 +763,9 @@ public class BaseTransaction {
     protected void generateRequest() {
 
         Logger.getInstance().log("paypal.payflow.BaseTransaction.generateRequest(): Entered", PayflowConstants.SEVERITY_DEBUG);
-        requestBuffer = new StringBuffer();
-        requestBuffer.append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_TRXTYPE, trxType));
-        requestBuffer.append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_VERBOSITY, verbosity));
+        requestBuffer = new StringBuffer(REQUEST_BUFFER_SIZE);
+        PayflowUtility.appendToRequest(requestBuffer, PayflowConstants.PARAM_TRXTYPE, trxType);
+        PayflowUtility.appendToRequest(requestBuffer, PayflowConstants.PARAM_VERBOSITY, verbosity);
 
         if (extData != null && extData.size() > 0) {
             ExtendData objExtendData;
@@ -100,6 +100,6 @@ public final class BuyerAuthVATransaction extends BuyerAuthTransaction {
      */
     protected void generateRequest() {
         super.generateRequest();
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PARES, mPaRes));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_PARES, mPaRes);
     }
 }
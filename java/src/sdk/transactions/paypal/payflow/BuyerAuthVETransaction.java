@@ -150,10 +150,10 @@ public final class BuyerAuthVETransaction extends BuyerAuthTransaction {
         }
 
         if (currency != null) {
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CURRENCY, currency.getCurrencyCode()));
-            getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_AMT, currency));
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CURRENCY, currency.getCurrencyCode());
+            PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_AMT, currency);
         }
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_PUR_DESC, purDesc));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_PUR_DESC, purDesc);
 
     }
 
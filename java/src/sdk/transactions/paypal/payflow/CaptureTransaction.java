@@ -350,7 +350,7 @@ public final class CaptureTransaction extends ReferenceTransaction {
 
     protected void generateRequest() {
         super.generateRequest();
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CAPTURECOMPLETE, captureComplete));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CAPTURECOMPLETE, captureComplete);
 
     }
 
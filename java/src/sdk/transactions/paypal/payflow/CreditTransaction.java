@@ -505,8 +505,8 @@ public final class CreditTransaction extends BaseTransaction {
      */
     protected void generateRequest() {
         super.generateRequest();
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORIGID, origId));
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORIGPPREF, origPPRef));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_ORIGID, origId);
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_ORIGPPREF, origPPRef);
     }
 
 }
@@ -112,8 +112,8 @@ public final class FraudReviewTransaction extends ReferenceTransaction {
     protected void generateRequest() {
         super.generateRequest();
         //Add UPDATEACTION
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_UPDATEACTION,
-                updateAction));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_UPDATEACTION,
+                updateAction);
     }
 
 }
@@ -301,7 +301,7 @@ public class RecurringTransaction extends BaseTransaction {
 
     protected void generateRequest() {
         super.generateRequest();
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ACTION, action));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_ACTION, action);
         if (recurringInfo != null) {
             recurringInfo.setRequestBuffer(getRequestBuffer());
             recurringInfo.generateRequest();
@@ -177,8 +177,8 @@ public class ReferenceTransaction extends BaseTransaction {
 
     protected void generateRequest() {
         super.generateRequest();
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORIGID, origId));
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORIGPPREF, origPPRef));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_ORIGID, origId);
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_ORIGPPREF, origPPRef);
     }
 
 }
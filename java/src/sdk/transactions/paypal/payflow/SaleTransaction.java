@@ -225,9 +225,9 @@ public final class SaleTransaction extends BaseTransaction {
 
     protected void generateRequest() {
         super.generateRequest();
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_ORIGID, origId));
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_CREATESECURETOKEN, createSecureToken));
-        getRequestBuffer().append(PayflowUtility.appendToRequest(PayflowConstants.PARAM_SECURETOKENID, secureTokenId));
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_ORIGID, origId);
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_CREATESECURETOKEN, createSecureToken);
+        PayflowUtility.appendToRequest(getRequestBuffer(), PayflowConstants.PARAM_SECURETOKENID, secureTokenId);
     }
 
 }